@@ -250,6 +250,7 @@ public class AtomixCluster<T extends AtomixCluster<T>> implements Managed<T> {
     return NettyMessagingService.builder()
         .withName(config.getName())
         .withAddress(config.getLocalMember().getAddress())
+        .withConfig(config.getMessagingConfig())
         .build();
   }
 
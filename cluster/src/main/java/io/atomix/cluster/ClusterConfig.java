@@ -15,6 +15,7 @@
  */
 package io.atomix.cluster;
 
+import io.atomix.messaging.MessagingConfig;
 import io.atomix.utils.config.Config;
 import io.atomix.utils.net.Address;
 import io.atomix.utils.net.MalformedAddressException;
@@ -36,6 +37,7 @@ public class ClusterConfig implements Config {
   private boolean multicastEnabled = false;
   private Address multicastAddress;
   private GroupMembershipConfig membershipConfig = new GroupMembershipConfig();
+  private MessagingConfig messagingConfig = new MessagingConfig();
 
   public ClusterConfig() {
     try {
@@ -176,4 +178,24 @@ public class ClusterConfig implements Config {
     this.membershipConfig = membershipConfig;
     return this;
   }
+
+  /**
+   * Returns the messaging configuration.
+   *
+   * @return the messaging configuration
+   */
+  public MessagingConfig getMessagingConfig() {
+    return messagingConfig;
+  }
+
+  /**
+   * Sets the messaging configuration.
+   *
+   * @param messagingConfig the messaging configuration
+   * @return the cluster configuration
+   */
+  public ClusterConfig setMessagingConfig(MessagingConfig messagingConfig) {
+    this.messagingConfig = messagingConfig;
+    return this;
+  }
 }
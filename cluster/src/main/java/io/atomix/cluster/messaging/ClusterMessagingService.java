@@ -17,6 +17,7 @@ package io.atomix.cluster.messaging;
 
 import io.atomix.cluster.MemberId;
 import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Serializer;
 
 import java.time.Duration;
 import java.util.Set;
@@ -100,6 +101,22 @@ public interface ClusterMessagingService {
    */
   <M> CompletableFuture<Void> unicast(String subject, M message, Function<M, byte[]> encoder, MemberId toMemberId);
 
+  /**
+   * Sends a message to the specified controller node.
+   * <p>
+   * The message is serialized directly to the outbound buffer rather than to an intermediate byte array.
+   *
+   * @param subject    message subject
+   * @param message    message to send
+   * @param serializer serializer with which to encode the message
+   * @param toMemberId destination node identifier
+   * @param <M>        message type
+   * @return future that is completed when the message is sent
+   */
+  default <M> CompletableFuture<Void> unicast(String subject, M message, Serializer serializer, MemberId toMemberId) {
+    return unicast(subject, message, serializer::encode, toMemberId);
+  }
+
   /**
    * Multicasts a message to a set of controller nodes.
    *
@@ -201,6 +218,49 @@ public interface ClusterMessagingService {
       MemberId toMemberId,
       Duration timeout);
 
+  /**
+   * Sends a message and expects a reply.
+   *
+   * @param subject    message subject
+   * @param message    message to send
+   * @param serializer serializer with which to encode the request and decode the reply
+   * @param toMemberId recipient node identifier
+   * @param <M>        request type
+   * @param <R>        reply type
+   * @return reply future
+   */
+  default <M, R> CompletableFuture<R> send(
+      String subject,
+      M message,
+      Serializer serializer,
+      MemberId toMemberId) {
+    return send(subject, message, serializer, toMemberId, null);
+  }
+
+  /**
+   * Sends a message and expects a reply.
+   * <p>
+   * The request is serialized directly to the outbound buffer and the reply is decoded directly from the inbound
+   * buffer rather than from intermediate byte arrays.
+   *
+   * @param subject    message subject
+   * @param message    message to send
+   * @param serializer serializer with which to encode the request and decode the reply
+   * @param toMemberId recipient node identifier
+   * @param timeout    response timeout
+   * @param <M>        request type
+   * @param <R>        reply type
+   * @return reply future
+   */
+  default <M, R> CompletableFuture<R> send(
+      String subject,
+      M message,
+      Serializer serializer,
+      MemberId toMemberId,
+      Duration timeout) {
+    return send(subject, message, serializer::encode, serializer::decode, toMemberId, timeout);
+  }
+
   /**
    * Adds a new subscriber for the specified message subject.
    *
@@ -269,6 +329,26 @@ public interface ClusterMessagingService {
       Function<M, CompletableFuture<R>> handler,
       Function<R, byte[]> encoder);
 
+  /**
+   * Adds a new subscriber for the specified message subject.
+   * <p>
+   * The incoming message is decoded directly from the inbound buffer on the messaging thread, and the reply is
+   * serialized directly to the outbound buffer.
+   *
+   * @param subject    message subject
+   * @param serializer serializer with which to decode the incoming message and encode the reply
+   * @param handler    handler function that processes the incoming message and produces a reply
+   * @param <M>        incoming message type
+   * @param <R>        reply message type
+   * @return future to be completed once the subscription has been propagated
+   */
+  default <M, R> CompletableFuture<Void> subscribe(
+      String subject,
+      Serializer serializer,
+      Function<M, CompletableFuture<R>> handler) {
+    return subscribe(subject, serializer::decode, handler, serializer::encode);
+  }
+
   /**
    * Adds a new subscriber for the specified message subject.
    *
@@ -16,14 +16,17 @@
 package io.atomix.cluster.messaging.impl;
 
 import com.google.common.base.Objects;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.atomix.cluster.ClusterMembershipService;
 import io.atomix.cluster.Member;
 import io.atomix.cluster.MemberId;
 import io.atomix.cluster.messaging.ClusterMessagingService;
 import io.atomix.cluster.messaging.ManagedClusterMessagingService;
 import io.atomix.messaging.MessagingService;
+import io.atomix.messaging.PayloadWriter;
 import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -98,6 +101,19 @@ public class DefaultClusterMessagingService implements ManagedClusterMessagingSe
     }
   }
 
+  @Override
+  public <M> CompletableFuture<Void> unicast(
+      String subject,
+      M message,
+      Serializer serializer,
+      MemberId toMemberId) {
+    Member member = membershipService.getMember(toMemberId);
+    if (member == null) {
+      return Futures.exceptionalFuture(CONNECT_EXCEPTION);
+    }
+    return messagingService.sendAsync(member.address(), subject, output -> serializer.encode(message, output));
+  }
+
   @Override
   public <M> void multicast(
       String subject,
@@ -123,6 +139,26 @@ public class DefaultClusterMessagingService implements ManagedClusterMessagingSe
     }
   }
 
+  @Override
+  public <M, R> CompletableFuture<R> send(
+      String subject,
+      M message,
+      Serializer serializer,
+      MemberId toMemberId,
+      Duration timeout) {
+    Member member = membershipService.getMember(toMemberId);
+    if (member == null) {
+      return Futures.exceptionalFuture(CONNECT_EXCEPTION);
+    }
+    return messagingService.sendAndReceive(
+        member.address(),
+        subject,
+        output -> serializer.encode(message, output),
+        serializer::decode,
+        timeout,
+        MoreExecutors.directExecutor());
+  }
+
   private CompletableFuture<Void> doUnicast(String subject, byte[] payload, MemberId toMemberId) {
     Member member = membershipService.getMember(toMemberId);
     if (member == null) {
@@ -174,6 +210,15 @@ public class DefaultClusterMessagingService implements ManagedClusterMessagingSe
     return CompletableFuture.completedFuture(null);
   }
 
+  @Override
+  public <M, R> CompletableFuture<Void> subscribe(String subject,
+                                                  Serializer serializer,
+                                                  Function<M, CompletableFuture<R>> handler) {
+    messagingService.<M>registerHandler(subject, serializer::decode, (address, message) ->
+        handler.apply(message).<PayloadWriter>thenApply(response -> output -> serializer.encode(response, output)));
+    return CompletableFuture.completedFuture(null);
+  }
+
   @Override
   public <M> CompletableFuture<Void> subscribe(String subject,
                                                Function<byte[], M> decoder,
@@ -124,7 +124,7 @@ public class CorePrimitiveRegistry implements ManagedPrimitiveRegistry {
         partitionService);
     return proxy.connect()
         .thenApply(v -> {
-          ConsistentMapProxy mapProxy = new ConsistentMapProxy(proxy, this);
+          ConsistentMapProxy<String> mapProxy = new ConsistentMapProxy<>(proxy, this);
           primitives = new TranscodingAsyncConsistentMap<>(
               mapProxy,
               key -> key,
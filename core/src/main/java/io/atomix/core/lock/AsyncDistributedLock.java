@@ -26,6 +26,15 @@ import java.util.concurrent.CompletableFuture;
 
 /**
  * Asynchronous lock primitive.
+ * <p>
+ * The {@link Version} with which a lock is acquired is a fencing token: the index of the log entry at which the lock
+ * was granted. Tokens observed by successive holders of a lock never decrease, so resources protected by the lock can
+ * reject requests carrying a token older than the latest they've seen.
+ * <p>
+ * A single lock primitive can manage any number of independent {@link #stripe(String) named locks}, which are
+ * sharded across the primitive's partitions by name. Each lock can be acquired exclusively through its
+ * {@link #writeLock() write lock} or in shared mode through its {@link #readLock() read lock}. Waiters are granted
+ * a lock in the order in which they requested it.
  */
 public interface AsyncDistributedLock extends AsyncPrimitive {
 
@@ -63,6 +72,37 @@ public interface AsyncDistributedLock extends AsyncPrimitive {
    */
   CompletableFuture<Void> unlock();
 
+  /**
+   * Returns the lock with the given name.
+   * <p>
+   * Named locks are independent of one another but share this primitive's sessions, so a single primitive can
+   * manage a large number of fine-grained locks. The lock with this primitive's name is this lock. Closing a named
+   * lock has no effect; the primitive must be closed to release its sessions.
+   *
+   * @param name the lock name
+   * @return the lock with the given name
+   */
+  AsyncDistributedLock stripe(String name);
+
+  /**
+   * Returns the read lock for this lock.
+   * <p>
+   * Any number of holders may hold the read lock at the same time as long as the write lock is not held. A read
+   * lock request is queued behind any earlier write lock request.
+   *
+   * @return the read lock for this lock
+   */
+  AsyncDistributedLock readLock();
+
+  /**
+   * Returns the write lock for this lock.
+   * <p>
+   * The write lock is exclusive and is the same lock acquired by this lock's own {@link #lock()} methods.
+   *
+   * @return the write lock for this lock
+   */
+  AsyncDistributedLock writeLock();
+
   @Override
   default DistributedLock sync() {
     return sync(Duration.ofMillis(DistributedPrimitive.DEFAULT_OPERATION_TIMEOUT_MILLIS));
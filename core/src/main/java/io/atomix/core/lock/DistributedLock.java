@@ -23,7 +23,9 @@ import java.time.Duration;
 import java.util.Optional;
 
 /**
- * Asynchronous lock primitive.
+ * Lock primitive.
+ *
+ * @see AsyncDistributedLock
  */
 public interface DistributedLock extends SyncPrimitive {
 
@@ -59,6 +61,31 @@ public interface DistributedLock extends SyncPrimitive {
    */
   void unlock();
 
+  /**
+   * Returns the lock with the given name.
+   *
+   * @param name the lock name
+   * @return the lock with the given name
+   * @see AsyncDistributedLock#stripe(String)
+   */
+  DistributedLock stripe(String name);
+
+  /**
+   * Returns the read lock for this lock.
+   *
+   * @return the read lock for this lock
+   * @see AsyncDistributedLock#readLock()
+   */
+  DistributedLock readLock();
+
+  /**
+   * Returns the write lock for this lock.
+   *
+   * @return the write lock for this lock
+   * @see AsyncDistributedLock#writeLock()
+   */
+  DistributedLock writeLock();
+
   @Override
   AsyncDistributedLock async();
 
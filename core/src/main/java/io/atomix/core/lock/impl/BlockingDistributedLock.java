@@ -62,6 +62,21 @@ public class BlockingDistributedLock extends Synchronous<AsyncDistributedLock> i
     complete(asyncLock.unlock());
   }
 
+  @Override
+  public DistributedLock stripe(String name) {
+    return new BlockingDistributedLock(asyncLock.stripe(name), operationTimeoutMillis);
+  }
+
+  @Override
+  public DistributedLock readLock() {
+    return new BlockingDistributedLock(asyncLock.readLock(), operationTimeoutMillis);
+  }
+
+  @Override
+  public DistributedLock writeLock() {
+    return new BlockingDistributedLock(asyncLock.writeLock(), operationTimeoutMillis);
+  }
+
   @Override
   public AsyncDistributedLock async() {
     return asyncLock;
@@ -69,16 +69,29 @@ public enum DistributedLockOperations implements OperationId {
    * Lock command.
    */
   public static class Lock extends LockOperation {
+    private final String name;
     private final int id;
     private final long timeout;
+    private final boolean shared;
 
     public Lock() {
-      this(0, 0);
+      this(null, 0, 0, false);
     }
 
-    public Lock(int id, long timeout) {
+    public Lock(String name, int id, long timeout, boolean shared) {
+      this.name = name;
       this.id = id;
       this.timeout = timeout;
+      this.shared = shared;
+    }
+
+    /**
+     * Returns the name of the lock to acquire.
+     *
+     * @return the name of the lock to acquire
+     */
+    public String name() {
+      return name;
     }
 
     /**
@@ -99,11 +112,22 @@ public enum DistributedLockOperations implements OperationId {
       return timeout;
     }
 
+    /**
+     * Returns whether the lock is to be acquired in shared (read) mode.
+     *
+     * @return whether the lock is to be acquired in shared mode
+     */
+    public boolean shared() {
+      return shared;
+    }
+
     @Override
     public String toString() {
       return toStringHelper(this)
+          .add("name", name)
           .add("id", id)
           .add("timeout", timeout)
+          .add("shared", shared)
           .toString();
     }
   }
@@ -112,12 +136,23 @@ public enum DistributedLockOperations implements OperationId {
    * Unlock command.
    */
   public static class Unlock extends LockOperation {
+    private final String name;
     private final int id;
 
-    public Unlock(int id) {
+    public Unlock(String name, int id) {
+      this.name = name;
       this.id = id;
     }
 
+    /**
+     * Returns the name of the lock to release.
+     *
+     * @return the name of the lock to release
+     */
+    public String name() {
+      return name;
+    }
+
     /**
      * Returns the lock identifier.
      *
@@ -130,6 +165,7 @@ public enum DistributedLockOperations implements OperationId {
     @Override
     public String toString() {
       return toStringHelper(this)
+          .add("name", name)
           .add("id", id)
           .toString();
     }
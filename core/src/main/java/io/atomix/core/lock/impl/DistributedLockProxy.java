@@ -33,7 +33,9 @@ import io.atomix.utils.time.Version;
 import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -41,6 +43,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+import static com.google.common.base.MoreObjects.toStringHelper;
 import static io.atomix.core.lock.impl.DistributedLockEvents.FAILED;
 import static io.atomix.core.lock.impl.DistributedLockEvents.LOCKED;
 import static io.atomix.core.lock.impl.DistributedLockOperations.LOCK;
@@ -49,6 +52,10 @@ import static io.atomix.utils.concurrent.Futures.orderedFuture;
 
 /**
  * Raft lock.
+ * <p>
+ * Each named lock is represented by a {@link LockView} for each of its modes. Lock requests are routed to the
+ * partition that owns the lock's name, and lock events from all partitions are matched to attempts by their
+ * proxy-wide unique attempt IDs.
  */
 public class DistributedLockProxy extends AbstractAsyncPrimitive<AsyncDistributedLock> implements AsyncDistributedLock {
   private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.builder()
@@ -61,12 +68,16 @@ public class DistributedLockProxy extends AbstractAsyncPrimitive<AsyncDistribute
   private final Executor orderedExecutor;
   private final Map<Integer, LockAttempt> attempts = Maps.newConcurrentMap();
   private final AtomicInteger id = new AtomicInteger();
-  private final AtomicInteger lock = new AtomicInteger();
+  private final Map<String, LockView> writeLocks = Maps.newConcurrentMap();
+  private final Map<String, LockView> readLocks = Maps.newConcurrentMap();
+  private final LockView lock;
 
   public DistributedLockProxy(PrimitiveProxy proxy, PrimitiveRegistry registry, ScheduledExecutorService scheduledExecutor) {
     super(proxy, registry);
     this.scheduledExecutor = scheduledExecutor;
     this.orderedExecutor = new OrderedExecutor(scheduledExecutor);
+    this.lock = new LockView(name(), false);
+    writeLocks.put(name(), lock);
   }
 
   @Override
@@ -104,83 +115,37 @@ public class DistributedLockProxy extends AbstractAsyncPrimitive<AsyncDistribute
 
   @Override
   public CompletableFuture<Version> lock() {
-    // Create and register a new attempt and invoke the LOCK operation on the replicated state machine.
-    LockAttempt attempt = new LockAttempt();
-    invokeBy(getPartitionKey(), LOCK, new Lock(attempt.id(), -1)).whenComplete((result, error) -> {
-      if (error != null) {
-        attempt.completeExceptionally(error);
-      }
-    });
-
-    // Return an ordered future that can safely be blocked inside the executor thread.
-    return orderedFuture(attempt, orderedExecutor, scheduledExecutor);
+    return lock.lock();
   }
 
   @Override
   public CompletableFuture<Optional<Version>> tryLock() {
-    // If the proxy is currently disconnected from the cluster, we can just fail the lock attempt here.
-    Proxy.State state = getPartition(getPartitionKey()).getState();
-    if (state != Proxy.State.CONNECTED) {
-      return CompletableFuture.completedFuture(Optional.empty());
-    }
-
-    // Create and register a new attempt and invoke the LOCK operation on teh replicated state machine with
-    // a 0 timeout. The timeout will cause the state machine to immediately reject the request if the lock is
-    // already owned by another process.
-    LockAttempt attempt = new LockAttempt();
-    invokeBy(getPartitionKey(), LOCK, new Lock(attempt.id(), 0)).whenComplete((result, error) -> {
-      if (error != null) {
-        attempt.completeExceptionally(error);
-      }
-    });
-
-    // Return an ordered future that can safely be blocked inside the executor thread.
-    return orderedFuture(attempt, orderedExecutor, scheduledExecutor)
-        .thenApply(Optional::ofNullable);
+    return lock.tryLock();
   }
 
   @Override
   public CompletableFuture<Optional<Version>> tryLock(Duration timeout) {
-    // Create a lock attempt with a client-side timeout and fail the lock if the timer expires.
-    // Because time does not progress at the same rate on different nodes, we can't guarantee that
-    // the lock won't be granted to this process after it's expired here. Thus, if this timer expires and
-    // we fail the lock on the client, we also still need to send an UNLOCK command to the cluster in case it's
-    // later granted by the cluster. Note that the semantics of the Raft client will guarantee this operation
-    // occurs after any prior LOCK attempt, and the Raft client will retry the UNLOCK request until successful.
-    // Additionally, sending the unique lock ID with the command ensures we won't accidentally unlock a different
-    // lock call also granted to this process.
-    LockAttempt attempt = new LockAttempt(timeout, a -> {
-      a.complete(null);
-      invokeBy(getPartitionKey(), UNLOCK, new Unlock(a.id()));
-    });
-
-    // Invoke the LOCK operation on the replicated state machine with the given timeout. If the lock is currently
-    // held by another process, the state machine will add the attempt to a queue and publish a FAILED event if
-    // the timer expires before this process can be granted the lock. If the client cannot reach the Raft cluster,
-    // the client-side timer will expire the attempt.
-    invokeBy(getPartitionKey(), LOCK, new Lock(attempt.id(), timeout.toMillis()))
-        .whenComplete((result, error) -> {
-          if (error != null) {
-            attempt.completeExceptionally(error);
-          }
-        });
-
-    // Return an ordered future that can safely be blocked inside the executor thread.
-    return orderedFuture(attempt, orderedExecutor, scheduledExecutor)
-        .thenApply(Optional::ofNullable);
+    return lock.tryLock(timeout);
   }
 
   @Override
   public CompletableFuture<Void> unlock() {
-    // Use the current lock ID to ensure we only unlock the lock currently held by this process.
-    int lock = this.lock.getAndSet(0);
-    if (lock != 0) {
-      return orderedFuture(
-          invokeBy(getPartitionKey(), UNLOCK, new Unlock(lock)),
-          orderedExecutor,
-          scheduledExecutor);
-    }
-    return CompletableFuture.completedFuture(null);
+    return lock.unlock();
+  }
+
+  @Override
+  public AsyncDistributedLock stripe(String name) {
+    return writeLocks.computeIfAbsent(name, n -> new LockView(n, false));
+  }
+
+  @Override
+  public AsyncDistributedLock readLock() {
+    return lock.readLock();
+  }
+
+  @Override
+  public AsyncDistributedLock writeLock() {
+    return lock;
   }
 
   @Override
@@ -188,8 +153,8 @@ public class DistributedLockProxy extends AbstractAsyncPrimitive<AsyncDistribute
     return super.connect()
         .thenCompose(v -> getPartition(getPartitionKey()).connect())
         .thenRun(() -> {
-          listenBy(getPartitionKey(), LOCKED, this::handleLocked);
-          listenBy(getPartitionKey(), FAILED, this::handleFailed);
+          this.<LockEvent>listenAll(LOCKED, (partitionId, event) -> handleLocked(event));
+          this.<LockEvent>listenAll(FAILED, (partitionId, event) -> handleFailed(event));
         }).thenApply(v -> this);
   }
 
@@ -198,19 +163,154 @@ public class DistributedLockProxy extends AbstractAsyncPrimitive<AsyncDistribute
     return new BlockingDistributedLock(this, operationTimeout.toMillis());
   }
 
+  /**
+   * A single mode of a named lock.
+   */
+  private class LockView implements AsyncDistributedLock {
+    private final String name;
+    private final boolean shared;
+    private final Queue<Integer> held = new ConcurrentLinkedQueue<>();
+
+    LockView(String name, boolean shared) {
+      this.name = name;
+      this.shared = shared;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public CompletableFuture<Version> lock() {
+      // Create and register a new attempt and invoke the LOCK operation on the replicated state machine.
+      LockAttempt attempt = new LockAttempt(this);
+      invokeBy(name, LOCK, new Lock(name, attempt.id(), -1, shared)).whenComplete((result, error) -> {
+        if (error != null) {
+          attempt.completeExceptionally(error);
+        }
+      });
+
+      // Return an ordered future that can safely be blocked inside the executor thread.
+      return orderedFuture(attempt, orderedExecutor, scheduledExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Version>> tryLock() {
+      // If the proxy is currently disconnected from the cluster, we can just fail the lock attempt here.
+      Proxy.State state = getPartition(name).getState();
+      if (state != Proxy.State.CONNECTED) {
+        return CompletableFuture.completedFuture(Optional.empty());
+      }
+
+      // Create and register a new attempt and invoke the LOCK operation on teh replicated state machine with
+      // a 0 timeout. The timeout will cause the state machine to immediately reject the request if the lock is
+      // already owned by another process.
+      LockAttempt attempt = new LockAttempt(this);
+      invokeBy(name, LOCK, new Lock(name, attempt.id(), 0, shared)).whenComplete((result, error) -> {
+        if (error != null) {
+          attempt.completeExceptionally(error);
+        }
+      });
+
+      // Return an ordered future that can safely be blocked inside the executor thread.
+      return orderedFuture(attempt, orderedExecutor, scheduledExecutor)
+          .thenApply(Optional::ofNullable);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Version>> tryLock(Duration timeout) {
+      // Create a lock attempt with a client-side timeout and fail the lock if the timer expires.
+      // Because time does not progress at the same rate on different nodes, we can't guarantee that
+      // the lock won't be granted to this process after it's expired here. Thus, if this timer expires and
+      // we fail the lock on the client, we also still need to send an UNLOCK command to the cluster in case it's
+      // later granted by the cluster. Note that the semantics of the Raft client will guarantee this operation
+      // occurs after any prior LOCK attempt, and the Raft client will retry the UNLOCK request until successful.
+      // Additionally, sending the unique lock ID with the command ensures we won't accidentally unlock a different
+      // lock call also granted to this process.
+      LockAttempt attempt = new LockAttempt(this, timeout, a -> {
+        a.complete(null);
+        invokeBy(name, UNLOCK, new Unlock(name, a.id()));
+      });
+
+      // Invoke the LOCK operation on the replicated state machine with the given timeout. If the lock is currently
+      // held by another process, the state machine will add the attempt to a queue and publish a FAILED event if
+      // the timer expires before this process can be granted the lock. If the client cannot reach the Raft cluster,
+      // the client-side timer will expire the attempt.
+      invokeBy(name, LOCK, new Lock(name, attempt.id(), timeout.toMillis(), shared))
+          .whenComplete((result, error) -> {
+            if (error != null) {
+              attempt.completeExceptionally(error);
+            }
+          });
+
+      // Return an ordered future that can safely be blocked inside the executor thread.
+      return orderedFuture(attempt, orderedExecutor, scheduledExecutor)
+          .thenApply(Optional::ofNullable);
+    }
+
+    @Override
+    public CompletableFuture<Void> unlock() {
+      // Use the oldest lock ID held through this view to ensure we only unlock a lock held by this process.
+      Integer lock = held.poll();
+      if (lock != null) {
+        return orderedFuture(
+            invokeBy(name, UNLOCK, new Unlock(name, lock)),
+            orderedExecutor,
+            scheduledExecutor);
+      }
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public AsyncDistributedLock stripe(String name) {
+      return DistributedLockProxy.this.stripe(name);
+    }
+
+    @Override
+    public AsyncDistributedLock readLock() {
+      return readLocks.computeIfAbsent(name, n -> new LockView(n, true));
+    }
+
+    @Override
+    public AsyncDistributedLock writeLock() {
+      return writeLocks.computeIfAbsent(name, n -> new LockView(n, false));
+    }
+
+    @Override
+    public CompletableFuture<Void> close() {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public DistributedLock sync(Duration operationTimeout) {
+      return new BlockingDistributedLock(this, operationTimeout.toMillis());
+    }
+
+    @Override
+    public String toString() {
+      return toStringHelper(this)
+          .add("name", name)
+          .add("shared", shared)
+          .toString();
+    }
+  }
+
   /**
    * Lock attempt.
    */
   private class LockAttempt extends CompletableFuture<Version> {
     private final int id;
+    private final LockView lock;
     private final ScheduledFuture<?> scheduledFuture;
 
-    LockAttempt() {
-      this(null, null);
+    LockAttempt(LockView lock) {
+      this(lock, null, null);
     }
 
-    LockAttempt(Duration duration, Consumer<LockAttempt> callback) {
+    LockAttempt(LockView lock, Duration duration, Consumer<LockAttempt> callback) {
       this.id = DistributedLockProxy.this.id.incrementAndGet();
+      this.lock = lock;
       this.scheduledFuture = duration != null && callback != null
           ? scheduledExecutor.schedule(() -> callback.accept(this), duration.toMillis(), TimeUnit.MILLISECONDS)
           : null;
@@ -233,7 +333,7 @@ public class DistributedLockProxy extends AbstractAsyncPrimitive<AsyncDistribute
       }
       cancel();
       if (version != null) {
-        lock.set(id);
+        lock.held.add(id);
         return super.complete(version);
       } else {
         return super.complete(null);
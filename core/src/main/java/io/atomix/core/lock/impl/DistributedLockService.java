@@ -30,7 +30,9 @@ import io.atomix.utils.serializer.Serializer;
 
 import java.time.Duration;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 
@@ -41,7 +43,15 @@ import static io.atomix.core.lock.impl.DistributedLockOperations.LOCK;
 import static io.atomix.core.lock.impl.DistributedLockOperations.UNLOCK;
 
 /**
- * Raft atomic value service.
+ * Distributed lock service.
+ * <p>
+ * The service manages any number of named locks, each of which has its own FIFO queue of waiters. A lock can be held
+ * either exclusively by a single holder or in shared mode by any number of holders. Shared requests are only granted
+ * immediately if no other requests are waiting, so that a steady stream of readers can't starve a writer.
+ * <p>
+ * Each time a lock is granted, the holder is sent the index of the log entry at which the lock was granted as a
+ * fencing token. Since locks are granted in log order, the tokens observed by successive holders of a lock never
+ * decrease and can be used to reject requests from holders that have since lost the lock.
  */
 public class DistributedLockService extends AbstractPrimitiveService {
   private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.builder()
@@ -49,10 +59,11 @@ public class DistributedLockService extends AbstractPrimitiveService {
       .register(DistributedLockOperations.NAMESPACE)
       .register(DistributedLockEvents.NAMESPACE)
       .register(LockHolder.class)
+      .register(LockState.class)
+      .register(ArrayDeque.class)
       .build());
 
-  private LockHolder lock;
-  private Queue<LockHolder> queue = new ArrayDeque<>();
+  private Map<String, LockState> locks = new HashMap<>();
   private final Map<Long, Scheduled> timers = new HashMap<>();
 
   @Override
@@ -68,29 +79,23 @@ public class DistributedLockService extends AbstractPrimitiveService {
 
   @Override
   public void backup(BackupOutput output) {
-    output.writeObject(lock);
-    output.writeObject(queue);
+    output.writeObject(locks);
   }
 
   @Override
   public void restore(BackupInput input) {
-    lock = input.readObject();
-    queue = input.readObject();
+    locks = input.readObject();
 
     // After the snapshot is installed, we need to cancel any existing timers and schedule new ones based on the
     // state provided by the snapshot.
     timers.values().forEach(Scheduled::cancel);
     timers.clear();
-    for (LockHolder holder : queue) {
-      if (holder.expire > 0) {
-        timers.put(holder.index, getScheduler().schedule(Duration.ofMillis(holder.expire - getWallClock().getTime().unixTimestamp()), () -> {
-          timers.remove(holder.index);
-          queue.remove(holder);
-          PrimitiveSession session = getSessions().getSession(holder.session);
-          if (session != null && session.getState().active()) {
-            session.publish(FAILED, new LockEvent(holder.id, holder.index));
-          }
-        }));
+    for (Map.Entry<String, LockState> entry : locks.entrySet()) {
+      for (LockHolder holder : entry.getValue().queue) {
+        if (holder.expire > 0) {
+          scheduleTimeout(entry.getKey(), holder,
+              Duration.ofMillis(holder.expire - getWallClock().getTime().unixTimestamp()));
+        }
       }
     }
   }
@@ -111,15 +116,23 @@ public class DistributedLockService extends AbstractPrimitiveService {
    * @param commit the lock commit
    */
   protected void lock(Commit<Lock> commit) {
-    // If the lock is not already owned, immediately grant the lock to the requester.
+    String name = commit.value().name();
+    LockState state = locks.get(name);
+
+    // If the lock can be acquired, immediately grant the lock to the requester.
     // Note that we still have to publish an event to the session. The event is guaranteed to be received
     // by the client-side primitive after the LOCK response.
-    if (lock == null) {
-      lock = new LockHolder(
+    if (state == null || state.canAcquire(commit.value().shared())) {
+      if (state == null) {
+        state = new LockState();
+        locks.put(name, state);
+      }
+      state.holders.add(new LockHolder(
           commit.value().id(),
           commit.index(),
           commit.session().sessionId().id(),
-          0);
+          0,
+          commit.value().shared()));
       commit.session().publish(LOCKED, new LockEvent(commit.value().id(), commit.index()));
       // If the timeout is 0, that indicates this is a tryLock request. Immediately fail the request.
     } else if (commit.value().timeout() == 0) {
@@ -131,118 +144,192 @@ public class DistributedLockService extends AbstractPrimitiveService {
           commit.value().id(),
           commit.index(),
           commit.session().sessionId().id(),
-          getWallClock().getTime().unixTimestamp() + commit.value().timeout());
-      queue.add(holder);
-      timers.put(commit.index(), getScheduler().schedule(Duration.ofMillis(commit.value().timeout()), () -> {
-        // When the lock request timer expires, remove the request from the queue and publish a FAILED
-        // event to the session. Note that this timer is guaranteed to be executed in the same thread as the
-        // state machine commands, so there's no need to use a lock here.
-        timers.remove(commit.index());
-        queue.remove(holder);
-        if (commit.session().getState().active()) {
-          commit.session().publish(FAILED, new LockEvent(commit.value().id(), commit.index()));
-        }
-      }));
+          getWallClock().getTime().unixTimestamp() + commit.value().timeout(),
+          commit.value().shared());
+      state.queue.add(holder);
+      scheduleTimeout(name, holder, Duration.ofMillis(commit.value().timeout()));
       // If the lock is -1, just add the request to the queue with no expiration.
     } else {
       LockHolder holder = new LockHolder(
           commit.value().id(),
           commit.index(),
           commit.session().sessionId().id(),
-          0);
-      queue.add(holder);
+          0,
+          commit.value().shared());
+      state.queue.add(holder);
     }
   }
 
+  /**
+   * Schedules a timer to fail the given lock request if it hasn't been granted when the timer expires.
+   */
+  private void scheduleTimeout(String name, LockHolder holder, Duration timeout) {
+    timers.put(holder.index, getScheduler().schedule(timeout, () -> {
+      // When the lock request timer expires, remove the request from the queue and publish a FAILED
+      // event to the session. Note that this timer is guaranteed to be executed in the same thread as the
+      // state machine commands, so there's no need to use a lock here. Other timers must not be cancelled
+      // from within a timer callback, so waiters that could now be granted the lock are left until the
+      // lock is next released.
+      timers.remove(holder.index);
+      LockState state = locks.get(name);
+      if (state != null && state.queue.remove(holder)) {
+        if (state.isIdle()) {
+          locks.remove(name);
+        }
+        PrimitiveSession session = getSessions().getSession(holder.session);
+        if (session != null && session.getState().active()) {
+          session.publish(FAILED, new LockEvent(holder.id, holder.index));
+        }
+      }
+    }));
+  }
+
   /**
    * Applies an unlock commit.
    *
    * @param commit the unlock commit
    */
   protected void unlock(Commit<Unlock> commit) {
-    if (lock != null) {
-      // If the commit's session does not match the current lock holder, ignore the request.
-      if (lock.session != commit.session().sessionId().id()) {
-        return;
-      }
-
-      // If the current lock ID does not match the requested lock ID, ignore the request. This ensures that
-      // internal releases of locks that were never acquired by the client-side primitive do not cause
-      // legitimate locks to be unlocked.
-      if (lock.id != commit.value().id()) {
-        return;
-      }
+    String name = commit.value().name();
+    LockState state = locks.get(name);
+    if (state == null) {
+      return;
+    }
 
+    // If the commit's session and lock ID do not match a current lock holder, ignore the request. Matching the
+    // lock ID ensures that internal releases of locks that were never acquired by the client-side primitive do
+    // not cause legitimate locks to be unlocked.
+    long sessionId = commit.session().sessionId().id();
+    boolean released = state.holders.removeIf(holder ->
+        holder.session == sessionId && holder.id == commit.value().id());
+    if (released) {
       // The lock has been released. Populate the lock from the queue.
-      lock = queue.poll();
-      while (lock != null) {
-        // If the waiter has a lock timer, cancel the timer.
-        Scheduled timer = timers.remove(lock.index);
-        if (timer != null) {
-          timer.cancel();
-        }
+      grant(name, state, commit.index());
+    }
+  }
 
-        // If the lock session is for some reason inactive, continue on to the next waiter. Otherwise,
-        // publish a LOCKED event to the new lock holder's session.
-        PrimitiveSession session = getSessions().getSession(lock.session);
-        if (session == null || !session.getState().active()) {
-          lock = queue.poll();
-        } else {
-          session.publish(LOCKED, new LockEvent(lock.id, commit.index()));
-          break;
-        }
+  /**
+   * Grants the given lock to as many waiters at the head of its queue as possible.
+   * <p>
+   * If the lock is free, the waiter at the head of the queue is granted the lock, and if that waiter is shared,
+   * so are all the shared waiters that immediately follow it.
+   *
+   * @param name  the lock name
+   * @param state the lock state
+   * @param index the index at which the lock is granted, which is sent to the new holders as their fencing token
+   */
+  private void grant(String name, LockState state, long index) {
+    LockHolder next = state.queue.peek();
+    while (next != null && state.canGrant(next)) {
+      state.queue.poll();
+
+      // If the waiter has a lock timer, cancel the timer.
+      Scheduled timer = timers.remove(next.index);
+      if (timer != null) {
+        timer.cancel();
+      }
+
+      // If the lock session is for some reason inactive, continue on to the next waiter. Otherwise,
+      // publish a LOCKED event to the new lock holder's session.
+      PrimitiveSession session = getSessions().getSession(next.session);
+      if (session != null && session.getState().active()) {
+        state.holders.add(next);
+        session.publish(LOCKED, new LockEvent(next.id, index));
       }
+      next = state.queue.peek();
+    }
+
+    if (state.isIdle()) {
+      locks.remove(name);
     }
   }
 
   /**
    * Handles a session that has been closed by a client or expired by the cluster.
    * <p>
-   * When a session is removed, if the session is the current lock holder then the lock is released and the next
-   * session waiting in the queue is granted the lock. Additionally, all pending lock requests for the session
-   * are removed from the lock queue.
+   * When a session is removed, all the locks held by the session are released and granted to the next sessions
+   * waiting in their queues. Additionally, all pending lock requests for the session are removed from the lock
+   * queues.
    *
    * @param session the closed session
    */
   private void releaseSession(PrimitiveSession session) {
-    // Remove all instances of the session from the lock queue.
-    queue.removeIf(lock -> lock.session == session.sessionId().id());
-
-    // If the removed session is the current holder of the lock, nullify the lock and attempt to grant it
-    // to the next waiter in the queue.
-    if (lock != null && lock.session == session.sessionId().id()) {
-      lock = queue.poll();
-      while (lock != null) {
-        // If the waiter has a lock timer, cancel the timer.
-        Scheduled timer = timers.remove(lock.index);
-        if (timer != null) {
-          timer.cancel();
-        }
+    long sessionId = session.sessionId().id();
+    for (Map.Entry<String, LockState> entry : new ArrayList<>(locks.entrySet())) {
+      LockState state = entry.getValue();
 
-        // If the lock session is inactive, continue on to the next waiter. Otherwise,
-        // publish a LOCKED event to the new lock holder's session.
-        PrimitiveSession lockSession = getSessions().getSession(lock.session);
-        if (lockSession == null || !lockSession.getState().active()) {
-          lock = queue.poll();
-        } else {
-          lockSession.publish(LOCKED, new LockEvent(lock.id, lock.index));
-          break;
+      // Remove all instances of the session from the lock queue.
+      boolean removed = state.queue.removeIf(holder -> {
+        if (holder.session == sessionId) {
+          Scheduled timer = timers.remove(holder.index);
+          if (timer != null) {
+            timer.cancel();
+          }
+          return true;
         }
+        return false;
+      });
+
+      // If the removed session is a current holder of the lock, release it and attempt to grant the lock
+      // to the next waiters in the queue. Removing a waiter can also allow shared waiters behind it to be granted
+      // the lock.
+      removed |= state.holders.removeIf(holder -> holder.session == sessionId);
+      if (removed) {
+        grant(entry.getKey(), state, getCurrentIndex());
       }
     }
   }
 
-  private class LockHolder {
+  /**
+   * The holders of and waiters for a single named lock.
+   */
+  private static class LockState {
+    private final List<LockHolder> holders = new ArrayList<>();
+    private final Queue<LockHolder> queue = new ArrayDeque<>();
+
+    /**
+     * Returns whether a new request in the given mode can be granted immediately.
+     */
+    boolean canAcquire(boolean shared) {
+      return holders.isEmpty() || (shared && holders.get(0).shared && queue.isEmpty());
+    }
+
+    /**
+     * Returns whether the given waiter at the head of the queue can be granted the lock.
+     */
+    boolean canGrant(LockHolder waiter) {
+      return holders.isEmpty() || (waiter.shared && holders.get(0).shared);
+    }
+
+    /**
+     * Returns whether the lock is neither held nor awaited.
+     */
+    boolean isIdle() {
+      return holders.isEmpty() && queue.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return toStringHelper(this)
+          .add("holders", holders)
+          .add("queue", queue)
+          .toString();
+    }
+  }
+
+  private static class LockHolder {
     private final int id;
     private final long index;
     private final long session;
     private final long expire;
+    private final boolean shared;
 
-    public LockHolder(int id, long index, long session, long expire) {
+    public LockHolder(int id, long index, long session, long expire, boolean shared) {
       this.id = id;
       this.index = index;
       this.session = session;
       this.expire = expire;
+      this.shared = shared;
     }
 
     @Override
@@ -252,7 +339,8 @@ public class DistributedLockService extends AbstractPrimitiveService {
           .add("index", index)
           .add("session", session)
           .add("expire", expire)
+          .add("shared", shared)
           .toString();
     }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map;
+
+/**
+ * Consistent map primitive type that stores entries in a {@link MapEntryStore#COMPACT compact} entry store.
+ */
+public class CompactConsistentMapType<K, V> extends ConsistentMapType<K, V> {
+  private static final String NAME = "COMPACT_CONSISTENT_MAP";
+
+  public CompactConsistentMapType() {
+    super(NAME, MapEntryStore.COMPACT);
+  }
+}
@@ -51,4 +51,36 @@ public abstract class ConsistentMapBuilder<K, V>
     config.setNullValues(nullValues);
     return this;
   }
+
+  /**
+   * Enables binary keys in the map.
+   *
+   * @return this builder
+   */
+  public ConsistentMapBuilder<K, V> withBinaryKeys() {
+    config.setBinaryKeys();
+    return this;
+  }
+
+  /**
+   * Sets whether keys are stored in their binary serialized form rather than as hex encoded strings.
+   *
+   * @param binaryKeys whether keys are stored in their binary form
+   * @return this builder
+   */
+  public ConsistentMapBuilder<K, V> withBinaryKeys(boolean binaryKeys) {
+    config.setBinaryKeys(binaryKeys);
+    return this;
+  }
+
+  /**
+   * Sets the store in which the map's state machine stores entries.
+   *
+   * @param entryStore the entry store in which to store map entries
+   * @return this builder
+   */
+  public ConsistentMapBuilder<K, V> withEntryStore(MapEntryStore entryStore) {
+    config.setEntryStore(entryStore);
+    return this;
+  }
 }
@@ -45,14 +45,54 @@ public class ConsistentMapType<K, V> implements PrimitiveType<ConsistentMapBuild
     return new ConsistentMapType<>();
   }
 
+  /**
+   * Returns a new consistent map type that stores entries in the given entry store.
+   *
+   * @param entryStore the entry store in which to store map entries
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return a new consistent map type
+   */
+  public static <K, V> ConsistentMapType<K, V> instance(MapEntryStore entryStore) {
+    switch (entryStore) {
+      case COMPACT:
+        return new CompactConsistentMapType<>();
+      case OFF_HEAP:
+        return new OffHeapConsistentMapType<>();
+      default:
+        return new ConsistentMapType<>();
+    }
+  }
+
+  private final String id;
+  private final MapEntryStore entryStore;
+
+  public ConsistentMapType() {
+    this(NAME, MapEntryStore.HASH);
+  }
+
+  protected ConsistentMapType(String id, MapEntryStore entryStore) {
+    this.id = id;
+    this.entryStore = entryStore;
+  }
+
   @Override
   public String id() {
-    return NAME;
+    return id;
+  }
+
+  /**
+   * Returns the entry store in which maps of this type store entries.
+   *
+   * @return the entry store in which maps of this type store entries
+   */
+  public MapEntryStore entryStore() {
+    return entryStore;
   }
 
   @Override
   public Supplier<PrimitiveService> serviceFactory() {
-    return ConsistentMapService::new;
+    return () -> new ConsistentMapService<>(entryStore);
   }
 
   @Override
@@ -63,7 +103,7 @@ public class ConsistentMapType<K, V> implements PrimitiveType<ConsistentMapBuild
 
   @Override
   public ConsistentMapBuilder<K, V> newPrimitiveBuilder(String name, PrimitiveManagementService managementService) {
-    return newPrimitiveBuilder(name, new ConsistentMapConfig(), managementService);
+    return newPrimitiveBuilder(name, new ConsistentMapConfig().setEntryStore(entryStore), managementService);
   }
 
   @Override
@@ -75,6 +115,7 @@ public class ConsistentMapType<K, V> implements PrimitiveType<ConsistentMapBuild
   public String toString() {
     return toStringHelper(this)
         .add("id", id())
+        .add("entryStore", entryStore())
         .toString();
   }
 }
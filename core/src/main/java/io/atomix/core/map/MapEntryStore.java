@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map;
+
+/**
+ * Consistent map entry store.
+ * <p>
+ * The entry store determines how a map's state machine stores entries in memory. Each store is provided by a distinct
+ * {@link ConsistentMapType primitive type}, so every replica of a map creates the same store.
+ */
+public enum MapEntryStore {
+
+  /**
+   * Stores entries in a {@link java.util.HashMap}.
+   */
+  HASH,
+
+  /**
+   * Stores entries in a compact open-addressing table with values on the heap.
+   */
+  COMPACT,
+
+  /**
+   * Stores entries in a compact open-addressing table with values in off-heap slabs.
+   */
+  OFF_HEAP,
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map.impl;
+
+import io.atomix.core.map.impl.ConsistentMapService.MapEntryValue;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Compact open-addressing map of {@link MapEntryValue}s.
+ * <p>
+ * Rather than allocating a node and a {@link MapEntryValue} per entry, the map stores keys in a linear probing table
+ * and packs entry metadata into parallel primitive arrays. Creation times are only needed to expire entries, so they
+ * are retained only for entries with a TTL, and neither array is allocated until such an entry is stored.
+ * {@link MapEntryValue}s are materialized on read, so values returned by the map are snapshots and are not identical
+ * to the instances that were stored.
+ * <p>
+ * Values are kept on the heap by default. When constructed with an {@link OffHeapValueSlab}, values are copied into
+ * off-heap memory instead, so the on-heap footprint of the map no longer depends on the size of its values. Off-heap
+ * memory is released when the map is {@link #close() closed}.
+ * <p>
+ * Removed entries leave a deleted marker in the table until the next resize, so entries may be removed through
+ * iterators without disturbing the iteration order.
+ */
+final class CompactEntryMap<K> extends AbstractMap<K, MapEntryValue> implements AutoCloseable {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final float LOAD_FACTOR = .75f;
+  private static final Object DELETED = new Object();
+  private static final long NO_VALUE = -1;
+  private static final MapEntryValue.Type[] TYPES = MapEntryValue.Type.values();
+
+  private final OffHeapValueSlab slab;
+  private Object[] keys;
+  private int[] hashes;
+  private byte[] types;
+  private long[] versions;
+  private long[] created;
+  private long[] ttls;
+  private Object[] values;
+  private long[] addresses;
+  private int size;
+  private int used;
+  private int threshold;
+
+  CompactEntryMap(boolean offHeap) {
+    this(offHeap, DEFAULT_CAPACITY);
+  }
+
+  CompactEntryMap(boolean offHeap, int expectedSize) {
+    this.slab = offHeap ? new OffHeapValueSlab() : null;
+    allocate(capacityFor(expectedSize));
+  }
+
+  /**
+   * Returns the power-of-two table capacity required to hold the given number of entries.
+   */
+  private static int capacityFor(int expectedSize) {
+    int capacity = DEFAULT_CAPACITY;
+    while (capacity * LOAD_FACTOR < expectedSize) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Returns a boolean indicating whether values are stored off-heap.
+   *
+   * @return indicates whether values are stored off-heap
+   */
+  boolean isOffHeap() {
+    return slab != null;
+  }
+
+  /**
+   * Returns the number of off-heap bytes occupied by values.
+   *
+   * @return the number of off-heap bytes occupied by values
+   */
+  long offHeapBytes() {
+    return slab != null ? slab.allocatedBytes() : 0;
+  }
+
+  private void allocate(int capacity) {
+    keys = new Object[capacity];
+    hashes = new int[capacity];
+    types = new byte[capacity];
+    versions = new long[capacity];
+    if (created != null) {
+      created = new long[capacity];
+      ttls = new long[capacity];
+    }
+    if (slab != null) {
+      addresses = new long[capacity];
+    } else {
+      values = new Object[capacity];
+    }
+    threshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  /**
+   * Returns the slot for the given key, or {@code -1} if the key is not present.
+   */
+  private int indexOf(Object key) {
+    if (key == null) {
+      return -1;
+    }
+    int hash = hash(key);
+    int mask = keys.length - 1;
+    int index = hash & mask;
+    Object current;
+    while ((current = keys[index]) != null) {
+      if (current != DELETED && hashes[index] == hash && current.equals(key)) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Materializes the entry value stored in the given slot.
+   */
+  private MapEntryValue valueAt(int index) {
+    byte[] value;
+    if (slab != null) {
+      value = addresses[index] == NO_VALUE ? null : slab.read(addresses[index]);
+    } else {
+      value = (byte[]) values[index];
+    }
+    return new MapEntryValue(
+        TYPES[types[index]],
+        versions[index],
+        value,
+        created != null ? created[index] : 0,
+        ttls != null ? ttls[index] : 0);
+  }
+
+  /**
+   * Stores the given entry value in the given slot, releasing any value previously stored in the slot.
+   */
+  private void setValueAt(int index, MapEntryValue value) {
+    types[index] = (byte) value.type().ordinal();
+    versions[index] = value.version();
+    if (created == null && value.ttl() != 0) {
+      created = new long[keys.length];
+      ttls = new long[keys.length];
+    }
+    if (created != null) {
+      created[index] = value.ttl() != 0 ? value.created() : 0;
+      ttls[index] = value.ttl();
+    }
+    if (slab != null) {
+      addresses[index] = value.value() == null ? NO_VALUE : slab.allocate(value.value());
+    } else {
+      values[index] = value.value();
+    }
+  }
+
+  /**
+   * Releases the value stored in the given slot.
+   */
+  private void releaseValueAt(int index) {
+    if (slab != null) {
+      if (addresses[index] != NO_VALUE) {
+        slab.free(addresses[index]);
+        addresses[index] = NO_VALUE;
+      }
+    } else {
+      values[index] = null;
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) != -1;
+  }
+
+  @Override
+  public MapEntryValue get(Object key) {
+    int index = indexOf(key);
+    return index != -1 ? valueAt(index) : null;
+  }
+
+  @Override
+  public MapEntryValue put(K key, MapEntryValue value) {
+    checkNotNull(key, "key cannot be null");
+    checkNotNull(value, "value cannot be null");
+    int hash = hash(key);
+    int mask = keys.length - 1;
+    int index = hash & mask;
+    int deleted = -1;
+    Object current;
+    while ((current = keys[index]) != null) {
+      if (current == DELETED) {
+        if (deleted == -1) {
+          deleted = index;
+        }
+      } else if (hashes[index] == hash && current.equals(key)) {
+        MapEntryValue oldValue = valueAt(index);
+        releaseValueAt(index);
+        setValueAt(index, value);
+        return oldValue;
+      }
+      index = (index + 1) & mask;
+    }
+
+    if (deleted != -1) {
+      index = deleted;
+    } else {
+      used++;
+    }
+    keys[index] = key;
+    hashes[index] = hash;
+    setValueAt(index, value);
+    size++;
+    if (used > threshold) {
+      resize();
+    }
+    return null;
+  }
+
+  @Override
+  public MapEntryValue remove(Object key) {
+    int index = indexOf(key);
+    if (index == -1) {
+      return null;
+    }
+    MapEntryValue value = valueAt(index);
+    removeAt(index);
+    return value;
+  }
+
+  private void removeAt(int index) {
+    releaseValueAt(index);
+    keys[index] = DELETED;
+    size--;
+  }
+
+  @Override
+  public void clear() {
+    if (slab != null) {
+      slab.close();
+    }
+    created = null;
+    ttls = null;
+    allocate(DEFAULT_CAPACITY);
+    size = 0;
+    used = 0;
+  }
+
+  /**
+   * Rehashes live entries into a table sized for the current number of entries, discarding deleted markers.
+   */
+  private void resize() {
+    Object[] oldKeys = keys;
+    int[] oldHashes = hashes;
+    byte[] oldTypes = types;
+    long[] oldVersions = versions;
+    long[] oldCreated = created;
+    long[] oldTtls = ttls;
+    Object[] oldValues = values;
+    long[] oldAddresses = addresses;
+
+    allocate(capacityFor(size + 1));
+    int mask = keys.length - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      Object key = oldKeys[i];
+      if (key == null || key == DELETED) {
+        continue;
+      }
+      int index = oldHashes[i] & mask;
+      while (keys[index] != null) {
+        index = (index + 1) & mask;
+      }
+      keys[index] = key;
+      hashes[index] = oldHashes[i];
+      types[index] = oldTypes[i];
+      versions[index] = oldVersions[i];
+      if (oldCreated != null) {
+        created[index] = oldCreated[i];
+        ttls[index] = oldTtls[i];
+      }
+      if (slab != null) {
+        addresses[index] = oldAddresses[i];
+      } else {
+        values[index] = oldValues[i];
+      }
+    }
+    used = size;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<? super K, ? super MapEntryValue> action) {
+    for (int i = 0; i < keys.length; i++) {
+      Object key = keys[i];
+      if (key != null && key != DELETED) {
+        action.accept((K) key, valueAt(i));
+      }
+    }
+  }
+
+  @Override
+  public Set<Map.Entry<K, MapEntryValue>> entrySet() {
+    return new AbstractSet<Map.Entry<K, MapEntryValue>>() {
+      @Override
+      public Iterator<Map.Entry<K, MapEntryValue>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public void close() {
+    if (slab != null) {
+      slab.close();
+    }
+  }
+
+  /**
+   * Iterator over the live entries in the table.
+   */
+  private final class EntryIterator implements Iterator<Map.Entry<K, MapEntryValue>> {
+    private final Object[] table = keys;
+    private int next = -1;
+    private int last = -1;
+
+    EntryIterator() {
+      advance();
+    }
+
+    private void advance() {
+      do {
+        next++;
+      } while (next < table.length && (table[next] == null || table[next] == DELETED));
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < table.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, MapEntryValue> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      if (table != keys) {
+        throw new ConcurrentModificationException();
+      }
+      last = next;
+      advance();
+      return new SimpleImmutableEntry<>((K) table[last], valueAt(last));
+    }
+
+    @Override
+    public void remove() {
+      if (last == -1 || table != keys || table[last] == DELETED) {
+        throw new IllegalStateException();
+      }
+      removeAt(last);
+    }
+  }
+}
@@ -82,6 +82,7 @@ public enum ConsistentMapOperations implements OperationId {
 
   public static final KryoNamespace NAMESPACE = KryoNamespace.builder()
       .register(KryoNamespaces.BASIC)
+      .register(KryoNamespaces.BYTE_ARRAY_KEY)
       .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID)
       .register(ContainsKey.class)
       .register(ContainsValue.class)
@@ -129,13 +130,13 @@ public enum ConsistentMapOperations implements OperationId {
    * Abstract key-based query.
    */
   @SuppressWarnings("serial")
-  public abstract static class KeyOperation extends MapOperation {
-    protected String key;
+  public abstract static class KeyOperation<K> extends MapOperation {
+    protected K key;
 
     public KeyOperation() {
     }
 
-    public KeyOperation(String key) {
+    public KeyOperation(K key) {
       this.key = checkNotNull(key, "key cannot be null");
     }
 
@@ -144,7 +145,7 @@ public enum ConsistentMapOperations implements OperationId {
      *
      * @return key
      */
-    public String key() {
+    public K key() {
       return key;
     }
 
@@ -191,13 +192,13 @@ public enum ConsistentMapOperations implements OperationId {
    * Abstract key/value operation.
    */
   @SuppressWarnings("serial")
-  public abstract static class KeyValueOperation extends KeyOperation {
+  public abstract static class KeyValueOperation<K> extends KeyOperation<K> {
     protected byte[] value;
 
     public KeyValueOperation() {
     }
 
-    public KeyValueOperation(String key, byte[] value) {
+    public KeyValueOperation(K key, byte[] value) {
       super(key);
       this.value = value;
     }
@@ -224,13 +225,13 @@ public enum ConsistentMapOperations implements OperationId {
    * Abstract key/version operation.
    */
   @SuppressWarnings("serial")
-  public abstract static class KeyVersionOperation extends KeyOperation {
+  public abstract static class KeyVersionOperation<K> extends KeyOperation<K> {
     protected long version;
 
     public KeyVersionOperation() {
     }
 
-    public KeyVersionOperation(String key, long version) {
+    public KeyVersionOperation(K key, long version) {
       super(key);
       this.version = version;
     }
@@ -257,11 +258,11 @@ public enum ConsistentMapOperations implements OperationId {
    * Contains key command.
    */
   @SuppressWarnings("serial")
-  public static class ContainsKey extends KeyOperation {
+  public static class ContainsKey<K> extends KeyOperation<K> {
     public ContainsKey() {
     }
 
-    public ContainsKey(String key) {
+    public ContainsKey(K key) {
       super(key);
     }
   }
@@ -282,13 +283,13 @@ public enum ConsistentMapOperations implements OperationId {
   /**
    * Map put operation.
    */
-  public static class Put extends KeyValueOperation {
+  public static class Put<K> extends KeyValueOperation<K> {
     private long ttl;
 
     public Put() {
     }
 
-    public Put(String key, byte[] value, long ttl) {
+    public Put(K key, byte[] value, long ttl) {
       super(key, value);
       this.ttl = ttl;
     }
@@ -301,11 +302,11 @@ public enum ConsistentMapOperations implements OperationId {
   /**
    * Remove operation.
    */
-  public static class Remove extends KeyOperation {
+  public static class Remove<K> extends KeyOperation<K> {
     public Remove() {
     }
 
-    public Remove(String key) {
+    public Remove(K key) {
       super(key);
     }
   }
@@ -313,11 +314,11 @@ public enum ConsistentMapOperations implements OperationId {
   /**
    * Remove if value match operation.
    */
-  public static class RemoveValue extends KeyValueOperation {
+  public static class RemoveValue<K> extends KeyValueOperation<K> {
     public RemoveValue() {
     }
 
-    public RemoveValue(String key, byte[] value) {
+    public RemoveValue(K key, byte[] value) {
       super(key, value);
     }
   }
@@ -325,11 +326,11 @@ public enum ConsistentMapOperations implements OperationId {
   /**
    * Remove if version match operation.
    */
-  public static class RemoveVersion extends KeyVersionOperation {
+  public static class RemoveVersion<K> extends KeyVersionOperation<K> {
     public RemoveVersion() {
     }
 
-    public RemoveVersion(String key, long version) {
+    public RemoveVersion(K key, long version) {
       super(key, version);
     }
   }
@@ -337,11 +338,11 @@ public enum ConsistentMapOperations implements OperationId {
   /**
    * Replace operation.
    */
-  public static class Replace extends KeyValueOperation {
+  public static class Replace<K> extends KeyValueOperation<K> {
     public Replace() {
     }
 
-    public Replace(String key, byte[] value) {
+    public Replace(K key, byte[] value) {
       super(key, value);
     }
   }
@@ -349,14 +350,14 @@ public enum ConsistentMapOperations implements OperationId {
   /**
    * Replace by value operation.
    */
-  public static class ReplaceValue extends KeyOperation {
+  public static class ReplaceValue<K> extends KeyOperation<K> {
     private byte[] oldValue;
     private byte[] newValue;
 
     public ReplaceValue() {
     }
 
-    public ReplaceValue(String key, byte[] oldValue, byte[] newValue) {
+    public ReplaceValue(K key, byte[] oldValue, byte[] newValue) {
       super(key);
       this.oldValue = oldValue;
       this.newValue = newValue;
@@ -383,14 +384,14 @@ public enum ConsistentMapOperations implements OperationId {
   /**
    * Replace by version operation.
    */
-  public static class ReplaceVersion extends KeyOperation {
+  public static class ReplaceVersion<K> extends KeyOperation<K> {
     private long oldVersion;
     private byte[] newValue;
 
     public ReplaceVersion() {
     }
 
-    public ReplaceVersion(String key, long oldVersion, byte[] newValue) {
+    public ReplaceVersion(K key, long oldVersion, byte[] newValue) {
       super(key);
       this.oldVersion = oldVersion;
       this.newValue = newValue;
@@ -436,17 +437,17 @@ public enum ConsistentMapOperations implements OperationId {
    * Map prepare command.
    */
   @SuppressWarnings("serial")
-  public static class TransactionPrepare extends MapOperation {
-    private TransactionLog<MapUpdate<String, byte[]>> transactionLog;
+  public static class TransactionPrepare<K> extends MapOperation {
+    private TransactionLog<MapUpdate<K, byte[]>> transactionLog;
 
     public TransactionPrepare() {
     }
 
-    public TransactionPrepare(TransactionLog<MapUpdate<String, byte[]>> transactionLog) {
+    public TransactionPrepare(TransactionLog<MapUpdate<K, byte[]>> transactionLog) {
       this.transactionLog = transactionLog;
     }
 
-    public TransactionLog<MapUpdate<String, byte[]>> transactionLog() {
+    public TransactionLog<MapUpdate<K, byte[]>> transactionLog() {
       return transactionLog;
     }
 
@@ -462,11 +463,11 @@ public enum ConsistentMapOperations implements OperationId {
    * Map prepareAndCommit command.
    */
   @SuppressWarnings("serial")
-  public static class TransactionPrepareAndCommit extends TransactionPrepare {
+  public static class TransactionPrepareAndCommit<K> extends TransactionPrepare<K> {
     public TransactionPrepareAndCommit() {
     }
 
-    public TransactionPrepareAndCommit(TransactionLog<MapUpdate<String, byte[]>> transactionLog) {
+    public TransactionPrepareAndCommit(TransactionLog<MapUpdate<K, byte[]>> transactionLog) {
       super(transactionLog);
     }
   }
@@ -537,11 +538,11 @@ public enum ConsistentMapOperations implements OperationId {
    * Get query.
    */
   @SuppressWarnings("serial")
-  public static class Get extends KeyOperation {
+  public static class Get<K> extends KeyOperation<K> {
     public Get() {
     }
 
-    public Get(String key) {
+    public Get(K key) {
       super(key);
     }
   }
@@ -550,13 +551,13 @@ public enum ConsistentMapOperations implements OperationId {
    * Get all present query.
    */
   @SuppressWarnings("serial")
-  public static class GetAllPresent extends MapOperation {
-    private Set<String> keys;
+  public static class GetAllPresent<K> extends MapOperation {
+    private Set<K> keys;
 
     public GetAllPresent() {
     }
 
-    public GetAllPresent(Set<String> keys) {
+    public GetAllPresent(Set<K> keys) {
       this.keys = keys;
     }
 
@@ -565,7 +566,7 @@ public enum ConsistentMapOperations implements OperationId {
      *
      * @return the keys
      */
-    public Set<String> keys() {
+    public Set<K> keys() {
       return keys;
     }
 
@@ -581,13 +582,13 @@ public enum ConsistentMapOperations implements OperationId {
    * Get or default query.
    */
   @SuppressWarnings("serial")
-  public static class GetOrDefault extends KeyOperation {
+  public static class GetOrDefault<K> extends KeyOperation<K> {
     private byte[] defaultValue;
 
     public GetOrDefault() {
     }
 
-    public GetOrDefault(String key, byte[] defaultValue) {
+    public GetOrDefault(K key, byte[] defaultValue) {
       super(key);
       this.defaultValue = defaultValue;
     }
@@ -45,7 +45,9 @@ import io.atomix.core.transaction.TransactionId;
 import io.atomix.core.transaction.TransactionLog;
 import io.atomix.primitive.PrimitiveRegistry;
 import io.atomix.primitive.impl.AbstractAsyncPrimitive;
+import io.atomix.primitive.operation.OperationId;
 import io.atomix.primitive.partition.PartitionId;
+import io.atomix.primitive.partition.Partitioner;
 import io.atomix.primitive.proxy.PartitionProxy;
 import io.atomix.primitive.proxy.PrimitiveProxy;
 import io.atomix.utils.concurrent.Futures;
@@ -99,7 +101,7 @@ import static io.atomix.core.map.impl.ConsistentMapOperations.VALUES;
 /**
  * Distributed resource providing the {@link AsyncConsistentMap} primitive.
  */
-public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMap<String, byte[]>> implements AsyncConsistentMap<String, byte[]> {
+public class ConsistentMapProxy<K> extends AbstractAsyncPrimitive<AsyncConsistentMap<K, byte[]>> implements AsyncConsistentMap<K, byte[]> {
   private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.builder()
       .register(KryoNamespaces.BASIC)
       .register(ConsistentMapOperations.NAMESPACE)
@@ -107,17 +109,61 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
       .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID + 100)
       .build());
 
-  private final Map<MapEventListener<String, byte[]>, Executor> mapEventListeners = new ConcurrentHashMap<>();
+  private final Map<MapEventListener<K, byte[]>, Executor> mapEventListeners = new ConcurrentHashMap<>();
+  private final Partitioner<K> partitioner;
 
+  /**
+   * Creates a map proxy for {@code String} keys, which are partitioned by the protocol's partitioner.
+   *
+   * @param proxy    the primitive proxy
+   * @param registry the primitive registry
+   */
   public ConsistentMapProxy(PrimitiveProxy proxy, PrimitiveRegistry registry) {
+    this(proxy, registry, null);
+  }
+
+  /**
+   * Creates a map proxy for keys of any type, which are partitioned by the given partitioner.
+   *
+   * @param proxy       the primitive proxy
+   * @param registry    the primitive registry
+   * @param partitioner the partitioner with which to partition keys, or {@code null} to partition {@code String} keys
+   *                    with the protocol's partitioner
+   */
+  public ConsistentMapProxy(PrimitiveProxy proxy, PrimitiveRegistry registry, Partitioner<K> partitioner) {
     super(proxy, registry);
+    this.partitioner = partitioner;
   }
 
   protected Serializer serializer() {
     return SERIALIZER;
   }
 
-  private void handleEvent(List<MapEvent<String, byte[]>> events) {
+  /**
+   * Returns the partition for the given key.
+   *
+   * @param key the key for which to return the partition
+   * @return the partition proxy for the given key
+   */
+  protected PartitionProxy getPartitionByKey(K key) {
+    return partitioner != null ? getPartition(key, partitioner) : getPartition((String) key);
+  }
+
+  /**
+   * Submits an operation to the owning partition for the given key.
+   *
+   * @param key         the key for which to submit the operation
+   * @param operationId the operation identifier
+   * @param operation   the operation to submit
+   * @param <T>         the operation type
+   * @param <R>         the operation result type
+   * @return a future to be completed with the operation result
+   */
+  protected <T, R> CompletableFuture<R> invokeByKey(K key, OperationId operationId, T operation) {
+    return invokeOn(getPartitionByKey(key).partitionId(), operationId, operation);
+  }
+
+  private void handleEvent(List<MapEvent<K, byte[]>> events) {
     events.forEach(event ->
         mapEventListeners.forEach((listener, executor) ->
             executor.execute(() -> listener.event(event))));
@@ -135,8 +181,8 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
   }
 
   @Override
-  public CompletableFuture<Boolean> containsKey(String key) {
-    return invokeBy(key, CONTAINS_KEY, new ContainsKey(key));
+  public CompletableFuture<Boolean> containsKey(K key) {
+    return invokeByKey(key, CONTAINS_KEY, new ContainsKey<>(key));
   }
 
   @Override
@@ -148,28 +194,28 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
   }
 
   @Override
-  public CompletableFuture<Versioned<byte[]>> get(String key) {
-    return invokeBy(key, GET, new Get(key));
+  public CompletableFuture<Versioned<byte[]>> get(K key) {
+    return invokeByKey(key, GET, new Get<>(key));
   }
 
   @Override
-  public CompletableFuture<Map<String, Versioned<byte[]>>> getAllPresent(Iterable<String> keys) {
+  public CompletableFuture<Map<K, Versioned<byte[]>>> getAllPresent(Iterable<K> keys) {
     return Futures.allOf(getPartitionIds()
         .stream()
         .map(partition -> {
-          Set<String> uniqueKeys = new HashSet<>();
-          for (String key : keys) {
+          Set<K> uniqueKeys = new HashSet<>();
+          for (K key : keys) {
             uniqueKeys.add(key);
           }
-          return this.<GetAllPresent, Map<String, Versioned<byte[]>>>invokeOn(
+          return this.<GetAllPresent<K>, Map<K, Versioned<byte[]>>>invokeOn(
               partition,
               GET_ALL_PRESENT,
-              new GetAllPresent(uniqueKeys));
+              new GetAllPresent<>(uniqueKeys));
         })
         .collect(Collectors.toList()))
         .thenApply(maps -> {
-          Map<String, Versioned<byte[]>> result = new HashMap<>();
-          for (Map<String, Versioned<byte[]>> map : maps) {
+          Map<K, Versioned<byte[]>> result = new HashMap<>();
+          for (Map<K, Versioned<byte[]>> map : maps) {
             result.putAll(map);
           }
           return ImmutableMap.copyOf(result);
@@ -177,16 +223,16 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
   }
 
   @Override
-  public CompletableFuture<Versioned<byte[]>> getOrDefault(String key, byte[] defaultValue) {
-    return invokeBy(
+  public CompletableFuture<Versioned<byte[]>> getOrDefault(K key, byte[] defaultValue) {
+    return invokeByKey(
         key,
         GET_OR_DEFAULT,
-        new GetOrDefault(key, defaultValue));
+        new GetOrDefault<>(key, defaultValue));
   }
 
   @Override
-  public CompletableFuture<Set<String>> keySet() {
-    return this.<Set<String>>invokeAll(KEY_SET)
+  public CompletableFuture<Set<K>> keySet() {
+    return this.<Set<K>>invokeAll(KEY_SET)
         .thenApply(results -> results.reduce((s1, s2) -> ImmutableSet.copyOf(Iterables.concat(s1, s2))).orElse(ImmutableSet.of()));
   }
 
@@ -197,106 +243,106 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
   }
 
   @Override
-  public CompletableFuture<Set<Entry<String, Versioned<byte[]>>>> entrySet() {
-    return this.<Set<Map.Entry<String, Versioned<byte[]>>>>invokeAll(ENTRY_SET)
+  public CompletableFuture<Set<Entry<K, Versioned<byte[]>>>> entrySet() {
+    return this.<Set<Map.Entry<K, Versioned<byte[]>>>>invokeAll(ENTRY_SET)
         .thenApply(results -> results.reduce((s1, s2) -> ImmutableSet.copyOf(Iterables.concat(s1, s2))).orElse(ImmutableSet.of()));
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public CompletableFuture<Versioned<byte[]>> put(String key, byte[] value, Duration ttl) {
-    return this.<Put, MapEntryUpdateResult<String, byte[]>>invokeBy(
+  public CompletableFuture<Versioned<byte[]>> put(K key, byte[] value, Duration ttl) {
+    return this.<Put<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
         key,
         PUT,
-        new Put(key, value, ttl.toMillis()))
+        new Put<>(key, value, ttl.toMillis()))
         .whenComplete((r, e) -> throwIfLocked(r))
         .thenApply(v -> v.result());
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public CompletableFuture<Versioned<byte[]>> putAndGet(String key, byte[] value, Duration ttl) {
-    return this.<Put, MapEntryUpdateResult<String, byte[]>>invokeBy(
+  public CompletableFuture<Versioned<byte[]>> putAndGet(K key, byte[] value, Duration ttl) {
+    return this.<Put<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
         key,
         PUT_AND_GET,
-        new Put(key, value, ttl.toMillis()))
+        new Put<>(key, value, ttl.toMillis()))
         .whenComplete((r, e) -> throwIfLocked(r))
         .thenApply(v -> v.result());
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public CompletableFuture<Versioned<byte[]>> putIfAbsent(String key, byte[] value, Duration ttl) {
-    return this.<Put, MapEntryUpdateResult<String, byte[]>>invokeBy(
+  public CompletableFuture<Versioned<byte[]>> putIfAbsent(K key, byte[] value, Duration ttl) {
+    return this.<Put<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
         key,
         PUT_IF_ABSENT,
-        new Put(key, value, ttl.toMillis()))
+        new Put<>(key, value, ttl.toMillis()))
         .whenComplete((r, e) -> throwIfLocked(r))
         .thenApply(v -> v.result());
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public CompletableFuture<Versioned<byte[]>> remove(String key) {
-    return this.<Remove, MapEntryUpdateResult<String, byte[]>>invokeBy(
+  public CompletableFuture<Versioned<byte[]>> remove(K key) {
+    return this.<Remove<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
         key,
         REMOVE,
-        new Remove(key))
+        new Remove<>(key))
         .whenComplete((r, e) -> throwIfLocked(r))
         .thenApply(v -> v.result());
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public CompletableFuture<Boolean> remove(String key, byte[] value) {
-    return this.<RemoveValue, MapEntryUpdateResult<String, byte[]>>invokeBy(
+  public CompletableFuture<Boolean> remove(K key, byte[] value) {
+    return this.<RemoveValue<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
         key,
         REMOVE_VALUE,
-        new RemoveValue(key, value))
+        new RemoveValue<>(key, value))
         .whenComplete((r, e) -> throwIfLocked(r))
         .thenApply(v -> v.updated());
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public CompletableFuture<Boolean> remove(String key, long version) {
-    return this.<RemoveVersion, MapEntryUpdateResult<String, byte[]>>invokeBy(
+  public CompletableFuture<Boolean> remove(K key, long version) {
+    return this.<RemoveVersion<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
         key,
         REMOVE_VERSION,
-        new RemoveVersion(key, version))
+        new RemoveVersion<>(key, version))
         .whenComplete((r, e) -> throwIfLocked(r))
         .thenApply(v -> v.updated());
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public CompletableFuture<Versioned<byte[]>> replace(String key, byte[] value) {
-    return this.<Replace, MapEntryUpdateResult<String, byte[]>>invokeBy(
+  public CompletableFuture<Versioned<byte[]>> replace(K key, byte[] value) {
+    return this.<Replace<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
         key,
         REPLACE,
-        new Replace(key, value))
+        new Replace<>(key, value))
         .whenComplete((r, e) -> throwIfLocked(r))
         .thenApply(v -> v.result());
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public CompletableFuture<Boolean> replace(String key, byte[] oldValue, byte[] newValue) {
-    return this.<ReplaceValue, MapEntryUpdateResult<String, byte[]>>invokeBy(
+  public CompletableFuture<Boolean> replace(K key, byte[] oldValue, byte[] newValue) {
+    return this.<ReplaceValue<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
         key,
         REPLACE_VALUE,
-        new ReplaceValue(key, oldValue, newValue))
+        new ReplaceValue<>(key, oldValue, newValue))
         .whenComplete((r, e) -> throwIfLocked(r))
         .thenApply(v -> v.updated());
   }
 
   @Override
   @SuppressWarnings("unchecked")
-  public CompletableFuture<Boolean> replace(String key, long oldVersion, byte[] newValue) {
-    return this.<ReplaceVersion, MapEntryUpdateResult<String, byte[]>>invokeBy(
+  public CompletableFuture<Boolean> replace(K key, long oldVersion, byte[] newValue) {
+    return this.<ReplaceVersion<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
         key,
         REPLACE_VERSION,
-        new ReplaceVersion(key, oldVersion, newValue))
+        new ReplaceVersion<>(key, oldVersion, newValue))
         .whenComplete((r, e) -> throwIfLocked(r))
         .thenApply(v -> v.updated());
   }
@@ -313,9 +359,9 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
 
   @Override
   @SuppressWarnings("unchecked")
-  public CompletableFuture<Versioned<byte[]>> computeIf(String key,
+  public CompletableFuture<Versioned<byte[]>> computeIf(K key,
                                                         Predicate<? super byte[]> condition,
-                                                        BiFunction<? super String, ? super byte[], ? extends byte[]> remappingFunction) {
+                                                        BiFunction<? super K, ? super byte[], ? extends byte[]> remappingFunction) {
     return get(key).thenCompose(r1 -> {
       byte[] existingValue = r1 == null ? null : r1.value();
       // if the condition evaluates to false, return existing value.
@@ -335,26 +381,26 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
       }
 
       if (r1 == null) {
-        return this.<Put, MapEntryUpdateResult<String, byte[]>>invokeBy(
+        return this.<Put<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
             key,
             PUT_IF_ABSENT,
-            new Put(key, computedValue, 0))
+            new Put<>(key, computedValue, 0))
             .whenComplete((r, e) -> throwIfLocked(r))
             .thenCompose(r -> checkLocked(r))
             .thenApply(result -> new Versioned<>(computedValue, result.version()));
       } else if (computedValue == null) {
-        return this.<RemoveVersion, MapEntryUpdateResult<String, byte[]>>invokeBy(
+        return this.<RemoveVersion<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
             key,
             REMOVE_VERSION,
-            new RemoveVersion(key, r1.version()))
+            new RemoveVersion<>(key, r1.version()))
             .whenComplete((r, e) -> throwIfLocked(r))
             .thenCompose(r -> checkLocked(r))
             .thenApply(v -> null);
       } else {
-        return this.<ReplaceVersion, MapEntryUpdateResult<String, byte[]>>invokeBy(
+        return this.<ReplaceVersion<K>, MapEntryUpdateResult<K, byte[]>>invokeByKey(
             key,
             REPLACE_VERSION,
-            new ReplaceVersion(key, r1.version(), computedValue))
+            new ReplaceVersion<>(key, r1.version(), computedValue))
             .whenComplete((r, e) -> throwIfLocked(r))
             .thenCompose(r -> checkLocked(r))
             .thenApply(result -> result.status() == MapEntryUpdateResult.Status.OK
@@ -363,8 +409,8 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
     });
   }
 
-  private CompletableFuture<MapEntryUpdateResult<String, byte[]>> checkLocked(
-      MapEntryUpdateResult<String, byte[]> result) {
+  private CompletableFuture<MapEntryUpdateResult<K, byte[]>> checkLocked(
+      MapEntryUpdateResult<K, byte[]> result) {
     if (result.status() == MapEntryUpdateResult.Status.PRECONDITION_FAILED ||
         result.status() == MapEntryUpdateResult.Status.WRITE_LOCK) {
       return Futures.exceptionalFuture(new ConsistentMapException.ConcurrentModification());
@@ -373,7 +419,7 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
   }
 
   @Override
-  public synchronized CompletableFuture<Void> addListener(MapEventListener<String, byte[]> listener, Executor executor) {
+  public synchronized CompletableFuture<Void> addListener(MapEventListener<K, byte[]> listener, Executor executor) {
     if (mapEventListeners.isEmpty()) {
       mapEventListeners.put(listener, executor);
       return invokeAll(ADD_LISTENER).thenApply(v -> null);
@@ -384,14 +430,14 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
   }
 
   @Override
-  public synchronized CompletableFuture<Void> removeListener(MapEventListener<String, byte[]> listener) {
+  public synchronized CompletableFuture<Void> removeListener(MapEventListener<K, byte[]> listener) {
     if (mapEventListeners.remove(listener) != null && mapEventListeners.isEmpty()) {
       return invokeAll(REMOVE_LISTENER).thenApply(v -> null);
     }
     return CompletableFuture.completedFuture(null);
   }
 
-  private void throwIfLocked(MapEntryUpdateResult<String, byte[]> result) {
+  private void throwIfLocked(MapEntryUpdateResult<K, byte[]> result) {
     if (result != null) {
       throwIfLocked(result.status());
     }
@@ -404,18 +450,18 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
   }
 
   @Override
-  public CompletableFuture<Boolean> prepare(TransactionLog<MapUpdate<String, byte[]>> transactionLog) {
-    Map<PartitionId, List<MapUpdate<String, byte[]>>> updatesGroupedByMap = Maps.newIdentityHashMap();
+  public CompletableFuture<Boolean> prepare(TransactionLog<MapUpdate<K, byte[]>> transactionLog) {
+    Map<PartitionId, List<MapUpdate<K, byte[]>>> updatesGroupedByMap = Maps.newIdentityHashMap();
     transactionLog.records().forEach(update -> {
-      PartitionProxy partition = getPartition(update.key());
+      PartitionProxy partition = getPartitionByKey(update.key());
       updatesGroupedByMap.computeIfAbsent(partition.partitionId(), k -> Lists.newLinkedList()).add(update);
     });
-    Map<PartitionId, TransactionLog<MapUpdate<String, byte[]>>> transactionsByMap =
+    Map<PartitionId, TransactionLog<MapUpdate<K, byte[]>>> transactionsByMap =
         Maps.transformValues(updatesGroupedByMap, list -> new TransactionLog<>(transactionLog.transactionId(), transactionLog.version(), list));
 
     return Futures.allOf(transactionsByMap.entrySet()
         .stream()
-        .map(e -> this.<TransactionPrepare, PrepareResult>invokeOn(e.getKey(), PREPARE, new TransactionPrepare(transactionLog))
+        .map(e -> this.<TransactionPrepare<K>, PrepareResult>invokeOn(e.getKey(), PREPARE, new TransactionPrepare<>(transactionLog))
             .thenApply(v -> v == PrepareResult.OK || v == PrepareResult.PARTIAL_FAILURE))
         .collect(Collectors.toList()))
         .thenApply(list -> list.stream().reduce(Boolean::logicalAnd).orElse(true));
@@ -438,7 +484,7 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
   }
 
   @Override
-  public CompletableFuture<AsyncConsistentMap<String, byte[]>> connect() {
+  public CompletableFuture<AsyncConsistentMap<K, byte[]>> connect() {
     return super.connect()
         .thenRun(() -> getPartitionIds().forEach(partition -> {
           listenOn(partition, CHANGE, this::handleEvent);
@@ -456,7 +502,7 @@ public class ConsistentMapProxy extends AbstractAsyncPrimitive<AsyncConsistentMa
   }
 
   @Override
-  public ConsistentMap<String, byte[]> sync(Duration operationTimeout) {
+  public ConsistentMap<K, byte[]> sync(Duration operationTimeout) {
     return new BlockingConsistentMap<>(this, operationTimeout.toMillis());
   }
 }
\ No newline at end of file
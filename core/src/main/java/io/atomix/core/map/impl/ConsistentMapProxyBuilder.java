@@ -20,8 +20,11 @@ import io.atomix.core.map.AsyncConsistentMap;
 import io.atomix.core.map.ConsistentMap;
 import io.atomix.core.map.ConsistentMapBuilder;
 import io.atomix.core.map.ConsistentMapConfig;
+import io.atomix.core.map.ConsistentMapType;
 import io.atomix.primitive.PrimitiveManagementService;
+import io.atomix.primitive.partition.Partitioner;
 import io.atomix.primitive.proxy.PrimitiveProxy;
+import io.atomix.utils.misc.ByteArrayKey;
 import io.atomix.utils.serializer.Serializer;
 
 import java.util.concurrent.CompletableFuture;
@@ -40,33 +43,46 @@ public class ConsistentMapProxyBuilder<K, V> extends ConsistentMapBuilder<K, V>
   @Override
   @SuppressWarnings("unchecked")
   public CompletableFuture<ConsistentMap<K, V>> buildAsync() {
+    // Each entry store is a distinct primitive type so that every replica creates the same store.
     PrimitiveProxy proxy = protocol().newProxy(
         name(),
-        primitiveType(),
+        ConsistentMapType.instance(config.getEntryStore()),
         managementService.getPartitionService());
-    return new ConsistentMapProxy(proxy, managementService.getPrimitiveRegistry())
-        .connect()
-        .thenApply(rawMap -> {
-          Serializer serializer = serializer();
-          AsyncConsistentMap<K, V> map = new TranscodingAsyncConsistentMap<K, V, String, byte[]>(
+    Serializer serializer = serializer();
+    CompletableFuture<AsyncConsistentMap<K, V>> future;
+    if (config.isBinaryKeys()) {
+      future = new ConsistentMapProxy<>(proxy, managementService.getPrimitiveRegistry(), Partitioner.BYTE_ARRAY_KEY)
+          .connect()
+          .thenApply(rawMap -> new TranscodingAsyncConsistentMap<K, V, ByteArrayKey, byte[]>(
+              rawMap,
+              key -> ByteArrayKey.wrap(serializer.encode(key)),
+              key -> serializer.decode(key.bytes()),
+              value -> serializer.encode(value),
+              bytes -> serializer.decode(bytes)));
+    } else {
+      future = new ConsistentMapProxy<String>(proxy, managementService.getPrimitiveRegistry())
+          .connect()
+          .thenApply(rawMap -> new TranscodingAsyncConsistentMap<K, V, String, byte[]>(
               rawMap,
               key -> BaseEncoding.base16().encode(serializer.encode(key)),
               string -> serializer.decode(BaseEncoding.base16().decode(string)),
               value -> serializer.encode(value),
-              bytes -> serializer.decode(bytes));
-
-          if (!config.isNullValues()) {
-            map = new NotNullAsyncConsistentMap<>(map);
-          }
+              bytes -> serializer.decode(bytes)));
+    }
+    return future.thenApply(rawMap -> {
+      AsyncConsistentMap<K, V> map = rawMap;
+      if (!config.isNullValues()) {
+        map = new NotNullAsyncConsistentMap<>(map);
+      }
 
-          if (config.isCacheEnabled()) {
-            map = new CachingAsyncConsistentMap<>(map, config.getCacheSize());
-          }
+      if (config.isCacheEnabled()) {
+        map = new CachingAsyncConsistentMap<>(map, config.getCacheSize());
+      }
 
-          if (config.isReadOnly()) {
-            map = new UnmodifiableAsyncConsistentMap<>(map);
-          }
-          return map.sync();
-        });
+      if (config.isReadOnly()) {
+        map = new UnmodifiableAsyncConsistentMap<>(map);
+      }
+      return map.sync();
+    });
   }
 }
\ No newline at end of file
@@ -15,10 +15,14 @@
  */
 package io.atomix.core.map.impl;
 
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import io.atomix.core.map.MapEntryStore;
 import io.atomix.core.map.MapEvent;
 import io.atomix.core.map.impl.ConsistentMapOperations.ContainsKey;
 import io.atomix.core.map.impl.ConsistentMapOperations.ContainsValue;
@@ -97,7 +101,7 @@ import static io.atomix.core.map.impl.ConsistentMapOperations.VALUES;
 /**
  * State Machine for {@link ConsistentMapProxy} resource.
  */
-public class ConsistentMapService extends AbstractPrimitiveService {
+public class ConsistentMapService<K> extends AbstractPrimitiveService {
 
   private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.builder()
       .register(KryoNamespaces.BASIC)
@@ -110,23 +114,80 @@ public class ConsistentMapService extends AbstractPrimitiveService {
       .register(MapEntryValue.class)
       .register(MapEntryValue.Type.class)
       .register(new HashMap().keySet().getClass())
+      .register(new com.esotericsoftware.kryo.Serializer<CompactEntryMap<Object>>() {
+        @Override
+        public void write(Kryo kryo, Output output, CompactEntryMap<Object> map) {
+          output.writeBoolean(map.isOffHeap());
+          output.writeVarInt(map.size(), true);
+          map.forEach((key, value) -> {
+            kryo.writeClassAndObject(output, key);
+            output.writeByte(value.type().ordinal());
+            output.writeLong(value.version());
+            output.writeVarLong(value.created(), true);
+            output.writeVarLong(value.ttl(), true);
+            if (value.value() == null) {
+              output.writeVarInt(0, true);
+            } else {
+              output.writeVarInt(value.value().length + 1, true);
+              output.writeBytes(value.value());
+            }
+          });
+        }
+
+        @Override
+        public CompactEntryMap<Object> read(Kryo kryo, Input input, Class<CompactEntryMap<Object>> type) {
+          boolean offHeap = input.readBoolean();
+          int size = input.readVarInt(true);
+          CompactEntryMap<Object> map = new CompactEntryMap<>(offHeap, size);
+          for (int i = 0; i < size; i++) {
+            Object key = kryo.readClassAndObject(input);
+            MapEntryValue.Type valueType = MapEntryValue.Type.values()[input.readByte()];
+            long version = input.readLong();
+            long created = input.readVarLong(true);
+            long ttl = input.readVarLong(true);
+            int length = input.readVarInt(true);
+            byte[] value = length == 0 ? null : input.readBytes(length - 1);
+            map.put(key, new MapEntryValue(valueType, version, value, created, ttl));
+          }
+          return map;
+        }
+      }, CompactEntryMap.class)
       .build());
 
   protected Map<Long, PrimitiveSession> listeners = new LinkedHashMap<>();
-  private Map<String, MapEntryValue> map;
-  protected Set<String> preparedKeys = Sets.newHashSet();
-  protected Map<TransactionId, TransactionScope> activeTransactions = Maps.newHashMap();
+  private final MapEntryStore entryStore;
+  private Map<K, MapEntryValue> map;
+  protected final Map<K, Scheduled> timers = Maps.newHashMap();
+  protected Set<K> preparedKeys = Sets.newHashSet();
+  protected Map<TransactionId, TransactionScope<K>> activeTransactions = Maps.newHashMap();
   protected long currentVersion;
 
   public ConsistentMapService() {
+    this(MapEntryStore.HASH);
+  }
+
+  public ConsistentMapService(MapEntryStore entryStore) {
+    this.entryStore = entryStore;
     map = createMap();
   }
 
-  protected Map<String, MapEntryValue> createMap() {
-    return Maps.newHashMap();
+  /**
+   * Creates the map in which to store entries.
+   *
+   * @return the map in which to store entries
+   */
+  protected Map<K, MapEntryValue> createMap() {
+    switch (entryStore) {
+      case COMPACT:
+        return new CompactEntryMap<>(false);
+      case OFF_HEAP:
+        return new CompactEntryMap<>(true);
+      default:
+        return Maps.newHashMap();
+    }
   }
 
-  protected Map<String, MapEntryValue> entries() {
+  protected Map<K, MapEntryValue> entries() {
     return map;
   }
 
@@ -147,23 +208,57 @@ public class ConsistentMapService extends AbstractPrimitiveService {
   @Override
   public void restore(BackupInput reader) {
     listeners = new LinkedHashMap<>();
-    for (Long sessionId : reader.<Set<Long>>readObject(serializer()::decode)) {
+    for (Long sessionId : reader.<Set<Long>>readObject()) {
       listeners.put(sessionId, getSessions().getSession(sessionId));
     }
-    preparedKeys = reader.readObject(serializer()::decode);
-    map = reader.readObject(serializer()::decode);
-    activeTransactions = reader.readObject(serializer()::decode);
+    preparedKeys = reader.readObject();
+    timers.values().forEach(Scheduled::cancel);
+    timers.clear();
+    closeMap(map);
+    map = restoreMap(reader.readObject());
+    activeTransactions = reader.readObject();
     currentVersion = reader.readLong();
     map.forEach((key, value) -> {
       if (value.ttl() > 0) {
-        value.timer = getScheduler().schedule(Duration.ofMillis(value.ttl() - (getWallClock().getTime().unixTimestamp() - value.created())), () -> {
-          entries().remove(key, value);
-          publish(new MapEvent<>(MapEvent.Type.REMOVE, "", key, null, toVersioned(value)));
-        });
+        scheduleTtl(key, value, Duration.ofMillis(value.ttl() - (getWallClock().getTime().unixTimestamp() - value.created())));
       }
     });
   }
 
+  /**
+   * Returns the restored entries in the store configured for this state machine.
+   * <p>
+   * Snapshots retain the type of store in which they were taken, so entries are copied into a new store if the
+   * snapshot was taken in a different {@link MapEntryStore}.
+   */
+  private Map<K, MapEntryValue> restoreMap(Map<K, MapEntryValue> entries) {
+    Map<K, MapEntryValue> store = createMap();
+    boolean sameStore = store.getClass() == entries.getClass()
+        && (!(store instanceof CompactEntryMap)
+        || ((CompactEntryMap<K>) store).isOffHeap() == ((CompactEntryMap<K>) entries).isOffHeap());
+    if (sameStore) {
+      closeMap(store);
+      return entries;
+    }
+    store.putAll(entries);
+    closeMap(entries);
+    return store;
+  }
+
+  @Override
+  public void close() {
+    closeMap(map);
+  }
+
+  /**
+   * Releases any off-heap memory held by the given entry store.
+   */
+  private void closeMap(Map<K, MapEntryValue> entries) {
+    if (entries instanceof CompactEntryMap) {
+      ((CompactEntryMap<K>) entries).close();
+    }
+  }
+
   @Override
   protected void configure(ServiceExecutor executor) {
     // Listeners
@@ -204,7 +299,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit containsKey commit
    * @return {@code true} if map contains key
    */
-  protected boolean containsKey(Commit<? extends ContainsKey> commit) {
+  protected boolean containsKey(Commit<? extends ContainsKey<K>> commit) {
     MapEntryValue value = entries().get(commit.value().key());
     return value != null && value.type() != MapEntryValue.Type.TOMBSTONE;
   }
@@ -227,7 +322,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit get commit
    * @return value mapped to key
    */
-  protected Versioned<byte[]> get(Commit<? extends Get> commit) {
+  protected Versioned<byte[]> get(Commit<? extends Get<K>> commit) {
     return toVersioned(entries().get(commit.value().key()));
   }
 
@@ -237,7 +332,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit get all present commit
    * @return keys present in map
    */
-  protected Map<String, Versioned<byte[]>> getAllPresent(Commit<? extends GetAllPresent> commit) {
+  protected Map<K, Versioned<byte[]>> getAllPresent(Commit<? extends GetAllPresent<K>> commit) {
     return entries().entrySet().stream()
         .filter(entry -> entry.getValue().type() != MapEntryValue.Type.TOMBSTONE
             && commit.value().keys().contains(entry.getKey()))
@@ -250,7 +345,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit get or default commit
    * @return value mapped to key
    */
-  protected Versioned<byte[]> getOrDefault(Commit<? extends GetOrDefault> commit) {
+  protected Versioned<byte[]> getOrDefault(Commit<? extends GetOrDefault<K>> commit) {
     MapEntryValue value = entries().get(commit.value().key());
     if (value == null) {
       return new Versioned<>(commit.value().defaultValue(), 0);
@@ -287,7 +382,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    *
    * @return set of keys in map
    */
-  protected Set<String> keySet() {
+  protected Set<K> keySet() {
     return entries().entrySet().stream()
         .filter(entry -> entry.getValue().type() != MapEntryValue.Type.TOMBSTONE)
         .map(Map.Entry::getKey)
@@ -311,7 +406,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    *
    * @return set of map entries
    */
-  protected Set<Map.Entry<String, Versioned<byte[]>>> entrySet() {
+  protected Set<Map.Entry<K, Versioned<byte[]>>> entrySet() {
     return entries().entrySet().stream()
         .filter(entry -> entry.getValue().type() != MapEntryValue.Type.TOMBSTONE)
         .map(e -> Maps.immutableEntry(e.getKey(), toVersioned(e.getValue())))
@@ -358,34 +453,50 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param key   the key to update
    * @param value the value to update
    */
-  protected void putValue(String key, MapEntryValue value) {
-    MapEntryValue oldValue = entries().put(key, value);
-    cancelTtl(oldValue);
+  protected void putValue(K key, MapEntryValue value) {
+    entries().put(key, value);
+    cancelTtl(key);
     scheduleTtl(key, value);
   }
 
   /**
    * Schedules the TTL for the given value.
    *
+   * @param key   the key for which to schedule the TTL
    * @param value the value for which to schedule the TTL
    */
-  protected void scheduleTtl(String key, MapEntryValue value) {
+  protected void scheduleTtl(K key, MapEntryValue value) {
     if (value.ttl() > 0) {
-      value.timer = getScheduler().schedule(Duration.ofMillis(value.ttl()), () -> {
-        entries().remove(key, value);
-        publish(new MapEvent<>(MapEvent.Type.REMOVE, "", key, null, toVersioned(value)));
-      });
+      scheduleTtl(key, value, Duration.ofMillis(value.ttl()));
     }
   }
 
   /**
-   * Cancels the TTL for the given value.
+   * Schedules the given value to be removed after the given delay.
+   * <p>
+   * Timers are tracked by key rather than on the value itself since entry stores are not required to retain the
+   * {@link MapEntryValue} instances they are given. The value is only removed if its version has not changed.
+   */
+  private void scheduleTtl(K key, MapEntryValue value, Duration delay) {
+    timers.put(key, getScheduler().schedule(delay, () -> {
+      timers.remove(key);
+      MapEntryValue currentValue = entries().get(key);
+      if (currentValue != null && currentValue.version() == value.version()) {
+        entries().remove(key);
+      }
+      publish(new MapEvent<>(MapEvent.Type.REMOVE, "", key, null, toVersioned(value)));
+    }));
+  }
+
+  /**
+   * Cancels the TTL for the given key.
    *
-   * @param value the value for which to cancel the TTL
+   * @param key the key for which to cancel the TTL
    */
-  protected void cancelTtl(MapEntryValue value) {
-    if (value != null && value.timer != null) {
-      value.timer.cancel();
+  protected void cancelTtl(K key) {
+    Scheduled timer = timers.remove(key);
+    if (timer != null) {
+      timer.cancel();
     }
   }
 
@@ -395,8 +506,8 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit put commit
    * @return map entry update result
    */
-  protected MapEntryUpdateResult<String, byte[]> put(Commit<? extends Put> commit) {
-    String key = commit.value().key();
+  protected MapEntryUpdateResult<K, byte[]> put(Commit<? extends Put<K>> commit) {
+    K key = commit.value().key();
     MapEntryValue oldValue = entries().get(key);
     MapEntryValue newValue = new MapEntryValue(
         MapEntryValue.Type.VALUE,
@@ -444,8 +555,8 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit putIfAbsent commit
    * @return map entry update result
    */
-  protected MapEntryUpdateResult<String, byte[]> putIfAbsent(Commit<? extends Put> commit) {
-    String key = commit.value().key();
+  protected MapEntryUpdateResult<K, byte[]> putIfAbsent(Commit<? extends Put<K>> commit) {
+    K key = commit.value().key();
     MapEntryValue oldValue = entries().get(key);
 
     // If the value is null, this is an INSERT.
@@ -482,8 +593,8 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit putAndGet commit
    * @return map entry update result
    */
-  protected MapEntryUpdateResult<String, byte[]> putAndGet(Commit<? extends Put> commit) {
-    String key = commit.value().key();
+  protected MapEntryUpdateResult<K, byte[]> putAndGet(Commit<? extends Put<K>> commit) {
+    K key = commit.value().key();
     MapEntryValue oldValue = entries().get(key);
     MapEntryValue newValue = new MapEntryValue(MapEntryValue.Type.VALUE, commit.index(), commit.value().value(), commit.wallClockTime().unixTimestamp(), commit.value().ttl());
 
@@ -527,7 +638,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param predicate predicate to determine whether to remove the entry
    * @return map entry update result
    */
-  private MapEntryUpdateResult<String, byte[]> removeIf(long index, String key, Predicate<MapEntryValue> predicate) {
+  private MapEntryUpdateResult<K, byte[]> removeIf(long index, K key, Predicate<MapEntryValue> predicate) {
     MapEntryValue value = entries().get(key);
 
     // If the value does not exist or doesn't match the predicate, return a PRECONDITION_FAILED error.
@@ -548,7 +659,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
     }
 
     // Cancel the timer if one is scheduled.
-    cancelTtl(value);
+    cancelTtl(key);
 
     Versioned<byte[]> result = toVersioned(value);
     publish(new MapEvent<>(MapEvent.Type.REMOVE, "", key, null, result));
@@ -561,7 +672,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit remove commit
    * @return map entry update result
    */
-  protected MapEntryUpdateResult<String, byte[]> remove(Commit<? extends Remove> commit) {
+  protected MapEntryUpdateResult<K, byte[]> remove(Commit<? extends Remove<K>> commit) {
     return removeIf(commit.index(), commit.value().key(), v -> true);
   }
 
@@ -571,7 +682,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit removeValue commit
    * @return map entry update result
    */
-  protected MapEntryUpdateResult<String, byte[]> removeValue(Commit<? extends RemoveValue> commit) {
+  protected MapEntryUpdateResult<K, byte[]> removeValue(Commit<? extends RemoveValue<K>> commit) {
     return removeIf(commit.index(), commit.value().key(), v ->
         valuesEqual(v, new MapEntryValue(MapEntryValue.Type.VALUE, commit.index(), commit.value().value(), commit.wallClockTime().unixTimestamp(), 0)));
   }
@@ -582,7 +693,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit removeVersion commit
    * @return map entry update result
    */
-  protected MapEntryUpdateResult<String, byte[]> removeVersion(Commit<? extends RemoveVersion> commit) {
+  protected MapEntryUpdateResult<K, byte[]> removeVersion(Commit<? extends RemoveVersion<K>> commit) {
     return removeIf(commit.index(), commit.value().key(), v -> v.version() == commit.value().version());
   }
 
@@ -595,8 +706,8 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param predicate a predicate to determine whether to replace the key
    * @return map entry update result
    */
-  private MapEntryUpdateResult<String, byte[]> replaceIf(
-      long index, String key, MapEntryValue newValue, Predicate<MapEntryValue> predicate) {
+  private MapEntryUpdateResult<K, byte[]> replaceIf(
+      long index, K key, MapEntryValue newValue, Predicate<MapEntryValue> predicate) {
     MapEntryValue oldValue = entries().get(key);
 
     // If the key is not set or the current value doesn't match the predicate, return a PRECONDITION_FAILED error.
@@ -625,7 +736,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit replace commit
    * @return map entry update result
    */
-  protected MapEntryUpdateResult<String, byte[]> replace(Commit<? extends Replace> commit) {
+  protected MapEntryUpdateResult<K, byte[]> replace(Commit<? extends Replace<K>> commit) {
     MapEntryValue value = new MapEntryValue(
         MapEntryValue.Type.VALUE,
         commit.index(),
@@ -641,7 +752,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit replaceValue commit
    * @return map entry update result
    */
-  protected MapEntryUpdateResult<String, byte[]> replaceValue(Commit<? extends ReplaceValue> commit) {
+  protected MapEntryUpdateResult<K, byte[]> replaceValue(Commit<? extends ReplaceValue<K>> commit) {
     MapEntryValue value = new MapEntryValue(
         MapEntryValue.Type.VALUE,
         commit.index(),
@@ -658,7 +769,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit replaceVersion commit
    * @return map entry update result
    */
-  protected MapEntryUpdateResult<String, byte[]> replaceVersion(Commit<? extends ReplaceVersion> commit) {
+  protected MapEntryUpdateResult<K, byte[]> replaceVersion(Commit<? extends ReplaceVersion<K>> commit) {
     MapEntryValue value = new MapEntryValue(
         MapEntryValue.Type.VALUE,
         commit.index(),
@@ -675,16 +786,16 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @return clear result
    */
   protected MapEntryUpdateResult.Status clear() {
-    Iterator<Map.Entry<String, MapEntryValue>> iterator = entries().entrySet().iterator();
-    Map<String, MapEntryValue> entriesToAdd = new HashMap<>();
+    Iterator<Map.Entry<K, MapEntryValue>> iterator = entries().entrySet().iterator();
+    Map<K, MapEntryValue> entriesToAdd = new HashMap<>();
     while (iterator.hasNext()) {
-      Map.Entry<String, MapEntryValue> entry = iterator.next();
-      String key = entry.getKey();
+      Map.Entry<K, MapEntryValue> entry = iterator.next();
+      K key = entry.getKey();
       MapEntryValue value = entry.getValue();
       if (!valueIsNull(value)) {
         Versioned<byte[]> removedValue = new Versioned<>(value.value(), value.version());
         publish(new MapEvent<>(MapEvent.Type.REMOVE, "", key, null, removedValue));
-        cancelTtl(value);
+        cancelTtl(key);
         if (activeTransactions.isEmpty()) {
           iterator.remove();
         } else {
@@ -722,7 +833,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    */
   protected long begin(Commit<? extends TransactionBegin> commit) {
     long version = commit.index();
-    activeTransactions.put(commit.value().transactionId(), new TransactionScope(version));
+    activeTransactions.put(commit.value().transactionId(), new TransactionScope<>(version));
     return version;
   }
 
@@ -732,10 +843,10 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit transaction prepare and commit commit
    * @return prepare result
    */
-  protected PrepareResult prepareAndCommit(Commit<? extends TransactionPrepareAndCommit> commit) {
+  protected PrepareResult prepareAndCommit(Commit<? extends TransactionPrepareAndCommit<K>> commit) {
     TransactionId transactionId = commit.value().transactionLog().transactionId();
     PrepareResult prepareResult = prepare(commit);
-    TransactionScope transactionScope = activeTransactions.remove(transactionId);
+    TransactionScope<K> transactionScope = activeTransactions.remove(transactionId);
     if (prepareResult == PrepareResult.OK) {
       this.currentVersion = commit.index();
       transactionScope = transactionScope.prepared(commit);
@@ -751,13 +862,13 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param commit transaction prepare commit
    * @return prepare result
    */
-  protected PrepareResult prepare(Commit<? extends TransactionPrepare> commit) {
+  protected PrepareResult prepare(Commit<? extends TransactionPrepare<K>> commit) {
     try {
-      TransactionLog<MapUpdate<String, byte[]>> transactionLog = commit.value().transactionLog();
+      TransactionLog<MapUpdate<K, byte[]>> transactionLog = commit.value().transactionLog();
 
       // Iterate through records in the transaction log and perform isolation checks.
-      for (MapUpdate<String, byte[]> record : transactionLog.records()) {
-        String key = record.key();
+      for (MapUpdate<K, byte[]> record : transactionLog.records()) {
+        K key = record.key();
 
         // If the record is a VERSION_MATCH then check that the record's version matches the current
         // version of the state machine.
@@ -803,11 +914,11 @@ public class ConsistentMapService extends AbstractPrimitiveService {
       // Update the transaction scope. If the transaction scope is not set on this node, that indicates the
       // coordinator is communicating with another node. Transactions assume that the client is communicating
       // with a single leader in order to limit the overhead of retaining tombstones.
-      TransactionScope transactionScope = activeTransactions.get(transactionLog.transactionId());
+      TransactionScope<K> transactionScope = activeTransactions.get(transactionLog.transactionId());
       if (transactionScope == null) {
         activeTransactions.put(
             transactionLog.transactionId(),
-            new TransactionScope(transactionLog.version(), commit.value().transactionLog()));
+            new TransactionScope<>(transactionLog.version(), commit.value().transactionLog()));
         return PrepareResult.PARTIAL_FAILURE;
       } else {
         activeTransactions.put(
@@ -829,7 +940,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    */
   protected CommitResult commit(Commit<? extends TransactionCommit> commit) {
     TransactionId transactionId = commit.value().transactionId();
-    TransactionScope transactionScope = activeTransactions.remove(transactionId);
+    TransactionScope<K> transactionScope = activeTransactions.remove(transactionId);
     if (transactionScope == null) {
       return CommitResult.UNKNOWN_TRANSACTION_ID;
     }
@@ -848,17 +959,17 @@ public class ConsistentMapService extends AbstractPrimitiveService {
   /**
    * Applies committed operations to the state machine.
    */
-  private CommitResult commitTransaction(TransactionScope transactionScope) {
-    TransactionLog<MapUpdate<String, byte[]>> transactionLog = transactionScope.transactionLog();
+  private CommitResult commitTransaction(TransactionScope<K> transactionScope) {
+    TransactionLog<MapUpdate<K, byte[]>> transactionLog = transactionScope.transactionLog();
     boolean retainTombstones = !activeTransactions.isEmpty();
 
-    List<MapEvent<String, byte[]>> eventsToPublish = Lists.newArrayList();
-    for (MapUpdate<String, byte[]> record : transactionLog.records()) {
+    List<MapEvent<K, byte[]>> eventsToPublish = Lists.newArrayList();
+    for (MapUpdate<K, byte[]> record : transactionLog.records()) {
       if (record.type() == MapUpdate.Type.VERSION_MATCH) {
         continue;
       }
 
-      String key = record.key();
+      K key = record.key();
       checkState(preparedKeys.remove(key), "key is not prepared");
 
       if (record.type() == MapUpdate.Type.LOCK) {
@@ -868,7 +979,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
       MapEntryValue previousValue = entries().remove(key);
 
       // Cancel the previous timer if set.
-      cancelTtl(previousValue);
+      cancelTtl(key);
 
       MapEntryValue newValue = null;
 
@@ -880,7 +991,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
         newValue = new MapEntryValue(MapEntryValue.Type.TOMBSTONE, currentVersion, null, 0, 0);
       }
 
-      MapEvent<String, byte[]> event;
+      MapEvent<K, byte[]> event;
       if (newValue != null) {
         entries().put(key, newValue);
         if (!valueIsNull(newValue)) {
@@ -929,7 +1040,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    */
   protected RollbackResult rollback(Commit<? extends TransactionRollback> commit) {
     TransactionId transactionId = commit.value().transactionId();
-    TransactionScope transactionScope = activeTransactions.remove(transactionId);
+    TransactionScope<K> transactionScope = activeTransactions.remove(transactionId);
     if (transactionScope == null) {
       return RollbackResult.UNKNOWN_TRANSACTION_ID;
     } else if (!transactionScope.isPrepared()) {
@@ -956,7 +1067,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    */
   private void discardTombstones() {
     if (activeTransactions.isEmpty()) {
-      Iterator<Map.Entry<String, MapEntryValue>> iterator = entries().entrySet().iterator();
+      Iterator<Map.Entry<K, MapEntryValue>> iterator = entries().entrySet().iterator();
       while (iterator.hasNext()) {
         MapEntryValue value = iterator.next().getValue();
         if (value.type() == MapEntryValue.Type.TOMBSTONE) {
@@ -967,7 +1078,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
       long lowWaterMark = activeTransactions.values().stream()
           .mapToLong(TransactionScope::version)
           .min().getAsLong();
-      Iterator<Map.Entry<String, MapEntryValue>> iterator = entries().entrySet().iterator();
+      Iterator<Map.Entry<K, MapEntryValue>> iterator = entries().entrySet().iterator();
       while (iterator.hasNext()) {
         MapEntryValue value = iterator.next().getValue();
         if (value.type() == MapEntryValue.Type.TOMBSTONE && value.version < lowWaterMark) {
@@ -993,7 +1104,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    *
    * @param event event to publish
    */
-  private void publish(MapEvent<String, byte[]> event) {
+  private void publish(MapEvent<K, byte[]> event) {
     publish(Lists.newArrayList(event));
   }
 
@@ -1002,7 +1113,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    *
    * @param events list of map event to publish
    */
-  private void publish(List<MapEvent<String, byte[]>> events) {
+  private void publish(List<MapEvent<K, byte[]>> events) {
     listeners.values().forEach(session -> {
       session.publish(CHANGE, events);
     });
@@ -1031,7 +1142,6 @@ public class ConsistentMapService extends AbstractPrimitiveService {
     final byte[] value;
     final long created;
     final long ttl;
-    transient Scheduled timer;
 
     MapEntryValue(Type type, long version, byte[] value, long created, long ttl) {
       this.type = type;
@@ -1098,15 +1208,15 @@ public class ConsistentMapService extends AbstractPrimitiveService {
   /**
    * Map transaction scope.
    */
-  protected static final class TransactionScope {
+  protected static final class TransactionScope<K> {
     private final long version;
-    private final TransactionLog<MapUpdate<String, byte[]>> transactionLog;
+    private final TransactionLog<MapUpdate<K, byte[]>> transactionLog;
 
     private TransactionScope(long version) {
       this(version, null);
     }
 
-    private TransactionScope(long version, TransactionLog<MapUpdate<String, byte[]>> transactionLog) {
+    private TransactionScope(long version, TransactionLog<MapUpdate<K, byte[]>> transactionLog) {
       this.version = version;
       this.transactionLog = transactionLog;
     }
@@ -1134,7 +1244,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
      *
      * @return the transaction commit log
      */
-    TransactionLog<MapUpdate<String, byte[]>> transactionLog() {
+    TransactionLog<MapUpdate<K, byte[]>> transactionLog() {
       checkState(isPrepared());
       return transactionLog;
     }
@@ -1145,8 +1255,8 @@ public class ConsistentMapService extends AbstractPrimitiveService {
      * @param commit the prepare commit
      * @return new transaction scope updated with the prepare commit
      */
-    TransactionScope prepared(Commit<? extends TransactionPrepare> commit) {
-      return new TransactionScope(version, commit.value().transactionLog());
+    TransactionScope<K> prepared(Commit<? extends TransactionPrepare<K>> commit) {
+      return new TransactionScope<>(version, commit.value().transactionLog());
     }
   }
 }
\ No newline at end of file
@@ -60,7 +60,7 @@ import static io.atomix.core.map.impl.ConsistentTreeMapOperations.LOWER_KEY;
 /**
  * Implementation of {@link io.atomix.core.map.AsyncConsistentTreeMap}.
  */
-public class ConsistentTreeMapProxy extends ConsistentMapProxy implements AsyncConsistentTreeMap<byte[]> {
+public class ConsistentTreeMapProxy extends ConsistentMapProxy<String> implements AsyncConsistentTreeMap<byte[]> {
   private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.builder()
       .register(KryoNamespaces.BASIC)
       .register(ConsistentMapOperations.NAMESPACE)
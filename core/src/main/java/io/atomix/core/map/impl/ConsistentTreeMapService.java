@@ -59,7 +59,7 @@ import static io.atomix.core.map.impl.ConsistentTreeMapOperations.SUB_MAP;
  * State machine corresponding to {@link ConsistentTreeMapProxy} backed by a
  * {@link TreeMap}.
  */
-public class ConsistentTreeMapService extends ConsistentMapService {
+public class ConsistentTreeMapService extends ConsistentMapService<String> {
 
   private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.builder()
       .register(KryoNamespaces.BASIC)
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map.impl;
+
+import io.atomix.storage.buffer.UnsafeDirectBytes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Off-heap slab allocator for map entry values.
+ * <p>
+ * Values are copied into fixed size chunks carved out of large off-heap slabs. Each slab holds chunks of a single
+ * power-of-two size class, and freed chunks are recycled through a per-class free list. Values too large to fit in
+ * a slab are given a dedicated slab which is released as soon as the value is freed. Chunk addresses are encoded
+ * as {@code slab << 32 | offset}, and each chunk is prefixed with the length of the value it holds.
+ * <p>
+ * The slab is not thread safe and is expected to be accessed only from the owning state machine thread.
+ */
+final class OffHeapValueSlab implements AutoCloseable {
+  static final int SLAB_SIZE = 1 << 22;
+  private static final int MIN_CHUNK_SHIFT = 4;
+  private static final int MAX_CHUNK_SHIFT = 22;
+  private static final int HEADER_SIZE = Integer.BYTES;
+  private static final int CLASSES = MAX_CHUNK_SHIFT - MIN_CHUNK_SHIFT + 1;
+  private static final int LARGE = -1;
+
+  private final List<UnsafeDirectBytes> slabs = new ArrayList<>();
+  private final LongStack freeSlabs = new LongStack();
+  private final LongStack[] freeChunks = new LongStack[CLASSES];
+  private final int[] currentSlab = new int[CLASSES];
+  private final int[] currentOffset = new int[CLASSES];
+  private long allocatedBytes;
+  private long usedBytes;
+
+  OffHeapValueSlab() {
+    for (int i = 0; i < CLASSES; i++) {
+      freeChunks[i] = new LongStack();
+    }
+    Arrays.fill(currentSlab, -1);
+  }
+
+  /**
+   * Returns the size class for a chunk of the given size.
+   *
+   * @param size the chunk size, including the length header
+   * @return the size class, or {@code -1} if the chunk requires a dedicated slab
+   */
+  private static int sizeClass(int size) {
+    int shift = Math.max(MIN_CHUNK_SHIFT, 32 - Integer.numberOfLeadingZeros(size - 1));
+    return shift > MAX_CHUNK_SHIFT ? LARGE : shift - MIN_CHUNK_SHIFT;
+  }
+
+  /**
+   * Returns the chunk size for the given size class.
+   */
+  private static int chunkSize(int sizeClass) {
+    return 1 << (sizeClass + MIN_CHUNK_SHIFT);
+  }
+
+  private static long address(int slab, int offset) {
+    return (long) slab << 32 | offset;
+  }
+
+  private static int slab(long address) {
+    return (int) (address >>> 32);
+  }
+
+  private static int offset(long address) {
+    return (int) address;
+  }
+
+  /**
+   * Copies the given value into the slab.
+   *
+   * @param value the value to copy
+   * @return the address of the value
+   */
+  long allocate(byte[] value) {
+    int size = value.length + HEADER_SIZE;
+    int sizeClass = sizeClass(size);
+    long address;
+    if (sizeClass == LARGE) {
+      address = address(newSlab(size), 0);
+    } else {
+      address = allocateChunk(sizeClass);
+      size = chunkSize(sizeClass);
+    }
+    usedBytes += size;
+
+    UnsafeDirectBytes bytes = slabs.get(slab(address));
+    bytes.writeInt(offset(address), value.length);
+    bytes.write(offset(address) + HEADER_SIZE, value, 0, value.length);
+    return address;
+  }
+
+  /**
+   * Allocates a chunk from the given size class.
+   */
+  private long allocateChunk(int sizeClass) {
+    LongStack free = freeChunks[sizeClass];
+    if (!free.isEmpty()) {
+      return free.pop();
+    }
+
+    int chunkSize = chunkSize(sizeClass);
+    if (currentSlab[sizeClass] == -1 || currentOffset[sizeClass] + chunkSize > SLAB_SIZE) {
+      currentSlab[sizeClass] = newSlab(SLAB_SIZE);
+      currentOffset[sizeClass] = 0;
+    }
+    long address = address(currentSlab[sizeClass], currentOffset[sizeClass]);
+    currentOffset[sizeClass] += chunkSize;
+    return address;
+  }
+
+  /**
+   * Allocates a new slab, reusing the index of a released slab where possible.
+   */
+  private int newSlab(int size) {
+    UnsafeDirectBytes bytes = UnsafeDirectBytes.allocate(size);
+    allocatedBytes += size;
+    if (!freeSlabs.isEmpty()) {
+      int index = (int) freeSlabs.pop();
+      slabs.set(index, bytes);
+      return index;
+    }
+    slabs.add(bytes);
+    return slabs.size() - 1;
+  }
+
+  /**
+   * Reads the value at the given address.
+   *
+   * @param address the value address
+   * @return a copy of the value
+   */
+  byte[] read(long address) {
+    UnsafeDirectBytes bytes = slabs.get(slab(address));
+    byte[] value = new byte[bytes.readInt(offset(address))];
+    bytes.read(offset(address) + HEADER_SIZE, value, 0, value.length);
+    return value;
+  }
+
+  /**
+   * Frees the value at the given address.
+   *
+   * @param address the value address
+   */
+  void free(long address) {
+    int index = slab(address);
+    UnsafeDirectBytes bytes = slabs.get(index);
+    int size = bytes.readInt(offset(address)) + HEADER_SIZE;
+    int sizeClass = sizeClass(size);
+    if (sizeClass == LARGE) {
+      bytes.close();
+      slabs.set(index, null);
+      freeSlabs.push(index);
+      allocatedBytes -= size;
+      usedBytes -= size;
+    } else {
+      freeChunks[sizeClass].push(address);
+      usedBytes -= chunkSize(sizeClass);
+    }
+  }
+
+  /**
+   * Returns the number of off-heap bytes reserved by the slab.
+   *
+   * @return the number of off-heap bytes reserved by the slab
+   */
+  long allocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * Returns the number of off-heap bytes occupied by live values.
+   *
+   * @return the number of off-heap bytes occupied by live values
+   */
+  long usedBytes() {
+    return usedBytes;
+  }
+
+  @Override
+  public void close() {
+    slabs.forEach(bytes -> {
+      if (bytes != null) {
+        bytes.close();
+      }
+    });
+    slabs.clear();
+    freeSlabs.clear();
+    for (int i = 0; i < CLASSES; i++) {
+      freeChunks[i].clear();
+    }
+    Arrays.fill(currentSlab, -1);
+    Arrays.fill(currentOffset, 0);
+    allocatedBytes = 0;
+    usedBytes = 0;
+  }
+
+  /**
+   * Growable stack of primitive longs.
+   */
+  private static final class LongStack {
+    private long[] values = new long[16];
+    private int size;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void push(long value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    long pop() {
+      return values[--size];
+    }
+
+    void clear() {
+      values = new long[16];
+      size = 0;
+    }
+  }
+}
@@ -126,8 +126,8 @@ public class ConsistentSetMultimapService extends AbstractPrimitiveService {
   @Override
   public void backup(BackupOutput writer) {
     writer.writeLong(globalVersion.get());
-    writer.writeObject(Sets.newHashSet(listeners.keySet()), serializer::encode);
-    writer.writeObject(backingMap, serializer::encode);
+    writer.writeObject(Sets.newHashSet(listeners.keySet()), serializer);
+    writer.writeObject(backingMap, serializer);
   }
 
   @Override
@@ -135,11 +135,11 @@ public class ConsistentSetMultimapService extends AbstractPrimitiveService {
     globalVersion = new AtomicLong(reader.readLong());
 
     listeners = new LinkedHashMap<>();
-    for (Long sessionId : reader.<Set<Long>>readObject(serializer::decode)) {
+    for (Long sessionId : reader.<Set<Long>>readObject(serializer)) {
       listeners.put(sessionId, getSessions().getSession(sessionId));
     }
 
-    backingMap = reader.readObject(serializer::decode);
+    backingMap = reader.readObject(serializer);
   }
 
   @Override
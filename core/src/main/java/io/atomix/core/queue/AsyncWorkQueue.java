@@ -61,7 +61,8 @@ public interface AsyncWorkQueue<E> extends AsyncPrimitive {
   /**
    * Picks up multiple tasks from the work queue to work on.
    * <p>
-   * Tasks that are taken remain invisible to other consumers as long as the consumer stays alive.
+   * Tasks that are taken remain invisible to other consumers as long as the consumer stays alive and the
+   * {@link WorkQueueConfig#setTaskTimeout(java.time.Duration) task timeout}, if any, has not elapsed.
    * If a consumer unexpectedly terminates before {@link #complete(String...) completing} the task,
    * the task becomes visible again to other consumers to process.
    *
@@ -80,6 +81,17 @@ public interface AsyncWorkQueue<E> extends AsyncPrimitive {
    */
   CompletableFuture<Void> complete(Collection<String> taskIds);
 
+  /**
+   * Fails a collection of tasks, making them immediately available to other consumers.
+   * <p>
+   * Failing a task counts as an attempt. If the task has been attempted the
+   * {@link WorkQueueConfig#setMaxAttempts(int) maximum number of times} it's dead-lettered instead.
+   *
+   * @param taskIds ids of tasks to fail
+   * @return future that is completed when the operation completes
+   */
+  CompletableFuture<Void> fail(Collection<String> taskIds);
+
   /**
    * Registers a task processing callback to be automatically invoked when new tasks are
    * added to the work queue.
@@ -118,6 +130,16 @@ public interface AsyncWorkQueue<E> extends AsyncPrimitive {
     return complete(Arrays.asList(taskIds));
   }
 
+  /**
+   * Fails a collection of tasks.
+   *
+   * @param taskIds var arg list of task ids
+   * @return future that is completed when the operation completes
+   */
+  default CompletableFuture<Void> fail(String... taskIds) {
+    return fail(Arrays.asList(taskIds));
+  }
+
   /**
    * Adds a single task to the work queue.
    *
@@ -131,7 +153,8 @@ public interface AsyncWorkQueue<E> extends AsyncPrimitive {
   /**
    * Picks up a single task from the work queue to work on.
    * <p>
-   * Tasks that are taken remain invisible to other consumers as long as the consumer stays alive.
+   * Tasks that are taken remain invisible to other consumers as long as the consumer stays alive and the
+   * {@link WorkQueueConfig#setTaskTimeout(java.time.Duration) task timeout}, if any, has not elapsed.
    * If a consumer unexpectedly terminates before {@link #complete(String...) completing} the task,
    * the task becomes visible again to other consumers to process.
    *
@@ -57,7 +57,8 @@ public interface WorkQueue<E> extends SyncPrimitive {
   /**
    * Picks up multiple tasks from the work queue to work on.
    * <p>
-   * Tasks that are taken remain invisible to other consumers as long as the consumer stays alive.
+   * Tasks that are taken remain invisible to other consumers as long as the consumer stays alive and the
+   * {@link WorkQueueConfig#setTaskTimeout(java.time.Duration) task timeout}, if any, has not elapsed.
    * If a consumer unexpectedly terminates before {@link #complete(String...) completing} the task,
    * the task becomes visible again to other consumers to process.
    *
@@ -74,6 +75,16 @@ public interface WorkQueue<E> extends SyncPrimitive {
    */
   void complete(Collection<String> taskIds);
 
+  /**
+   * Fails a collection of tasks, making them immediately available to other consumers.
+   * <p>
+   * Failing a task counts as an attempt. If the task has been attempted the
+   * {@link WorkQueueConfig#setMaxAttempts(int) maximum number of times} it's dead-lettered instead.
+   *
+   * @param taskIds ids of tasks to fail
+   */
+  void fail(Collection<String> taskIds);
+
   /**
    * Registers a task processing callback to be automatically invoked when new tasks are
    * added to the work queue.
@@ -108,6 +119,15 @@ public interface WorkQueue<E> extends SyncPrimitive {
     complete(Arrays.asList(taskIds));
   }
 
+  /**
+   * Fails a collection of tasks.
+   *
+   * @param taskIds var arg list of task ids
+   */
+  default void fail(String... taskIds) {
+    fail(Arrays.asList(taskIds));
+  }
+
   /**
    * Adds a single task to the work queue.
    *
@@ -120,7 +140,8 @@ public interface WorkQueue<E> extends SyncPrimitive {
   /**
    * Picks up a single task from the work queue to work on.
    * <p>
-   * Tasks that are taken remain invisible to other consumers as long as the consumer stays alive.
+   * Tasks that are taken remain invisible to other consumers as long as the consumer stays alive and the
+   * {@link WorkQueueConfig#setTaskTimeout(java.time.Duration) task timeout}, if any, has not elapsed.
    * If a consumer unexpectedly terminates before {@link #complete(String...) completing} the task,
    * the task becomes visible again to other consumers to process.
    *
@@ -18,6 +18,8 @@ package io.atomix.core.queue;
 import io.atomix.primitive.DistributedPrimitiveBuilder;
 import io.atomix.primitive.PrimitiveManagementService;
 
+import java.time.Duration;
+
 /**
  * Work queue builder.
  */
@@ -25,4 +27,47 @@ public abstract class WorkQueueBuilder<E> extends DistributedPrimitiveBuilder<Wo
   public WorkQueueBuilder(String name, WorkQueueConfig config, PrimitiveManagementService managementService) {
     super(WorkQueueType.instance(), name, config, managementService);
   }
+
+  /**
+   * Enables partitioning of the queue's tasks.
+   *
+   * @return this builder
+   */
+  public WorkQueueBuilder<E> withPartitioned() {
+    config.setPartitioned();
+    return this;
+  }
+
+  /**
+   * Sets whether the queue's tasks are spread across partitions rather than stored in a single partition.
+   *
+   * @param partitioned whether the queue's tasks are partitioned
+   * @return this builder
+   */
+  public WorkQueueBuilder<E> withPartitioned(boolean partitioned) {
+    config.setPartitioned(partitioned);
+    return this;
+  }
+
+  /**
+   * Sets the visibility timeout after which tasks that have not been completed are made available again.
+   *
+   * @param taskTimeout the task visibility timeout
+   * @return this builder
+   */
+  public WorkQueueBuilder<E> withTaskTimeout(Duration taskTimeout) {
+    config.setTaskTimeout(taskTimeout);
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of times a task may be attempted before it's dead-lettered.
+   *
+   * @param maxAttempts the maximum number of attempts per task
+   * @return this builder
+   */
+  public WorkQueueBuilder<E> withMaxAttempts(int maxAttempts) {
+    config.setMaxAttempts(maxAttempts);
+    return this;
+  }
 }
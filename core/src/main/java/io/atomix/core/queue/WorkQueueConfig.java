@@ -17,11 +17,117 @@ package io.atomix.core.queue;
 
 import io.atomix.primitive.PrimitiveConfig;
 
+import java.time.Duration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Work queue configuration.
  */
 public class WorkQueueConfig extends PrimitiveConfig<WorkQueueConfig> {
+  private boolean partitioned = false;
+  private Duration taskTimeout = Duration.ZERO;
+  private int maxAttempts = 0;
+
   public WorkQueueConfig() {
     super(WorkQueueType.instance());
   }
+
+  /**
+   * Enables partitioning of the queue's tasks.
+   *
+   * @return the work queue configuration
+   */
+  public WorkQueueConfig setPartitioned() {
+    return setPartitioned(true);
+  }
+
+  /**
+   * Sets whether the queue's tasks are partitioned.
+   * <p>
+   * By default, all of a queue's tasks are stored in a single partition, so every operation on the queue is applied
+   * by that partition's leader. Partitioned queues instead spread tasks across all the partitions in the protocol's
+   * partition group. Workers take tasks from a home partition and steal tasks from other partitions when their home
+   * partition is empty. Task ordering is only preserved within a partition. The partitioning mode must be the same
+   * for all instances of a queue.
+   *
+   * @param partitioned whether the queue's tasks are partitioned
+   * @return the work queue configuration
+   */
+  public WorkQueueConfig setPartitioned(boolean partitioned) {
+    this.partitioned = partitioned;
+    return this;
+  }
+
+  /**
+   * Returns whether the queue's tasks are partitioned.
+   *
+   * @return {@code true} if tasks are spread across partitions; {@code false} if they're stored in a single partition
+   */
+  public boolean isPartitioned() {
+    return partitioned;
+  }
+
+  /**
+   * Sets the visibility timeout for tasks taken by this instance.
+   * <p>
+   * A task that is not completed within the timeout after it's taken or pushed to a worker is made visible to other
+   * consumers again. A zero timeout disables task timeouts, in which case tasks are only reassigned when the worker's
+   * session expires.
+   *
+   * @param taskTimeout the task visibility timeout
+   * @return the work queue configuration
+   */
+  public WorkQueueConfig setTaskTimeout(Duration taskTimeout) {
+    checkNotNull(taskTimeout, "taskTimeout cannot be null");
+    checkArgument(!taskTimeout.isNegative(), "taskTimeout cannot be negative");
+    this.taskTimeout = taskTimeout;
+    return this;
+  }
+
+  /**
+   * Sets the visibility timeout for tasks taken by this instance in milliseconds.
+   *
+   * @param taskTimeoutMillis the task visibility timeout in milliseconds
+   * @return the work queue configuration
+   */
+  public WorkQueueConfig setTaskTimeout(long taskTimeoutMillis) {
+    return setTaskTimeout(Duration.ofMillis(taskTimeoutMillis));
+  }
+
+  /**
+   * Returns the visibility timeout for tasks taken by this instance.
+   *
+   * @return the task visibility timeout
+   */
+  public Duration getTaskTimeout() {
+    return taskTimeout;
+  }
+
+  /**
+   * Sets the maximum number of times tasks added by this instance may be attempted.
+   * <p>
+   * Each time a task fails or times out counts as an attempt. Once a task has been attempted the maximum number of
+   * times it's dead-lettered: it's removed from the queue and counted in the queue's statistics. Tasks that are
+   * reassigned because a worker's session expired are not counted as failed attempts. Zero allows an unlimited number
+   * of attempts.
+   *
+   * @param maxAttempts the maximum number of attempts per task
+   * @return the work queue configuration
+   */
+  public WorkQueueConfig setMaxAttempts(int maxAttempts) {
+    checkArgument(maxAttempts >= 0, "maxAttempts cannot be negative");
+    this.maxAttempts = maxAttempts;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of times tasks added by this instance may be attempted.
+   *
+   * @return the maximum number of attempts per task
+   */
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
 }
@@ -25,6 +25,10 @@ public final class WorkQueueStats {
   private long totalPending;
   private long totalInProgress;
   private long totalCompleted;
+  private long totalFailed;
+  private long totalTimedOut;
+  private long totalDeadLettered;
+  private long oldestInProgressAge;
 
   /**
    * Returns a {@code WorkQueueStats} builder.
@@ -57,6 +61,26 @@ public final class WorkQueueStats {
       return this;
     }
 
+    public Builder withTotalFailed(long value) {
+      workQueueStats.totalFailed = value;
+      return this;
+    }
+
+    public Builder withTotalTimedOut(long value) {
+      workQueueStats.totalTimedOut = value;
+      return this;
+    }
+
+    public Builder withTotalDeadLettered(long value) {
+      workQueueStats.totalDeadLettered = value;
+      return this;
+    }
+
+    public Builder withOldestInProgressAge(long value) {
+      workQueueStats.oldestInProgressAge = value;
+      return this;
+    }
+
     public WorkQueueStats build() {
       return workQueueStats;
     }
@@ -89,12 +113,54 @@ public final class WorkQueueStats {
     return this.totalCompleted;
   }
 
+  /**
+   * Returns the total failed tasks. These are the tasks that were explicitly failed by the consumer that took them.
+   *
+   * @return total failed tasks.
+   */
+  public long totalFailed() {
+    return this.totalFailed;
+  }
+
+  /**
+   * Returns the total timed out tasks. These are the tasks that were not completed within their visibility timeout.
+   *
+   * @return total timed out tasks.
+   */
+  public long totalTimedOut() {
+    return this.totalTimedOut;
+  }
+
+  /**
+   * Returns the total dead-lettered tasks. These are the tasks that were removed from the queue after failing or
+   * timing out the maximum number of times.
+   *
+   * @return total dead-lettered tasks.
+   */
+  public long totalDeadLettered() {
+    return this.totalDeadLettered;
+  }
+
+  /**
+   * Returns the age of the oldest in progress task in milliseconds. This is the time since the longest running task
+   * was taken, or zero if no tasks are in progress.
+   *
+   * @return age of the oldest in progress task in milliseconds.
+   */
+  public long oldestInProgressAge() {
+    return this.oldestInProgressAge;
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(getClass())
         .add("totalPending", totalPending)
         .add("totalInProgress", totalInProgress)
         .add("totalCompleted", totalCompleted)
+        .add("totalFailed", totalFailed)
+        .add("totalTimedOut", totalTimedOut)
+        .add("totalDeadLettered", totalDeadLettered)
+        .add("oldestInProgressAge", oldestInProgressAge)
         .toString();
   }
 }
@@ -59,6 +59,11 @@ public class BlockingWorkQueue<E> extends Synchronous<AsyncWorkQueue<E>> impleme
     complete(asyncQueue.complete(taskIds));
   }
 
+  @Override
+  public void fail(Collection<String> taskIds) {
+    complete(asyncQueue.fail(taskIds));
+  }
+
   @Override
   public void registerTaskProcessor(Consumer<E> taskProcessor, int parallelism, Executor executor) {
     complete(asyncQueue.registerTaskProcessor(taskProcessor, parallelism, executor));
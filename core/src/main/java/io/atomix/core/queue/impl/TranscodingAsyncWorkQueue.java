@@ -67,6 +67,11 @@ public class TranscodingAsyncWorkQueue<V1, V2> implements AsyncWorkQueue<V1> {
     return backingQueue.complete(taskIds);
   }
 
+  @Override
+  public CompletableFuture<Void> fail(Collection<String> taskIds) {
+    return backingQueue.fail(taskIds);
+  }
+
   @Override
   public CompletableFuture<Void> registerTaskProcessor(Consumer<V1> taskProcessor, int parallelism, Executor executor) {
     return backingQueue.registerTaskProcessor(v -> taskProcessor.accept(valueDecoder.apply(v)), parallelism, executor);
@@ -23,7 +23,8 @@ import io.atomix.utils.serializer.KryoNamespaces;
  * Atomix work queue events.
  */
 public enum WorkQueueEvents implements EventType {
-  TASK_AVAILABLE("taskAvailable");
+  TASK_AVAILABLE("taskAvailable"),
+  TASKS_ASSIGNED("tasksAssigned");
 
   private final String id;
 
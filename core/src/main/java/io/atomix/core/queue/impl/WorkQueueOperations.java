@@ -38,7 +38,8 @@ public enum WorkQueueOperations implements OperationId {
   ADD(OperationType.COMMAND),
   TAKE(OperationType.COMMAND),
   COMPLETE(OperationType.COMMAND),
-  CLEAR(OperationType.COMMAND);
+  CLEAR(OperationType.COMMAND),
+  FAIL(OperationType.COMMAND);
 
   private final OperationType type;
 
@@ -64,6 +65,8 @@ public enum WorkQueueOperations implements OperationId {
       .register(Complete.class)
       .register(Task.class)
       .register(WorkQueueStats.class)
+      .register(Register.class)
+      .register(Fail.class)
       .build(WorkQueueOperations.class.getSimpleName());
 
   /**
@@ -72,28 +75,82 @@ public enum WorkQueueOperations implements OperationId {
   public abstract static class WorkQueueOperation {
   }
 
+  /**
+   * Command to register the session as a worker that can be pushed up to {@code credit} tasks at a time.
+   */
+  @SuppressWarnings("serial")
+  public static class Register extends WorkQueueOperation {
+    private int credit;
+    private long timeout;
+
+    private Register() {
+    }
+
+    public Register(int credit) {
+      this(credit, 0);
+    }
+
+    public Register(int credit, long timeout) {
+      this.credit = credit;
+      this.timeout = timeout;
+    }
+
+    public int credit() {
+      return credit;
+    }
+
+    /**
+     * Returns the visibility timeout in milliseconds for tasks pushed to the worker, or zero for no timeout.
+     */
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(getClass())
+          .add("credit", credit)
+          .add("timeout", timeout)
+          .toString();
+    }
+  }
+
   /**
    * Command to add a collection of tasks to the queue.
    */
   @SuppressWarnings("serial")
   public static class Add extends WorkQueueOperation {
     private Collection<byte[]> items;
+    private int maxAttempts;
 
     private Add() {
     }
 
     public Add(Collection<byte[]> items) {
+      this(items, 0);
+    }
+
+    public Add(Collection<byte[]> items, int maxAttempts) {
       this.items = items;
+      this.maxAttempts = maxAttempts;
     }
 
     public Collection<byte[]> items() {
       return items;
     }
 
+    /**
+     * Returns the maximum number of attempts for the added tasks, or zero for unlimited attempts.
+     */
+    public int maxAttempts() {
+      return maxAttempts;
+    }
+
     @Override
     public String toString() {
       return MoreObjects.toStringHelper(getClass())
           .add("items", items)
+          .add("maxAttempts", maxAttempts)
           .toString();
     }
   }
@@ -104,22 +161,36 @@ public enum WorkQueueOperations implements OperationId {
   @SuppressWarnings("serial")
   public static class Take extends WorkQueueOperation {
     private int maxTasks;
+    private long timeout;
 
     private Take() {
     }
 
     public Take(int maxTasks) {
+      this(maxTasks, 0);
+    }
+
+    public Take(int maxTasks, long timeout) {
       this.maxTasks = maxTasks;
+      this.timeout = timeout;
     }
 
     public int maxTasks() {
       return maxTasks;
     }
 
+    /**
+     * Returns the visibility timeout in milliseconds for the taken tasks, or zero for no timeout.
+     */
+    public long timeout() {
+      return timeout;
+    }
+
     @Override
     public String toString() {
       return MoreObjects.toStringHelper(getClass())
           .add("maxTasks", maxTasks)
+          .add("timeout", timeout)
           .toString();
     }
   }
@@ -146,4 +217,30 @@ public enum WorkQueueOperations implements OperationId {
           .toString();
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Command to fail a collection of tasks, returning them to the queue.
+   */
+  @SuppressWarnings("serial")
+  public static class Fail extends WorkQueueOperation {
+    private Collection<String> taskIds;
+
+    private Fail() {
+    }
+
+    public Fail(Collection<String> taskIds) {
+      this.taskIds = taskIds;
+    }
+
+    public Collection<String> taskIds() {
+      return taskIds;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(getClass())
+          .add("taskIds", taskIds)
+          .toString();
+    }
+  }
+}
@@ -16,50 +16,76 @@
 package io.atomix.core.queue.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
 import io.atomix.core.queue.AsyncWorkQueue;
 import io.atomix.core.queue.Task;
 import io.atomix.core.queue.WorkQueue;
+import io.atomix.core.queue.WorkQueueConfig;
 import io.atomix.core.queue.WorkQueueStats;
 import io.atomix.core.queue.impl.WorkQueueOperations.Add;
 import io.atomix.core.queue.impl.WorkQueueOperations.Complete;
+import io.atomix.core.queue.impl.WorkQueueOperations.Fail;
+import io.atomix.core.queue.impl.WorkQueueOperations.Register;
 import io.atomix.core.queue.impl.WorkQueueOperations.Take;
 import io.atomix.primitive.PrimitiveRegistry;
 import io.atomix.primitive.impl.AbstractAsyncPrimitive;
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.partition.PartitionId;
 import io.atomix.primitive.proxy.PrimitiveProxy;
 import io.atomix.primitive.proxy.Proxy;
 import io.atomix.utils.concurrent.AbstractAccumulator;
 import io.atomix.utils.concurrent.Accumulator;
+import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.serializer.KryoNamespace;
 import io.atomix.utils.serializer.KryoNamespaces;
 import io.atomix.utils.serializer.Serializer;
 import org.slf4j.Logger;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Timer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static io.atomix.core.queue.impl.WorkQueueEvents.TASKS_ASSIGNED;
 import static io.atomix.core.queue.impl.WorkQueueEvents.TASK_AVAILABLE;
 import static io.atomix.core.queue.impl.WorkQueueOperations.ADD;
 import static io.atomix.core.queue.impl.WorkQueueOperations.CLEAR;
 import static io.atomix.core.queue.impl.WorkQueueOperations.COMPLETE;
+import static io.atomix.core.queue.impl.WorkQueueOperations.FAIL;
 import static io.atomix.core.queue.impl.WorkQueueOperations.REGISTER;
 import static io.atomix.core.queue.impl.WorkQueueOperations.STATS;
 import static io.atomix.core.queue.impl.WorkQueueOperations.TAKE;
 import static io.atomix.core.queue.impl.WorkQueueOperations.UNREGISTER;
-import static io.atomix.utils.concurrent.Threads.namedThreads;
-import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Distributed resource providing the {@link WorkQueue} primitive.
+ * <p>
+ * By default, all of the queue's tasks are stored in the partition that owns the queue's name. A partitioned queue
+ * instead spreads added tasks across all of its partitions in round-robin order. Each proxy takes tasks from a
+ * randomly chosen home partition first and steals tasks from the other partitions only when its home partition is
+ * empty. Task IDs returned by a partitioned queue are qualified with the ID of the partition that owns the task so
+ * completions and failures can be routed back to it.
+ * <p>
+ * A registered task processor doesn't poll for tasks. Instead, it registers with a credit equal to its parallelism
+ * and the service pushes tasks to it as they're added, never exceeding that credit. A partitioned queue divides the
+ * credit across its partitions so that the credits sum to the parallelism, giving the remainder to the partitions
+ * following the home partition. If the parallelism is lower than the number of partitions, some partitions would get
+ * no credit at all, so the processor instead registers without a credit everywhere and takes tasks itself when it's
+ * notified that tasks are available, never holding more tasks than its parallelism.
  */
 public class WorkQueueProxy extends AbstractAsyncPrimitive<AsyncWorkQueue<byte[]>> implements AsyncWorkQueue<byte[]> {
   private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.builder()
@@ -68,15 +94,41 @@ public class WorkQueueProxy extends AbstractAsyncPrimitive<AsyncWorkQueue<byte[]
       .register(WorkQueueEvents.NAMESPACE)
       .build());
 
+  private static final char TASK_ID_SEPARATOR = '/';
+
   private final Logger log = getLogger(getClass());
-  private final ExecutorService executor;
   private final AtomicReference<TaskProcessor> taskProcessor = new AtomicReference<>();
   private final Timer timer = new Timer("atomix-work-queue-completer");
   private final AtomicBoolean isRegistered = new AtomicBoolean(false);
+  private volatile int[] credits;
+  private final boolean partitioned;
+  private final long taskTimeout;
+  private final int maxAttempts;
+  private final List<PartitionId> partitions;
+  private final Map<Integer, PartitionId> partitionsById = Maps.newHashMap();
+  private final int homePartition;
+  private final AtomicInteger nextPartition = new AtomicInteger();
 
   public WorkQueueProxy(PrimitiveProxy proxy, PrimitiveRegistry registry) {
+    this(proxy, registry, new WorkQueueConfig());
+  }
+
+  public WorkQueueProxy(PrimitiveProxy proxy, PrimitiveRegistry registry, WorkQueueConfig config) {
     super(proxy, registry);
-    executor = newSingleThreadExecutor(namedThreads("atomix-work-queue-" + proxy.name() + "-%d", log));
+    this.partitioned = config.isPartitioned();
+    this.taskTimeout = config.getTaskTimeout().toMillis();
+    this.maxAttempts = config.getMaxAttempts();
+    if (partitioned) {
+      List<PartitionId> partitionIds = new ArrayList<>(getPartitionIds());
+      Collections.sort(partitionIds);
+      this.partitions = ImmutableList.copyOf(partitionIds);
+    } else {
+      this.partitions = ImmutableList.of(getPartition(getPartitionKey()).partitionId());
+    }
+    partitions.forEach(partitionId -> partitionsById.put(partitionId.id(), partitionId));
+    this.homePartition = ThreadLocalRandom.current().nextInt(partitions.size());
+    nextPartition.set(homePartition);
+    this.credits = new int[partitions.size()];
   }
 
   @Override
@@ -86,9 +138,8 @@ public class WorkQueueProxy extends AbstractAsyncPrimitive<AsyncWorkQueue<byte[]
 
   @Override
   public CompletableFuture<Void> delete() {
-    executor.shutdown();
     timer.cancel();
-    return invokeBy(getPartitionKey(), CLEAR);
+    return invokeOnAll(CLEAR);
   }
 
   @Override
@@ -96,7 +147,28 @@ public class WorkQueueProxy extends AbstractAsyncPrimitive<AsyncWorkQueue<byte[]
     if (items.isEmpty()) {
       return CompletableFuture.completedFuture(null);
     }
-    return invokeBy(getPartitionKey(), ADD, new Add(items));
+    if (partitions.size() == 1) {
+      return invokeOn(partitions.get(0), ADD, new Add(items, maxAttempts));
+    }
+
+    // Spread the items across partitions in round-robin order, continuing where the previous add left off.
+    int first = nextPartition.getAndAdd(items.size());
+    List<List<byte[]>> partitionItems = new ArrayList<>(partitions.size());
+    for (int i = 0; i < partitions.size(); i++) {
+      partitionItems.add(new ArrayList<>());
+    }
+    int index = first;
+    for (byte[] item : items) {
+      partitionItems.get(Math.floorMod(index++, partitions.size())).add(item);
+    }
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>(partitions.size());
+    for (int i = 0; i < partitions.size(); i++) {
+      if (!partitionItems.get(i).isEmpty()) {
+        futures.add(invokeOn(partitions.get(i), ADD, new Add(partitionItems.get(i), maxAttempts)));
+      }
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
   }
 
   @Override
@@ -104,15 +176,82 @@ public class WorkQueueProxy extends AbstractAsyncPrimitive<AsyncWorkQueue<byte[]
     if (maxTasks <= 0) {
       return CompletableFuture.completedFuture(ImmutableList.of());
     }
-    return invokeBy(getPartitionKey(), TAKE, new Take(maxTasks));
+    return take(homePartition, 0, maxTasks);
+  }
+
+  /**
+   * Takes tasks from the given partition, stealing from the next partition if the given partition is empty.
+   *
+   * @param partition the index of the partition from which to take tasks
+   * @param attempt   the number of partitions that have already been found to be empty
+   * @param maxTasks  the maximum number of tasks to take
+   * @return a future to be completed with the tasks taken from the first non-empty partition
+   */
+  private CompletableFuture<Collection<Task<byte[]>>> take(int partition, int attempt, int maxTasks) {
+    PartitionId partitionId = partitions.get(partition);
+    return this.<Take, Collection<Task<byte[]>>>invokeOn(partitionId, TAKE, new Take(maxTasks, taskTimeout))
+        .thenCompose(tasks -> {
+          if (tasks.isEmpty() && attempt + 1 < partitions.size()) {
+            return take((partition + 1) % partitions.size(), attempt + 1, maxTasks);
+          }
+          return CompletableFuture.completedFuture(qualify(partitionId, tasks));
+        });
+  }
+
+  /**
+   * Qualifies the IDs of the given tasks with the ID of the partition from which they were taken.
+   */
+  private Collection<Task<byte[]>> qualify(PartitionId partitionId, Collection<Task<byte[]>> tasks) {
+    if (!partitioned || tasks.isEmpty()) {
+      return tasks;
+    }
+    return tasks.stream()
+        .map(task -> new Task<>(partitionId.id() + String.valueOf(TASK_ID_SEPARATOR) + task.taskId(), task.payload()))
+        .collect(Collectors.toCollection(ArrayList::new));
   }
 
   @Override
   public CompletableFuture<Void> complete(Collection<String> taskIds) {
+    return invokeByTask(COMPLETE, taskIds, Complete::new);
+  }
+
+  @Override
+  public CompletableFuture<Void> fail(Collection<String> taskIds) {
+    return invokeByTask(FAIL, taskIds, Fail::new);
+  }
+
+  /**
+   * Invokes the given operation on the partitions that own the given tasks.
+   *
+   * @param operationId the operation to invoke
+   * @param taskIds     the IDs of the tasks on which to operate
+   * @param factory     creates the operation for the tasks owned by a single partition
+   * @return a future to be completed once the operation has been applied by all the partitions
+   */
+  private <T> CompletableFuture<Void> invokeByTask(
+      OperationId operationId, Collection<String> taskIds, Function<Collection<String>, T> factory) {
     if (taskIds.isEmpty()) {
       return CompletableFuture.completedFuture(null);
     }
-    return invokeBy(getPartitionKey(), COMPLETE, new Complete(taskIds));
+    if (!partitioned) {
+      return invokeOn(partitions.get(0), operationId, factory.apply(taskIds));
+    }
+
+    // Route each task ID to the partition that owns the task. Unqualified task IDs can't belong to this queue.
+    Map<PartitionId, List<String>> partitionTaskIds = Maps.newHashMap();
+    for (String taskId : taskIds) {
+      int separator = taskId.indexOf(TASK_ID_SEPARATOR);
+      if (separator > 0) {
+        PartitionId partitionId = partitionsById.get(Ints.tryParse(taskId.substring(0, separator)));
+        if (partitionId != null) {
+          partitionTaskIds.computeIfAbsent(partitionId, id -> new ArrayList<>()).add(taskId.substring(separator + 1));
+        }
+      }
+    }
+    List<CompletableFuture<Void>> futures = partitionTaskIds.entrySet().stream()
+        .<CompletableFuture<Void>>map(entry -> invokeOn(entry.getKey(), operationId, factory.apply(entry.getValue())))
+        .collect(Collectors.toList());
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
   }
 
   @Override
@@ -121,12 +260,16 @@ public class WorkQueueProxy extends AbstractAsyncPrimitive<AsyncWorkQueue<byte[]
                                                        Executor executor) {
     Accumulator<String> completedTaskAccumulator =
         new CompletedTaskAccumulator(timer, 50, 50); // TODO: make configurable
-    taskProcessor.set(new TaskProcessor(callback,
+    Accumulator<String> failedTaskAccumulator =
+        new FailedTaskAccumulator(timer, 50, 50);
+    TaskProcessor processor = new TaskProcessor(callback,
         parallelism,
+        parallelism < partitions.size(),
         executor,
-        completedTaskAccumulator));
-    return register().thenCompose(v -> take(parallelism))
-        .thenAccept(taskProcessor.get());
+        completedTaskAccumulator,
+        failedTaskAccumulator);
+    taskProcessor.set(processor);
+    return register(parallelism).thenRun(this::pullTasks);
   }
 
   @Override
@@ -136,36 +279,113 @@ public class WorkQueueProxy extends AbstractAsyncPrimitive<AsyncWorkQueue<byte[]
 
   @Override
   public CompletableFuture<WorkQueueStats> stats() {
-    return invokeBy(getPartitionKey(), STATS);
+    return Futures.allOf(partitions.stream()
+        .map(partitionId -> this.<WorkQueueStats>invokeOn(partitionId, STATS))
+        .collect(Collectors.toList()))
+        .thenApply(stats -> {
+          if (stats.size() == 1) {
+            return stats.get(0);
+          }
+          return WorkQueueStats.builder()
+              .withTotalPending(stats.stream().mapToLong(WorkQueueStats::totalPending).sum())
+              .withTotalInProgress(stats.stream().mapToLong(WorkQueueStats::totalInProgress).sum())
+              .withTotalCompleted(stats.stream().mapToLong(WorkQueueStats::totalCompleted).sum())
+              .withTotalFailed(stats.stream().mapToLong(WorkQueueStats::totalFailed).sum())
+              .withTotalTimedOut(stats.stream().mapToLong(WorkQueueStats::totalTimedOut).sum())
+              .withTotalDeadLettered(stats.stream().mapToLong(WorkQueueStats::totalDeadLettered).sum())
+              .withOldestInProgressAge(stats.stream().mapToLong(WorkQueueStats::oldestInProgressAge).max().orElse(0))
+              .build();
+        });
   }
 
-  private void resumeWork() {
+  private void processTasks(Collection<Task<byte[]>> tasks) {
     TaskProcessor activeProcessor = taskProcessor.get();
-    if (activeProcessor == null) {
-      return;
+    if (activeProcessor != null) {
+      activeProcessor.accept(tasks);
     }
-    this.take(activeProcessor.headRoom())
-        .whenCompleteAsync((tasks, e) -> activeProcessor.accept(tasks), executor);
   }
 
-  private CompletableFuture<Void> register() {
-    return invokeBy(getPartitionKey(), REGISTER).thenRun(() -> isRegistered.set(true));
+  /**
+   * Takes tasks for the active task processor if it takes tasks itself rather than having them pushed to it.
+   */
+  private void pullTasks() {
+    TaskProcessor activeProcessor = taskProcessor.get();
+    if (activeProcessor != null && activeProcessor.pulls) {
+      activeProcessor.pull();
+    }
+  }
+
+  private CompletableFuture<Void> register(int parallelism) {
+    int[] credits = splitCredit(parallelism);
+    this.credits = credits;
+    List<CompletableFuture<Void>> futures = new ArrayList<>(partitions.size());
+    for (int i = 0; i < partitions.size(); i++) {
+      futures.add(invokeOn(partitions.get(i), REGISTER, new Register(credits[i], taskTimeout)));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+        .thenRun(() -> isRegistered.set(true));
+  }
+
+  /**
+   * Splits the given parallelism into a credit for each partition.
+   * <p>
+   * The credits sum to the parallelism, with the remainder going to the partitions following the home partition so
+   * that processors with different home partitions favor different partitions. If the parallelism is lower than the
+   * number of partitions, all credits are zero and the processor takes tasks itself.
+   *
+   * @param parallelism the maximum number of tasks to process at once
+   * @return the credit for each partition, indexed like {@code partitions}
+   */
+  private int[] splitCredit(int parallelism) {
+    int[] credits = new int[partitions.size()];
+    if (parallelism >= partitions.size()) {
+      for (int i = 0; i < credits.length; i++) {
+        int offset = Math.floorMod(i - homePartition, credits.length);
+        credits[i] = parallelism / credits.length + (offset < parallelism % credits.length ? 1 : 0);
+      }
+    }
+    return credits;
   }
 
   private CompletableFuture<Void> unregister() {
-    return invokeBy(getPartitionKey(), UNREGISTER).thenRun(() -> isRegistered.set(false));
+    return invokeOnAll(UNREGISTER, null).thenRun(() -> isRegistered.set(false));
+  }
+
+  /**
+   * Invokes the given operation on all of the queue's partitions.
+   */
+  private CompletableFuture<Void> invokeOnAll(OperationId operationId) {
+    return invokeOnAll(operationId, null);
+  }
+
+  /**
+   * Invokes the given operation with the given argument on all of the queue's partitions.
+   */
+  private <T> CompletableFuture<Void> invokeOnAll(OperationId operationId, T operation) {
+    List<CompletableFuture<Void>> futures = partitions.stream()
+        .<CompletableFuture<Void>>map(partitionId -> operation != null
+            ? invokeOn(partitionId, operationId, operation)
+            : invokeOn(partitionId, operationId))
+        .collect(Collectors.toList());
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
   }
 
   @Override
   public CompletableFuture<AsyncWorkQueue<byte[]>> connect() {
     return super.connect()
         .thenRun(() -> {
-          addStateChangeListenerBy(getPartitionKey(), state -> {
-            if (state == Proxy.State.CONNECTED && isRegistered.get()) {
-              invokeBy(getPartitionKey(), REGISTER);
-            }
-          });
-          listenBy(getPartitionKey(), TASK_AVAILABLE, this::resumeWork);
+          for (int i = 0; i < partitions.size(); i++) {
+            int partition = i;
+            PartitionId partitionId = partitions.get(partition);
+            addStateChangeListenerOn(partitionId, state -> {
+              if (state == Proxy.State.CONNECTED && isRegistered.get()) {
+                invokeOn(partitionId, REGISTER, new Register(credits[partition], taskTimeout));
+              }
+            });
+            this.<Collection<Task<byte[]>>>listenOn(partitionId, TASKS_ASSIGNED,
+                tasks -> processTasks(qualify(partitionId, tasks)));
+            listenOn(partitionId, TASK_AVAILABLE, this::pullTasks);
+          }
         }).thenApply(v -> this);
   }
 
@@ -186,25 +406,66 @@ public class WorkQueueProxy extends AbstractAsyncPrimitive<AsyncWorkQueue<byte[]
     }
   }
 
+  // TaskId accumulator for paced triggering of task failure calls.
+  private class FailedTaskAccumulator extends AbstractAccumulator<String> {
+    FailedTaskAccumulator(Timer timer, int maxTasksToBatch, int maxBatchMillis) {
+      super(timer, maxTasksToBatch, maxBatchMillis, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void processItems(List<String> items) {
+      fail(items);
+    }
+  }
+
   private class TaskProcessor implements Consumer<Collection<Task<byte[]>>> {
 
     private final AtomicInteger headRoom;
+    private final AtomicBoolean pullRequested = new AtomicBoolean();
+    private final boolean pulls;
     private final Consumer<byte[]> backingConsumer;
     private final Executor executor;
     private final Accumulator<String> taskCompleter;
+    private final Accumulator<String> taskFailer;
 
     public TaskProcessor(Consumer<byte[]> backingConsumer,
                          int parallelism,
+                         boolean pulls,
                          Executor executor,
-                         Accumulator<String> taskCompleter) {
+                         Accumulator<String> taskCompleter,
+                         Accumulator<String> taskFailer) {
       this.backingConsumer = backingConsumer;
       this.headRoom = new AtomicInteger(parallelism);
+      this.pulls = pulls;
       this.executor = executor;
       this.taskCompleter = taskCompleter;
+      this.taskFailer = taskFailer;
     }
 
-    public int headRoom() {
-      return headRoom.get();
+    /**
+     * Takes as many tasks as there is room for.
+     * <p>
+     * The head room is reserved before taking so concurrent pulls never take more tasks than the parallelism. A pull
+     * requested while all the head room is reserved is retried once the outstanding take returns unused head room.
+     */
+    void pull() {
+      if (!isRegistered.get()) {
+        return;
+      }
+      pullRequested.set(true);
+      int maxTasks = headRoom.getAndSet(0);
+      if (maxTasks == 0) {
+        return;
+      }
+      pullRequested.set(false);
+      take(maxTasks).whenComplete((tasks, error) -> {
+        int taken = tasks != null ? tasks.size() : 0;
+        headRoom.addAndGet(maxTasks - taken);
+        accept(tasks);
+        if (taken < maxTasks && pullRequested.get()) {
+          pull();
+        }
+      });
     }
 
     @Override
@@ -212,7 +473,6 @@ public class WorkQueueProxy extends AbstractAsyncPrimitive<AsyncWorkQueue<byte[]
       if (tasks == null) {
         return;
       }
-      headRoom.addAndGet(-1 * tasks.size());
       tasks.forEach(task ->
           executor.execute(() -> {
             try {
@@ -220,9 +480,12 @@ public class WorkQueueProxy extends AbstractAsyncPrimitive<AsyncWorkQueue<byte[]
               taskCompleter.add(task.taskId());
             } catch (Exception e) {
               log.debug("Task execution failed", e);
+              taskFailer.add(task.taskId());
             } finally {
-              headRoom.incrementAndGet();
-              resumeWork();
+              if (pulls) {
+                headRoom.incrementAndGet();
+                pull();
+              }
             }
           }));
     }
@@ -39,7 +39,7 @@ public class WorkQueueProxyBuilder<E> extends WorkQueueBuilder<E> {
         name(),
         primitiveType(),
         managementService.getPartitionService());
-    return new WorkQueueProxy(proxy, managementService.getPrimitiveRegistry())
+    return new WorkQueueProxy(proxy, managementService.getPrimitiveRegistry(), config)
         .connect()
         .thenApply(queue -> {
           Serializer serializer = serializer();
@@ -20,11 +20,12 @@ import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
-import com.google.common.collect.Sets;
 import io.atomix.core.queue.Task;
 import io.atomix.core.queue.WorkQueueStats;
 import io.atomix.core.queue.impl.WorkQueueOperations.Add;
 import io.atomix.core.queue.impl.WorkQueueOperations.Complete;
+import io.atomix.core.queue.impl.WorkQueueOperations.Fail;
+import io.atomix.core.queue.impl.WorkQueueOperations.Register;
 import io.atomix.core.queue.impl.WorkQueueOperations.Take;
 import io.atomix.primitive.service.AbstractPrimitiveService;
 import io.atomix.primitive.service.BackupInput;
@@ -35,24 +36,32 @@ import io.atomix.primitive.session.PrimitiveSession;
 import io.atomix.utils.serializer.KryoNamespace;
 import io.atomix.utils.serializer.KryoNamespaces;
 import io.atomix.utils.serializer.Serializer;
+import io.atomix.utils.time.WallClockTimestamp;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static io.atomix.core.queue.impl.WorkQueueEvents.TASKS_ASSIGNED;
 import static io.atomix.core.queue.impl.WorkQueueEvents.TASK_AVAILABLE;
 import static io.atomix.core.queue.impl.WorkQueueOperations.ADD;
 import static io.atomix.core.queue.impl.WorkQueueOperations.CLEAR;
 import static io.atomix.core.queue.impl.WorkQueueOperations.COMPLETE;
+import static io.atomix.core.queue.impl.WorkQueueOperations.FAIL;
 import static io.atomix.core.queue.impl.WorkQueueOperations.REGISTER;
 import static io.atomix.core.queue.impl.WorkQueueOperations.STATS;
 import static io.atomix.core.queue.impl.WorkQueueOperations.TAKE;
@@ -60,8 +69,25 @@ import static io.atomix.core.queue.impl.WorkQueueOperations.UNREGISTER;
 
 /**
  * State machine for {@link WorkQueueProxy} resource.
+ * <p>
+ * Sessions that register as workers do so with a credit: the maximum number of tasks the worker is willing to
+ * process at once. Tasks are assigned to workers with remaining credit as soon as they're added and are pushed to
+ * the assigned worker in a {@link WorkQueueEvents#TASKS_ASSIGNED} event. Completing a task returns its credit to the
+ * worker, at which point any tasks still pending are pushed to it.
+ * <p>
+ * Tasks may be taken with a visibility timeout, after which a task that hasn't been completed or failed is returned
+ * to the queue. Rather than scheduling a timer per task, task deadlines are rounded up into
+ * {@link #LEASE_RESOLUTION_MILLIS} buckets ordered by time, and only the earliest bucket is checked each time the
+ * state machine's clock is advanced. Timeouts are therefore O(1) per tick and grow with the number of distinct buckets
+ * rather than the number of tasks in progress. Tasks that are
+ * added with a maximum number of attempts are dead-lettered once they've failed or timed out that many times.
+ * <p>
+ * A worker that lets a task's lease expire may be hung, so rather than returning the task's credit to the worker and
+ * immediately pushing it more tasks, the worker is suspended: it's assigned no further tasks, and timed out tasks are
+ * dispatched to other workers, until it completes or fails a task or registers again.
  */
 public class WorkQueueService extends AbstractPrimitiveService {
+  private static final long LEASE_RESOLUTION_MILLIS = 100;
 
   private static final Serializer SERIALIZER = Serializer.using(KryoNamespace.builder()
       .register(KryoNamespaces.BASIC)
@@ -70,13 +96,19 @@ public class WorkQueueService extends AbstractPrimitiveService {
       .register(TaskAssignment.class)
       .register(new HashMap().keySet().getClass())
       .register(ArrayDeque.class)
+      .register(LinkedHashMap.class)
       .build());
 
   private final AtomicLong totalCompleted = new AtomicLong(0);
+  private final AtomicLong totalFailed = new AtomicLong(0);
+  private final AtomicLong totalTimedOut = new AtomicLong(0);
+  private final AtomicLong totalDeadLettered = new AtomicLong(0);
 
   private Queue<Task<byte[]>> unassignedTasks = Queues.newArrayDeque();
   private Map<String, TaskAssignment> assignments = Maps.newHashMap();
-  private Map<Long, PrimitiveSession> registeredWorkers = Maps.newHashMap();
+  private Map<Long, Worker> registeredWorkers = Maps.newLinkedHashMap();
+  private Map<String, Integer> remainingAttempts = Maps.newHashMap();
+  private final TreeMap<Long, Set<String>> leases = new TreeMap<>();
 
   @Override
   public Serializer serializer() {
@@ -85,21 +117,58 @@ public class WorkQueueService extends AbstractPrimitiveService {
 
   @Override
   public void backup(BackupOutput writer) {
-    writer.writeObject(Sets.newHashSet(registeredWorkers.keySet()));
+    Map<Long, Register> workers = Maps.newLinkedHashMap();
+    registeredWorkers.values().forEach(worker ->
+        workers.put(worker.sessionId(), new Register(worker.credit, worker.timeout)));
+    writer.writeObject(workers);
     writer.writeObject(assignments);
     writer.writeObject(unassignedTasks);
+    writer.writeObject(remainingAttempts);
     writer.writeLong(totalCompleted.get());
+    writer.writeLong(totalFailed.get());
+    writer.writeLong(totalTimedOut.get());
+    writer.writeLong(totalDeadLettered.get());
+    writer.writeObject(registeredWorkers.values().stream()
+        .filter(worker -> worker.suspended)
+        .map(Worker::sessionId)
+        .collect(Collectors.toCollection(HashSet::new)));
   }
 
   @Override
   public void restore(BackupInput reader) {
-    registeredWorkers = Maps.newHashMap();
-    for (Long sessionId : reader.<Set<Long>>readObject()) {
-      registeredWorkers.put(sessionId, getSessions().getSession(sessionId));
+    registeredWorkers = Maps.newLinkedHashMap();
+    for (Map.Entry<Long, Register> entry : reader.<Map<Long, Register>>readObject().entrySet()) {
+      registeredWorkers.put(entry.getKey(), new Worker(
+          getSessions().getSession(entry.getKey()), entry.getValue().credit(), entry.getValue().timeout()));
     }
     assignments = reader.readObject();
     unassignedTasks = reader.readObject();
+    remainingAttempts = reader.readObject();
     totalCompleted.set(reader.readLong());
+    totalFailed.set(reader.readLong());
+    totalTimedOut.set(reader.readLong());
+    totalDeadLettered.set(reader.readLong());
+    for (long sessionId : reader.<Set<Long>>readObject()) {
+      registeredWorkers.get(sessionId).suspended = true;
+    }
+
+    // After the snapshot is installed, rebuild the lease buckets from the task assignments.
+    leases.clear();
+    assignments.forEach((taskId, assignment) -> {
+      Worker worker = registeredWorkers.get(assignment.sessionId());
+      if (worker != null) {
+        worker.assigned++;
+      }
+      addLease(taskId, assignment);
+    });
+  }
+
+  @Override
+  public void tick(WallClockTimestamp timestamp) {
+    super.tick(timestamp);
+    if (!leases.isEmpty() && leases.firstKey() <= timestamp.unixTimestamp()) {
+      expireLeases(timestamp.unixTimestamp());
+    }
   }
 
   @Override
@@ -111,6 +180,7 @@ public class WorkQueueService extends AbstractPrimitiveService {
     executor.register(TAKE, this::take);
     executor.register(COMPLETE, this::complete);
     executor.register(CLEAR, this::clear);
+    executor.register(FAIL, this::fail);
   }
 
   protected WorkQueueStats stats(Commit<Void> commit) {
@@ -118,6 +188,13 @@ public class WorkQueueService extends AbstractPrimitiveService {
         .withTotalCompleted(totalCompleted.get())
         .withTotalPending(unassignedTasks.size())
         .withTotalInProgress(assignments.size())
+        .withTotalFailed(totalFailed.get())
+        .withTotalTimedOut(totalTimedOut.get())
+        .withTotalDeadLettered(totalDeadLettered.get())
+        .withOldestInProgressAge(assignments.values().stream()
+            .mapToLong(assignment -> Math.max(0, now() - assignment.assigned()))
+            .max()
+            .orElse(0))
         .build();
   }
 
@@ -125,11 +202,31 @@ public class WorkQueueService extends AbstractPrimitiveService {
     unassignedTasks.clear();
     assignments.clear();
     registeredWorkers.clear();
+    remainingAttempts.clear();
+    leases.clear();
     totalCompleted.set(0);
+    totalFailed.set(0);
+    totalTimedOut.set(0);
+    totalDeadLettered.set(0);
   }
 
-  protected void register(Commit<Void> commit) {
-    registeredWorkers.put(commit.session().sessionId().id(), commit.session());
+  protected void register(Commit<? extends Register> commit) {
+    long sessionId = commit.session().sessionId().id();
+    int credit = commit.value() != null ? commit.value().credit() : 0;
+    long timeout = commit.value() != null ? commit.value().timeout() : 0;
+    Worker worker = registeredWorkers.get(sessionId);
+    if (worker == null) {
+      worker = new Worker(commit.session(), credit, timeout);
+      worker.assigned = (int) assignments.values().stream()
+          .filter(assignment -> assignment.sessionId() == sessionId)
+          .count();
+      registeredWorkers.put(sessionId, worker);
+    } else {
+      worker.credit = credit;
+      worker.timeout = timeout;
+      worker.suspended = false;
+    }
+    dispatch();
   }
 
   protected void unregister(Commit<Void> commit) {
@@ -145,12 +242,55 @@ public class WorkQueueService extends AbstractPrimitiveService {
           commit.index(),
           itemIndex.getAndIncrement());
       unassignedTasks.add(new Task<>(taskId, item));
+      if (commit.value().maxAttempts() > 0) {
+        remainingAttempts.put(taskId, commit.value().maxAttempts());
+      }
     });
 
-    // Send an event to all sessions that have expressed interest in task processing
-    // and are not actively processing a task.
-    registeredWorkers.values().forEach(session -> session.publish(TASK_AVAILABLE));
-    // FIXME: This generates a lot of event traffic.
+    dispatch();
+  }
+
+  /**
+   * Assigns pending tasks to registered workers with remaining credit and pushes each worker its tasks.
+   * <p>
+   * Tasks are handed out one at a time to each worker in turn so that a batch is spread across workers, and workers
+   * that receive tasks are moved to the back of the worker order so the next batch starts with a different worker.
+   * Workers registered without a credit are instead notified that tasks are available so they can {@code take} them.
+   */
+  private void dispatch() {
+    if (unassignedTasks.isEmpty() || registeredWorkers.isEmpty()) {
+      return;
+    }
+
+    Map<Long, List<Task<byte[]>>> dispatched = Maps.newLinkedHashMap();
+    boolean assigned = true;
+    while (assigned && !unassignedTasks.isEmpty()) {
+      assigned = false;
+      for (Worker worker : registeredWorkers.values()) {
+        if (unassignedTasks.isEmpty()) {
+          break;
+        }
+        if (!worker.suspended && worker.assigned < worker.credit) {
+          Task<byte[]> task = unassignedTasks.poll();
+          assign(worker.sessionId(), task, worker.timeout);
+          worker.assigned++;
+          dispatched.computeIfAbsent(worker.sessionId(), id -> new ArrayList<>()).add(task);
+          assigned = true;
+        }
+      }
+    }
+
+    dispatched.forEach((sessionId, tasks) -> {
+      Worker worker = registeredWorkers.remove(sessionId);
+      registeredWorkers.put(sessionId, worker);
+      worker.session().publish(TASKS_ASSIGNED, tasks);
+    });
+
+    if (!unassignedTasks.isEmpty()) {
+      registeredWorkers.values().stream()
+          .filter(worker -> !worker.suspended && worker.credit == 0)
+          .forEach(worker -> worker.session().publish(TASK_AVAILABLE));
+    }
   }
 
   protected Collection<Task<byte[]>> take(Commit<? extends Take> commit) {
@@ -160,14 +300,17 @@ public class WorkQueueService extends AbstractPrimitiveService {
       }
       long sessionId = commit.session().sessionId().id();
       int maxTasks = commit.value().maxTasks();
+      long timeout = commit.value().timeout();
+      Worker worker = registeredWorkers.get(sessionId);
       return IntStream.range(0, Math.min(maxTasks, unassignedTasks.size()))
           .mapToObj(i -> {
             Task<byte[]> task = unassignedTasks.poll();
-            String taskId = task.taskId();
-            TaskAssignment assignment = new TaskAssignment(sessionId, task);
 
             // bookkeeping
-            assignments.put(taskId, assignment);
+            assign(sessionId, task, timeout);
+            if (worker != null) {
+              worker.assigned++;
+            }
 
             return task;
           })
@@ -184,17 +327,144 @@ public class WorkQueueService extends AbstractPrimitiveService {
       commit.value().taskIds().forEach(taskId -> {
         TaskAssignment assignment = assignments.get(taskId);
         if (assignment != null && assignment.sessionId() == sessionId) {
-          assignments.remove(taskId);
+          unassign(taskId, assignment);
+          remainingAttempts.remove(taskId);
           // bookkeeping
           totalCompleted.incrementAndGet();
         }
       });
+      resume(sessionId);
+      dispatch();
     } catch (Exception e) {
       getLogger().warn("State machine update failed", e);
       throw Throwables.propagate(e);
     }
   }
 
+  protected void fail(Commit<? extends Fail> commit) {
+    long sessionId = commit.session().sessionId().id();
+    try {
+      commit.value().taskIds().forEach(taskId -> {
+        TaskAssignment assignment = assignments.get(taskId);
+        if (assignment != null && assignment.sessionId() == sessionId) {
+          unassign(taskId, assignment);
+          // bookkeeping
+          totalFailed.incrementAndGet();
+          retry(assignment.task());
+        }
+      });
+      resume(sessionId);
+      dispatch();
+    } catch (Exception e) {
+      getLogger().warn("State machine update failed", e);
+      throw Throwables.propagate(e);
+    }
+  }
+
+  /**
+   * Assigns the given task to the given session, leasing it for the given timeout if the timeout is positive.
+   */
+  private void assign(long sessionId, Task<byte[]> task, long timeout) {
+    long now = now();
+    TaskAssignment assignment = new TaskAssignment(sessionId, task, now, timeout > 0 ? now + timeout : 0);
+    assignments.put(task.taskId(), assignment);
+    addLease(task.taskId(), assignment);
+  }
+
+  /**
+   * Removes the given task assignment, returning its credit to the worker and releasing its lease.
+   */
+  private void unassign(String taskId, TaskAssignment assignment) {
+    assignments.remove(taskId);
+    Worker worker = registeredWorkers.get(assignment.sessionId());
+    if (worker != null) {
+      worker.assigned--;
+    }
+    removeLease(taskId, assignment);
+  }
+
+  /**
+   * Resumes assigning tasks to the given worker once it has shown it's making progress again.
+   */
+  private void resume(long sessionId) {
+    Worker worker = registeredWorkers.get(sessionId);
+    if (worker != null) {
+      worker.suspended = false;
+    }
+  }
+
+  /**
+   * Returns a failed or timed out task to the queue, or dead-letters it if it has no attempts remaining.
+   */
+  private void retry(Task<byte[]> task) {
+    Integer attempts = remainingAttempts.get(task.taskId());
+    if (attempts != null) {
+      if (attempts <= 1) {
+        remainingAttempts.remove(task.taskId());
+        totalDeadLettered.incrementAndGet();
+        getLogger().debug("Dead-lettering task {}", task.taskId());
+        return;
+      }
+      remainingAttempts.put(task.taskId(), attempts - 1);
+    }
+    unassignedTasks.add(task);
+  }
+
+  /**
+   * Adds the given assignment to its lease bucket, if it has a deadline.
+   */
+  private void addLease(String taskId, TaskAssignment assignment) {
+    if (assignment.deadline() > 0) {
+      leases.computeIfAbsent(leaseBucket(assignment.deadline()), bucket -> new TreeSet<>()).add(taskId);
+    }
+  }
+
+  /**
+   * Removes the given assignment from its lease bucket, if any.
+   */
+  private void removeLease(String taskId, TaskAssignment assignment) {
+    if (assignment.deadline() > 0) {
+      long bucket = leaseBucket(assignment.deadline());
+      Set<String> taskIds = leases.get(bucket);
+      if (taskIds != null && taskIds.remove(taskId) && taskIds.isEmpty()) {
+        leases.remove(bucket);
+      }
+    }
+  }
+
+  /**
+   * Rounds the given deadline up to the end of its lease bucket.
+   */
+  private static long leaseBucket(long deadline) {
+    return (deadline + LEASE_RESOLUTION_MILLIS - 1) / LEASE_RESOLUTION_MILLIS * LEASE_RESOLUTION_MILLIS;
+  }
+
+  /**
+   * Returns the tasks in all expired lease buckets to the queue and suspends the workers to which they were assigned.
+   */
+  private void expireLeases(long now) {
+    while (!leases.isEmpty() && leases.firstKey() <= now) {
+      for (String taskId : leases.pollFirstEntry().getValue()) {
+        TaskAssignment assignment = assignments.get(taskId);
+        if (assignment != null) {
+          unassign(taskId, assignment);
+          Worker worker = registeredWorkers.get(assignment.sessionId());
+          if (worker != null && !worker.suspended) {
+            getLogger().debug("Suspending worker {} after task {} timed out", assignment.sessionId(), taskId);
+            worker.suspended = true;
+          }
+          totalTimedOut.incrementAndGet();
+          retry(assignment.task());
+        }
+      }
+    }
+    dispatch();
+  }
+
+  private long now() {
+    return getWallClock().getTime().unixTimestamp();
+  }
+
   @Override
   public void onExpire(PrimitiveSession session) {
     evictWorker(session.sessionId().id());
@@ -216,17 +486,50 @@ public class WorkQueueService extends AbstractPrimitiveService {
       if (assignment.sessionId() == sessionId) {
         unassignedTasks.add(assignment.task());
         iter.remove();
+        removeLease(entry.getKey(), assignment);
       }
     }
+    dispatch();
+  }
+
+  /**
+   * Registered worker session and the credit available to it.
+   * <p>
+   * Suspended workers are assigned no tasks until they complete or fail a task or register again.
+   */
+  private static class Worker {
+    private final PrimitiveSession session;
+    private int credit;
+    private long timeout;
+    private int assigned;
+    private boolean suspended;
+
+    Worker(PrimitiveSession session, int credit, long timeout) {
+      this.session = session;
+      this.credit = credit;
+      this.timeout = timeout;
+    }
+
+    long sessionId() {
+      return session.sessionId().id();
+    }
+
+    PrimitiveSession session() {
+      return session;
+    }
   }
 
   private static class TaskAssignment {
     private final long sessionId;
     private final Task<byte[]> task;
+    private final long assigned;
+    private final long deadline;
 
-    public TaskAssignment(long sessionId, Task<byte[]> task) {
+    public TaskAssignment(long sessionId, Task<byte[]> task, long assigned, long deadline) {
       this.sessionId = sessionId;
       this.task = task;
+      this.assigned = assigned;
+      this.deadline = deadline;
     }
 
     public long sessionId() {
@@ -237,11 +540,21 @@ public class WorkQueueService extends AbstractPrimitiveService {
       return task;
     }
 
+    public long assigned() {
+      return assigned;
+    }
+
+    public long deadline() {
+      return deadline;
+    }
+
     @Override
     public String toString() {
       return MoreObjects.toStringHelper(getClass())
           .add("sessionId", sessionId)
           .add("task", task)
+          .add("assigned", assigned)
+          .add("deadline", deadline)
           .toString();
     }
   }
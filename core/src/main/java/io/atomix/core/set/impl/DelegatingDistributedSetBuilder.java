@@ -47,7 +47,7 @@ public class DelegatingDistributedSetBuilder<E> extends DistributedSetBuilder<E>
         name(),
         primitiveType(),
         managementService.getPartitionService());
-    return new ConsistentMapProxy(proxy, managementService.getPrimitiveRegistry())
+    return new ConsistentMapProxy<String>(proxy, managementService.getPrimitiveRegistry())
         .connect()
         .thenApply(rawMap -> {
           Serializer serializer = serializer();
@@ -55,6 +55,17 @@ public interface AsyncDocumentTree<V> extends AsyncPrimitive {
    */
   CompletableFuture<Map<String, Versioned<V>>> getChildren(DocumentPath path);
 
+  /**
+   * Returns the values of a node and its descendants in a single operation.
+   *
+   * @param path  path to the node
+   * @param depth the number of levels of descendants to return; {@code 0} returns only the node itself, and a
+   *              negative depth returns all descendants
+   * @return future for mapping from node path to node value, with each node preceding its descendants
+   * @throws NoSuchDocumentPathException if the path does not point to a valid node
+   */
+  CompletableFuture<Map<DocumentPath, Versioned<V>>> getSubtree(DocumentPath path, int depth);
+
   /**
    * Returns the value of the tree node at specified path.
    *
@@ -76,6 +87,19 @@ public interface AsyncDocumentTree<V> extends AsyncPrimitive {
    */
   CompletableFuture<Versioned<V>> set(DocumentPath path, V value);
 
+  /**
+   * Atomically creates or updates a set of document tree nodes in a single operation.
+   * <p>
+   * Parent nodes are set before their descendants regardless of the iteration order of the given map, so a node may
+   * be created beneath another node in the same map. If any of the nodes cannot be set, none of the nodes are modified.
+   *
+   * @param values mapping from node path to the value to be associated with the node ({@code null} is a valid value)
+   * @return future that will be completed once the nodes have been set.
+   * Future will be completed with a {@code IllegalDocumentModificationException}
+   * if the parent of any node to create does not exist
+   */
+  CompletableFuture<Void> set(Map<DocumentPath, V> values);
+
   /**
    * Creates a document tree node if one does not exist already.
    *
@@ -19,7 +19,6 @@ package io.atomix.core.tree;
 import com.google.common.collect.Comparators;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -208,9 +207,23 @@ public class DocumentPath implements Comparable<DocumentPath> {
     if (paths.isEmpty()) {
       return null;
     }
-    return DocumentPath.from(StringUtils.getCommonPrefix(paths.stream()
-        .map(DocumentPath::toString)
-        .toArray(String[]::new)));
+
+    // The common prefix is computed element by element rather than on the string form of the paths, which could
+    // otherwise end in part of an element name.
+    List<String> commonElements = null;
+    for (DocumentPath path : paths) {
+      if (commonElements == null) {
+        commonElements = path.pathElements;
+      } else {
+        int length = 0;
+        while (length < commonElements.size() && length < path.pathElements.size()
+            && commonElements.get(length).equals(path.pathElements.get(length))) {
+          length++;
+        }
+        commonElements = commonElements.subList(0, length);
+      }
+    }
+    return new DocumentPath(commonElements);
   }
 
   @Override
@@ -52,6 +52,17 @@ public interface DocumentTree<V> extends SyncPrimitive {
    */
   Map<String, Versioned<V>> getChildren(DocumentPath path);
 
+  /**
+   * Returns the values of a node and its descendants.
+   *
+   * @param path  path to the node
+   * @param depth the number of levels of descendants to return; {@code 0} returns only the node itself, and a
+   *              negative depth returns all descendants
+   * @return mapping from node path to node value, with each node preceding its descendants
+   * @throws NoSuchDocumentPathException if the path does not point to a valid node
+   */
+  Map<DocumentPath, Versioned<V>> getSubtree(DocumentPath path, int depth);
+
   /**
    * Returns a document tree node.
    *
@@ -70,6 +81,17 @@ public interface DocumentTree<V> extends SyncPrimitive {
    */
   Versioned<V> set(DocumentPath path, V value);
 
+  /**
+   * Atomically creates or updates a set of document tree nodes.
+   * <p>
+   * Parent nodes are set before their descendants regardless of the iteration order of the given map, so a node may
+   * be created beneath another node in the same map. If any of the nodes cannot be set, none of the nodes are modified.
+   *
+   * @param values mapping from node path to the value to be associated with the node
+   * @throws IllegalDocumentModificationException if the parent of any node to create does not exist
+   */
+  void set(Map<DocumentPath, V> values);
+
   /**
    * Creates a document tree node if one does not exist already.
    *
@@ -61,6 +61,11 @@ public class BlockingDocumentTree<V> extends Synchronous<AsyncDocumentTree<V>> i
     return complete(backingTree.getChildren(path));
   }
 
+  @Override
+  public Map<DocumentPath, Versioned<V>> getSubtree(DocumentPath path, int depth) {
+    return complete(backingTree.getSubtree(path, depth));
+  }
+
   @Override
   public Versioned<V> get(DocumentPath path) {
     return complete(backingTree.get(path));
@@ -71,6 +76,11 @@ public class BlockingDocumentTree<V> extends Synchronous<AsyncDocumentTree<V>> i
     return complete(backingTree.set(path, value));
   }
 
+  @Override
+  public void set(Map<DocumentPath, V> values) {
+    complete(backingTree.set(values));
+  }
+
   @Override
   public boolean create(DocumentPath path, V value) {
     return complete(backingTree.create(path, value));
@@ -27,6 +27,7 @@ import io.atomix.utils.time.Versioned;
 import org.slf4j.Logger;
 
 import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
@@ -95,6 +96,12 @@ public class CachingAsyncDocumentTree<V> extends DelegatingAsyncDocumentTree<V>
         .whenComplete((r, e) -> cache.invalidate(path));
   }
 
+  @Override
+  public CompletableFuture<Void> set(Map<DocumentPath, V> values) {
+    return super.set(values)
+        .whenComplete((r, e) -> cache.invalidateAll(values.keySet()));
+  }
+
   @Override
   public CompletableFuture<Boolean> create(DocumentPath path, V value) {
     return super.create(path, value)
@@ -30,30 +30,36 @@ import io.atomix.core.tree.NoSuchDocumentPathException;
 import io.atomix.primitive.Ordering;
 import io.atomix.utils.time.Versioned;
 
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Simple implementation of a {@link DocumentTree}.
+ * <p>
+ * The tree is stored as a persistent trie of immutable {@link DefaultDocumentTreeNode}s. Each update replaces the
+ * nodes on the path from the root to the updated node, and a failed batch update is rolled back by restoring the
+ * previous root.
  *
  * @param <V> tree node value type
  */
 public class DefaultDocumentTree<V> implements DocumentTree<V> {
 
   private static final DocumentPath ROOT_PATH = DocumentPath.from("root");
-  final DefaultDocumentTreeNode<V> root;
+  DefaultDocumentTreeNode<V> root;
   private final Supplier<Long> versionSupplier;
 
   public DefaultDocumentTree() {
     AtomicLong versionCounter = new AtomicLong(0);
     versionSupplier = versionCounter::incrementAndGet;
-    root = new DefaultDocumentTreeNode<V>(ROOT_PATH, null, versionSupplier.get(), Ordering.NATURAL, null);
+    root = new DefaultDocumentTreeNode<V>(ROOT_PATH, null, versionSupplier.get(), Ordering.NATURAL);
   }
 
   public DefaultDocumentTree(Supplier<Long> versionSupplier, Ordering ordering) {
-    root = new DefaultDocumentTreeNode<V>(ROOT_PATH, null, versionSupplier.get(), ordering, null);
+    root = new DefaultDocumentTreeNode<V>(ROOT_PATH, null, versionSupplier.get(), ordering);
     this.versionSupplier = versionSupplier;
   }
 
@@ -83,6 +89,24 @@ public class DefaultDocumentTree<V> implements DocumentTree<V> {
     throw new NoSuchDocumentPathException();
   }
 
+  @Override
+  public Map<DocumentPath, Versioned<V>> getSubtree(DocumentPath path, int depth) {
+    DocumentTreeNode<V> node = getNode(path);
+    if (node != null) {
+      Map<DocumentPath, Versioned<V>> subtree = Maps.newLinkedHashMap();
+      addSubtree(node, depth, subtree);
+      return subtree;
+    }
+    throw new NoSuchDocumentPathException();
+  }
+
+  private void addSubtree(DocumentTreeNode<V> node, int depth, Map<DocumentPath, Versioned<V>> subtree) {
+    subtree.put(node.path(), node.value());
+    if (depth != 0) {
+      node.children().forEachRemaining(child -> addSubtree(child, depth - 1, subtree));
+    }
+  }
+
   @Override
   public Versioned<V> get(DocumentPath path) {
     DocumentTreeNode<V> currentNode = getNode(path);
@@ -94,7 +118,8 @@ public class DefaultDocumentTree<V> implements DocumentTree<V> {
     checkRootModification(path);
     DefaultDocumentTreeNode<V> node = getNode(path);
     if (node != null) {
-      return node.update(value, versionSupplier.get());
+      replaceNode(node.withValue(value, versionSupplier.get()));
+      return node.value();
     } else {
       create(path, value);
       return null;
@@ -113,7 +138,7 @@ public class DefaultDocumentTree<V> implements DocumentTree<V> {
     if (parentNode == null) {
       throw new IllegalDocumentModificationException();
     }
-    parentNode.addChild(simpleName(path), value, versionSupplier.get());
+    replaceNode(parentNode.withChild(simpleName(path), value, versionSupplier.get()));
     return true;
   }
 
@@ -132,7 +157,7 @@ public class DefaultDocumentTree<V> implements DocumentTree<V> {
     if (parentNode == null) {
       throw new IllegalDocumentModificationException();
     }
-    parentNode.addChild(simpleName(path), value, versionSupplier.get());
+    replaceNode(parentNode.withChild(simpleName(path), value, versionSupplier.get()));
     return true;
   }
 
@@ -171,11 +196,32 @@ public class DefaultDocumentTree<V> implements DocumentTree<V> {
     if (nodeToRemove.hasChildren()) {
       throw new IllegalDocumentModificationException();
     }
-    DefaultDocumentTreeNode<V> parent = (DefaultDocumentTreeNode<V>) nodeToRemove.parent();
-    parent.removeChild(simpleName(path));
+    DefaultDocumentTreeNode<V> parent = getNode(path.parent());
+    replaceNode(parent.withoutChild(simpleName(path)));
     return nodeToRemove.value();
   }
 
+  @Override
+  public void set(Map<DocumentPath, V> values) {
+    DefaultDocumentTreeNode<V> previousRoot = root;
+    try {
+      // Set parents before their children, whatever the iteration order of the map.
+      values.entrySet().stream()
+          .sorted(Comparator.comparingInt(entry -> entry.getKey().pathElements().size()))
+          .forEach(entry -> set(entry.getKey(), entry.getValue()));
+    } catch (RuntimeException e) {
+      root = previousRoot;
+      throw e;
+    }
+  }
+
+  /**
+   * Removes all the nodes in the tree other than the root.
+   */
+  void clear() {
+    root = root.withoutChildren();
+  }
+
   @Override
   public void addListener(DocumentPath path, DocumentTreeListener<V> listener) {
     // TODO Auto-generated method stub
@@ -201,11 +247,33 @@ public class DefaultDocumentTree<V> implements DocumentTree<V> {
     DefaultDocumentTreeNode<V> currentNode = root;
     Preconditions.checkState("root".equals(pathElements.next()), "Path should start with root");
     while (pathElements.hasNext() && currentNode != null) {
-      currentNode = (DefaultDocumentTreeNode<V>) currentNode.child(pathElements.next());
+      currentNode = currentNode.child(pathElements.next());
     }
     return currentNode;
   }
 
+  /**
+   * Replaces the node at the given node's path, copying its ancestors up to the root of the tree.
+   * <p>
+   * The parent of the node must exist.
+   *
+   * @param node the updated node
+   */
+  @SuppressWarnings("unchecked")
+  private void replaceNode(DefaultDocumentTreeNode<V> node) {
+    List<String> pathElements = node.path().pathElements();
+    DefaultDocumentTreeNode<V>[] ancestors = new DefaultDocumentTreeNode[pathElements.size() - 1];
+    DefaultDocumentTreeNode<V> currentNode = root;
+    for (int i = 0; i < ancestors.length; i++) {
+      ancestors[i] = currentNode;
+      currentNode = currentNode.child(pathElements.get(i + 1));
+    }
+    for (int i = ancestors.length - 1; i >= 0; i--) {
+      node = ancestors[i].withChild(pathElements.get(i + 1), node);
+    }
+    root = node;
+  }
+
   private String simpleName(DocumentPath path) {
     return path.pathElements().get(path.pathElements().size() - 1);
   }
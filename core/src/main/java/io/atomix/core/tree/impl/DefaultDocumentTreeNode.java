@@ -17,9 +17,7 @@
 package io.atomix.core.tree.impl;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
+import com.google.common.collect.Iterators;
 
 import io.atomix.core.tree.DocumentPath;
 import io.atomix.core.tree.DocumentTreeNode;
@@ -27,40 +25,40 @@ import io.atomix.primitive.Ordering;
 import io.atomix.utils.time.Versioned;
 
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Objects;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * A {@code DocumentTree} node.
+ * <p>
+ * Nodes are immutable. Updating a node returns a copy of the node that shares its unchanged children with the
+ * original, so a tree can be updated by copying only the nodes on the path from the root to the updated node, and
+ * readers and snapshots of an earlier root are unaffected by later updates. Children are stored in persistent
+ * {@link DocumentTreeNodeChildren}, so adding, replacing or removing a child takes O(log n) time even for nodes with
+ * many children.
  */
 public class DefaultDocumentTreeNode<V> implements DocumentTreeNode<V> {
   private final DocumentPath key;
-  private Versioned<V> value;
-  private final Map<String, DocumentTreeNode<V>> children;
+  private final Versioned<V> value;
   private final Ordering ordering;
-  private final DocumentTreeNode<V> parent;
+  private final DocumentTreeNodeChildren<V> children;
 
   public DefaultDocumentTreeNode(DocumentPath key,
                                  V value,
                                  long version,
-                                 Ordering ordering,
-                                 DocumentTreeNode<V> parent) {
+                                 Ordering ordering) {
+    this(key, new Versioned<>(value, version), ordering, DocumentTreeNodeChildren.empty(ordering));
+  }
+
+  DefaultDocumentTreeNode(DocumentPath key,
+                          Versioned<V> value,
+                          Ordering ordering,
+                          DocumentTreeNodeChildren<V> children) {
     this.key = checkNotNull(key);
-    this.value = new Versioned<>(value, version);
+    this.value = value;
     this.ordering = ordering;
-    this.parent = parent;
-
-    switch (ordering) {
-      case INSERTION:
-        children = Maps.newLinkedHashMap();
-        break;
-      case NATURAL:
-      default:
-        children = Maps.newTreeMap();
-        break;
-    }
+    this.children = children;
   }
 
   @Override
@@ -73,62 +71,99 @@ public class DefaultDocumentTreeNode<V> implements DocumentTreeNode<V> {
     return value;
   }
 
+  /**
+   * Returns the ordering of the node's children.
+   *
+   * @return the ordering of the node's children
+   */
+  public Ordering ordering() {
+    return ordering;
+  }
+
   @Override
   public Iterator<DocumentTreeNode<V>> children() {
-    return ImmutableList.copyOf(children.values()).iterator();
+    return Iterators.transform(children.iterator(), DocumentTreeNodeChildren.Child::node);
+  }
+
+  /**
+   * Returns the named children of this node in order.
+   */
+  Iterable<DocumentTreeNodeChildren.Child<V>> namedChildren() {
+    return children;
+  }
+
+  /**
+   * Returns the number of children of this node.
+   *
+   * @return the number of children of this node
+   */
+  public int childCount() {
+    return children.size();
   }
 
   @Override
-  public DocumentTreeNode<V> child(String name) {
+  public DefaultDocumentTreeNode<V> child(String name) {
     return children.get(name);
   }
 
-
-  public DocumentTreeNode<V> parent() {
-    return parent;
+  @Override
+  public boolean hasChildren() {
+    return children.size() > 0;
   }
 
   /**
-   * Adds a new child only if one does not exist with the name.
+   * Returns a copy of this node with the given value.
    *
-   * @param name       relative path name of the child node
    * @param newValue   new value to set
    * @param newVersion new version to set
-   * @return previous value; can be {@code null} if no child currently exists with that relative path name.
-   * a non null return value indicates child already exists and no modification occurred.
+   * @return the updated node
    */
-  public Versioned<V> addChild(String name, V newValue, long newVersion) {
-    DefaultDocumentTreeNode<V> child = (DefaultDocumentTreeNode<V>) children.get(name);
-    if (child != null) {
-      return child.value();
-    }
-    children.put(name, new DefaultDocumentTreeNode<>(
-        new DocumentPath(name, path()), newValue, newVersion, ordering, this));
-    return null;
+  public DefaultDocumentTreeNode<V> withValue(V newValue, long newVersion) {
+    return new DefaultDocumentTreeNode<>(key, new Versioned<>(newValue, newVersion), ordering, children);
   }
 
   /**
-   * Updates the node value.
+   * Returns a copy of this node with a new child that has no children of its own.
    *
-   * @param newValue   new value to set
-   * @param newVersion new version to set
-   * @return previous value
+   * @param name       relative path name of the child node
+   * @param newValue   value of the child node
+   * @param newVersion version of the child node
+   * @return the updated node
    */
-  public Versioned<V> update(V newValue, long newVersion) {
-    Versioned<V> previousValue = value;
-    value = new Versioned<>(newValue, newVersion);
-    return previousValue;
+  public DefaultDocumentTreeNode<V> withChild(String name, V newValue, long newVersion) {
+    return withChild(name, new DefaultDocumentTreeNode<>(new DocumentPath(name, key), newValue, newVersion, ordering));
   }
 
+  /**
+   * Returns a copy of this node in which the given node replaces the existing child with the same name, or is added
+   * as a new child if no such child exists.
+   *
+   * @param name  relative path name of the child node
+   * @param child the child node
+   * @return the updated node
+   */
+  public DefaultDocumentTreeNode<V> withChild(String name, DefaultDocumentTreeNode<V> child) {
+    return new DefaultDocumentTreeNode<>(key, value, ordering, children.with(name, child));
+  }
 
   /**
-   * Removes a child node.
+   * Returns a copy of this node without the given child.
    *
    * @param name the name of child node to be removed
-   * @return {@code true} if the child set was modified as a result of this call, {@code false} otherwise
+   * @return the updated node, or this node if no child exists with the given name
+   */
+  public DefaultDocumentTreeNode<V> withoutChild(String name) {
+    DocumentTreeNodeChildren<V> newChildren = children.without(name);
+    return newChildren != children ? new DefaultDocumentTreeNode<>(key, value, ordering, newChildren) : this;
+  }
+
+  /**
+   * Returns a copy of this node without any children.
+   *
+   * @return the updated node
    */
-  public boolean removeChild(String name) {
-    return children.remove(name) != null;
+  public DefaultDocumentTreeNode<V> withoutChildren() {
+    return new DefaultDocumentTreeNode<>(key, value, ordering, DocumentTreeNodeChildren.empty(ordering));
   }
 
   @Override
@@ -140,11 +175,9 @@ public class DefaultDocumentTreeNode<V> implements DocumentTreeNode<V> {
   public boolean equals(Object obj) {
     if (obj instanceof DefaultDocumentTreeNode) {
       DefaultDocumentTreeNode<V> that = (DefaultDocumentTreeNode<V>) obj;
-      if (this.parent.equals(that.parent)) {
-        if (this.children.size() == that.children.size()) {
-          return Sets.symmetricDifference(this.children.keySet(), that.children.keySet()).isEmpty();
-        }
-      }
+      return this.key.equals(that.key) && Iterators.elementsEqual(
+          Iterators.transform(this.children.iterator(), DocumentTreeNodeChildren.Child::name),
+          Iterators.transform(that.children.iterator(), DocumentTreeNodeChildren.Child::name));
     }
     return false;
   }
@@ -153,14 +186,11 @@ public class DefaultDocumentTreeNode<V> implements DocumentTreeNode<V> {
   public String toString() {
     MoreObjects.ToStringHelper helper =
         MoreObjects.toStringHelper(getClass())
-            .add("parent", this.parent)
             .add("key", this.key)
             .add("value", this.value);
-    for (DocumentTreeNode<V> child : children.values()) {
-      helper = helper.add("child", "\n" + child.path().pathElements()
-          .get(child.path().pathElements().size() - 1) +
-          " : " + child.value());
+    for (DocumentTreeNodeChildren.Child<V> child : children) {
+      helper = helper.add("child", "\n" + child.name() + " : " + child.node().value());
     }
     return helper.toString();
   }
-}
\ No newline at end of file
+}
@@ -49,6 +49,11 @@ public class DelegatingAsyncDocumentTree<V> extends DelegatingAsyncPrimitive imp
     return delegateTree.getChildren(path);
   }
 
+  @Override
+  public CompletableFuture<Map<DocumentPath, Versioned<V>>> getSubtree(DocumentPath path, int depth) {
+    return delegateTree.getSubtree(path, depth);
+  }
+
   @Override
   public CompletableFuture<Versioned<V>> get(DocumentPath path) {
     return delegateTree.get(path);
@@ -59,6 +64,11 @@ public class DelegatingAsyncDocumentTree<V> extends DelegatingAsyncPrimitive imp
     return delegateTree.set(path, value);
   }
 
+  @Override
+  public CompletableFuture<Void> set(Map<DocumentPath, V> values) {
+    return delegateTree.set(values);
+  }
+
   @Override
   public CompletableFuture<Boolean> create(DocumentPath path, V value) {
     return delegateTree.create(path, value);
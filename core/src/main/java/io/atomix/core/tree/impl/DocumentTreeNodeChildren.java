@@ -0,0 +1,331 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.tree.impl;
+
+import io.atomix.primitive.Ordering;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable children of a {@link DefaultDocumentTreeNode}.
+ * <p>
+ * Children are stored in persistent treaps, binary search trees that are kept balanced by assigning each key a
+ * pseudo-random priority derived from its hash. Adding, replacing or removing a child copies only the O(log n) treap
+ * nodes on the path to the child and shares the rest with the original, so filling a node with many children doesn't
+ * copy its existing children each time. With {@link Ordering#NATURAL natural} ordering a single treap keyed by name
+ * also provides the iteration order. With {@link Ordering#INSERTION insertion} ordering each child is additionally
+ * assigned an increasing sequence number when it's added and kept in a second treap keyed by that sequence number,
+ * which provides the iteration order.
+ */
+final class DocumentTreeNodeChildren<V> implements Iterable<DocumentTreeNodeChildren.Child<V>> {
+  private static final DocumentTreeNodeChildren NATURAL = new DocumentTreeNodeChildren<>(Ordering.NATURAL);
+  private static final DocumentTreeNodeChildren INSERTION = new DocumentTreeNodeChildren<>(Ordering.INSERTION);
+
+  /**
+   * Returns an empty set of children with the given ordering.
+   *
+   * @param ordering the ordering of the children
+   * @return an empty set of children
+   */
+  @SuppressWarnings("unchecked")
+  static <V> DocumentTreeNodeChildren<V> empty(Ordering ordering) {
+    return ordering == Ordering.INSERTION ? INSERTION : NATURAL;
+  }
+
+  private final Ordering ordering;
+  private final TreapNode<String, Child<V>> byName;
+  private final TreapNode<Long, Child<V>> bySequence;
+  private final long nextSequence;
+  private final int size;
+
+  private DocumentTreeNodeChildren(Ordering ordering) {
+    this(ordering, null, null, 0, 0);
+  }
+
+  private DocumentTreeNodeChildren(
+      Ordering ordering,
+      TreapNode<String, Child<V>> byName,
+      TreapNode<Long, Child<V>> bySequence,
+      long nextSequence,
+      int size) {
+    this.ordering = ordering;
+    this.byName = byName;
+    this.bySequence = bySequence;
+    this.nextSequence = nextSequence;
+    this.size = size;
+  }
+
+  /**
+   * Returns the number of children.
+   *
+   * @return the number of children
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the child with the given name.
+   *
+   * @param name the name of the child
+   * @return the child node, or {@code null} if no child exists with the given name
+   */
+  DefaultDocumentTreeNode<V> get(String name) {
+    Child<V> child = TreapNode.get(byName, name);
+    return child != null ? child.node : null;
+  }
+
+  /**
+   * Returns a copy of these children in which the given node replaces the existing child with the same name, or is
+   * added as a new child if no such child exists.
+   *
+   * @param name the name of the child
+   * @param node the child node
+   * @return the updated children
+   */
+  DocumentTreeNodeChildren<V> with(String name, DefaultDocumentTreeNode<V> node) {
+    Child<V> existing = TreapNode.get(byName, name);
+    if (ordering == Ordering.NATURAL) {
+      return new DocumentTreeNodeChildren<>(
+          ordering,
+          TreapNode.put(byName, name, new Child<>(name, 0, node)),
+          null,
+          0,
+          existing != null ? size : size + 1);
+    }
+
+    // A replaced child keeps its position in the insertion order.
+    if (existing != null) {
+      Child<V> child = new Child<>(name, existing.sequence, node);
+      return new DocumentTreeNodeChildren<>(
+          ordering,
+          TreapNode.put(byName, name, child),
+          TreapNode.put(bySequence, child.sequence, child),
+          nextSequence,
+          size);
+    }
+    Child<V> child = new Child<>(name, nextSequence, node);
+    return new DocumentTreeNodeChildren<>(
+        ordering,
+        TreapNode.put(byName, name, child),
+        TreapNode.put(bySequence, child.sequence, child),
+        nextSequence + 1,
+        size + 1);
+  }
+
+  /**
+   * Returns a copy of these children without the child with the given name.
+   *
+   * @param name the name of the child
+   * @return the updated children, or these children if no child exists with the given name
+   */
+  DocumentTreeNodeChildren<V> without(String name) {
+    Child<V> existing = TreapNode.get(byName, name);
+    if (existing == null) {
+      return this;
+    }
+    if (size == 1) {
+      return empty(ordering);
+    }
+    return new DocumentTreeNodeChildren<>(
+        ordering,
+        TreapNode.remove(byName, name),
+        ordering == Ordering.INSERTION ? TreapNode.remove(bySequence, existing.sequence) : null,
+        nextSequence,
+        size - 1);
+  }
+
+  @Override
+  public Iterator<Child<V>> iterator() {
+    return ordering == Ordering.INSERTION ? new TreapIterator<>(bySequence) : new TreapIterator<>(byName);
+  }
+
+  /**
+   * A named child node.
+   */
+  static final class Child<V> {
+    private final String name;
+    private final long sequence;
+    private final DefaultDocumentTreeNode<V> node;
+
+    private Child(String name, long sequence, DefaultDocumentTreeNode<V> node) {
+      this.name = name;
+      this.sequence = sequence;
+      this.node = node;
+    }
+
+    /**
+     * Returns the name of the child.
+     *
+     * @return the name of the child
+     */
+    String name() {
+      return name;
+    }
+
+    /**
+     * Returns the child node.
+     *
+     * @return the child node
+     */
+    DefaultDocumentTreeNode<V> node() {
+      return node;
+    }
+  }
+
+  /**
+   * Immutable treap node.
+   * <p>
+   * Nodes are ordered by key as in a binary search tree and by priority as in a max-heap. Updates return a new root
+   * that shares all nodes off the path to the updated key with the original.
+   */
+  private static final class TreapNode<K extends Comparable<K>, T> {
+    private final K key;
+    private final T value;
+    private final int priority;
+    private final TreapNode<K, T> left;
+    private final TreapNode<K, T> right;
+
+    private TreapNode(K key, T value, int priority, TreapNode<K, T> left, TreapNode<K, T> right) {
+      this.key = key;
+      this.value = value;
+      this.priority = priority;
+      this.left = left;
+      this.right = right;
+    }
+
+    private TreapNode<K, T> withLeft(TreapNode<K, T> left) {
+      return new TreapNode<>(key, value, priority, left, right);
+    }
+
+    private TreapNode<K, T> withRight(TreapNode<K, T> right) {
+      return new TreapNode<>(key, value, priority, left, right);
+    }
+
+    /**
+     * Derives a well distributed priority from the key's hash code.
+     */
+    private static int priority(Object key) {
+      int hash = key.hashCode();
+      hash ^= hash >>> 16;
+      hash *= 0x85ebca6b;
+      hash ^= hash >>> 13;
+      hash *= 0xc2b2ae35;
+      hash ^= hash >>> 16;
+      return hash;
+    }
+
+    static <K extends Comparable<K>, T> T get(TreapNode<K, T> node, K key) {
+      while (node != null) {
+        int compare = key.compareTo(node.key);
+        if (compare == 0) {
+          return node.value;
+        }
+        node = compare < 0 ? node.left : node.right;
+      }
+      return null;
+    }
+
+    static <K extends Comparable<K>, T> TreapNode<K, T> put(TreapNode<K, T> node, K key, T value) {
+      if (node == null) {
+        return new TreapNode<>(key, value, priority(key), null, null);
+      }
+      int compare = key.compareTo(node.key);
+      if (compare == 0) {
+        return new TreapNode<>(key, value, node.priority, node.left, node.right);
+      } else if (compare < 0) {
+        TreapNode<K, T> left = put(node.left, key, value);
+        if (left.priority > node.priority) {
+          // Rotate right to restore the heap order.
+          return left.withRight(node.withLeft(left.right));
+        }
+        return node.withLeft(left);
+      } else {
+        TreapNode<K, T> right = put(node.right, key, value);
+        if (right.priority > node.priority) {
+          // Rotate left to restore the heap order.
+          return right.withLeft(node.withRight(right.left));
+        }
+        return node.withRight(right);
+      }
+    }
+
+    static <K extends Comparable<K>, T> TreapNode<K, T> remove(TreapNode<K, T> node, K key) {
+      if (node == null) {
+        return null;
+      }
+      int compare = key.compareTo(node.key);
+      if (compare == 0) {
+        return merge(node.left, node.right);
+      } else if (compare < 0) {
+        return node.withLeft(remove(node.left, key));
+      } else {
+        return node.withRight(remove(node.right, key));
+      }
+    }
+
+    /**
+     * Merges two treaps, all of whose keys in {@code left} are less than the keys in {@code right}.
+     */
+    private static <K extends Comparable<K>, T> TreapNode<K, T> merge(TreapNode<K, T> left, TreapNode<K, T> right) {
+      if (left == null) {
+        return right;
+      } else if (right == null) {
+        return left;
+      } else if (left.priority > right.priority) {
+        return left.withRight(merge(left.right, right));
+      } else {
+        return right.withLeft(merge(left, right.left));
+      }
+    }
+  }
+
+  /**
+   * In-order treap iterator.
+   */
+  private static final class TreapIterator<T> implements Iterator<T> {
+    private final Deque<TreapNode<?, T>> stack = new ArrayDeque<>();
+
+    TreapIterator(TreapNode<?, T> root) {
+      pushLeft(root);
+    }
+
+    private void pushLeft(TreapNode<?, T> node) {
+      while (node != null) {
+        stack.push(node);
+        node = node.left;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !stack.isEmpty();
+    }
+
+    @Override
+    public T next() {
+      if (stack.isEmpty()) {
+        throw new NoSuchElementException();
+      }
+      TreapNode<?, T> node = stack.pop();
+      pushLeft(node.right);
+      return node.value;
+    }
+  }
+}
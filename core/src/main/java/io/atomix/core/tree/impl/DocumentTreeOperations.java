@@ -31,6 +31,7 @@ import io.atomix.utils.serializer.KryoNamespaces;
 import io.atomix.utils.time.Versioned;
 
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -50,7 +51,9 @@ public enum DocumentTreeOperations implements OperationId {
   PREPARE(OperationType.COMMAND),
   PREPARE_AND_COMMIT(OperationType.COMMAND),
   COMMIT(OperationType.COMMAND),
-  ROLLBACK(OperationType.COMMAND);
+  ROLLBACK(OperationType.COMMAND),
+  GET_SUBTREE(OperationType.QUERY),
+  SET_ALL(OperationType.COMMAND);
 
   private final OperationType type;
 
@@ -89,6 +92,8 @@ public enum DocumentTreeOperations implements OperationId {
       .register(Versioned.class)
       .register(DocumentTreeResult.class)
       .register(DocumentTreeResult.Status.class)
+      .register(GetSubtree.class)
+      .register(SetAll.class)
       .build(DocumentTreeOperations.class.getSimpleName());
 
   /**
@@ -155,6 +160,35 @@ public enum DocumentTreeOperations implements OperationId {
     }
   }
 
+  /**
+   * DocumentTree#getSubtree query.
+   */
+  @SuppressWarnings("serial")
+  public static class GetSubtree extends PathOperation {
+    private int depth;
+
+    public GetSubtree() {
+      super(null);
+    }
+
+    public GetSubtree(DocumentPath path, int depth) {
+      super(path);
+      this.depth = depth;
+    }
+
+    public int depth() {
+      return depth;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(getClass())
+          .add("path", path())
+          .add("depth", depth)
+          .toString();
+    }
+  }
+
   /**
    * DocumentTree update command.
    */
@@ -242,4 +276,31 @@ public enum DocumentTreeOperations implements OperationId {
           .toString();
     }
   }
+
+  /**
+   * DocumentTree batch set command.
+   */
+  @SuppressWarnings("serial")
+  public static class SetAll extends DocumentTreeOperation {
+    private LinkedHashMap<DocumentPath, byte[]> values;
+
+    public SetAll() {
+      this.values = null;
+    }
+
+    public SetAll(LinkedHashMap<DocumentPath, byte[]> values) {
+      this.values = values;
+    }
+
+    public Map<DocumentPath, byte[]> values() {
+      return values;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(getClass())
+          .add("paths", values.keySet())
+          .toString();
+    }
+  }
 }
@@ -27,7 +27,9 @@ import io.atomix.core.tree.IllegalDocumentModificationException;
 import io.atomix.core.tree.NoSuchDocumentPathException;
 import io.atomix.core.tree.impl.DocumentTreeOperations.Get;
 import io.atomix.core.tree.impl.DocumentTreeOperations.GetChildren;
+import io.atomix.core.tree.impl.DocumentTreeOperations.GetSubtree;
 import io.atomix.core.tree.impl.DocumentTreeOperations.Listen;
+import io.atomix.core.tree.impl.DocumentTreeOperations.SetAll;
 import io.atomix.core.tree.impl.DocumentTreeOperations.Unlisten;
 import io.atomix.core.tree.impl.DocumentTreeOperations.Update;
 import io.atomix.primitive.PrimitiveRegistry;
@@ -44,6 +46,7 @@ import io.atomix.utils.time.Versioned;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -56,7 +59,9 @@ import static io.atomix.core.tree.impl.DocumentTreeOperations.ADD_LISTENER;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.CLEAR;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.GET;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.GET_CHILDREN;
+import static io.atomix.core.tree.impl.DocumentTreeOperations.GET_SUBTREE;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.REMOVE_LISTENER;
+import static io.atomix.core.tree.impl.DocumentTreeOperations.SET_ALL;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.UPDATE;
 import static io.atomix.core.tree.impl.DocumentTreeResult.Status.ILLEGAL_MODIFICATION;
 import static io.atomix.core.tree.impl.DocumentTreeResult.Status.INVALID_PATH;
@@ -94,6 +99,15 @@ public class DocumentTreeProxy extends AbstractAsyncPrimitive<AsyncDocumentTree<
         .thenApply(result -> result.status() == OK ? result.result() : ImmutableMap.of());
   }
 
+  @Override
+  public CompletableFuture<Map<DocumentPath, Versioned<byte[]>>> getSubtree(DocumentPath path, int depth) {
+    return this.<GetSubtree, DocumentTreeResult<Map<DocumentPath, Versioned<byte[]>>>>invokeBy(
+        getPartitionKey(),
+        GET_SUBTREE,
+        new GetSubtree(checkNotNull(path), depth))
+        .thenApply(result -> result.status() == OK ? result.result() : ImmutableMap.of());
+  }
+
   @Override
   public CompletableFuture<Versioned<byte[]>> get(DocumentPath path) {
     return invokeBy(getPartitionKey(), GET, new Get(checkNotNull(path)));
@@ -116,6 +130,26 @@ public class DocumentTreeProxy extends AbstractAsyncPrimitive<AsyncDocumentTree<
         }).thenApply(result -> result.result());
   }
 
+  @Override
+  public CompletableFuture<Void> set(Map<DocumentPath, byte[]> values) {
+    if (values.containsKey(DocumentPath.ROOT)) {
+      return Futures.exceptionalFuture(new IllegalDocumentModificationException());
+    }
+    return this.<SetAll, DocumentTreeResult<Void>>invokeBy(
+        getPartitionKey(),
+        SET_ALL,
+        new SetAll(new LinkedHashMap<>(checkNotNull(values))))
+        .thenCompose(result -> {
+          if (result.status() == INVALID_PATH) {
+            return Futures.exceptionalFuture(new NoSuchDocumentPathException());
+          } else if (result.status() == ILLEGAL_MODIFICATION) {
+            return Futures.exceptionalFuture(new IllegalDocumentModificationException());
+          } else {
+            return CompletableFuture.completedFuture(null);
+          }
+        });
+  }
+
   @Override
   public CompletableFuture<Boolean> create(DocumentPath path, byte[] value) {
     return createInternal(path, value)
@@ -21,17 +21,18 @@ import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Queues;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import io.atomix.core.tree.DocumentPath;
-import io.atomix.core.tree.DocumentTree;
 import io.atomix.core.tree.DocumentTreeEvent;
 import io.atomix.core.tree.DocumentTreeEvent.Type;
 import io.atomix.core.tree.IllegalDocumentModificationException;
 import io.atomix.core.tree.NoSuchDocumentPathException;
 import io.atomix.core.tree.impl.DocumentTreeOperations.Get;
 import io.atomix.core.tree.impl.DocumentTreeOperations.GetChildren;
+import io.atomix.core.tree.impl.DocumentTreeOperations.GetSubtree;
 import io.atomix.core.tree.impl.DocumentTreeOperations.Listen;
+import io.atomix.core.tree.impl.DocumentTreeOperations.SetAll;
 import io.atomix.core.tree.impl.DocumentTreeOperations.Unlisten;
 import io.atomix.core.tree.impl.DocumentTreeOperations.Update;
 import io.atomix.core.tree.impl.DocumentTreeResult.Status;
@@ -49,17 +50,20 @@ import io.atomix.utils.serializer.KryoNamespaces;
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.utils.time.Versioned;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static io.atomix.core.tree.impl.DocumentTreeEvents.CHANGE;
@@ -67,11 +71,16 @@ import static io.atomix.core.tree.impl.DocumentTreeOperations.ADD_LISTENER;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.CLEAR;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.GET;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.GET_CHILDREN;
+import static io.atomix.core.tree.impl.DocumentTreeOperations.GET_SUBTREE;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.REMOVE_LISTENER;
+import static io.atomix.core.tree.impl.DocumentTreeOperations.SET_ALL;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.UPDATE;
 
 /**
  * State Machine for {@link DocumentTreeProxy} resource.
+ * <p>
+ * Listening sessions are indexed by the paths they listen to, so only the sessions listening to a changed subtree
+ * are visited when publishing events, and the events of a batch update are sent to each session in one message.
  */
 public class DocumentTreeService extends AbstractPrimitiveService {
   private final Serializer serializer = Serializer.using(KryoNamespace.builder()
@@ -100,22 +109,24 @@ public class DocumentTreeService extends AbstractPrimitiveService {
       .register(new com.esotericsoftware.kryo.Serializer<DefaultDocumentTree>() {
         @Override
         public void write(Kryo kryo, Output output, DefaultDocumentTree object) {
-          kryo.writeObject(output, object.root);
+          kryo.writeObject(output, object.root.ordering());
+          writeNode(kryo, output, object.root);
         }
 
         @Override
         @SuppressWarnings("unchecked")
         public DefaultDocumentTree read(Kryo kryo, Input input, Class<DefaultDocumentTree> type) {
+          Ordering ordering = kryo.readObject(input, Ordering.class);
           return new DefaultDocumentTree(versionCounter::incrementAndGet,
-              kryo.readObject(input, DefaultDocumentTreeNode.class));
+              readNode(kryo, input, DocumentPath.ROOT, ordering));
         }
       }, DefaultDocumentTree.class)
-      .register(DefaultDocumentTreeNode.class)
       .build());
 
   private Map<Long, SessionListenCommits> listeners = new HashMap<>();
+  private ListenerIndex listenerIndex = new ListenerIndex();
   private AtomicLong versionCounter = new AtomicLong(0);
-  private DocumentTree<byte[]> docTree;
+  private DefaultDocumentTree<byte[]> docTree;
   private Set<DocumentPath> preparedKeys = Sets.newHashSet();
 
   public DocumentTreeService(Ordering ordering) {
@@ -141,6 +152,39 @@ public class DocumentTreeService extends AbstractPrimitiveService {
     listeners = reader.readObject();
     docTree = reader.readObject();
     preparedKeys = reader.readObject();
+    listenerIndex = new ListenerIndex();
+    listeners.values().forEach(listenCommits ->
+        listenerIndex.add(listenCommits.leastCommonAncestorPath(), listenCommits));
+  }
+
+  /**
+   * Writes a node and its descendants to a snapshot.
+   * <p>
+   * Only the name of each node is written, since the path of a node is determined by its parent.
+   */
+  private static void writeNode(Kryo kryo, Output output, DefaultDocumentTreeNode<?> node) {
+    kryo.writeObject(output, node.value());
+    output.writeVarInt(node.childCount(), true);
+    for (DocumentTreeNodeChildren.Child<?> child : node.namedChildren()) {
+      output.writeString(child.name());
+      writeNode(kryo, output, child.node());
+    }
+  }
+
+  /**
+   * Reads a node and its descendants from a snapshot.
+   */
+  @SuppressWarnings("unchecked")
+  private static DefaultDocumentTreeNode<byte[]> readNode(
+      Kryo kryo, Input input, DocumentPath path, Ordering ordering) {
+    Versioned<byte[]> value = kryo.readObject(input, Versioned.class);
+    int childCount = input.readVarInt(true);
+    DocumentTreeNodeChildren<byte[]> children = DocumentTreeNodeChildren.empty(ordering);
+    for (int i = 0; i < childCount; i++) {
+      String name = input.readString();
+      children = children.with(name, readNode(kryo, input, new DocumentPath(name, path), ordering));
+    }
+    return new DefaultDocumentTreeNode<>(path, value, ordering, children);
   }
 
   @Override
@@ -151,8 +195,10 @@ public class DocumentTreeService extends AbstractPrimitiveService {
     // queries
     executor.register(GET, this::get);
     executor.register(GET_CHILDREN, this::getChildren);
+    executor.register(GET_SUBTREE, this::getSubtree);
     // commands
     executor.register(UPDATE, this::update);
+    executor.register(SET_ALL, this::setAll);
     executor.register(CLEAR, this::clear);
   }
 
@@ -168,15 +214,29 @@ public class DocumentTreeService extends AbstractPrimitiveService {
 
   protected void listen(Commit<? extends Listen> commit) {
     Long sessionId = commit.session().sessionId().id();
-    listeners.computeIfAbsent(sessionId, k -> new SessionListenCommits())
-        .add(new Listener(commit.session(), commit.value().path()));
+    SessionListenCommits listenCommits = listeners.computeIfAbsent(sessionId, k -> new SessionListenCommits());
+    DocumentPath previousPath = listenCommits.leastCommonAncestorPath();
+    listenCommits.add(new Listener(commit.session(), commit.value().path()));
+    reindex(listenCommits, previousPath);
   }
 
   protected void unlisten(Commit<? extends Unlisten> commit) {
     Long sessionId = commit.session().sessionId().id();
     SessionListenCommits listenCommits = listeners.get(sessionId);
     if (listenCommits != null) {
+      DocumentPath previousPath = listenCommits.leastCommonAncestorPath();
       listenCommits.remove(commit);
+      reindex(listenCommits, previousPath);
+    }
+  }
+
+  /**
+   * Moves a session's listeners in the listener index after their least common ancestor path has changed.
+   */
+  private void reindex(SessionListenCommits listenCommits, DocumentPath previousPath) {
+    if (!Objects.equals(previousPath, listenCommits.leastCommonAncestorPath())) {
+      listenerIndex.remove(previousPath, listenCommits);
+      listenerIndex.add(listenCommits.leastCommonAncestorPath(), listenCommits);
     }
   }
 
@@ -197,6 +257,14 @@ public class DocumentTreeService extends AbstractPrimitiveService {
     }
   }
 
+  protected DocumentTreeResult<Map<DocumentPath, Versioned<byte[]>>> getSubtree(Commit<? extends GetSubtree> commit) {
+    try {
+      return DocumentTreeResult.ok(docTree.getSubtree(commit.value().path(), commit.value().depth()));
+    } catch (NoSuchDocumentPathException e) {
+      return DocumentTreeResult.invalidPath();
+    }
+  }
+
   protected DocumentTreeResult<Versioned<byte[]>> update(Commit<? extends Update> commit) {
     DocumentTreeResult<Versioned<byte[]>> result = null;
     DocumentPath path = commit.value().path();
@@ -257,36 +325,59 @@ public class DocumentTreeService extends AbstractPrimitiveService {
     return result;
   }
 
-  protected void clear(Commit<Void> commit) {
-    Queue<DocumentPath> toClearQueue = Queues.newArrayDeque();
-    Map<String, Versioned<byte[]>> topLevelChildren = docTree.getChildren(DocumentPath.from("root"));
-    toClearQueue.addAll(topLevelChildren.keySet()
-        .stream()
-        .map(name -> new DocumentPath(name, DocumentPath.from("root")))
-        .collect(Collectors.toList()));
-    while (!toClearQueue.isEmpty()) {
-      DocumentPath path = toClearQueue.remove();
-      Map<String, Versioned<byte[]>> children = docTree.getChildren(path);
-      if (children.size() == 0) {
-        docTree.removeNode(path);
-      } else {
-        children.keySet().forEach(name -> toClearQueue.add(new DocumentPath(name, path)));
-        toClearQueue.add(path);
+  protected DocumentTreeResult<Void> setAll(Commit<? extends SetAll> commit) {
+    Map<DocumentPath, byte[]> values = commit.value().values();
+
+    // If any of the paths is locked by a transaction, return a WRITE_LOCK error.
+    for (DocumentPath path : values.keySet()) {
+      if (isLocked(path)) {
+        return DocumentTreeResult.writeLock();
       }
     }
+
+    Map<DocumentPath, Versioned<byte[]>> oldValues = Maps.newHashMap();
+    values.keySet().forEach(path -> oldValues.put(path, docTree.get(path)));
+    try {
+      docTree.set(values);
+    } catch (IllegalDocumentModificationException e) {
+      return DocumentTreeResult.illegalModification();
+    } catch (NoSuchDocumentPathException e) {
+      return DocumentTreeResult.invalidPath();
+    }
+
+    List<DocumentTreeEvent<byte[]>> events = new ArrayList<>(values.size());
+    for (DocumentPath path : values.keySet()) {
+      Versioned<byte[]> oldValue = oldValues.get(path);
+      Versioned<byte[]> newValue = docTree.get(path);
+      events.add(new DocumentTreeEvent<>(
+          path,
+          oldValue == null ? Type.CREATED : Type.UPDATED,
+          Optional.of(newValue),
+          Optional.ofNullable(oldValue)));
+    }
+    notifyListeners(events);
+    return DocumentTreeResult.ok(null);
   }
 
-  private void publish(List<DocumentTreeEvent<byte[]>> events) {
-    listeners.values().forEach(session -> {
-      session.publish(CHANGE, events);
-    });
+  protected void clear(Commit<Void> commit) {
+    docTree.clear();
+  }
+
+  /**
+   * Publishes a batch of events, sending each listening session the events within its subtree in a single message.
+   */
+  private void notifyListeners(List<DocumentTreeEvent<byte[]>> events) {
+    Map<SessionListenCommits, List<DocumentTreeEvent<byte[]>>> sessionEvents = new LinkedHashMap<>();
+    for (DocumentTreeEvent<byte[]> event : events) {
+      listenerIndex.forEach(event.path(), listenCommits ->
+          sessionEvents.computeIfAbsent(listenCommits, l -> new ArrayList<>()).add(event));
+    }
+    sessionEvents.forEach((listenCommits, sessionEventList) -> listenCommits.publish(CHANGE, sessionEventList));
   }
 
   private void notifyListeners(DocumentTreeEvent<byte[]> event) {
-    listeners.values()
-        .stream()
-        .filter(l -> event.path().isDescendentOf(l.leastCommonAncestorPath()))
-        .forEach(listener -> listener.publish(CHANGE, Arrays.asList(event)));
+    List<DocumentTreeEvent<byte[]>> events = Arrays.asList(event);
+    listenerIndex.forEach(event.path(), listenCommits -> listenCommits.publish(CHANGE, events));
   }
 
   @Override
@@ -300,7 +391,68 @@ public class DocumentTreeService extends AbstractPrimitiveService {
   }
 
   private void closeListener(Long sessionId) {
-    listeners.remove(sessionId);
+    SessionListenCommits listenCommits = listeners.remove(sessionId);
+    if (listenCommits != null) {
+      listenerIndex.remove(listenCommits.leastCommonAncestorPath(), listenCommits);
+    }
+  }
+
+  /**
+   * Index of listening sessions by the least common ancestor path of each session's listeners.
+   * <p>
+   * The index is a trie of path elements, so the sessions to notify of a change are found by walking the path of
+   * the changed node rather than by checking the listeners of every session.
+   */
+  private static class ListenerIndex {
+    private final Map<String, ListenerIndex> children = new HashMap<>();
+    private final Set<SessionListenCommits> sessions = new LinkedHashSet<>();
+
+    /**
+     * Adds a session's listeners at the given path.
+     */
+    void add(DocumentPath path, SessionListenCommits listenCommits) {
+      if (path == null) {
+        return;
+      }
+      ListenerIndex node = this;
+      for (String element : path.pathElements()) {
+        node = node.children.computeIfAbsent(element, e -> new ListenerIndex());
+      }
+      node.sessions.add(listenCommits);
+    }
+
+    /**
+     * Removes a session's listeners from the given path, pruning any branches of the index that become empty.
+     */
+    boolean remove(DocumentPath path, SessionListenCommits listenCommits) {
+      return path != null && remove(path.pathElements(), 0, listenCommits);
+    }
+
+    private boolean remove(List<String> elements, int depth, SessionListenCommits listenCommits) {
+      if (depth == elements.size()) {
+        sessions.remove(listenCommits);
+      } else {
+        ListenerIndex child = children.get(elements.get(depth));
+        if (child != null && child.remove(elements, depth + 1, listenCommits)) {
+          children.remove(elements.get(depth));
+        }
+      }
+      return sessions.isEmpty() && children.isEmpty();
+    }
+
+    /**
+     * Calls the given consumer for each session listening to the subtree containing the given path.
+     */
+    void forEach(DocumentPath path, Consumer<SessionListenCommits> consumer) {
+      ListenerIndex node = this;
+      for (String element : path.pathElements()) {
+        node = node.children.get(element);
+        if (node == null) {
+          return;
+        }
+        node.sessions.forEach(consumer);
+      }
+    }
   }
 
   private class SessionListenCommits {
@@ -63,6 +63,12 @@ public class TranscodingAsyncDocumentTree<V1, V2> implements AsyncDocumentTree<V
         .thenApply(children -> Maps.transformValues(children, v -> v.map(valueDecoder)));
   }
 
+  @Override
+  public CompletableFuture<Map<DocumentPath, Versioned<V1>>> getSubtree(DocumentPath path, int depth) {
+    return backingTree.getSubtree(path, depth)
+        .thenApply(subtree -> Maps.transformValues(subtree, v -> v.map(valueDecoder)));
+  }
+
   @Override
   public CompletableFuture<Versioned<V1>> get(DocumentPath path) {
     return backingTree.get(path).thenApply(v -> v != null ? v.map(valueDecoder) : null);
@@ -73,6 +79,13 @@ public class TranscodingAsyncDocumentTree<V1, V2> implements AsyncDocumentTree<V
     return backingTree.set(path, valueEncoder.apply(value)).thenApply(v -> v != null ? v.map(valueDecoder) : null);
   }
 
+  @Override
+  public CompletableFuture<Void> set(Map<DocumentPath, V1> values) {
+    Map<DocumentPath, V2> encodedValues = Maps.newLinkedHashMap();
+    values.forEach((path, value) -> encodedValues.put(path, valueEncoder.apply(value)));
+    return backingTree.set(encodedValues);
+  }
+
   @Override
   public CompletableFuture<Boolean> create(DocumentPath path, V1 value) {
     return backingTree.create(path, valueEncoder.apply(value));
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.lock.impl;
+
+import io.atomix.core.lock.DistributedLockType;
+import io.atomix.core.lock.impl.DistributedLockOperations.Lock;
+import io.atomix.core.lock.impl.DistributedLockOperations.Unlock;
+import io.atomix.primitive.PrimitiveId;
+import io.atomix.primitive.service.ServiceContext;
+import io.atomix.primitive.service.impl.DefaultCommit;
+import io.atomix.primitive.session.PrimitiveSession;
+import io.atomix.primitive.session.PrimitiveSessions;
+import io.atomix.primitive.session.SessionId;
+import io.atomix.primitive.session.SessionListener;
+import io.atomix.utils.time.WallClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import static io.atomix.core.lock.impl.DistributedLockOperations.LOCK;
+import static io.atomix.core.lock.impl.DistributedLockOperations.UNLOCK;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Distributed lock service benchmark.
+ * <p>
+ * Measures acquire/release handoffs in the lock state machine with the given number of contending sessions. Each
+ * contender holds at most one lock request, so all but one of the contenders are waiting in the lock's queue at any
+ * time. Each benchmark operation releases the lock held by the contender at the head of the queue, handing the lock
+ * off to the next waiter, and then re-queues the released contender.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Droot.logging.level=INFO"})
+public class DistributedLockServiceBenchmark {
+  private static final String LOCK_NAME = "test";
+
+  @Param({"1", "16", "256"})
+  private int contenders;
+
+  @Param({"1", "64"})
+  private int stripes;
+
+  private DistributedLockService service;
+  private PrimitiveSession[] sessions;
+  private int[] lockIds;
+  private long index;
+  private int turn;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ServiceContext context = mock(ServiceContext.class, withSettings().stubOnly());
+    when(context.serviceType()).thenReturn(DistributedLockType.instance());
+    when(context.serviceName()).thenReturn(LOCK_NAME);
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(new WallClock());
+
+    // Sessions are stub-only mocks so that published events are not recorded for verification.
+    sessions = new PrimitiveSession[contenders];
+    for (int i = 0; i < contenders; i++) {
+      PrimitiveSession session = mock(PrimitiveSession.class, withSettings().stubOnly());
+      when(session.sessionId()).thenReturn(SessionId.from(i + 1));
+      when(session.getState()).thenReturn(PrimitiveSession.State.OPEN);
+      sessions[i] = session;
+    }
+    when(context.sessions()).thenReturn(new BenchmarkSessions(sessions));
+
+    service = new DistributedLockService();
+    service.init(context);
+
+    // The first contender on each stripe is granted the lock and the rest are queued behind it.
+    lockIds = new int[contenders];
+    for (int i = 0; i < contenders; i++) {
+      lock(i);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    service.close();
+  }
+
+  private String lockName(int contender) {
+    return LOCK_NAME + "-" + contender % stripes;
+  }
+
+  private void lock(int contender) {
+    int id = ++lockIds[contender];
+    service.lock(new DefaultCommit<>(
+        ++index, LOCK, new Lock(lockName(contender), id, -1, false), sessions[contender], System.currentTimeMillis()));
+  }
+
+  private void unlock(int contender) {
+    service.unlock(new DefaultCommit<>(
+        ++index, UNLOCK, new Unlock(lockName(contender), lockIds[contender]), sessions[contender],
+        System.currentTimeMillis()));
+  }
+
+  @Benchmark
+  public void handoff() {
+    // Contenders are granted the lock in FIFO order, so the current holders rotate through the contenders.
+    int contender = turn;
+    turn = (turn + 1) % contenders;
+    unlock(contender);
+    lock(contender);
+  }
+
+  /**
+   * Session set backed by the benchmark's contender sessions.
+   */
+  private static class BenchmarkSessions implements PrimitiveSessions {
+    private final PrimitiveSession[] sessions;
+
+    BenchmarkSessions(PrimitiveSession[] sessions) {
+      this.sessions = sessions;
+    }
+
+    @Override
+    public PrimitiveSession getSession(long sessionId) {
+      return sessionId > 0 && sessionId <= sessions.length ? sessions[(int) sessionId - 1] : null;
+    }
+
+    @Override
+    public PrimitiveSessions addListener(SessionListener listener) {
+      return this;
+    }
+
+    @Override
+    public PrimitiveSessions removeListener(SessionListener listener) {
+      return this;
+    }
+
+    @Override
+    public Iterator<PrimitiveSession> iterator() {
+      return Arrays.asList(sessions).iterator();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(DistributedLockServiceBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
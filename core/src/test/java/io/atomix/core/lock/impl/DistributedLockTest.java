@@ -119,4 +119,78 @@ public abstract class DistributedLockTest extends AbstractPrimitiveTest {
 
     lock2.lock().join();
   }
+
+  /**
+   * Tests that fencing tokens increase across lock handoffs.
+   */
+  @Test
+  public void testFencingTokens() throws Throwable {
+    AsyncDistributedLock lock1 = atomix().lockBuilder("test-fencing-tokens", protocol()).build().async();
+    AsyncDistributedLock lock2 = atomix().lockBuilder("test-fencing-tokens", protocol()).build().async();
+    AsyncDistributedLock lock3 = atomix().lockBuilder("test-fencing-tokens", protocol()).build().async();
+
+    Version version1 = lock1.lock().join();
+    CompletableFuture<Version> future2 = lock2.lock();
+    CompletableFuture<Version> future3 = lock3.lock();
+
+    lock1.unlock().join();
+    Version version2 = future2.join();
+    assertTrue(version2.value() > version1.value());
+
+    // The lock is handed off to the next waiter when the holder's session is closed.
+    lock2.close().join();
+    Version version3 = future3.join();
+    assertTrue(version3.value() > version2.value());
+  }
+
+  /**
+   * Tests that named locks are independent of one another.
+   */
+  @Test
+  public void testStripes() throws Throwable {
+    AsyncDistributedLock lock1 = atomix().lockBuilder("test-stripes", protocol()).build().async();
+    AsyncDistributedLock lock2 = atomix().lockBuilder("test-stripes", protocol()).build().async();
+
+    for (int i = 0; i < 10; i++) {
+      assertTrue(lock1.stripe("stripe-" + i).tryLock().join().isPresent());
+    }
+    assertTrue(lock2.tryLock().join().isPresent());
+    assertFalse(lock1.tryLock().join().isPresent());
+    assertFalse(lock2.stripe("stripe-5").tryLock().join().isPresent());
+
+    lock1.stripe("stripe-5").unlock().join();
+    assertTrue(lock2.stripe("stripe-5").tryLock().join().isPresent());
+    assertTrue(lock2.stripe("stripe-5") == lock2.stripe("stripe-5"));
+  }
+
+  /**
+   * Tests acquiring read and write locks.
+   */
+  @Test
+  public void testReadWriteLock() throws Throwable {
+    AsyncDistributedLock lock1 = atomix().lockBuilder("test-read-write-lock", protocol()).build().async();
+    AsyncDistributedLock lock2 = atomix().lockBuilder("test-read-write-lock", protocol()).build().async();
+    AsyncDistributedLock lock3 = atomix().lockBuilder("test-read-write-lock", protocol()).build().async();
+
+    // Readers share the lock, but exclude writers.
+    lock1.readLock().lock().join();
+    assertTrue(lock2.readLock().tryLock().join().isPresent());
+    assertFalse(lock3.writeLock().tryLock().join().isPresent());
+
+    // Once a writer is waiting, new readers queue behind it.
+    CompletableFuture<Version> writer = lock3.writeLock().lock();
+    assertFalse(lock1.stripe("test-read-write-lock").readLock().tryLock(Duration.ofMillis(500)).join().isPresent());
+
+    lock1.readLock().unlock().join();
+    assertFalse(writer.isDone());
+    lock2.readLock().unlock().join();
+    Version version = writer.join();
+
+    assertFalse(lock1.readLock().tryLock().join().isPresent());
+    CompletableFuture<Version> reader1 = lock1.readLock().lock();
+    CompletableFuture<Version> reader2 = lock2.readLock().lock();
+    lock3.unlock().join();
+    assertTrue(reader1.join().value() > version.value());
+    assertTrue(reader2.join().value() > version.value());
+  }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map.impl;
+
+import io.atomix.core.map.impl.ConsistentMapService.MapEntryValue;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compact entry map test.
+ */
+public class CompactEntryMapTest {
+
+  @Test
+  public void testHeapMap() throws Exception {
+    try (CompactEntryMap<String> map = new CompactEntryMap<>(false)) {
+      testMap(map);
+    }
+  }
+
+  @Test
+  public void testOffHeapMap() throws Exception {
+    try (CompactEntryMap<String> map = new CompactEntryMap<>(true)) {
+      testMap(map);
+    }
+  }
+
+  @Test
+  public void testLargeOffHeapValues() throws Exception {
+    try (CompactEntryMap<String> map = new CompactEntryMap<>(true)) {
+      byte[] large = new byte[OffHeapValueSlab.SLAB_SIZE + 1];
+      large[large.length - 1] = 1;
+      map.put("foo", value(1, large));
+      map.put("bar", value(2, new byte[OffHeapValueSlab.SLAB_SIZE - Integer.BYTES]));
+      assertArrayEquals(large, map.get("foo").value());
+      assertEquals(OffHeapValueSlab.SLAB_SIZE - Integer.BYTES, map.get("bar").value().length);
+      assertEquals(OffHeapValueSlab.SLAB_SIZE * 2 + Integer.BYTES + 1, map.offHeapBytes());
+      map.remove("foo");
+      assertEquals(OffHeapValueSlab.SLAB_SIZE, map.offHeapBytes());
+      map.put("foo", value(3, "Hello world!".getBytes()));
+      assertArrayEquals("Hello world!".getBytes(), map.get("foo").value());
+    }
+  }
+
+  @Test
+  public void testMetadata() throws Exception {
+    try (CompactEntryMap<String> map = new CompactEntryMap<>(false)) {
+      map.put("foo", new MapEntryValue(MapEntryValue.Type.TOMBSTONE, 1, null, 0, 0));
+      map.put("bar", new MapEntryValue(MapEntryValue.Type.VALUE, 2, "bar".getBytes(), 3, 4));
+      MapEntryValue foo = map.get("foo");
+      assertEquals(MapEntryValue.Type.TOMBSTONE, foo.type());
+      assertEquals(1, foo.version());
+      assertNull(foo.value());
+      assertEquals(0, foo.created());
+      assertEquals(0, foo.ttl());
+      MapEntryValue bar = map.get("bar");
+      assertEquals(MapEntryValue.Type.VALUE, bar.type());
+      assertEquals(2, bar.version());
+      assertEquals(3, bar.created());
+      assertEquals(4, bar.ttl());
+    }
+  }
+
+  /**
+   * Applies random operations to the given map and a {@link HashMap} and verifies the maps are equal.
+   */
+  private void testMap(CompactEntryMap<String> map) {
+    Map<String, byte[]> expected = new HashMap<>();
+    Random random = new Random(0);
+    for (int i = 0; i < 100000; i++) {
+      String key = String.valueOf(random.nextInt(5000));
+      if (random.nextInt(3) == 0) {
+        MapEntryValue value = map.remove(key);
+        byte[] bytes = expected.remove(key);
+        assertEquals(bytes == null, value == null);
+        if (bytes != null) {
+          assertArrayEquals(bytes, value.value());
+        }
+      } else {
+        byte[] bytes = new byte[random.nextInt(100)];
+        random.nextBytes(bytes);
+        MapEntryValue value = map.put(key, value(i, bytes));
+        byte[] previous = expected.put(key, bytes);
+        assertEquals(previous == null, value == null);
+        if (previous != null) {
+          assertArrayEquals(previous, value.value());
+        }
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+    expected.forEach((key, value) -> assertArrayEquals(value, map.get(key).value()));
+
+    Iterator<Map.Entry<String, MapEntryValue>> iterator = map.entrySet().iterator();
+    int count = 0;
+    while (iterator.hasNext()) {
+      Map.Entry<String, MapEntryValue> entry = iterator.next();
+      assertArrayEquals(expected.get(entry.getKey()), entry.getValue().value());
+      if (count++ % 2 == 0) {
+        iterator.remove();
+        expected.remove(entry.getKey());
+      }
+    }
+    assertEquals(expected.size(), map.size());
+    expected.forEach((key, value) -> assertTrue(map.containsKey(key)));
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertFalse(map.containsKey(expected.keySet().iterator().next()));
+    map.put("foo", value(1, "foo".getBytes()));
+    assertArrayEquals("foo".getBytes(), map.get("foo").value());
+  }
+
+  private static MapEntryValue value(long version, byte[] value) {
+    return new MapEntryValue(MapEntryValue.Type.VALUE, version, value, 0, 0);
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.core.map.impl;
+
+import com.google.common.io.BaseEncoding;
+import io.atomix.core.map.MapEntryStore;
+import io.atomix.core.map.impl.ConsistentMapOperations.Get;
+import io.atomix.core.map.impl.ConsistentMapOperations.Put;
+import io.atomix.primitive.service.impl.DefaultBackupOutput;
+import io.atomix.primitive.service.impl.DefaultCommit;
+import io.atomix.primitive.session.PrimitiveSession;
+import io.atomix.storage.buffer.Buffer;
+import io.atomix.storage.buffer.HeapBuffer;
+import io.atomix.utils.misc.ByteArrayKey;
+import io.atomix.utils.serializer.KryoNamespaces;
+import io.atomix.utils.serializer.Serializer;
+import io.atomix.utils.time.Versioned;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static io.atomix.core.map.impl.ConsistentMapOperations.GET;
+import static io.atomix.core.map.impl.ConsistentMapOperations.PUT;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Consistent map service benchmark.
+ * <p>
+ * Compares hex encoded {@code String} keys with {@link ByteArrayKey} keys and the available entry stores in the map
+ * state machine. The heap and off-heap memory retained by the populated service and the size of its snapshot are
+ * logged once per trial, and lookups and snapshots are measured by the benchmark methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Droot.logging.level=INFO"})
+public class ConsistentMapServiceBenchmark {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConsistentMapServiceBenchmark.class);
+  private static final Serializer SERIALIZER = Serializer.using(KryoNamespaces.BASIC);
+
+  @Param({"STRING", "BINARY"})
+  private KeyMode keyMode;
+
+  @Param({"HASH", "COMPACT", "OFF_HEAP"})
+  private MapEntryStore entryStore;
+
+  @Param({"1000000"})
+  private int keys;
+
+  @Param({"8"})
+  private int valueSize;
+
+  private ConsistentMapService<Object> service;
+  private Object[] mapKeys;
+  private PrimitiveSession session;
+
+  /**
+   * Map key mode.
+   */
+  public enum KeyMode {
+    STRING(bytes -> BaseEncoding.base16().encode(bytes)),
+    BINARY(ByteArrayKey::wrap);
+
+    private final Function<byte[], Object> encoder;
+
+    KeyMode(Function<byte[], Object> encoder) {
+      this.encoder = encoder;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    session = mock(PrimitiveSession.class);
+
+    // Keys are created after the initial heap measurement since the service retains them.
+    long heapBefore = usedHeap();
+    mapKeys = new Object[keys];
+    for (int i = 0; i < keys; i++) {
+      mapKeys[i] = keyMode.encoder.apply(SERIALIZER.encode("key-" + i));
+    }
+    service = new ConsistentMapService<>(entryStore);
+    for (int i = 0; i < keys; i++) {
+      byte[] value = new byte[valueSize];
+      service.put(new DefaultCommit<>(i + 1, PUT, new Put<>(mapKeys[i], value, 0), session, System.currentTimeMillis()));
+    }
+    long heapAfter = usedHeap();
+    long offHeap = service.entries() instanceof CompactEntryMap
+        ? ((CompactEntryMap<Object>) service.entries()).offHeapBytes() : 0;
+
+    LOGGER.info("{} keys, {} store: {} heap bytes, {} off-heap bytes, {} snapshot bytes per million keys",
+        keyMode, entryStore, (heapAfter - heapBefore) * 1_000_000L / keys, offHeap * 1_000_000L / keys,
+        snapshot().position() * 1_000_000L / keys);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    service.close();
+  }
+
+  private static long usedHeap() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private Buffer snapshot() {
+    Buffer buffer = HeapBuffer.allocate();
+    service.backup(new DefaultBackupOutput(buffer, service.serializer()));
+    return buffer;
+  }
+
+  @Benchmark
+  public Versioned<byte[]> get() {
+    Object key = mapKeys[ThreadLocalRandom.current().nextInt(keys)];
+    return service.get(new DefaultCommit<>(keys + 1, GET, new Get<>(key), session, System.currentTimeMillis()));
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Buffer backup() {
+    return snapshot();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ConsistentMapServiceBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
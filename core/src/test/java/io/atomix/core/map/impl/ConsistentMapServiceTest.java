@@ -15,6 +15,7 @@
  */
 package io.atomix.core.map.impl;
 
+import io.atomix.core.map.MapEntryStore;
 import io.atomix.core.map.impl.ConsistentMapOperations.Get;
 import io.atomix.core.map.impl.ConsistentMapOperations.Put;
 import io.atomix.primitive.service.impl.DefaultBackupInput;
@@ -25,6 +26,7 @@ import io.atomix.storage.buffer.Buffer;
 import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.utils.concurrent.Scheduled;
 import io.atomix.utils.concurrent.Scheduler;
+import io.atomix.utils.misc.ByteArrayKey;
 import io.atomix.utils.time.Versioned;
 import io.atomix.utils.time.WallClock;
 import org.junit.Test;
@@ -34,7 +36,9 @@ import java.time.Duration;
 import static io.atomix.core.map.impl.ConsistentMapOperations.GET;
 import static io.atomix.core.map.impl.ConsistentMapOperations.PUT;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -45,34 +49,122 @@ public class ConsistentMapServiceTest {
   @Test
   @SuppressWarnings("unchecked")
   public void testSnapshot() throws Exception {
-    ConsistentMapService service = new TestConsistentMapService();
+    ConsistentMapService<String> service = new TestConsistentMapService<>();
 
     service.put(new DefaultCommit<>(
         2,
         PUT,
-        new Put("foo", "Hello world!".getBytes(), 1000),
+        new Put<>("foo", "Hello world!".getBytes(), 1000),
         mock(PrimitiveSession.class),
         System.currentTimeMillis()));
 
     Buffer buffer = HeapBuffer.allocate();
     service.backup(new DefaultBackupOutput(buffer, service.serializer()));
 
-    service = new TestConsistentMapService();
+    service = new TestConsistentMapService<>();
     service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
 
     Versioned<byte[]> value = service.get(new DefaultCommit<>(
         2,
         GET,
-        new Get("foo"),
+        new Get<>("foo"),
         mock(PrimitiveSession.class),
         System.currentTimeMillis()));
     assertNotNull(value);
     assertArrayEquals("Hello world!".getBytes(), value.value());
 
-    assertNotNull(service.entries().get("foo").timer);
+    assertNotNull(service.timers.get("foo"));
   }
 
-  private static class TestConsistentMapService extends ConsistentMapService {
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCompactSnapshot() throws Exception {
+    for (MapEntryStore from : MapEntryStore.values()) {
+      for (MapEntryStore to : MapEntryStore.values()) {
+        ConsistentMapService<String> service = new TestConsistentMapService<>(from);
+        service.put(new DefaultCommit<>(
+            2,
+            PUT,
+            new Put<>("foo", "Hello world!".getBytes(), 1000),
+            mock(PrimitiveSession.class),
+            System.currentTimeMillis()));
+        service.put(new DefaultCommit<>(
+            3,
+            PUT,
+            new Put<>("bar", new byte[0], 0),
+            mock(PrimitiveSession.class),
+            System.currentTimeMillis()));
+
+        Buffer buffer = HeapBuffer.allocate();
+        service.backup(new DefaultBackupOutput(buffer, service.serializer()));
+        service.close();
+
+        service = new TestConsistentMapService<>(to);
+        service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+
+        Versioned<byte[]> value = service.get(new DefaultCommit<>(
+            4,
+            GET,
+            new Get<>("foo"),
+            mock(PrimitiveSession.class),
+            System.currentTimeMillis()));
+        assertNotNull(value);
+        assertArrayEquals("Hello world!".getBytes(), value.value());
+        assertEquals(2, value.version());
+        assertNotNull(service.timers.get("foo"));
+
+        value = service.get(new DefaultCommit<>(
+            4,
+            GET,
+            new Get<>("bar"),
+            mock(PrimitiveSession.class),
+            System.currentTimeMillis()));
+        assertNotNull(value);
+        assertEquals(0, value.value().length);
+        assertNull(service.timers.get("bar"));
+        assertEquals(2, service.size());
+        service.close();
+      }
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testBinaryKeySnapshot() throws Exception {
+    ConsistentMapService<ByteArrayKey> service = new TestConsistentMapService<>();
+
+    service.put(new DefaultCommit<>(
+        2,
+        PUT,
+        new Put<>(ByteArrayKey.copyOf("foo".getBytes()), "Hello world!".getBytes(), 1000),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+
+    Buffer buffer = HeapBuffer.allocate();
+    service.backup(new DefaultBackupOutput(buffer, service.serializer()));
+
+    service = new TestConsistentMapService<>();
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+
+    Versioned<byte[]> value = service.get(new DefaultCommit<>(
+        2,
+        GET,
+        new Get<>(ByteArrayKey.copyOf("foo".getBytes())),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+    assertNotNull(value);
+    assertArrayEquals("Hello world!".getBytes(), value.value());
+  }
+
+  private static class TestConsistentMapService<K> extends ConsistentMapService<K> {
+    TestConsistentMapService() {
+      this(MapEntryStore.HASH);
+    }
+
+    TestConsistentMapService(MapEntryStore entryStore) {
+      super(entryStore);
+    }
+
     @Override
     protected Scheduler getScheduler() {
       return new Scheduler() {
@@ -19,6 +19,8 @@ import com.google.common.collect.Sets;
 import io.atomix.core.AbstractPrimitiveTest;
 import io.atomix.core.map.AsyncConsistentMap;
 import io.atomix.core.map.ConsistentMap;
+import io.atomix.core.map.ConsistentMapType;
+import io.atomix.core.map.MapEntryStore;
 import io.atomix.core.map.MapEvent;
 import io.atomix.core.map.MapEventListener;
 import io.atomix.core.transaction.CommitStatus;
@@ -29,6 +31,7 @@ import io.atomix.utils.time.Versioned;
 import org.junit.Test;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -89,6 +92,53 @@ public abstract class ConsistentMapTest extends AbstractPrimitiveTest {
     }).join();
   }
 
+  @Test
+  public void testBinaryKeys() throws Throwable {
+    AsyncConsistentMap<String, String> map = atomix()
+        .<String, String>consistentMapBuilder("testBinaryKeys", protocol())
+        .withBinaryKeys()
+        .build().async();
+
+    for (int i = 0; i < 10; i++) {
+      assertNull(map.put("foo" + i, "bar" + i).join());
+    }
+    assertEquals(10, map.size().join().intValue());
+    assertEquals("bar3", map.get("foo3").join().value());
+    assertEquals(Sets.newHashSet("foo1", "foo2"), map.getAllPresent(Arrays.asList("foo1", "foo2", "baz")).join().keySet());
+    assertTrue(map.keySet().join().contains("foo9"));
+    assertTrue(map.replace("foo3", "bar3", "baz3").join());
+    assertEquals("baz3", map.remove("foo3").join().value());
+    assertFalse(map.containsKey("foo3").join());
+    assertEquals(9, map.entrySet().join().size());
+  }
+
+  @Test
+  public void testEntryStores() throws Throwable {
+    for (MapEntryStore entryStore : MapEntryStore.values()) {
+      String name = "testEntryStores-" + entryStore;
+      AsyncConsistentMap<String, String> map = atomix()
+          .<String, String>consistentMapBuilder(name, protocol())
+          .withEntryStore(entryStore)
+          .build().async();
+
+      // The entry store is carried by the primitive type with which the map is created.
+      assertEquals(ConsistentMapType.instance(entryStore).id(), atomix().getPrimitives().stream()
+          .filter(info -> info.name().equals(name))
+          .findFirst()
+          .get()
+          .type()
+          .id());
+
+      for (int i = 0; i < 10; i++) {
+        assertNull(map.put("foo" + i, "bar" + i).join());
+      }
+      assertEquals(10, map.size().join().intValue());
+      assertEquals("bar3", map.get("foo3").join().value());
+      assertEquals("bar3", map.remove("foo3").join().value());
+      assertEquals(9, map.entrySet().join().size());
+    }
+  }
+
   @Test
   public void testBasicMapOperations() throws Throwable {
     final String fooValue = "Hello foo!";
@@ -17,7 +17,11 @@ package io.atomix.core.queue.impl;
 
 import io.atomix.core.queue.Task;
 import io.atomix.core.queue.WorkQueueType;
+import io.atomix.core.queue.WorkQueueStats;
 import io.atomix.core.queue.impl.WorkQueueOperations.Add;
+import io.atomix.core.queue.impl.WorkQueueOperations.Complete;
+import io.atomix.core.queue.impl.WorkQueueOperations.Fail;
+import io.atomix.core.queue.impl.WorkQueueOperations.Register;
 import io.atomix.core.queue.impl.WorkQueueOperations.Take;
 import io.atomix.primitive.PrimitiveId;
 import io.atomix.primitive.service.ServiceContext;
@@ -25,20 +29,36 @@ import io.atomix.primitive.service.impl.DefaultBackupInput;
 import io.atomix.primitive.service.impl.DefaultBackupOutput;
 import io.atomix.primitive.service.impl.DefaultCommit;
 import io.atomix.primitive.session.PrimitiveSession;
+import io.atomix.primitive.session.PrimitiveSessions;
 import io.atomix.primitive.session.SessionId;
 import io.atomix.storage.buffer.Buffer;
 import io.atomix.storage.buffer.HeapBuffer;
+import io.atomix.utils.time.WallClock;
+import io.atomix.utils.time.WallClockTimestamp;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static io.atomix.core.queue.impl.WorkQueueEvents.TASKS_ASSIGNED;
+import static io.atomix.core.queue.impl.WorkQueueEvents.TASK_AVAILABLE;
 import static io.atomix.core.queue.impl.WorkQueueOperations.ADD;
+import static io.atomix.core.queue.impl.WorkQueueOperations.COMPLETE;
+import static io.atomix.core.queue.impl.WorkQueueOperations.FAIL;
+import static io.atomix.core.queue.impl.WorkQueueOperations.REGISTER;
+import static io.atomix.core.queue.impl.WorkQueueOperations.STATS;
 import static io.atomix.core.queue.impl.WorkQueueOperations.TAKE;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -51,6 +71,7 @@ public class WorkQueueServiceTest {
     when(context.serviceType()).thenReturn(WorkQueueType.instance());
     when(context.serviceName()).thenReturn("test");
     when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(new WallClock());
 
     PrimitiveSession session = mock(PrimitiveSession.class);
     when(session.sessionId()).thenReturn(SessionId.from(1));
@@ -82,4 +103,192 @@ public class WorkQueueServiceTest {
     assertEquals(1, value.size());
     assertArrayEquals("Hello world!".getBytes(), value.iterator().next().payload());
   }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public void testCreditBasedDelivery() throws Exception {
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(WorkQueueType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(new WallClock());
+
+    PrimitiveSession session1 = mock(PrimitiveSession.class);
+    when(session1.sessionId()).thenReturn(SessionId.from(1));
+    PrimitiveSession session2 = mock(PrimitiveSession.class);
+    when(session2.sessionId()).thenReturn(SessionId.from(2));
+
+    WorkQueueService service = new WorkQueueService();
+    service.init(context);
+
+    service.register(new DefaultCommit<>(2, REGISTER, new Register(1), session1, System.currentTimeMillis()));
+    service.register(new DefaultCommit<>(3, REGISTER, new Register(2), session2, System.currentTimeMillis()));
+    service.add(new DefaultCommit<>(
+        4,
+        ADD,
+        new Add(Arrays.asList("a".getBytes(), "b".getBytes(), "c".getBytes(), "d".getBytes(), "e".getBytes())),
+        session1,
+        System.currentTimeMillis()));
+
+    // Each worker is pushed at most its credit in a single event.
+    ArgumentCaptor<Collection<Task<byte[]>>> tasks1 = ArgumentCaptor.forClass((Class) Collection.class);
+    verify(session1).publish(eq(TASKS_ASSIGNED), tasks1.capture());
+    assertEquals(1, tasks1.getValue().size());
+    ArgumentCaptor<Collection<Task<byte[]>>> tasks2 = ArgumentCaptor.forClass((Class) Collection.class);
+    verify(session2).publish(eq(TASKS_ASSIGNED), tasks2.capture());
+    assertEquals(2, tasks2.getValue().size());
+    verify(session1, never()).publish(eq(TASK_AVAILABLE), any());
+    verify(session2, never()).publish(eq(TASK_AVAILABLE), any());
+
+    WorkQueueStats stats = service.stats(new DefaultCommit<>(5, STATS, null, session1, System.currentTimeMillis()));
+    assertEquals(2, stats.totalPending());
+    assertEquals(3, stats.totalInProgress());
+
+    // Completing a task returns its credit to the worker, which is immediately pushed the next pending task.
+    service.complete(new DefaultCommit<>(
+        6,
+        COMPLETE,
+        new Complete(Arrays.asList(tasks1.getValue().iterator().next().taskId())),
+        session1,
+        System.currentTimeMillis()));
+    verify(session1, times(2)).publish(eq(TASKS_ASSIGNED), tasks1.capture());
+    assertEquals(1, tasks1.getValue().size());
+
+    stats = service.stats(new DefaultCommit<>(7, STATS, null, session1, System.currentTimeMillis()));
+    assertEquals(1, stats.totalPending());
+    assertEquals(3, stats.totalInProgress());
+    assertEquals(1, stats.totalCompleted());
+  }
+
+  @Test
+  public void testTaskTimeoutAndDeadLetter() throws Exception {
+    AtomicLong time = new AtomicLong(1000);
+    WallClock clock = mock(WallClock.class);
+    when(clock.getTime()).thenAnswer(invocation -> WallClockTimestamp.from(time.get()));
+
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(WorkQueueType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(clock);
+
+    PrimitiveSession session = mock(PrimitiveSession.class);
+    when(session.sessionId()).thenReturn(SessionId.from(1));
+
+    WorkQueueService service = new WorkQueueService();
+    service.init(context);
+
+    service.add(new DefaultCommit<>(2, ADD, new Add(Arrays.asList("a".getBytes()), 2), session, time.get()));
+    Collection<Task<byte[]>> tasks = service.take(new DefaultCommit<>(3, TAKE, new Take(1, 500), session, time.get()));
+    assertEquals(1, tasks.size());
+
+    time.set(1400);
+    service.tick(WallClockTimestamp.from(time.get()));
+    WorkQueueStats stats = service.stats(new DefaultCommit<>(4, STATS, null, session, time.get()));
+    assertEquals(0, stats.totalPending());
+    assertEquals(1, stats.totalInProgress());
+    assertEquals(400, stats.oldestInProgressAge());
+
+    // Once the task's lease expires it's returned to the queue.
+    time.set(1500);
+    service.tick(WallClockTimestamp.from(time.get()));
+    stats = service.stats(new DefaultCommit<>(5, STATS, null, session, time.get()));
+    assertEquals(1, stats.totalPending());
+    assertEquals(0, stats.totalInProgress());
+    assertEquals(1, stats.totalTimedOut());
+
+    // Completing the timed out task has no effect since it's no longer assigned.
+    String taskId = tasks.iterator().next().taskId();
+    service.complete(new DefaultCommit<>(6, COMPLETE, new Complete(Arrays.asList(taskId)), session, time.get()));
+    assertEquals(0, service.stats(new DefaultCommit<>(7, STATS, null, session, time.get())).totalCompleted());
+
+    // Failing the task a second time exhausts its attempts and dead-letters it.
+    tasks = service.take(new DefaultCommit<>(8, TAKE, new Take(1, 500), session, time.get()));
+    assertEquals(taskId, tasks.iterator().next().taskId());
+    service.fail(new DefaultCommit<>(9, FAIL, new Fail(Arrays.asList(taskId)), session, time.get()));
+    stats = service.stats(new DefaultCommit<>(10, STATS, null, session, time.get()));
+    assertEquals(0, stats.totalPending());
+    assertEquals(0, stats.totalInProgress());
+    assertEquals(1, stats.totalFailed());
+    assertEquals(1, stats.totalDeadLettered());
+    assertEquals(0, stats.oldestInProgressAge());
+
+    // The failed task's lease no longer applies.
+    time.set(2500);
+    service.tick(WallClockTimestamp.from(time.get()));
+    assertEquals(1, service.stats(new DefaultCommit<>(11, STATS, null, session, time.get())).totalTimedOut());
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public void testStalledWorker() throws Exception {
+    AtomicLong time = new AtomicLong(1000);
+    WallClock clock = mock(WallClock.class);
+    when(clock.getTime()).thenAnswer(invocation -> WallClockTimestamp.from(time.get()));
+
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(WorkQueueType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(clock);
+
+    PrimitiveSession session1 = mock(PrimitiveSession.class);
+    when(session1.sessionId()).thenReturn(SessionId.from(1));
+    PrimitiveSession session2 = mock(PrimitiveSession.class);
+    when(session2.sessionId()).thenReturn(SessionId.from(2));
+    PrimitiveSessions sessions = mock(PrimitiveSessions.class);
+    when(sessions.getSession(1)).thenReturn(session1);
+    when(sessions.getSession(2)).thenReturn(session2);
+    when(context.sessions()).thenReturn(sessions);
+
+    WorkQueueService service = new WorkQueueService();
+    service.init(context);
+
+    service.register(new DefaultCommit<>(2, REGISTER, new Register(1, 500), session1, time.get()));
+    service.register(new DefaultCommit<>(3, REGISTER, new Register(1, 500), session2, time.get()));
+    service.add(new DefaultCommit<>(4, ADD, new Add(Arrays.asList("a".getBytes(), "b".getBytes())), session1, time.get()));
+
+    ArgumentCaptor<Collection<Task<byte[]>>> tasks1 = ArgumentCaptor.forClass((Class) Collection.class);
+    verify(session1).publish(eq(TASKS_ASSIGNED), tasks1.capture());
+    String stalledTaskId = tasks1.getValue().iterator().next().taskId();
+    ArgumentCaptor<Collection<Task<byte[]>>> tasks2 = ArgumentCaptor.forClass((Class) Collection.class);
+    verify(session2).publish(eq(TASKS_ASSIGNED), tasks2.capture());
+
+    // The second worker completes its task while the first worker never completes its own.
+    time.set(1200);
+    service.complete(new DefaultCommit<>(
+        5,
+        COMPLETE,
+        new Complete(Arrays.asList(tasks2.getValue().iterator().next().taskId())),
+        session2,
+        time.get()));
+
+    // Once the lease expires the stalled worker is suspended and its task is pushed to the second worker.
+    time.set(1500);
+    service.tick(WallClockTimestamp.from(time.get()));
+    verify(session1, times(1)).publish(eq(TASKS_ASSIGNED), any());
+    verify(session2, times(2)).publish(eq(TASKS_ASSIGNED), tasks2.capture());
+    assertEquals(stalledTaskId, tasks2.getValue().iterator().next().taskId());
+    assertEquals(1, service.stats(new DefaultCommit<>(6, STATS, null, session1, time.get())).totalTimedOut());
+
+    // The suspended worker isn't assigned new tasks even though its credit is available.
+    service.add(new DefaultCommit<>(7, ADD, new Add(Arrays.asList("c".getBytes())), session1, time.get()));
+    verify(session1, times(1)).publish(eq(TASKS_ASSIGNED), any());
+    assertEquals(1, service.stats(new DefaultCommit<>(8, STATS, null, session1, time.get())).totalPending());
+
+    // Suspension survives snapshots.
+    Buffer buffer = HeapBuffer.allocate();
+    service.backup(new DefaultBackupOutput(buffer, service.serializer()));
+    service = new WorkQueueService();
+    service.init(context);
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+    service.tick(WallClockTimestamp.from(time.get()));
+    verify(session1, times(1)).publish(eq(TASKS_ASSIGNED), any());
+
+    // Completing a task, even one that has timed out, resumes the worker.
+    service.complete(new DefaultCommit<>(9, COMPLETE, new Complete(Arrays.asList(stalledTaskId)), session1, time.get()));
+    verify(session1, times(2)).publish(eq(TASKS_ASSIGNED), tasks1.capture());
+    assertEquals(1, tasks1.getValue().size());
+    assertEquals(0, service.stats(new DefaultCommit<>(10, STATS, null, session1, time.get())).totalPending());
+  }
 }
@@ -15,6 +15,7 @@
  */
 package io.atomix.core.queue.impl;
 
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Uninterruptibles;
 
 import io.atomix.core.AbstractPrimitiveTest;
@@ -25,12 +26,17 @@ import io.atomix.core.queue.WorkQueueStats;
 import org.junit.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
@@ -203,4 +209,131 @@ public abstract class WorkQueueTest extends AbstractPrimitiveTest {
     assertEquals(stats.totalInProgress(), 1);
     assertEquals(stats.totalCompleted(), 0);
   }
+
+  @Test
+  public void testPartitionedTakeAndComplete() throws Throwable {
+    String queueName = UUID.randomUUID().toString();
+    AsyncWorkQueue<String> queue1 = atomix().<String>workQueueBuilder(queueName, protocol())
+        .withPartitioned()
+        .build()
+        .async();
+    queue1.addMultiple(Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h")).join();
+
+    WorkQueueStats stats = queue1.stats().join();
+    assertEquals(8, stats.totalPending());
+    assertEquals(0, stats.totalInProgress());
+    assertEquals(0, stats.totalCompleted());
+
+    // Tasks are taken from the home partition first and stolen from other partitions once it's empty.
+    AsyncWorkQueue<String> queue2 = atomix().<String>workQueueBuilder(queueName, protocol())
+        .withPartitioned()
+        .build()
+        .async();
+    Set<String> payloads = new HashSet<>();
+    List<String> taskIds = new ArrayList<>();
+    Task<String> task;
+    while ((task = queue2.take().join()) != null) {
+      payloads.add(task.payload());
+      taskIds.add(task.taskId());
+    }
+    assertEquals(Sets.newHashSet("a", "b", "c", "d", "e", "f", "g", "h"), payloads);
+
+    stats = queue2.stats().join();
+    assertEquals(0, stats.totalPending());
+    assertEquals(8, stats.totalInProgress());
+    assertEquals(0, stats.totalCompleted());
+
+    queue2.complete(taskIds).join();
+
+    stats = queue2.stats().join();
+    assertEquals(0, stats.totalPending());
+    assertEquals(0, stats.totalInProgress());
+    assertEquals(8, stats.totalCompleted());
+  }
+
+  @Test
+  public void testPartitionedTaskProcessing() throws Throwable {
+    testPartitionedTaskProcessing(4);
+  }
+
+  @Test
+  public void testPartitionedTaskProcessingBelowPartitionCount() throws Throwable {
+    testPartitionedTaskProcessing(1);
+  }
+
+  /**
+   * Processes tasks added to a partitioned queue and verifies that they're all completed without the processor ever
+   * running more tasks at once than its parallelism.
+   */
+  private void testPartitionedTaskProcessing(int parallelism) throws Throwable {
+    String queueName = UUID.randomUUID().toString();
+    AsyncWorkQueue<String> queue = atomix().<String>workQueueBuilder(queueName, protocol())
+        .withPartitioned()
+        .build()
+        .async();
+
+    int tasks = 16;
+    CountDownLatch latch = new CountDownLatch(tasks);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    queue.registerTaskProcessor(s -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+      running.decrementAndGet();
+      latch.countDown();
+    }, parallelism, Executors.newFixedThreadPool(parallelism * 2)).join();
+
+    List<String> items = new ArrayList<>();
+    for (int i = 0; i < tasks; i++) {
+      items.add(DEFAULT_PAYLOAD + i);
+    }
+    queue.addMultiple(items).join();
+    assertTrue(Uninterruptibles.awaitUninterruptibly(latch, 10000, TimeUnit.MILLISECONDS));
+    assertTrue(maxRunning.get() <= parallelism);
+
+    // Completions are batched, so wait for them to be applied by all the partitions.
+    WorkQueueStats stats = queue.stats().join();
+    long deadline = System.currentTimeMillis() + 10000;
+    while (stats.totalCompleted() < tasks && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+      stats = queue.stats().join();
+    }
+    assertEquals(0, stats.totalPending());
+    assertEquals(0, stats.totalInProgress());
+    assertEquals(tasks, stats.totalCompleted());
+  }
+
+  @Test
+  public void testFailAndTimeout() throws Throwable {
+    String queueName = UUID.randomUUID().toString();
+    AsyncWorkQueue<String> queue = atomix().<String>workQueueBuilder(queueName, protocol())
+        .withTaskTimeout(Duration.ofMillis(500))
+        .withMaxAttempts(2)
+        .build()
+        .async();
+    queue.addOne(DEFAULT_PAYLOAD).join();
+
+    Task<String> task = queue.take().join();
+    queue.fail(task.taskId()).join();
+
+    WorkQueueStats stats = queue.stats().join();
+    assertEquals(1, stats.totalPending());
+    assertEquals(0, stats.totalInProgress());
+    assertEquals(1, stats.totalFailed());
+
+    // Let the second attempt time out, after which the task is dead-lettered. Timeouts are driven by the state
+    // machine's clock, which only advances as commands are committed, so keep writing to the queue while waiting.
+    assertEquals(DEFAULT_PAYLOAD, queue.take().join().payload());
+    long deadline = System.currentTimeMillis() + 30000;
+    while (queue.stats().join().totalDeadLettered() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+      queue.complete(UUID.randomUUID().toString()).join();
+    }
+
+    stats = queue.stats().join();
+    assertEquals(0, stats.totalPending());
+    assertEquals(0, stats.totalInProgress());
+    assertEquals(1, stats.totalTimedOut());
+    assertEquals(1, stats.totalDeadLettered());
+  }
 }
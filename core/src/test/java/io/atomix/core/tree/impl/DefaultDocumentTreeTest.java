@@ -21,10 +21,20 @@ import io.atomix.core.tree.DocumentTree;
 import io.atomix.core.tree.IllegalDocumentModificationException;
 import io.atomix.core.tree.NoSuchDocumentPathException;
 import io.atomix.core.tree.impl.DefaultDocumentTree;
+import io.atomix.primitive.Ordering;
 import io.atomix.utils.time.Versioned;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Tests for {@code DefaultDocumentTree}.
  */
@@ -190,6 +200,126 @@ public class DefaultDocumentTreeTest {
     tree.removeNode(path("root.a"));
   }
 
+  @Test
+  public void testGetSubtree() {
+    DocumentTree<String> tree = new DefaultDocumentTree<>();
+    tree.create(path("root.a"), "bar");
+    tree.create(path("root.a.b"), "alpha");
+    tree.create(path("root.a.b.c"), "gamma");
+    tree.create(path("root.a.d"), "beta");
+    Assert.assertEquals(Arrays.asList(path("root.a")), new ArrayList<>(tree.getSubtree(path("root.a"), 0).keySet()));
+    Assert.assertEquals(Arrays.asList(path("root.a"), path("root.a.b"), path("root.a.d")),
+        new ArrayList<>(tree.getSubtree(path("root.a"), 1).keySet()));
+    Map<DocumentPath, Versioned<String>> subtree = tree.getSubtree(path("root.a"), -1);
+    Assert.assertEquals(Arrays.asList(path("root.a"), path("root.a.b"), path("root.a.b.c"), path("root.a.d")),
+        new ArrayList<>(subtree.keySet()));
+    Assert.assertEquals("gamma", subtree.get(path("root.a.b.c")).value());
+  }
+
+  @Test(expected = NoSuchDocumentPathException.class)
+  public void testGetSubtreeFailure() {
+    DocumentTree<String> tree = new DefaultDocumentTree<>();
+    tree.getSubtree(path("root.a"), -1);
+  }
+
+  @Test
+  public void testSetAll() {
+    DocumentTree<String> tree = new DefaultDocumentTree<>();
+    tree.create(path("root.a"), "bar");
+    Map<DocumentPath, String> values = new LinkedHashMap<>();
+    values.put(path("root.a"), "foo");
+    values.put(path("root.a.b"), "alpha");
+    values.put(path("root.a.b.c"), "beta");
+    tree.set(values);
+    Assert.assertEquals("foo", tree.get(path("root.a")).value());
+    Assert.assertEquals("alpha", tree.get(path("root.a.b")).value());
+    Assert.assertEquals("beta", tree.get(path("root.a.b.c")).value());
+  }
+
+  @Test
+  public void testSetAllUnordered() {
+    DocumentTree<String> tree = new DefaultDocumentTree<>();
+    Map<DocumentPath, String> values = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      values.put(path("root.n" + i), "parent" + i);
+      values.put(path("root.n" + i + ".c"), "child" + i);
+      values.put(path("root.n" + i + ".c.d"), "grandchild" + i);
+    }
+    tree.set(values);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals("parent" + i, tree.get(path("root.n" + i)).value());
+      Assert.assertEquals("child" + i, tree.get(path("root.n" + i + ".c")).value());
+      Assert.assertEquals("grandchild" + i, tree.get(path("root.n" + i + ".c.d")).value());
+    }
+  }
+
+  @Test
+  public void testSetAllFailure() {
+    DocumentTree<String> tree = new DefaultDocumentTree<>();
+    tree.create(path("root.a"), "bar");
+    Map<DocumentPath, String> values = new LinkedHashMap<>();
+    values.put(path("root.a"), "foo");
+    values.put(path("root.a.b"), "alpha");
+    values.put(path("root.x.y"), "beta");
+    try {
+      tree.set(values);
+      Assert.fail();
+    } catch (IllegalDocumentModificationException e) {
+    }
+    Assert.assertEquals("bar", tree.get(path("root.a")).value());
+    Assert.assertNull(tree.get(path("root.a.b")));
+  }
+
+  @Test
+  public void testInsertionOrder() {
+    DocumentTree<String> tree = new DefaultDocumentTree<>(new AtomicLong()::incrementAndGet, Ordering.INSERTION);
+    tree.create(path("root.c"), "gamma");
+    tree.create(path("root.a"), "alpha");
+    tree.create(path("root.b"), "beta");
+    tree.set(path("root.a"), "foo");
+    tree.removeNode(path("root.b"));
+    Assert.assertEquals(Arrays.asList("c", "a"), new ArrayList<>(tree.getChildren(tree.root()).keySet()));
+    Assert.assertEquals("foo", tree.get(path("root.a")).value());
+  }
+
+  @Test
+  public void testWideNode() {
+    testWideNode(Ordering.NATURAL);
+    testWideNode(Ordering.INSERTION);
+  }
+
+  /**
+   * Fills a node with thousands of children, removes every other child and verifies lookups and iteration order.
+   */
+  private void testWideNode(Ordering ordering) {
+    DocumentTree<String> tree = new DefaultDocumentTree<>(new AtomicLong()::incrementAndGet, ordering);
+    int count = 5000;
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      // Insert out of natural order so that the two orderings differ.
+      String name = String.format("n%05d", (i * 7919) % count);
+      names.add(name);
+      Assert.assertTrue(tree.create(path("root." + name), name));
+    }
+    for (int i = 0; i < count; i += 2) {
+      tree.set(path("root." + names.get(i)), "updated");
+    }
+    for (int i = 1; i < count; i += 2) {
+      Assert.assertNotNull(tree.removeNode(path("root." + names.get(i))));
+    }
+
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < count; i += 2) {
+      expected.add(names.get(i));
+      Assert.assertEquals("updated", tree.get(path("root." + names.get(i))).value());
+      Assert.assertNull(tree.get(path("root." + names.get(i + 1))));
+    }
+    if (ordering == Ordering.NATURAL) {
+      Collections.sort(expected);
+    }
+    Assert.assertEquals(expected, new ArrayList<>(tree.getChildren(tree.root()).keySet()));
+  }
+
   private static DocumentPath path(String path) {
     return DocumentPath.from(path.replace(".", DocumentPath.DEFAULT_SEPARATOR));
   }
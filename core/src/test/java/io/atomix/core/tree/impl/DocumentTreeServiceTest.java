@@ -17,6 +17,8 @@ package io.atomix.core.tree.impl;
 
 import io.atomix.core.tree.DocumentPath;
 import io.atomix.core.tree.impl.DocumentTreeOperations.Get;
+import io.atomix.core.tree.impl.DocumentTreeOperations.GetSubtree;
+import io.atomix.core.tree.impl.DocumentTreeOperations.SetAll;
 import io.atomix.core.tree.impl.DocumentTreeOperations.Update;
 import io.atomix.primitive.Ordering;
 import io.atomix.primitive.service.impl.DefaultBackupInput;
@@ -29,12 +31,19 @@ import io.atomix.utils.time.Versioned;
 import io.atomix.utils.misc.Match;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static io.atomix.core.tree.impl.DocumentTreeOperations.GET;
+import static io.atomix.core.tree.impl.DocumentTreeOperations.GET_SUBTREE;
+import static io.atomix.core.tree.impl.DocumentTreeOperations.SET_ALL;
 import static io.atomix.core.tree.impl.DocumentTreeOperations.UPDATE;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -80,4 +89,36 @@ public class DocumentTreeServiceTest {
     assertNotNull(value);
     assertArrayEquals("Hello world!".getBytes(), value.value());
   }
+
+  @Test
+  public void testSubtreeSnapshot() throws Exception {
+    DocumentTreeService service = new DocumentTreeService(Ordering.INSERTION);
+    LinkedHashMap<DocumentPath, byte[]> values = new LinkedHashMap<>();
+    values.put(DocumentPath.from("root|foo"), "foo".getBytes());
+    values.put(DocumentPath.from("root|foo|baz"), "baz".getBytes());
+    values.put(DocumentPath.from("root|foo|bar"), "bar".getBytes());
+    values.put(DocumentPath.from("root|foo|bar|baz"), null);
+    service.setAll(new DefaultCommit<>(
+        2,
+        SET_ALL,
+        new SetAll(values),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+
+    Buffer buffer = HeapBuffer.allocate();
+    service.backup(new DefaultBackupOutput(buffer, service.serializer()));
+
+    service = new DocumentTreeService(Ordering.INSERTION);
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+
+    DocumentTreeResult<Map<DocumentPath, Versioned<byte[]>>> result = service.getSubtree(new DefaultCommit<>(
+        2,
+        GET_SUBTREE,
+        new GetSubtree(DocumentPath.from("root|foo"), -1),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+    assertEquals(new ArrayList<>(values.keySet()), new ArrayList<>(result.result().keySet()));
+    assertArrayEquals("bar".getBytes(), result.result().get(DocumentPath.from("root|foo|bar")).value());
+    assertNull(result.result().get(DocumentPath.from("root|foo|bar|baz")).value());
+  }
 }
@@ -27,6 +27,7 @@ import io.atomix.core.tree.NoSuchDocumentPathException;
 import io.atomix.utils.time.Versioned;
 import org.junit.Test;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
@@ -283,6 +284,54 @@ public abstract class DocumentTreeTest extends AbstractPrimitiveTest {
     assertEquals(0, tree.getChildren(path("root.a.c")).join().size());
   }
 
+  /**
+   * Tests setting multiple nodes in a single operation and reading them back with getSubtree.
+   */
+  @Test(timeout = 45000)
+  public void testSetAllAndGetSubtree() throws Throwable {
+    AsyncDocumentTree<String> tree = newTree(UUID.randomUUID().toString());
+    TestEventListener listener = new TestEventListener();
+    tree.addListener(path("root.a"), listener).join();
+
+    Map<DocumentPath, String> values = new LinkedHashMap<>();
+    values.put(path("root.a"), "a");
+    values.put(path("root.a.b"), "ab");
+    values.put(path("root.a.b.c"), "abc");
+    values.put(path("root.a.d"), "ad");
+    tree.set(values).join();
+
+    assertEquals(path("root.a"), listener.event().path());
+    assertEquals(path("root.a.b"), listener.event().path());
+    assertEquals(path("root.a.b.c"), listener.event().path());
+    assertEquals(path("root.a.d"), listener.event().path());
+
+    Map<DocumentPath, Versioned<String>> subtree = tree.getSubtree(path("root.a"), -1).join();
+    assertEquals(4, subtree.size());
+    assertEquals("abc", subtree.get(path("root.a.b.c")).value());
+    assertEquals(3, tree.getSubtree(path("root.a"), 1).join().size());
+    assertEquals(0, tree.getSubtree(path("root.x"), -1).join().size());
+
+    // If any node can't be set, none are.
+    values = new LinkedHashMap<>();
+    values.put(path("root.a"), "newA");
+    values.put(path("root.x.y"), "xy");
+    try {
+      tree.set(values).join();
+      fail();
+    } catch (Exception e) {
+      assertTrue(Throwables.getRootCause(e) instanceof IllegalDocumentModificationException);
+    }
+    assertEquals("a", tree.get(path("root.a")).join().value());
+
+    values = new LinkedHashMap<>();
+    values.put(path("root.a"), "newA");
+    tree.set(values).join();
+    DocumentTreeEvent<String> event = listener.event();
+    assertEquals(DocumentTreeEvent.Type.UPDATED, event.type());
+    assertEquals("a", event.oldValue().get().value());
+    assertEquals("newA", event.newValue().get().value());
+  }
+
   /**
    * Tests destroy.
    */
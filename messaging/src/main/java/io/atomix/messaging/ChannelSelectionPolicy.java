@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.messaging;
+
+/**
+ * Policy for selecting the connection over which to send a message to a peer.
+ */
+public enum ChannelSelectionPolicy {
+
+  /**
+   * Selects the connection by message subject.
+   * <p>
+   * All messages with the same subject are sent over the same connection, preserving the order in which they're
+   * sent. Hot subjects may saturate a single connection while others sit idle.
+   */
+  SUBJECT,
+
+  /**
+   * Selects connections in round-robin order.
+   * <p>
+   * Messages are spread evenly over all connections to the peer, but messages with the same subject may be
+   * delivered out of order.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * Selects the connection with the fewest requests awaiting a response.
+   * <p>
+   * Additional connections are only opened once the existing connections have requests outstanding. Messages with
+   * the same subject may be delivered out of order.
+   */
+  LEAST_PENDING,
+}
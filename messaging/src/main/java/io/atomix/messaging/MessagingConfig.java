@@ -0,0 +1,349 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.messaging;
+
+import io.atomix.utils.config.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Messaging configuration.
+ */
+public class MessagingConfig implements Config {
+  private static final int DEFAULT_CONNECTIONS_PER_PEER = 8;
+  private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+  private static final int DEFAULT_MAX_FLUSH_BYTES = 64 * 1024;
+  private static final int DEFAULT_COMPRESSION_THRESHOLD = 8 * 1024;
+
+  private int clientThreads;
+  private int serverThreads;
+  private int connectionsPerPeer = DEFAULT_CONNECTIONS_PER_PEER;
+  private ChannelSelectionPolicy channelSelectionPolicy = ChannelSelectionPolicy.SUBJECT;
+  private boolean tcpNoDelay = true;
+  private boolean reusePort;
+  private int sendBufferSize = DEFAULT_BUFFER_SIZE;
+  private int receiveBufferSize = DEFAULT_BUFFER_SIZE;
+  private Duration maxFlushDelay = Duration.ZERO;
+  private int maxFlushBytes = DEFAULT_MAX_FLUSH_BYTES;
+  private boolean compressionEnabled;
+  private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+  private List<String> compressedSubjects = new ArrayList<>();
+
+  /**
+   * Returns the number of client event loop threads.
+   * <p>
+   * Client threads handle both outbound connections and inbound connections once they've been accepted. A value of
+   * {@code 0} uses Netty's default of twice the number of available processors.
+   *
+   * @return the number of client event loop threads
+   */
+  public int getClientThreads() {
+    return clientThreads;
+  }
+
+  /**
+   * Sets the number of client event loop threads.
+   *
+   * @param clientThreads the number of client event loop threads
+   * @return the messaging configuration
+   */
+  public MessagingConfig setClientThreads(int clientThreads) {
+    this.clientThreads = clientThreads;
+    return this;
+  }
+
+  /**
+   * Returns the number of server event loop threads.
+   * <p>
+   * Server threads only accept inbound connections. A value of {@code 0} uses Netty's default of twice the number of
+   * available processors.
+   *
+   * @return the number of server event loop threads
+   */
+  public int getServerThreads() {
+    return serverThreads;
+  }
+
+  /**
+   * Sets the number of server event loop threads.
+   *
+   * @param serverThreads the number of server event loop threads
+   * @return the messaging configuration
+   */
+  public MessagingConfig setServerThreads(int serverThreads) {
+    this.serverThreads = serverThreads;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of connections opened to each peer.
+   *
+   * @return the maximum number of connections opened to each peer
+   */
+  public int getConnectionsPerPeer() {
+    return connectionsPerPeer;
+  }
+
+  /**
+   * Sets the maximum number of connections opened to each peer.
+   *
+   * @param connectionsPerPeer the maximum number of connections opened to each peer
+   * @return the messaging configuration
+   */
+  public MessagingConfig setConnectionsPerPeer(int connectionsPerPeer) {
+    this.connectionsPerPeer = connectionsPerPeer;
+    return this;
+  }
+
+  /**
+   * Returns the policy used to select the connection over which to send a message.
+   *
+   * @return the channel selection policy
+   */
+  public ChannelSelectionPolicy getChannelSelectionPolicy() {
+    return channelSelectionPolicy;
+  }
+
+  /**
+   * Sets the policy used to select the connection over which to send a message.
+   *
+   * @param channelSelectionPolicy the channel selection policy
+   * @return the messaging configuration
+   */
+  public MessagingConfig setChannelSelectionPolicy(ChannelSelectionPolicy channelSelectionPolicy) {
+    this.channelSelectionPolicy = channelSelectionPolicy;
+    return this;
+  }
+
+  /**
+   * Returns whether {@code TCP_NODELAY} is enabled.
+   *
+   * @return whether {@code TCP_NODELAY} is enabled
+   */
+  public boolean isTcpNoDelay() {
+    return tcpNoDelay;
+  }
+
+  /**
+   * Sets whether {@code TCP_NODELAY} is enabled.
+   *
+   * @param tcpNoDelay whether {@code TCP_NODELAY} is enabled
+   * @return the messaging configuration
+   */
+  public MessagingConfig setTcpNoDelay(boolean tcpNoDelay) {
+    this.tcpNoDelay = tcpNoDelay;
+    return this;
+  }
+
+  /**
+   * Returns whether {@code SO_REUSEPORT} is enabled.
+   * <p>
+   * This option only applies when the native epoll transport is available.
+   *
+   * @return whether {@code SO_REUSEPORT} is enabled
+   */
+  public boolean isReusePort() {
+    return reusePort;
+  }
+
+  /**
+   * Sets whether {@code SO_REUSEPORT} is enabled.
+   *
+   * @param reusePort whether {@code SO_REUSEPORT} is enabled
+   * @return the messaging configuration
+   */
+  public MessagingConfig setReusePort(boolean reusePort) {
+    this.reusePort = reusePort;
+    return this;
+  }
+
+  /**
+   * Returns the socket send buffer size.
+   *
+   * @return the socket send buffer size in bytes
+   */
+  public int getSendBufferSize() {
+    return sendBufferSize;
+  }
+
+  /**
+   * Sets the socket send buffer size.
+   *
+   * @param sendBufferSize the socket send buffer size in bytes
+   * @return the messaging configuration
+   */
+  public MessagingConfig setSendBufferSize(int sendBufferSize) {
+    this.sendBufferSize = sendBufferSize;
+    return this;
+  }
+
+  /**
+   * Returns the socket receive buffer size.
+   *
+   * @return the socket receive buffer size in bytes
+   */
+  public int getReceiveBufferSize() {
+    return receiveBufferSize;
+  }
+
+  /**
+   * Sets the socket receive buffer size.
+   *
+   * @param receiveBufferSize the socket receive buffer size in bytes
+   * @return the messaging configuration
+   */
+  public MessagingConfig setReceiveBufferSize(int receiveBufferSize) {
+    this.receiveBufferSize = receiveBufferSize;
+    return this;
+  }
+
+  /**
+   * Returns the maximum time by which flushes of outbound messages may be delayed.
+   * <p>
+   * Messages written to a connection are flushed together once per event loop tick. A positive delay defers the
+   * flush by up to the given time to allow more messages to be coalesced into a single write, trading latency for
+   * throughput.
+   *
+   * @return the maximum flush delay
+   */
+  public Duration getMaxFlushDelay() {
+    return maxFlushDelay;
+  }
+
+  /**
+   * Sets the maximum time by which flushes of outbound messages may be delayed.
+   *
+   * @param maxFlushDelayMillis the maximum flush delay in milliseconds
+   * @return the messaging configuration
+   */
+  public MessagingConfig setMaxFlushDelayMillis(long maxFlushDelayMillis) {
+    return setMaxFlushDelay(Duration.ofMillis(maxFlushDelayMillis));
+  }
+
+  /**
+   * Sets the maximum time by which flushes of outbound messages may be delayed.
+   *
+   * @param maxFlushDelay the maximum flush delay
+   * @return the messaging configuration
+   */
+  public MessagingConfig setMaxFlushDelay(Duration maxFlushDelay) {
+    this.maxFlushDelay = maxFlushDelay;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of bytes that may be written to a connection before it's flushed.
+   * <p>
+   * Pending messages are flushed immediately once their combined size reaches this limit. A value of {@code 0}
+   * flushes every message as soon as it's written.
+   *
+   * @return the maximum number of bytes to buffer before flushing
+   */
+  public int getMaxFlushBytes() {
+    return maxFlushBytes;
+  }
+
+  /**
+   * Sets the maximum number of bytes that may be written to a connection before it's flushed.
+   *
+   * @param maxFlushBytes the maximum number of bytes to buffer before flushing
+   * @return the messaging configuration
+   */
+  public MessagingConfig setMaxFlushBytes(int maxFlushBytes) {
+    this.maxFlushBytes = maxFlushBytes;
+    return this;
+  }
+
+  /**
+   * Returns whether message payload compression is enabled.
+   * <p>
+   * When enabled, payloads sent by this node are Snappy compressed if they're at least
+   * {@link #getCompressionThreshold()} bytes in size. Compressed payloads are flagged per message, so nodes with
+   * compression disabled can still receive compressed messages.
+   *
+   * @return whether message payload compression is enabled
+   */
+  public boolean isCompressionEnabled() {
+    return compressionEnabled;
+  }
+
+  /**
+   * Sets whether message payload compression is enabled.
+   *
+   * @param compressionEnabled whether message payload compression is enabled
+   * @return the messaging configuration
+   */
+  public MessagingConfig setCompressionEnabled(boolean compressionEnabled) {
+    this.compressionEnabled = compressionEnabled;
+    return this;
+  }
+
+  /**
+   * Returns the minimum size of payloads to compress.
+   *
+   * @return the minimum size of payloads to compress in bytes
+   */
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Sets the minimum size of payloads to compress.
+   *
+   * @param compressionThreshold the minimum size of payloads to compress in bytes
+   * @return the messaging configuration
+   */
+  public MessagingConfig setCompressionThreshold(int compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+    return this;
+  }
+
+  /**
+   * Returns the subjects of requests to compress.
+   * <p>
+   * Subjects are regular expressions matched against the full request subject. If no subjects are configured,
+   * requests to all subjects are compressed. Replies are compressed based on their size alone.
+   *
+   * @return the subjects of requests to compress
+   */
+  public List<String> getCompressedSubjects() {
+    return compressedSubjects;
+  }
+
+  /**
+   * Sets the subjects of requests to compress.
+   *
+   * @param compressedSubjects the subjects of requests to compress
+   * @return the messaging configuration
+   */
+  public MessagingConfig setCompressedSubjects(List<String> compressedSubjects) {
+    this.compressedSubjects = compressedSubjects;
+    return this;
+  }
+
+  /**
+   * Adds a subject of requests to compress.
+   *
+   * @param compressedSubject the subject of requests to compress
+   * @return the messaging configuration
+   */
+  public MessagingConfig addCompressedSubject(String compressedSubject) {
+    compressedSubjects.add(compressedSubject);
+    return this;
+  }
+}
@@ -17,11 +17,13 @@ package io.atomix.messaging;
 
 import io.atomix.utils.net.Address;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Interface for low level messaging primitives.
@@ -90,6 +92,47 @@ public interface MessagingService {
    */
   CompletableFuture<byte[]> sendAndReceive(Address address, String type, byte[] payload, Duration timeout, Executor executor);
 
+  /**
+   * Sends a message asynchronously to the specified communication address.
+   * <p>
+   * The payload writer is called before this method returns to write the payload directly to the outbound buffer.
+   *
+   * @param address address to send the message to.
+   * @param type    type of message.
+   * @param payload message payload writer.
+   * @return future that is completed when the message is sent
+   */
+  default CompletableFuture<Void> sendAsync(Address address, String type, PayloadWriter payload) {
+    return sendAsync(address, type, payload.toByteArray());
+  }
+
+  /**
+   * Sends a message asynchronously and expects a response.
+   * <p>
+   * The payload writer is called before this method returns to write the payload directly to the outbound buffer.
+   * The response decoder is called on the messaging thread with a view of the inbound buffer which is only
+   * valid for the duration of the call, avoiding a copy of the response payload.
+   *
+   * @param address  address to send the message to.
+   * @param type     type of message.
+   * @param payload  message payload writer.
+   * @param decoder  response payload decoder.
+   * @param timeout  response timeout
+   * @param executor executor over which any follow up actions after completion will be executed.
+   * @param <T>      the response type
+   * @return a response future
+   */
+  default <T> CompletableFuture<T> sendAndReceive(
+      Address address,
+      String type,
+      PayloadWriter payload,
+      Function<ByteBuffer, T> decoder,
+      Duration timeout,
+      Executor executor) {
+    return sendAndReceive(address, type, payload.toByteArray(), timeout, executor)
+        .thenApply(bytes -> decoder.apply(ByteBuffer.wrap(bytes)));
+  }
+
   /**
    * Registers a new message handler for message type.
    *
@@ -116,6 +159,26 @@ public interface MessagingService {
    */
   void registerHandler(String type, BiFunction<Address, byte[], CompletableFuture<byte[]>> handler);
 
+  /**
+   * Registers a new message handler for message type.
+   * <p>
+   * The decoder is called on the messaging thread with a view of the inbound buffer which is only valid for
+   * the duration of the call, avoiding a copy of the request payload. The handler is called on the messaging thread
+   * with the decoded message and returns a writer for the response payload.
+   *
+   * @param type    message type.
+   * @param decoder message payload decoder.
+   * @param handler message handler
+   * @param <T>     the decoded message type
+   */
+  default <T> void registerHandler(
+      String type,
+      Function<ByteBuffer, T> decoder,
+      BiFunction<Address, T, CompletableFuture<PayloadWriter>> handler) {
+    registerHandler(type, (address, bytes) -> handler.apply(address, decoder.apply(ByteBuffer.wrap(bytes)))
+        .thenApply(PayloadWriter::toByteArray));
+  }
+
   /**
    * Unregister current handler, if one exists for message type.
    *
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.messaging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a message payload directly to the messaging service's outbound buffer.
+ * <p>
+ * Payload writers allow callers to serialize messages into the buffers owned by the messaging service rather than
+ * materializing an intermediate byte array for each message.
+ */
+@FunctionalInterface
+public interface PayloadWriter {
+
+  /**
+   * Writes the payload to the given output stream.
+   *
+   * @param output the output stream to which to write the payload
+   * @throws IOException if the payload cannot be written
+   */
+  void write(OutputStream output) throws IOException;
+
+  /**
+   * Writes the payload to a new byte array.
+   *
+   * @return the payload bytes
+   */
+  default byte[] toByteArray() {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try {
+      write(output);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return output.toByteArray();
+  }
+}
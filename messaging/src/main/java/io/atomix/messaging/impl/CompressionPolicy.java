@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.messaging.impl;
+
+import io.atomix.messaging.MessagingConfig;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Determines which outbound message payloads are compressed.
+ * <p>
+ * Request payloads are compressed when they're at least {@code threshold} bytes in size and their subject matches
+ * one of the configured subject patterns, or any subject if no patterns are configured. Replies are not associated
+ * with a subject and so are compressed based on their size alone.
+ */
+class CompressionPolicy {
+  private static final int MAX_CACHED_SUBJECTS = 4096;
+
+  private final int threshold;
+  private final List<Pattern> subjects;
+  private final Map<String, Boolean> matchedSubjects = new ConcurrentHashMap<>();
+
+  CompressionPolicy(int threshold, Collection<String> subjects) {
+    this.threshold = threshold;
+    this.subjects = subjects.stream().map(Pattern::compile).collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the compression policy for the given configuration.
+   *
+   * @param config the messaging configuration
+   * @return the compression policy or {@code null} if compression is disabled
+   */
+  static CompressionPolicy forConfig(MessagingConfig config) {
+    if (!config.isCompressionEnabled()) {
+      return null;
+    }
+    return new CompressionPolicy(config.getCompressionThreshold(), config.getCompressedSubjects());
+  }
+
+  /**
+   * Returns whether to compress a request payload.
+   *
+   * @param subject the request subject
+   * @param length the payload length
+   * @return whether to compress the payload
+   */
+  boolean compressRequest(String subject, int length) {
+    return length >= threshold && (subjects.isEmpty() || matches(subject));
+  }
+
+  /**
+   * Returns whether to compress a reply payload.
+   *
+   * @param length the payload length
+   * @return whether to compress the payload
+   */
+  boolean compressReply(int length) {
+    return length >= threshold;
+  }
+
+  private boolean matches(String subject) {
+    Boolean matched = matchedSubjects.get(subject);
+    if (matched == null) {
+      matched = subjects.stream().anyMatch(pattern -> pattern.matcher(subject).matches());
+      if (matchedSubjects.size() < MAX_CACHED_SUBJECTS) {
+        matchedSubjects.put(subject, matched);
+      }
+    }
+    return matched;
+  }
+}
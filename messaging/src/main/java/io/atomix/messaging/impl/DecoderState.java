@@ -24,6 +24,8 @@ public enum DecoderState {
   READ_MESSAGE_ID,
   READ_SENDER_IP,
   READ_SENDER_PORT,
+  READ_SENDER_FEATURES,
+  READ_SUBJECT_ID,
   READ_SUBJECT_LENGTH,
   READ_SUBJECT,
   READ_STATUS,
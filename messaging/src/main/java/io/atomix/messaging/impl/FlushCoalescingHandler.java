@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.messaging.impl;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound handler that coalesces flushes of messages written to a channel.
+ * <p>
+ * Rather than flushing each message to the socket as it's written, flushes are deferred to a task on the channel's
+ * event loop so that all messages written within the same event loop tick are flushed with a single syscall. If a
+ * maximum delay is configured, the flush is instead deferred by up to that delay to allow more messages to be
+ * written. Pending messages are flushed immediately once their combined size exceeds the maximum number of bytes.
+ * <p>
+ * The handler must be placed in the pipeline after the {@link MessageEncoder} so that it sees {@link InternalMessage}s
+ * before they're encoded. All handler state is only accessed from the channel's event loop.
+ */
+class FlushCoalescingHandler extends ChannelDuplexHandler {
+  private static final int MESSAGE_OVERHEAD = 32;
+
+  private final long maxDelayNanos;
+  private final int maxBytes;
+  private ChannelHandlerContext context;
+  private int pendingBytes;
+  private boolean flushPending;
+  private boolean flushScheduled;
+  private ScheduledFuture<?> delayedFlush;
+  private final Runnable flushTask = () -> {
+    flushScheduled = false;
+    delayedFlush = null;
+    if (flushPending) {
+      flushNow(context);
+    }
+  };
+
+  FlushCoalescingHandler(long maxDelayNanos, int maxBytes) {
+    this.maxDelayNanos = maxDelayNanos;
+    this.maxBytes = maxBytes;
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext context) throws Exception {
+    this.context = context;
+  }
+
+  @Override
+  public void write(ChannelHandlerContext context, Object message, ChannelPromise promise) throws Exception {
+    if (message instanceof InternalMessage) {
+      pendingBytes += ((InternalMessage) message).payloadBuffer().readableBytes() + MESSAGE_OVERHEAD;
+    }
+    context.write(message, promise);
+  }
+
+  @Override
+  public void flush(ChannelHandlerContext context) throws Exception {
+    flushPending = true;
+    if (pendingBytes >= maxBytes) {
+      flushNow(context);
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      if (maxDelayNanos > 0) {
+        delayedFlush = context.executor().schedule(flushTask, maxDelayNanos, TimeUnit.NANOSECONDS);
+      } else {
+        context.executor().execute(flushTask);
+      }
+    }
+  }
+
+  @Override
+  public void close(ChannelHandlerContext context, ChannelPromise promise) throws Exception {
+    flushIfPending(context);
+    context.close(promise);
+  }
+
+  @Override
+  public void disconnect(ChannelHandlerContext context, ChannelPromise promise) throws Exception {
+    flushIfPending(context);
+    context.disconnect(promise);
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext context) throws Exception {
+    // Flush pending messages immediately if the channel becomes unwritable to avoid buffering more.
+    if (!context.channel().isWritable()) {
+      flushIfPending(context);
+    }
+    context.fireChannelWritabilityChanged();
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext context) throws Exception {
+    flushIfPending(context);
+  }
+
+  private void flushIfPending(ChannelHandlerContext context) {
+    if (flushPending) {
+      flushNow(context);
+    }
+  }
+
+  private void flushNow(ChannelHandlerContext context) {
+    if (delayedFlush != null) {
+      delayedFlush.cancel(false);
+      delayedFlush = null;
+      flushScheduled = false;
+    }
+    pendingBytes = 0;
+    flushPending = false;
+    context.flush();
+  }
+}
@@ -15,10 +15,19 @@
  */
 package io.atomix.messaging.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCounted;
+
 /**
  * Base class for internal messages.
+ * <p>
+ * The message payload is held in a {@link ByteBuf}. Outbound payloads either wrap the caller's byte array or a pooled
+ * buffer written by a {@link io.atomix.messaging.PayloadWriter}, and inbound payloads are retained slices of the
+ * channel's inbound buffer. The message's reference count is the payload's reference count.
  */
-public abstract class InternalMessage {
+public abstract class InternalMessage implements ReferenceCounted {
 
   /**
    * Internal message type.
@@ -62,11 +71,17 @@ public abstract class InternalMessage {
 
   private final int preamble;
   private final long id;
-  private final byte[] payload;
+  private final ByteBuf payload;
 
   protected InternalMessage(int preamble,
                             long id,
                             byte[] payload) {
+    this(preamble, id, Unpooled.wrappedBuffer(payload));
+  }
+
+  protected InternalMessage(int preamble,
+                            long id,
+                            ByteBuf payload) {
     this.preamble = preamble;
     this.id = id;
     this.payload = payload;
@@ -90,7 +105,81 @@ public abstract class InternalMessage {
     return id;
   }
 
+  /**
+   * Returns the message payload as a byte array.
+   * <p>
+   * If the payload wraps an entire byte array, the array is returned without copying. Otherwise, the payload is
+   * copied to a new array.
+   *
+   * @return the message payload
+   */
   public byte[] payload() {
+    return toByteArray(payload);
+  }
+
+  /**
+   * Returns the message payload buffer.
+   * <p>
+   * The buffer is only valid until the message is released.
+   *
+   * @return the message payload buffer
+   */
+  public ByteBuf payloadBuffer() {
     return payload;
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns the readable bytes of the given buffer as a byte array, avoiding a copy where the buffer wraps an array.
+   *
+   * @param buffer the buffer to convert
+   * @return the buffer's readable bytes
+   */
+  static byte[] toByteArray(ByteBuf buffer) {
+    if (buffer.hasArray()
+        && buffer.arrayOffset() == 0
+        && buffer.readerIndex() == 0
+        && buffer.readableBytes() == buffer.array().length) {
+      return buffer.array();
+    }
+    return ByteBufUtil.getBytes(buffer);
+  }
+
+  @Override
+  public int refCnt() {
+    return payload.refCnt();
+  }
+
+  @Override
+  public InternalMessage retain() {
+    payload.retain();
+    return this;
+  }
+
+  @Override
+  public InternalMessage retain(int increment) {
+    payload.retain(increment);
+    return this;
+  }
+
+  @Override
+  public InternalMessage touch() {
+    payload.touch();
+    return this;
+  }
+
+  @Override
+  public InternalMessage touch(Object hint) {
+    payload.touch(hint);
+    return this;
+  }
+
+  @Override
+  public boolean release() {
+    return payload.release();
+  }
+
+  @Override
+  public boolean release(int decrement) {
+    return payload.release(decrement);
+  }
+}
@@ -16,7 +16,8 @@
 package io.atomix.messaging.impl;
 
 import com.google.common.base.MoreObjects;
-import io.atomix.utils.misc.ArraySizeHashPrinter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 /**
  * Internal reply message.
@@ -92,13 +93,20 @@ public final class InternalReply extends InternalMessage {
     public InternalReply(int preamble,
             long id,
             Status status) {
-        this(preamble, id, new byte[0], status);
+        this(preamble, id, Unpooled.EMPTY_BUFFER, status);
     }
 
     public InternalReply(int preamble,
             long id,
             byte[] payload,
             Status status) {
+        this(preamble, id, Unpooled.wrappedBuffer(payload), status);
+    }
+
+    public InternalReply(int preamble,
+            long id,
+            ByteBuf payload,
+            Status status) {
         super(preamble, id, payload);
         this.status = status;
     }
@@ -117,7 +125,7 @@ public final class InternalReply extends InternalMessage {
         return MoreObjects.toStringHelper(this)
                 .add("id", id())
                 .add("status", status())
-                .add("payload", ArraySizeHashPrinter.of(payload()))
+                .add("payload", payloadBuffer().readableBytes())
                 .toString();
     }
 }
\ No newline at end of file
@@ -17,7 +17,8 @@ package io.atomix.messaging.impl;
 
 import com.google.common.base.MoreObjects;
 import io.atomix.utils.net.Address;
-import io.atomix.utils.misc.ArraySizeHashPrinter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 /**
  * Internal request message.
@@ -25,6 +26,7 @@ import io.atomix.utils.misc.ArraySizeHashPrinter;
 public final class InternalRequest extends InternalMessage {
     private final Address sender;
     private final String subject;
+    private final int subjectId;
 
     public InternalRequest(
         int preamble,
@@ -32,9 +34,30 @@ public final class InternalRequest extends InternalMessage {
         Address sender,
         String subject,
         byte[] payload) {
+        this(preamble, id, sender, subject, 0, payload);
+    }
+
+    public InternalRequest(
+        int preamble,
+        long id,
+        Address sender,
+        String subject,
+        int subjectId,
+        byte[] payload) {
+        this(preamble, id, sender, subject, subjectId, Unpooled.wrappedBuffer(payload));
+    }
+
+    public InternalRequest(
+        int preamble,
+        long id,
+        Address sender,
+        String subject,
+        int subjectId,
+        ByteBuf payload) {
         super(preamble, id, payload);
         this.sender = sender;
         this.subject = subject;
+        this.subjectId = subjectId;
     }
 
     @Override
@@ -46,6 +69,18 @@ public final class InternalRequest extends InternalMessage {
         return subject;
     }
 
+    /**
+     * Returns the connection-local subject ID.
+     * <p>
+     * Subject IDs are assigned by the sending side of a connection the first time a subject is sent over it. An ID
+     * of {@code 0} indicates the subject was not interned and must be looked up by name.
+     *
+     * @return the connection-local subject ID or {@code 0} if the subject is not interned
+     */
+    public int subjectId() {
+        return subjectId;
+    }
+
     public Address sender() {
         return sender;
     }
@@ -56,7 +91,7 @@ public final class InternalRequest extends InternalMessage {
                 .add("id", id())
                 .add("subject", subject)
                 .add("sender", sender)
-                .add("payload", ArraySizeHashPrinter.of(payload()))
+                .add("payload", payloadBuffer().readableBytes())
                 .toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.messaging.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.compression.Snappy;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Snappy based message payload compressor.
+ * <p>
+ * Payloads are compressed in independent chunks of up to {@link #CHUNK_SIZE} bytes. Each chunk is written as its
+ * compressed length followed by the Snappy encoded chunk. The compressor is stateful and must only be used by a
+ * single thread.
+ */
+class MessageCompressor {
+
+  /**
+   * Maximum number of uncompressed bytes in a single chunk.
+   */
+  static final int CHUNK_SIZE = 32 * 1024;
+
+  private final Snappy snappy = new Snappy();
+
+  /**
+   * Compresses the given payload into a new buffer without modifying the payload's reader index.
+   *
+   * @param payload the payload to compress
+   * @param alloc the allocator with which to allocate the compressed buffer
+   * @return the compressed payload
+   */
+  ByteBuf compress(ByteBuf payload, ByteBufAllocator alloc) {
+    final ByteBuf in = payload.duplicate();
+    final ByteBuf out = alloc.ioBuffer(in.readableBytes());
+    try {
+      while (in.isReadable()) {
+        final int length = Math.min(in.readableBytes(), CHUNK_SIZE);
+        final int lengthIndex = out.writerIndex();
+        out.writeInt(0);
+        snappy.encode(in.readSlice(length), out, length);
+        snappy.reset();
+        out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+      }
+      return out;
+    } catch (Exception e) {
+      out.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Decompresses the given payload into a new buffer, consuming the payload.
+   *
+   * @param payload the compressed payload
+   * @param alloc the allocator with which to allocate the decompressed buffer
+   * @return the decompressed payload
+   */
+  ByteBuf decompress(ByteBuf payload, ByteBufAllocator alloc) {
+    final ByteBuf out = alloc.buffer(payload.readableBytes() * 2);
+    try {
+      while (payload.isReadable()) {
+        final int length = payload.readInt();
+        checkState(length <= payload.readableBytes(), "Truncated compressed payload");
+        snappy.decode(payload.readSlice(length), out);
+        snappy.reset();
+      }
+      return out;
+    } catch (Exception e) {
+      out.release();
+      throw e;
+    }
+  }
+}
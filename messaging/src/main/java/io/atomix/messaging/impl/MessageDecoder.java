@@ -17,6 +17,7 @@ package io.atomix.messaging.impl;
 
 import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import org.slf4j.Logger;
@@ -24,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetAddress;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -31,13 +33,14 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Decoder for inbound messages.
+ * <p>
+ * Compressed payloads are decompressed by the decoder, but only if the sender announced compression in the features
+ * written at the start of the connection.
  */
 public class MessageDecoder extends ByteToMessageDecoder {
 
   private final Logger log = LoggerFactory.getLogger(getClass());
 
-  private static final byte[] EMPTY_PAYLOAD = new byte[0];
-
   private static final int BYTE_SIZE = 1;
   private static final int SHORT_SIZE = 2;
   private static final int INT_SIZE = 4;
@@ -48,13 +51,22 @@ public class MessageDecoder extends ByteToMessageDecoder {
   private InetAddress senderIp;
   private int senderPort;
   private Address address;
+  private int features;
+  private MessageCompressor compressor;
 
   private InternalMessage.Type type;
+  private boolean compressed;
   private int preamble;
   private long messageId;
   private int contentLength;
-  private byte[] content;
+  private int subjectHeader;
   private int subjectLength;
+  private String subject;
+  private int subjectId;
+  private InternalReply.Status status;
+
+  // Subjects interned by the remote encoder, indexed by subject ID.
+  private String[] subjects = new String[16];
 
   @Override
   @SuppressWarnings("squid:S128") // suppress switch fall through warning
@@ -85,12 +97,24 @@ public class MessageDecoder extends ByteToMessageDecoder {
         }
         senderPort = buffer.readInt();
         address = new Address(senderIp.getHostName(), senderPort, senderIp);
+        currentState = DecoderState.READ_SENDER_FEATURES;
+      case READ_SENDER_FEATURES:
+        if (buffer.readableBytes() < BYTE_SIZE) {
+          return;
+        }
+        features = buffer.readUnsignedByte();
+        if ((features & MessageEncoder.FEATURE_COMPRESSION) != 0) {
+          compressor = new MessageCompressor();
+        }
         currentState = DecoderState.READ_TYPE;
       case READ_TYPE:
         if (buffer.readableBytes() < BYTE_SIZE) {
           return;
         }
-        type = InternalMessage.Type.forId(buffer.readByte());
+        final int typeId = buffer.readUnsignedByte();
+        compressed = (typeId & MessageEncoder.TYPE_COMPRESSED) != 0;
+        checkState(!compressed || compressor != null, "Received compressed message without compression feature");
+        type = InternalMessage.Type.forId(typeId & ~MessageEncoder.TYPE_COMPRESSED);
         currentState = DecoderState.READ_PREAMBLE;
       case READ_PREAMBLE:
         if (buffer.readableBytes() < INT_SIZE) {
@@ -103,28 +127,10 @@ public class MessageDecoder extends ByteToMessageDecoder {
           return;
         }
         messageId = buffer.readLong();
-        currentState = DecoderState.READ_CONTENT_LENGTH;
-      case READ_CONTENT_LENGTH:
-        if (buffer.readableBytes() < INT_SIZE) {
-          return;
-        }
-        contentLength = buffer.readInt();
-        currentState = DecoderState.READ_CONTENT;
-      case READ_CONTENT:
-        if (buffer.readableBytes() < contentLength) {
-          return;
-        }
-        if (contentLength > 0) {
-          // TODO: Perform a sanity check on the size before allocating
-          content = new byte[contentLength];
-          buffer.readBytes(content);
-        } else {
-          content = EMPTY_PAYLOAD;
-        }
 
         switch (type) {
           case REQUEST:
-            currentState = DecoderState.READ_SUBJECT_LENGTH;
+            currentState = DecoderState.READ_SUBJECT_ID;
             break;
           case REPLY:
             currentState = DecoderState.READ_STATUS;
@@ -140,25 +146,34 @@ public class MessageDecoder extends ByteToMessageDecoder {
     switch (type) {
       case REQUEST:
         switch (currentState) {
+          case READ_SUBJECT_ID:
+            subjectHeader = readVarInt(buffer);
+            if (subjectHeader < 0) {
+              return;
+            }
+            subjectId = subjectHeader >>> 1;
+            if (subjectHeader != 0 && (subjectHeader & 1) == 0) {
+              checkState(subjectId < subjects.length && subjects[subjectId] != null, "Unknown subject ID %s", subjectId);
+              subject = subjects[subjectId];
+              currentState = DecoderState.READ_CONTENT_LENGTH;
+              break;
+            }
+            currentState = DecoderState.READ_SUBJECT_LENGTH;
           case READ_SUBJECT_LENGTH:
             if (buffer.readableBytes() < SHORT_SIZE) {
               return;
             }
-            subjectLength = buffer.readShort();
+            subjectLength = buffer.readUnsignedShort();
             currentState = DecoderState.READ_SUBJECT;
           case READ_SUBJECT:
             if (buffer.readableBytes() < subjectLength) {
               return;
             }
-            final String subject = readString(buffer, subjectLength, UTF_8);
-            InternalRequest message = new InternalRequest(
-                preamble,
-                messageId,
-                address,
-                subject,
-                content);
-            out.add(message);
-            currentState = DecoderState.READ_TYPE;
+            subject = readString(buffer, subjectLength, UTF_8);
+            if (subjectId > 0) {
+              defineSubject(subjectId, subject);
+            }
+            currentState = DecoderState.READ_CONTENT_LENGTH;
             break;
           default:
             break;
@@ -170,13 +185,8 @@ public class MessageDecoder extends ByteToMessageDecoder {
             if (buffer.readableBytes() < BYTE_SIZE) {
               return;
             }
-            InternalReply.Status status = InternalReply.Status.forId(buffer.readByte());
-            InternalReply message = new InternalReply(preamble,
-                messageId,
-                content,
-                status);
-            out.add(message);
-            currentState = DecoderState.READ_TYPE;
+            status = InternalReply.Status.forId(buffer.readByte());
+            currentState = DecoderState.READ_CONTENT_LENGTH;
             break;
           default:
             break;
@@ -185,6 +195,98 @@ public class MessageDecoder extends ByteToMessageDecoder {
       default:
         checkState(false, "Must not be here");
     }
+
+    switch (currentState) {
+      case READ_CONTENT_LENGTH:
+        if (buffer.readableBytes() < INT_SIZE) {
+          return;
+        }
+        contentLength = buffer.readInt();
+        currentState = DecoderState.READ_CONTENT;
+      case READ_CONTENT:
+        if (buffer.readableBytes() < contentLength) {
+          return;
+        }
+
+        // The content is passed on as a retained slice of the inbound buffer rather than copied. The slice is
+        // released with the message once it has been dispatched.
+        // TODO: Perform a sanity check on the size before allocating
+        ByteBuf content = contentLength > 0 ? buffer.readRetainedSlice(contentLength) : Unpooled.EMPTY_BUFFER;
+        if (compressed) {
+          final ByteBuf compressedContent = content;
+          try {
+            content = compressor.decompress(compressedContent, context.alloc());
+          } finally {
+            compressedContent.release();
+          }
+        }
+        switch (type) {
+          case REQUEST:
+            out.add(new InternalRequest(
+                preamble,
+                messageId,
+                address,
+                subject,
+                subjectId,
+                content));
+            break;
+          case REPLY:
+            out.add(new InternalReply(preamble,
+                messageId,
+                content,
+                status));
+            break;
+          default:
+            checkState(false, "Must not be here");
+        }
+        currentState = DecoderState.READ_TYPE;
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Records a subject defined by the remote encoder.
+   * <p>
+   * Encoders assign subject IDs from {@code 1} to {@link MessageEncoder#MAX_SUBJECTS}. A larger ID is rejected
+   * rather than growing the subject table, which closes the connection.
+   *
+   * @param subjectId the subject ID
+   * @param subject the subject
+   * @throws IllegalStateException if the subject ID exceeds the maximum number of subjects
+   */
+  private void defineSubject(int subjectId, String subject) {
+    checkState(subjectId <= MessageEncoder.MAX_SUBJECTS, "Subject ID %s exceeds the maximum of %s subjects",
+        subjectId, MessageEncoder.MAX_SUBJECTS);
+    if (subjectId >= subjects.length) {
+      int length = Math.min(Math.max(subjectId + 1, subjects.length * 2), MessageEncoder.MAX_SUBJECTS + 1);
+      subjects = Arrays.copyOf(subjects, length);
+    }
+    subjects[subjectId] = subject;
+  }
+
+  /**
+   * Reads an unsigned variable length integer from the given buffer.
+   *
+   * @param buffer the buffer from which to read the integer
+   * @return the integer or {@code -1} if the buffer does not contain the complete integer
+   */
+  static int readVarInt(ByteBuf buffer) {
+    final int readerIndex = buffer.readerIndex();
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      if (!buffer.isReadable()) {
+        buffer.readerIndex(readerIndex);
+        return -1;
+      }
+      final byte b = buffer.readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalStateException("Malformed variable length integer");
   }
 
   static String readString(ByteBuf buffer, int length, Charset charset) {
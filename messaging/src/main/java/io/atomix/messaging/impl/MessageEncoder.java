@@ -19,45 +19,145 @@ import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Encode InternalMessage out into a byte buffer.
+ * <p>
+ * Message headers are written to a new buffer. Small payloads are copied into the header buffer, while larger
+ * payloads are written to the channel as-is following the header to avoid copying them.
+ * <p>
+ * When compression is enabled, the encoder announces it in the connection features written after the sender address,
+ * and payloads selected by the {@link CompressionPolicy} are Snappy compressed and flagged in the message type byte.
  */
-public class MessageEncoder extends MessageToByteEncoder<Object> {
-// Effectively MessageToByteEncoder<InternalMessage>,
+public class MessageEncoder extends MessageToMessageEncoder<Object> {
+// Effectively MessageToMessageEncoder<InternalMessage>,
 // had to specify <Object> to avoid Class Loader not being able to find some classes.
 
+  /**
+   * Maximum number of subjects interned per connection. Subjects sent beyond this limit are written inline.
+   */
+  static final int MAX_SUBJECTS = 1024;
+
+  /**
+   * Maximum size of payloads that are copied into the header buffer rather than written as a separate buffer.
+   */
+  static final int MAX_INLINE_PAYLOAD_SIZE = 1024;
+
+  /**
+   * Connection feature flag indicating the sender may compress message payloads.
+   */
+  static final int FEATURE_COMPRESSION = 0x01;
+
+  /**
+   * Message type flag indicating the message payload is compressed.
+   */
+  static final int TYPE_COMPRESSED = 0x80;
+
+  private static final int HEADER_SIZE = 64;
+
   private final Logger log = LoggerFactory.getLogger(getClass());
 
   private final Address address;
   private final int preamble;
+  private final CompressionPolicy compression;
+  private final MessageCompressor compressor;
   private boolean addressWritten;
 
+  // The encoder is bound to a single channel and only accessed from its event loop.
+  private final Map<String, Integer> subjectIds = new HashMap<>();
+
   public MessageEncoder(Address address, int preamble) {
+    this(address, preamble, null);
+  }
+
+  MessageEncoder(Address address, int preamble, CompressionPolicy compression) {
     super();
     this.address = address;
     this.preamble = preamble;
+    this.compression = compression;
+    this.compressor = compression != null ? new MessageCompressor() : null;
   }
 
   @Override
   protected void encode(
       ChannelHandlerContext context,
       Object rawMessage,
-      ByteBuf out) throws Exception {
-    if (rawMessage instanceof InternalRequest) {
-      encodeRequest((InternalRequest) rawMessage, out);
-    } else if (rawMessage instanceof InternalReply) {
-      encodeReply((InternalReply) rawMessage, out);
+      List<Object> out) throws Exception {
+    final InternalMessage message = (InternalMessage) rawMessage;
+    ByteBuf payload = message.payloadBuffer();
+    boolean compressed = false;
+    if (compression != null && shouldCompress(message, payload.readableBytes())) {
+      final ByteBuf compressedPayload = compressor.compress(payload, context.alloc());
+      if (compressedPayload.readableBytes() < payload.readableBytes()) {
+        payload = compressedPayload;
+        compressed = true;
+      } else {
+        compressedPayload.release();
+      }
+    }
+
+    final int payloadLength = payload.readableBytes();
+    final boolean inline = payloadLength <= MAX_INLINE_PAYLOAD_SIZE;
+
+    final ByteBuf buffer = context.alloc().ioBuffer(HEADER_SIZE + (inline ? payloadLength : 0));
+    try {
+      encodeMessage(message, compressed, buffer);
+      if (message instanceof InternalRequest) {
+        encodeSubject(((InternalRequest) message).subject(), buffer);
+      } else if (message instanceof InternalReply) {
+        // write message status value
+        buffer.writeByte(((InternalReply) message).status().id());
+      }
+
+      // write payload length
+      buffer.writeInt(payloadLength);
+
+      // write payload, copying it into the header buffer only if it's small
+      if (inline) {
+        buffer.writeBytes(payload, payload.readerIndex(), payloadLength);
+      }
+    } catch (Exception e) {
+      buffer.release();
+      if (compressed) {
+        payload.release();
+      }
+      throw e;
+    }
+
+    out.add(buffer);
+    if (!inline) {
+      // The message (and thus the payload) is released once encoded, so retain the payload for the write.
+      // A compressed payload is owned by the encoder and can be written directly.
+      out.add(compressed ? payload : payload.retain());
+    } else if (compressed) {
+      payload.release();
     }
   }
 
-  private void encodeMessage(InternalMessage message, ByteBuf out) {
+  /**
+   * Returns whether to compress the payload of the given message.
+   *
+   * @param message the message
+   * @param length the payload length
+   * @return whether to compress the message payload
+   */
+  private boolean shouldCompress(InternalMessage message, int length) {
+    if (message instanceof InternalRequest) {
+      return compression.compressRequest(((InternalRequest) message).subject(), length);
+    }
+    return compression.compressReply(length);
+  }
+
+  private void encodeMessage(InternalMessage message, boolean compressed, ByteBuf out) {
     // If the address hasn't been written to the channel, write it.
     if (!addressWritten) {
       final InetAddress senderIp = address.address();
@@ -68,44 +168,64 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
       // write sender port
       out.writeInt(address.port());
 
+      // write the connection features
+      out.writeByte(compression != null ? FEATURE_COMPRESSION : 0);
+
       addressWritten = true;
     }
 
-    out.writeByte(message.type().id());
+    out.writeByte(compressed ? message.type().id() | TYPE_COMPRESSED : message.type().id());
     out.writeInt(this.preamble);
 
     // write message id
     out.writeLong(message.id());
-
-    final byte[] payload = message.payload();
-
-    // write payload length
-    out.writeInt(payload.length);
-
-    // write payload.
-    out.writeBytes(payload);
   }
 
-  private void encodeRequest(InternalRequest request, ByteBuf out) {
-    encodeMessage(request, out);
+  /**
+   * Writes the request subject.
+   * <p>
+   * The subject is written as a varint header followed by an optional UTF-8 encoded subject. The header is
+   * {@code (id << 1) | 1} when the subject is being defined on this connection for the first time, {@code id << 1}
+   * when referencing a previously defined subject, and {@code 0} when the subject is written inline without being
+   * interned. The subject string follows the header only when the low bit is set or the header is {@code 0}.
+   *
+   * @param subject the subject to write
+   * @param out the buffer to which to write the subject
+   */
+  private void encodeSubject(String subject, ByteBuf out) {
+    Integer subjectId = subjectIds.get(subject);
+    if (subjectId != null) {
+      writeVarInt(subjectId << 1, out);
+      return;
+    }
 
-    final ByteBuf buf = out.alloc().buffer(ByteBufUtil.utf8MaxBytes(request.subject()));
-    try {
-      final int length = ByteBufUtil.writeUtf8(buf, request.subject());
-      // write length of message type
-      out.writeShort(length);
-      // write message type bytes
-      out.writeBytes(buf);
-    } finally {
-      buf.release();
+    if (subjectIds.size() < MAX_SUBJECTS) {
+      subjectId = subjectIds.size() + 1;
+      subjectIds.put(subject, subjectId);
+      writeVarInt(subjectId << 1 | 1, out);
+    } else {
+      writeVarInt(0, out);
     }
-  }
 
-  private void encodeReply(InternalReply reply, ByteBuf out) {
-    encodeMessage(reply, out);
+    // write the subject length followed by the UTF-8 bytes, back-filling the length once it's known
+    final int lengthIndex = out.writerIndex();
+    out.writeShort(0);
+    final int length = ByteBufUtil.writeUtf8(out, subject);
+    out.setShort(lengthIndex, length);
+  }
 
-    // write message status value
-    out.writeByte(reply.status().id());
+  /**
+   * Writes an unsigned variable length integer to the given buffer.
+   *
+   * @param value the value to write
+   * @param out the buffer to which to write the value
+   */
+  static void writeVarInt(int value, ByteBuf out) {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
   }
 
   @Override
@@ -121,7 +241,7 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
     }
   }
 
-  // Effectively same result as one generated by MessageToByteEncoder<InternalMessage>
+  // Effectively same result as one generated by MessageToMessageEncoder<InternalMessage>
   @Override
   public final boolean acceptOutboundMessage(Object msg) throws Exception {
     return msg instanceof InternalMessage;
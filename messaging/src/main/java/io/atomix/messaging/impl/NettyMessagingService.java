@@ -21,13 +21,20 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.atomix.messaging.ChannelSelectionPolicy;
 import io.atomix.messaging.ManagedMessagingService;
+import io.atomix.messaging.MessagingConfig;
 import io.atomix.messaging.MessagingException;
 import io.atomix.messaging.MessagingService;
+import io.atomix.messaging.PayloadWriter;
+import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.net.Address;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -39,6 +46,7 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.epoll.EpollSocketChannel;
@@ -58,13 +66,16 @@ import javax.net.ssl.TrustManagerFactory;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.net.ConnectException;
+import java.nio.ByteBuffer;
 import java.security.Key;
 import java.security.KeyStore;
 import java.security.MessageDigest;
 import java.security.cert.Certificate;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
@@ -82,11 +93,13 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.atomix.utils.concurrent.Threads.namedThreads;
 
@@ -111,6 +124,7 @@ public class NettyMessagingService implements ManagedMessagingService {
   public static class Builder extends MessagingService.Builder {
     private String name = DEFAULT_NAME;
     private Address address;
+    private MessagingConfig config = new MessagingConfig();
 
     /**
      * Sets the cluster name.
@@ -136,12 +150,24 @@ public class NettyMessagingService implements ManagedMessagingService {
       return this;
     }
 
+    /**
+     * Sets the messaging configuration.
+     *
+     * @param config the messaging configuration
+     * @return the Netty messaging service builder
+     * @throws NullPointerException if the configuration is null
+     */
+    public Builder withConfig(MessagingConfig config) {
+      this.config = checkNotNull(config);
+      return this;
+    }
+
     @Override
     public ManagedMessagingService build() {
       if (address == null) {
         address = Address.empty();
       }
-      return new NettyMessagingService(name.hashCode(), address);
+      return new NettyMessagingService(name.hashCode(), address, config);
     }
   }
 
@@ -153,9 +179,7 @@ public class NettyMessagingService implements ManagedMessagingService {
   private static final int MIN_SAMPLES = 25;
   private static final double PHI_FACTOR = 1.0 / Math.log(10.0);
   private static final int PHI_FAILURE_THRESHOLD = 5;
-  private static final int CHANNEL_POOL_SIZE = 8;
 
-  private static final byte[] EMPTY_PAYLOAD = new byte[0];
 
   private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -170,8 +194,12 @@ public class NettyMessagingService implements ManagedMessagingService {
 
   private final Address localAddress;
   private final int preamble;
+  private final MessagingConfig config;
+  private final CompressionPolicy compression;
+  private final AtomicInteger channelCounter = new AtomicInteger();
   private final AtomicBoolean started = new AtomicBoolean(false);
   private final Map<String, BiConsumer<InternalRequest, ServerConnection>> handlers = new ConcurrentHashMap<>();
+  private final AtomicInteger handlersVersion = new AtomicInteger();
   private final Map<Channel, RemoteClientConnection> clientConnections = Maps.newConcurrentMap();
   private final Map<Channel, RemoteServerConnection> serverConnections = Maps.newConcurrentMap();
   private final AtomicLong messageIdGenerator = new AtomicLong(0);
@@ -184,6 +212,7 @@ public class NettyMessagingService implements ManagedMessagingService {
   private EventLoopGroup clientGroup;
   private Class<? extends ServerChannel> serverChannelClass;
   private Class<? extends Channel> clientChannelClass;
+  private boolean epoll;
   private ScheduledExecutorService timeoutExecutor;
   private Channel serverChannel;
 
@@ -195,8 +224,15 @@ public class NettyMessagingService implements ManagedMessagingService {
   protected KeyManagerFactory keyManager;
 
   protected NettyMessagingService(int preamble, Address address) {
+    this(preamble, address, new MessagingConfig());
+  }
+
+  protected NettyMessagingService(int preamble, Address address, MessagingConfig config) {
+    checkArgument(config.getConnectionsPerPeer() > 0, "connectionsPerPeer must be positive");
     this.preamble = preamble;
     this.localAddress = address;
+    this.config = config;
+    this.compression = CompressionPolicy.forConfig(config);
   }
 
   @Override
@@ -310,19 +346,21 @@ public class NettyMessagingService implements ManagedMessagingService {
   private void initEventLoopGroup() {
     // try Epoll first and if that does work, use nio.
     try {
-      clientGroup = new EpollEventLoopGroup(0, namedThreads("netty-messaging-event-epoll-client-%d", log));
-      serverGroup = new EpollEventLoopGroup(0, namedThreads("netty-messaging-event-epoll-server-%d", log));
+      clientGroup = new EpollEventLoopGroup(config.getClientThreads(), namedThreads("netty-messaging-event-epoll-client-%d", log));
+      serverGroup = new EpollEventLoopGroup(config.getServerThreads(), namedThreads("netty-messaging-event-epoll-server-%d", log));
       serverChannelClass = EpollServerSocketChannel.class;
       clientChannelClass = EpollSocketChannel.class;
+      epoll = true;
       return;
     } catch (Throwable e) {
       log.debug("Failed to initialize native (epoll) transport. "
           + "Reason: {}. Proceeding with nio.", e.getMessage());
     }
-    clientGroup = new NioEventLoopGroup(0, namedThreads("netty-messaging-event-nio-client-%d", log));
-    serverGroup = new NioEventLoopGroup(0, namedThreads("netty-messaging-event-nio-server-%d", log));
+    clientGroup = new NioEventLoopGroup(config.getClientThreads(), namedThreads("netty-messaging-event-nio-client-%d", log));
+    serverGroup = new NioEventLoopGroup(config.getServerThreads(), namedThreads("netty-messaging-event-nio-server-%d", log));
     serverChannelClass = NioServerSocketChannel.class;
     clientChannelClass = NioSocketChannel.class;
+    epoll = false;
   }
 
   /**
@@ -342,7 +380,24 @@ public class NettyMessagingService implements ManagedMessagingService {
         localAddress,
         type,
         payload);
-    return executeOnPooledConnection(address, type, c -> c.sendAsync(message), MoreExecutors.directExecutor());
+    return executeOnPooledConnection(address, type, message, c -> c.sendAsync(message), MoreExecutors.directExecutor());
+  }
+
+  @Override
+  public CompletableFuture<Void> sendAsync(Address address, String type, PayloadWriter payload) {
+    final ByteBuf buffer;
+    try {
+      buffer = writePayload(payload);
+    } catch (IOException | RuntimeException e) {
+      return Futures.exceptionalFuture(e);
+    }
+    InternalRequest message = new InternalRequest(preamble,
+        messageIdGenerator.incrementAndGet(),
+        localAddress,
+        type,
+        0,
+        buffer);
+    return executeOnPooledConnection(address, type, message, c -> c.sendAsync(message), MoreExecutors.directExecutor());
   }
 
   @Override
@@ -368,7 +423,54 @@ public class NettyMessagingService implements ManagedMessagingService {
         localAddress,
         type,
         payload);
-    return executeOnPooledConnection(address, type, c -> c.sendAndReceive(message, timeout), executor);
+    return executeOnPooledConnection(
+        address, type, message, c -> c.sendAndReceive(message, InternalMessage::toByteArray, timeout), executor);
+  }
+
+  @Override
+  public <T> CompletableFuture<T> sendAndReceive(
+      Address address,
+      String type,
+      PayloadWriter payload,
+      Function<ByteBuffer, T> decoder,
+      Duration timeout,
+      Executor executor) {
+    final ByteBuf buffer;
+    try {
+      buffer = writePayload(payload);
+    } catch (IOException | RuntimeException e) {
+      return Futures.exceptionalFutureAsync(e, executor);
+    }
+    InternalRequest message = new InternalRequest(preamble,
+        messageIdGenerator.incrementAndGet(),
+        localAddress,
+        type,
+        0,
+        buffer);
+    return executeOnPooledConnection(
+        address, type, message, c -> c.sendAndReceive(message, b -> decoder.apply(b.nioBuffer()), timeout), executor);
+  }
+
+  /**
+   * Writes the given payload to a new pooled buffer.
+   * <p>
+   * The payload is written on the calling thread so that serialization errors can be returned to the caller rather
+   * than failing the channel. The returned buffer is owned by the message to which it's attached and is released
+   * once the message has been written.
+   *
+   * @param payload the payload writer
+   * @return the buffer to which the payload was written
+   * @throws IOException if the payload writer failed
+   */
+  private ByteBuf writePayload(PayloadWriter payload) throws IOException {
+    ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer();
+    try {
+      payload.write(new ByteBufOutputStream(buffer));
+      return buffer;
+    } catch (IOException | RuntimeException e) {
+      buffer.release();
+      throw e;
+    }
   }
 
   private List<CompletableFuture<Channel>> getChannelPool(Address address) {
@@ -377,21 +479,72 @@ public class NettyMessagingService implements ManagedMessagingService {
       return channelPool;
     }
     return channels.computeIfAbsent(address, e -> {
-      List<CompletableFuture<Channel>> defaultList = new ArrayList<>(CHANNEL_POOL_SIZE);
-      for (int i = 0; i < CHANNEL_POOL_SIZE; i++) {
+      List<CompletableFuture<Channel>> defaultList = new ArrayList<>(config.getConnectionsPerPeer());
+      for (int i = 0; i < config.getConnectionsPerPeer(); i++) {
         defaultList.add(null);
       }
       return Lists.newCopyOnWriteArrayList(defaultList);
     });
   }
 
-  private int getChannelOffset(String messageType) {
-    return Math.abs(messageType.hashCode() % CHANNEL_POOL_SIZE);
+  /**
+   * Returns the offset of the channel in the given pool over which to send a message of the given type.
+   *
+   * @param channelPool the channel pool from which to select a channel
+   * @param messageType the type of the message to send
+   * @return the offset of the selected channel in the pool
+   */
+  private int getChannelOffset(List<CompletableFuture<Channel>> channelPool, String messageType) {
+    ChannelSelectionPolicy policy = config.getChannelSelectionPolicy();
+    if (policy == ChannelSelectionPolicy.ROUND_ROBIN) {
+      return Math.floorMod(channelCounter.getAndIncrement(), channelPool.size());
+    } else if (policy == ChannelSelectionPolicy.LEAST_PENDING) {
+      return getLeastPendingChannelOffset(channelPool);
+    } else {
+      return Math.floorMod(messageType.hashCode(), channelPool.size());
+    }
+  }
+
+  /**
+   * Returns the offset of the channel with the fewest requests awaiting a response.
+   * <p>
+   * Channels that have not yet been opened are counted as having no pending requests, but connected channels are
+   * preferred over them so that new connections are only opened once the existing connections are busy.
+   *
+   * @param channelPool the channel pool from which to select a channel
+   * @return the offset of the selected channel in the pool
+   */
+  private int getLeastPendingChannelOffset(List<CompletableFuture<Channel>> channelPool) {
+    int selectedOffset = -1;
+    int selectedPending = Integer.MAX_VALUE;
+    int unopenedOffset = -1;
+    for (int i = 0; i < channelPool.size(); i++) {
+      CompletableFuture<Channel> channelFuture = channelPool.get(i);
+      if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
+        if (unopenedOffset == -1) {
+          unopenedOffset = i;
+        }
+        continue;
+      }
+
+      // Channels that are still connecting are counted by the requests already queued on them.
+      RemoteClientConnection connection = channelFuture.isDone() ? clientConnections.get(channelFuture.join()) : null;
+      int pending = connection != null ? connection.pending() : 0;
+      if (pending < selectedPending) {
+        selectedOffset = i;
+        selectedPending = pending;
+      }
+    }
+
+    if (selectedOffset == -1 || (selectedPending > 0 && unopenedOffset != -1)) {
+      return unopenedOffset;
+    }
+    return selectedOffset;
   }
 
   private CompletableFuture<Channel> getChannel(Address address, String messageType) {
     List<CompletableFuture<Channel>> channelPool = getChannelPool(address);
-    int offset = getChannelOffset(messageType);
+    int offset = getChannelOffset(channelPool, messageType);
 
     CompletableFuture<Channel> channelFuture = channelPool.get(offset);
     if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
@@ -455,16 +608,18 @@ public class NettyMessagingService implements ManagedMessagingService {
   private <T> CompletableFuture<T> executeOnPooledConnection(
       Address address,
       String type,
+      InternalRequest message,
       Function<ClientConnection, CompletableFuture<T>> callback,
       Executor executor) {
     CompletableFuture<T> future = new CompletableFuture<T>();
-    executeOnPooledConnection(address, type, callback, executor, future);
+    executeOnPooledConnection(address, type, message, callback, executor, future);
     return future;
   }
 
   private <T> void executeOnPooledConnection(
       Address address,
       String type,
+      InternalRequest message,
       Function<ClientConnection, CompletableFuture<T>> callback,
       Executor executor,
       CompletableFuture<T> future) {
@@ -486,8 +641,9 @@ public class NettyMessagingService implements ManagedMessagingService {
           if (sendError == null) {
             executor.execute(() -> future.complete(result));
           } else {
-            final Throwable cause = Throwables.getRootCause(sendError);
-            if (!(cause instanceof TimeoutException) && !(cause instanceof MessagingException)) {
+            final boolean expected = Throwables.getCausalChain(sendError).stream()
+                .anyMatch(cause -> cause instanceof TimeoutException || cause instanceof MessagingException);
+            if (!expected) {
               channel.close().addListener(f -> {
                 connection.close();
                 clientConnections.remove(channel);
@@ -497,6 +653,7 @@ public class NettyMessagingService implements ManagedMessagingService {
           }
         });
       } else {
+        message.release();
         executor.execute(() -> future.completeExceptionally(channelError));
       }
     });
@@ -512,23 +669,32 @@ public class NettyMessagingService implements ManagedMessagingService {
 
   @Override
   public void registerHandler(String type, BiConsumer<Address, byte[]> handler, Executor executor) {
-    handlers.put(type, (message, connection) -> executor.execute(() ->
-        handler.accept(message.sender(), message.payload())));
+    handlers.put(type, (message, connection) -> {
+      // The payload must be read before it's released by the messaging thread.
+      byte[] payload = message.payload();
+      executor.execute(() -> handler.accept(message.sender(), payload));
+    });
+    handlersVersion.incrementAndGet();
   }
 
   @Override
   public void registerHandler(String type, BiFunction<Address, byte[], byte[]> handler, Executor executor) {
-    handlers.put(type, (message, connection) -> executor.execute(() -> {
-      byte[] responsePayload = null;
-      InternalReply.Status status = InternalReply.Status.OK;
-      try {
-        responsePayload = handler.apply(message.sender(), message.payload());
-      } catch (Exception e) {
-        log.warn("An error occurred in a message handler: {}", e);
-        status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
-      }
-      connection.reply(message, status, Optional.ofNullable(responsePayload));
-    }));
+    handlers.put(type, (message, connection) -> {
+      // The payload must be read before it's released by the messaging thread.
+      byte[] payload = message.payload();
+      executor.execute(() -> {
+        byte[] responsePayload = null;
+        InternalReply.Status status = InternalReply.Status.OK;
+        try {
+          responsePayload = handler.apply(message.sender(), payload);
+        } catch (Exception e) {
+          log.warn("An error occurred in a message handler: {}", e);
+          status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
+        }
+        connection.reply(message, status, Optional.ofNullable(responsePayload));
+      });
+    });
+    handlersVersion.incrementAndGet();
   }
 
   @Override
@@ -545,11 +711,50 @@ public class NettyMessagingService implements ManagedMessagingService {
         connection.reply(message, status, Optional.ofNullable(result));
       });
     });
+    handlersVersion.incrementAndGet();
+  }
+
+  @Override
+  public <T> void registerHandler(
+      String type,
+      Function<ByteBuffer, T> decoder,
+      BiFunction<Address, T, CompletableFuture<PayloadWriter>> handler) {
+    handlers.put(type, (message, connection) -> {
+      final T request;
+      try {
+        request = decoder.apply(message.payloadBuffer().nioBuffer());
+      } catch (Exception e) {
+        log.warn("An error occurred in a message handler: {}", e);
+        connection.reply(message, InternalReply.Status.ERROR_HANDLER_EXCEPTION, Unpooled.EMPTY_BUFFER);
+        return;
+      }
+
+      handler.apply(message.sender(), request).whenComplete((result, error) -> {
+        InternalReply.Status status = InternalReply.Status.OK;
+        ByteBuf payload = Unpooled.EMPTY_BUFFER;
+        if (error == null) {
+          if (result != null) {
+            try {
+              payload = writePayload(result);
+            } catch (Exception e) {
+              log.warn("An error occurred in a message handler: {}", e);
+              status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
+            }
+          }
+        } else {
+          log.warn("An error occurred in a message handler: {}", error);
+          status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
+        }
+        connection.reply(message, status, payload);
+      });
+    });
+    handlersVersion.incrementAndGet();
   }
 
   @Override
   public void unregisterHandler(String type) {
     handlers.remove(type);
+    handlersVersion.incrementAndGet();
   }
 
   private Bootstrap bootstrapClient(Address address) {
@@ -557,10 +762,10 @@ public class NettyMessagingService implements ManagedMessagingService {
     bootstrap.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
     bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK,
         new WriteBufferWaterMark(10 * 32 * 1024, 10 * 64 * 1024));
-    bootstrap.option(ChannelOption.SO_RCVBUF, 1024 * 1024);
-    bootstrap.option(ChannelOption.SO_SNDBUF, 1024 * 1024);
+    bootstrap.option(ChannelOption.SO_RCVBUF, config.getReceiveBufferSize());
+    bootstrap.option(ChannelOption.SO_SNDBUF, config.getSendBufferSize());
     bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
-    bootstrap.option(ChannelOption.TCP_NODELAY, true);
+    bootstrap.option(ChannelOption.TCP_NODELAY, config.isTcpNoDelay());
     bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 1000);
     bootstrap.group(clientGroup);
     // TODO: Make this faster:
@@ -580,12 +785,15 @@ public class NettyMessagingService implements ManagedMessagingService {
     ServerBootstrap b = new ServerBootstrap();
     b.option(ChannelOption.SO_REUSEADDR, true);
     b.option(ChannelOption.SO_BACKLOG, 128);
+    if (epoll && config.isReusePort()) {
+      b.option(EpollChannelOption.SO_REUSEPORT, true);
+    }
     b.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK,
         new WriteBufferWaterMark(8 * 1024, 32 * 1024));
-    b.childOption(ChannelOption.SO_RCVBUF, 1024 * 1024);
-    b.childOption(ChannelOption.SO_SNDBUF, 1024 * 1024);
+    b.childOption(ChannelOption.SO_RCVBUF, config.getReceiveBufferSize());
+    b.childOption(ChannelOption.SO_SNDBUF, config.getSendBufferSize());
     b.childOption(ChannelOption.SO_KEEPALIVE, true);
-    b.childOption(ChannelOption.TCP_NODELAY, true);
+    b.childOption(ChannelOption.TCP_NODELAY, config.isTcpNoDelay());
     b.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
     b.group(serverGroup, clientGroup);
     b.channel(serverChannelClass);
@@ -666,7 +874,8 @@ public class NettyMessagingService implements ManagedMessagingService {
       serverSslEngine.setEnableSessionCreation(true);
 
       channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(serverSslEngine))
-          .addLast("encoder", new MessageEncoder(localAddress, preamble))
+          .addLast("encoder", new MessageEncoder(localAddress, preamble, compression))
+          .addLast("flush", newFlushHandler())
           .addLast("decoder", new MessageDecoder())
           .addLast("handler", dispatcher);
     }
@@ -691,7 +900,8 @@ public class NettyMessagingService implements ManagedMessagingService {
       clientSslEngine.setEnableSessionCreation(true);
 
       channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(clientSslEngine))
-          .addLast("encoder", new MessageEncoder(localAddress, preamble))
+          .addLast("encoder", new MessageEncoder(localAddress, preamble, compression))
+          .addLast("flush", newFlushHandler())
           .addLast("decoder", new MessageDecoder())
           .addLast("handler", dispatcher);
     }
@@ -706,12 +916,20 @@ public class NettyMessagingService implements ManagedMessagingService {
     @Override
     protected void initChannel(SocketChannel channel) throws Exception {
       channel.pipeline()
-          .addLast("encoder", new MessageEncoder(localAddress, preamble))
+          .addLast("encoder", new MessageEncoder(localAddress, preamble, compression))
+          .addLast("flush", newFlushHandler())
           .addLast("decoder", new MessageDecoder())
           .addLast("handler", dispatcher);
     }
   }
 
+  /**
+   * Returns a new handler for coalescing flushes on a channel.
+   */
+  private FlushCoalescingHandler newFlushHandler() {
+    return new FlushCoalescingHandler(config.getMaxFlushDelay().toNanos(), config.getMaxFlushBytes());
+  }
+
   /**
    * Channel inbound handler that dispatches messages to the appropriate handler.
    */
@@ -785,20 +1003,45 @@ public class NettyMessagingService implements ManagedMessagingService {
   /**
    * Wraps a {@link CompletableFuture} and tracks its type and creation time.
    */
-  private static final class Callback {
+  private static final class Callback<T> {
     private final String type;
     private final long timeout;
-    private final CompletableFuture<byte[]> future;
+    private final CompletableFuture<T> future;
+    private final Function<ByteBuf, T> decoder;
     private final long time = System.currentTimeMillis();
 
-    Callback(String type, Duration timeout, CompletableFuture<byte[]> future) {
+    Callback(String type, Duration timeout, CompletableFuture<T> future, Function<ByteBuf, T> decoder) {
       this.type = type;
       this.timeout = timeout != null ? timeout.toMillis() : 0;
       this.future = future;
+      this.decoder = decoder;
     }
 
-    public void complete(byte[] value) {
-      future.complete(value);
+    /**
+     * Completes the callback with the given reply.
+     * <p>
+     * The reply payload is decoded on the calling thread and is not retained by the callback.
+     *
+     * @param status  the reply status
+     * @param payload the reply payload
+     */
+    public void complete(InternalReply.Status status, ByteBuf payload) {
+      if (status == InternalReply.Status.OK) {
+        final T value;
+        try {
+          value = decoder.apply(payload);
+        } catch (Exception e) {
+          future.completeExceptionally(new MessagingException("Failed to decode reply", e));
+          return;
+        }
+        future.complete(value);
+      } else if (status == InternalReply.Status.ERROR_NO_HANDLER) {
+        future.completeExceptionally(new MessagingException.NoRemoteHandler());
+      } else if (status == InternalReply.Status.ERROR_HANDLER_EXCEPTION) {
+        future.completeExceptionally(new MessagingException.RemoteHandlerFailure());
+      } else if (status == InternalReply.Status.PROTOCOL_EXCEPTION) {
+        future.completeExceptionally(new MessagingException.ProtocolException());
+      }
     }
 
     public void completeExceptionally(Throwable error) {
@@ -823,10 +1066,12 @@ public class NettyMessagingService implements ManagedMessagingService {
      * Sends a message to the other side of the connection, awaiting a reply.
      *
      * @param message the message to send
+     * @param decoder the reply payload decoder
      * @param timeout the response timeout
+     * @param <T>     the reply type
      * @return a completable future to be completed once a reply is received or the request times out
      */
-    CompletableFuture<byte[]> sendAndReceive(InternalRequest message, Duration timeout);
+    <T> CompletableFuture<T> sendAndReceive(InternalRequest message, Function<ByteBuf, T> decoder, Duration timeout);
 
     /**
      * Closes the connection.
@@ -847,7 +1092,20 @@ public class NettyMessagingService implements ManagedMessagingService {
      * @param status  the reply status
      * @param payload the response payload
      */
-    void reply(InternalRequest message, InternalReply.Status status, Optional<byte[]> payload);
+    default void reply(InternalRequest message, InternalReply.Status status, Optional<byte[]> payload) {
+      reply(message, status, payload.map(Unpooled::wrappedBuffer).orElse(Unpooled.EMPTY_BUFFER));
+    }
+
+    /**
+     * Sends a reply to the other side of the connection.
+     * <p>
+     * Ownership of the payload buffer is transferred to the connection.
+     *
+     * @param message the message to which to reply
+     * @param status  the reply status
+     * @param payload the response payload buffer
+     */
+    void reply(InternalRequest message, InternalReply.Status status, ByteBuf payload);
 
     /**
      * Closes the connection.
@@ -863,7 +1121,7 @@ public class NettyMessagingService implements ManagedMessagingService {
     private final Cache<String, RequestMonitor> requestMonitors = CacheBuilder.newBuilder()
         .expireAfterAccess(HISTORY_EXPIRE_MILLIS, TimeUnit.MILLISECONDS)
         .build();
-    final Map<Long, Callback> futures = Maps.newConcurrentMap();
+    final Map<Long, Callback<?>> futures = Maps.newConcurrentMap();
     final AtomicBoolean closed = new AtomicBoolean(false);
 
     /**
@@ -875,9 +1133,9 @@ public class NettyMessagingService implements ManagedMessagingService {
 
       // Iterate through future callbacks and time out callbacks that have been alive
       // longer than the current timeout according to the message type.
-      Iterator<Map.Entry<Long, Callback>> iterator = futures.entrySet().iterator();
+      Iterator<Map.Entry<Long, Callback<?>>> iterator = futures.entrySet().iterator();
       while (iterator.hasNext()) {
-        Callback callback = iterator.next().getValue();
+        Callback<?> callback = iterator.next().getValue();
         try {
           RequestMonitor requestMonitor = requestMonitors.get(callback.type, RequestMonitor::new);
           long elapsedTime = currentTime - callback.time;
@@ -894,12 +1152,15 @@ public class NettyMessagingService implements ManagedMessagingService {
       }
     }
 
-    protected void registerCallback(long id, String subject, Duration timeout, CompletableFuture<byte[]> future) {
-      futures.put(id, new Callback(subject, timeout, future));
+    protected <T> Callback<T> registerCallback(
+        long id, String subject, Duration timeout, CompletableFuture<T> future, Function<ByteBuf, T> decoder) {
+      Callback<T> callback = new Callback<>(subject, timeout, future, decoder);
+      futures.put(id, callback);
+      return callback;
     }
 
-    protected Callback completeCallback(long id) {
-      Callback callback = futures.remove(id);
+    protected Callback<?> completeCallback(long id) {
+      Callback<?> callback = futures.remove(id);
       if (callback != null) {
         try {
           RequestMonitor requestMonitor = requestMonitors.get(callback.type, RequestMonitor::new);
@@ -911,14 +1172,23 @@ public class NettyMessagingService implements ManagedMessagingService {
       return callback;
     }
 
-    protected Callback failCallback(long id) {
+    protected Callback<?> failCallback(long id) {
       return futures.remove(id);
     }
 
+    /**
+     * Returns the number of requests awaiting a response on this connection.
+     *
+     * @return the number of requests awaiting a response
+     */
+    int pending() {
+      return futures.size();
+    }
+
     @Override
     public void close() {
       if (closed.compareAndSet(false, true)) {
-        for (Callback callback : futures.values()) {
+        for (Callback<?> callback : futures.values()) {
           callback.completeExceptionally(new ConnectException());
         }
       }
@@ -932,28 +1202,37 @@ public class NettyMessagingService implements ManagedMessagingService {
     @Override
     public CompletableFuture<Void> sendAsync(InternalRequest message) {
       BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
-      if (handler != null) {
-        log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
-        handler.accept(message, localServerConnection);
-      } else {
-        log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
+      try {
+        if (handler != null) {
+          log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
+          handler.accept(message, localServerConnection);
+        } else {
+          log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
+        }
+      } finally {
+        message.release();
       }
       return CompletableFuture.completedFuture(null);
     }
 
     @Override
-    public CompletableFuture<byte[]> sendAndReceive(InternalRequest message, Duration timeout) {
-      CompletableFuture<byte[]> future = new CompletableFuture<>();
+    public <T> CompletableFuture<T> sendAndReceive(
+        InternalRequest message, Function<ByteBuf, T> decoder, Duration timeout) {
+      CompletableFuture<T> future = new CompletableFuture<>();
       future.whenComplete((r, e) -> completeCallback(message.id()));
-      registerCallback(message.id(), message.subject(), timeout, future);
+      Callback<T> callback = registerCallback(message.id(), message.subject(), timeout, future, decoder);
       BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
-      if (handler != null) {
-        log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
-        handler.accept(message, new LocalServerConnection(future));
-      } else {
-        log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
-        new LocalServerConnection(future)
-            .reply(message, InternalReply.Status.ERROR_NO_HANDLER, Optional.empty());
+      try {
+        if (handler != null) {
+          log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
+          handler.accept(message, new LocalServerConnection(callback));
+        } else {
+          log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
+          new LocalServerConnection(callback)
+              .reply(message, InternalReply.Status.ERROR_NO_HANDLER, Optional.empty());
+        }
+      } finally {
+        message.release();
       }
       return future;
     }
@@ -963,24 +1242,20 @@ public class NettyMessagingService implements ManagedMessagingService {
    * Local server connection.
    */
   private static final class LocalServerConnection implements ServerConnection {
-    private final CompletableFuture<byte[]> future;
+    private final Callback<?> callback;
 
-    LocalServerConnection(CompletableFuture<byte[]> future) {
-      this.future = future;
+    LocalServerConnection(Callback<?> callback) {
+      this.callback = callback;
     }
 
     @Override
-    public void reply(InternalRequest message, InternalReply.Status status, Optional<byte[]> payload) {
-      if (future != null) {
-        if (status == InternalReply.Status.OK) {
-          future.complete(payload.orElse(EMPTY_PAYLOAD));
-        } else if (status == InternalReply.Status.ERROR_NO_HANDLER) {
-          future.completeExceptionally(new MessagingException.NoRemoteHandler());
-        } else if (status == InternalReply.Status.ERROR_HANDLER_EXCEPTION) {
-          future.completeExceptionally(new MessagingException.RemoteHandlerFailure());
-        } else if (status == InternalReply.Status.PROTOCOL_EXCEPTION) {
-          future.completeExceptionally(new MessagingException.ProtocolException());
+    public void reply(InternalRequest message, InternalReply.Status status, ByteBuf payload) {
+      try {
+        if (callback != null) {
+          callback.complete(status, payload);
         }
+      } finally {
+        payload.release();
       }
     }
   }
@@ -1009,12 +1284,13 @@ public class NettyMessagingService implements ManagedMessagingService {
     }
 
     @Override
-    public CompletableFuture<byte[]> sendAndReceive(InternalRequest message, Duration timeout) {
-      CompletableFuture<byte[]> future = new CompletableFuture<>();
-      registerCallback(message.id(), message.subject(), timeout, future);
+    public <T> CompletableFuture<T> sendAndReceive(
+        InternalRequest message, Function<ByteBuf, T> decoder, Duration timeout) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      registerCallback(message.id(), message.subject(), timeout, future, decoder);
       channel.writeAndFlush(message).addListener(channelFuture -> {
         if (!channelFuture.isSuccess()) {
-          Callback callback = failCallback(message.id());
+          Callback<?> callback = failCallback(message.id());
           if (callback != null) {
             callback.completeExceptionally(channelFuture.cause());
           }
@@ -1034,17 +1310,9 @@ public class NettyMessagingService implements ManagedMessagingService {
         return;
       }
 
-      Callback callback = completeCallback(message.id());
+      Callback<?> callback = completeCallback(message.id());
       if (callback != null) {
-        if (message.status() == InternalReply.Status.OK) {
-          callback.complete(message.payload());
-        } else if (message.status() == InternalReply.Status.ERROR_NO_HANDLER) {
-          callback.completeExceptionally(new MessagingException.NoRemoteHandler());
-        } else if (message.status() == InternalReply.Status.ERROR_HANDLER_EXCEPTION) {
-          callback.completeExceptionally(new MessagingException.RemoteHandlerFailure());
-        } else if (message.status() == InternalReply.Status.PROTOCOL_EXCEPTION) {
-          callback.completeExceptionally(new MessagingException.ProtocolException());
-        }
+        callback.complete(message.status(), message.payloadBuffer());
       } else {
         log.debug("Received a reply for message id:[{}] "
             + "but was unable to locate the"
@@ -1056,7 +1324,7 @@ public class NettyMessagingService implements ManagedMessagingService {
     public void close() {
       if (closed.compareAndSet(false, true)) {
         timeoutFuture.cancel(false);
-        for (Callback callback : futures.values()) {
+        for (Callback<?> callback : futures.values()) {
           callback.completeExceptionally(new ConnectException());
         }
       }
@@ -1069,10 +1337,49 @@ public class NettyMessagingService implements ManagedMessagingService {
   private final class RemoteServerConnection implements ServerConnection {
     private final Channel channel;
 
+    // Handlers indexed by the connection-local subject ID. The cache is only accessed from the channel's event loop
+    // and is invalidated whenever a handler is registered or unregistered.
+    @SuppressWarnings("unchecked")
+    private BiConsumer<InternalRequest, ServerConnection>[] handlerCache = new BiConsumer[16];
+    private int handlerCacheVersion;
+
     RemoteServerConnection(Channel channel) {
       this.channel = channel;
     }
 
+    /**
+     * Returns the handler for the given message.
+     * <p>
+     * Messages with an interned subject are resolved by subject ID through the connection's handler cache, falling
+     * back to a lookup by subject name only on the first message for each subject.
+     *
+     * @param message the message for which to return the handler
+     * @return the message handler or {@code null} if no handler is registered for the message subject
+     */
+    private BiConsumer<InternalRequest, ServerConnection> getHandler(InternalRequest message) {
+      final int subjectId = message.subjectId();
+      if (subjectId == 0) {
+        return handlers.get(message.subject());
+      }
+
+      // Read the version before the handlers to ensure concurrent registrations invalidate the cached entry.
+      final int version = handlersVersion.get();
+      if (version != handlerCacheVersion) {
+        Arrays.fill(handlerCache, null);
+        handlerCacheVersion = version;
+      }
+      if (subjectId >= handlerCache.length) {
+        handlerCache = Arrays.copyOf(handlerCache, Math.max(subjectId + 1, handlerCache.length * 2));
+      }
+
+      BiConsumer<InternalRequest, ServerConnection> handler = handlerCache[subjectId];
+      if (handler == null) {
+        handler = handlers.get(message.subject());
+        handlerCache[subjectId] = handler;
+      }
+      return handler;
+    }
+
     /**
      * Dispatches a message to a local handler.
      *
@@ -1085,7 +1392,7 @@ public class NettyMessagingService implements ManagedMessagingService {
         return;
       }
 
-      BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
+      BiConsumer<InternalRequest, ServerConnection> handler = getHandler(message);
       if (handler != null) {
         log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
         handler.accept(message, this);
@@ -1096,10 +1403,10 @@ public class NettyMessagingService implements ManagedMessagingService {
     }
 
     @Override
-    public void reply(InternalRequest message, InternalReply.Status status, Optional<byte[]> payload) {
+    public void reply(InternalRequest message, InternalReply.Status status, ByteBuf payload) {
       InternalReply response = new InternalReply(preamble,
           message.id(),
-          payload.orElse(EMPTY_PAYLOAD),
+          payload,
           status);
       channel.writeAndFlush(response, channel.voidPromise());
     }
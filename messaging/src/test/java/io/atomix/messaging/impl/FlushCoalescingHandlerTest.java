@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.messaging.impl;
+
+import io.atomix.utils.net.Address;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Flush coalescing handler test.
+ */
+public class FlushCoalescingHandlerTest {
+  private static final Address ADDRESS = Address.from("127.0.0.1", 5000);
+
+  private InternalRequest newRequest(long id, int size) {
+    return new InternalRequest(1, id, ADDRESS, "test", new byte[size]);
+  }
+
+  @Test
+  public void testFlushOncePerTick() throws Exception {
+    FlushRecorder recorder = new FlushRecorder();
+    EmbeddedChannel channel = new EmbeddedChannel(recorder, new FlushCoalescingHandler(0, 1024 * 1024));
+    channel.pipeline().writeAndFlush(newRequest(1, 10));
+    channel.pipeline().writeAndFlush(newRequest(2, 10));
+    channel.pipeline().writeAndFlush(newRequest(3, 10));
+    assertEquals(3, recorder.writes.size());
+    assertEquals(0, recorder.flushes);
+
+    channel.runPendingTasks();
+    assertEquals(1, recorder.flushes);
+    channel.runPendingTasks();
+    assertEquals(1, recorder.flushes);
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void testFlushOnMaxBytes() throws Exception {
+    FlushRecorder recorder = new FlushRecorder();
+    EmbeddedChannel channel = new EmbeddedChannel(recorder, new FlushCoalescingHandler(0, 1024));
+    channel.pipeline().writeAndFlush(newRequest(1, 512));
+    assertEquals(0, recorder.flushes);
+    channel.pipeline().writeAndFlush(newRequest(2, 512));
+    assertEquals(1, recorder.flushes);
+
+    // The scheduled flush has nothing left to flush.
+    channel.runPendingTasks();
+    assertEquals(1, recorder.flushes);
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void testFlushAfterDelay() throws Exception {
+    FlushRecorder recorder = new FlushRecorder();
+    EmbeddedChannel channel = new EmbeddedChannel(
+        recorder, new FlushCoalescingHandler(TimeUnit.MILLISECONDS.toNanos(50), 1024 * 1024));
+    channel.pipeline().writeAndFlush(newRequest(1, 10));
+    channel.runPendingTasks();
+    assertEquals(0, recorder.flushes);
+
+    Thread.sleep(100);
+    channel.runScheduledPendingTasks();
+    assertEquals(1, recorder.flushes);
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void testFlushOnClose() throws Exception {
+    FlushRecorder recorder = new FlushRecorder();
+    EmbeddedChannel channel = new EmbeddedChannel(
+        recorder, new FlushCoalescingHandler(TimeUnit.SECONDS.toNanos(10), 1024 * 1024));
+    channel.pipeline().writeAndFlush(newRequest(1, 10));
+    assertEquals(0, recorder.flushes);
+    channel.close();
+    assertEquals(1, recorder.flushes);
+    channel.finishAndReleaseAll();
+  }
+
+  /**
+   * Outbound handler that records writes and flushes without passing them on.
+   */
+  private static class FlushRecorder extends ChannelOutboundHandlerAdapter {
+    private final List<Object> writes = new ArrayList<>();
+    private int flushes;
+
+    @Override
+    public void write(ChannelHandlerContext context, Object message, ChannelPromise promise) throws Exception {
+      writes.add(message);
+      promise.setSuccess();
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext context) throws Exception {
+      flushes++;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.messaging.impl;
+
+import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message encoder/decoder benchmark.
+ * <p>
+ * Measures the cost of encoding and decoding requests over a single connection. Once the subject has been interned
+ * by the first message, subsequent requests carry only the varint subject ID. Payloads larger than
+ * {@link MessageEncoder#MAX_INLINE_PAYLOAD_SIZE} are written as a separate buffer following the header and decoded as
+ * a slice of the inbound buffer, so neither side copies them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCodecBenchmark {
+  private static final int PREAMBLE = 1;
+
+  @Param({"raft-partition-1-append", "raft-partition-group-system-partition-1-heartbeat"})
+  private String subject;
+
+  @Param({"0", "128", "1024", "65536"})
+  private int payloadSize;
+
+  private Address address;
+  private byte[] payload;
+  private EmbeddedChannel encoder;
+  private EmbeddedChannel decoder;
+  private long messageId;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    address = Address.from("127.0.0.1", 5000);
+    payload = new byte[payloadSize];
+    encoder = new EmbeddedChannel(new MessageEncoder(address, PREAMBLE));
+    decoder = new EmbeddedChannel(new MessageDecoder());
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    encoder.finishAndReleaseAll();
+    decoder.finishAndReleaseAll();
+  }
+
+  @Benchmark
+  public int encode() {
+    encoder.writeOutbound(new InternalRequest(PREAMBLE, ++messageId, address, subject, payload));
+    int size = 0;
+    ByteBuf buffer;
+    while ((buffer = encoder.readOutbound()) != null) {
+      size += buffer.readableBytes();
+      buffer.release();
+    }
+    return size;
+  }
+
+  @Benchmark
+  public int encodeDecode() {
+    encoder.writeOutbound(new InternalRequest(PREAMBLE, ++messageId, address, subject, payload));
+    ByteBuf buffer;
+    while ((buffer = encoder.readOutbound()) != null) {
+      decoder.writeInbound(buffer);
+    }
+    InternalRequest request = decoder.readInbound();
+    int size = request.payloadBuffer().readableBytes();
+    request.release();
+    return size;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(MessageCodecBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
@@ -1,12 +1,24 @@
 package io.atomix.messaging.impl;
 
+import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Message decoder test.
@@ -44,4 +56,194 @@ public class MessageDecoderTest {
             byteBuf.release();
         }
     }
+
+    @Test
+    public void testVarInt() throws Exception {
+        ByteBuf byteBuf = Unpooled.buffer();
+        try {
+            for (int value : new int[]{0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE}) {
+                MessageEncoder.writeVarInt(value, byteBuf);
+                assertEquals(value, MessageDecoder.readVarInt(byteBuf));
+            }
+            MessageEncoder.writeVarInt(16384, byteBuf);
+            byteBuf.writerIndex(byteBuf.writerIndex() - 1);
+            assertEquals(-1, MessageDecoder.readVarInt(byteBuf));
+            assertEquals(2, byteBuf.readableBytes());
+        } finally {
+            byteBuf.release();
+        }
+    }
+
+    @Test
+    public void testInternedSubjects() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessageEncoder(address, 1));
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+
+        String[] subjects = {"raft-partition-1-append", "raft-partition-1-append", "raft-partition-2-append", "raft-partition-1-append"};
+        int[] subjectIds = {1, 1, 2, 1};
+        for (int i = 0; i < subjects.length; i++) {
+            byte[] payload = ("message-" + i).getBytes(StandardCharsets.UTF_8);
+            assertTrue(encoder.writeOutbound(new InternalRequest(1, i, address, subjects[i], payload)));
+            ByteBuf encoded = encoder.readOutbound();
+
+            // Feed the decoder one byte at a time to exercise partial reads.
+            while (encoded.isReadable()) {
+                decoder.writeInbound(encoded.readRetainedSlice(1));
+            }
+            encoded.release();
+
+            InternalRequest request = decoder.readInbound();
+            assertEquals(subjects[i], request.subject());
+            assertEquals(subjectIds[i], request.subjectId());
+            assertEquals(i, request.id());
+            assertArrayEquals(payload, request.payload());
+        }
+        assertNull(decoder.readInbound());
+        encoder.finish();
+        decoder.finish();
+    }
+
+    @Test
+    public void testSubjectDictionaryOverflow() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessageEncoder(address, 1));
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+
+        for (int i = 0; i <= MessageEncoder.MAX_SUBJECTS; i++) {
+            encoder.writeOutbound(new InternalRequest(1, i, address, "subject-" + i, new byte[0]));
+            decoder.writeInbound((Object) encoder.readOutbound());
+            InternalRequest request = decoder.readInbound();
+            assertEquals("subject-" + i, request.subject());
+            assertEquals(i < MessageEncoder.MAX_SUBJECTS ? i + 1 : 0, request.subjectId());
+        }
+        encoder.finish();
+        decoder.finish();
+    }
+
+    @Test
+    public void testSubjectIdOutOfRange() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+        ByteBuf buffer = Unpooled.buffer();
+        buffer.writeByte(4).writeBytes(address.address().getAddress()).writeInt(address.port());
+        buffer.writeByte(0);
+        buffer.writeByte(InternalMessage.Type.REQUEST.id());
+        buffer.writeInt(1).writeLong(1);
+        MessageEncoder.writeVarInt((MessageEncoder.MAX_SUBJECTS + 1) << 1 | 1, buffer);
+        byte[] subject = "subject".getBytes(StandardCharsets.UTF_8);
+        buffer.writeShort(subject.length).writeBytes(subject);
+        buffer.writeInt(0);
+        decoder.writeInbound(buffer);
+
+        // The connection is closed rather than growing the subject table.
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.isOpen());
+    }
+
+    @Test
+    public void testLargePayloadIsNotCopied() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessageEncoder(address, 1));
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+
+        byte[] bytes = new byte[MessageEncoder.MAX_INLINE_PAYLOAD_SIZE * 4];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        ByteBuf payload = PooledByteBufAllocator.DEFAULT.directBuffer(bytes.length).writeBytes(bytes);
+        assertTrue(encoder.writeOutbound(new InternalReply(1, 1, payload, InternalReply.Status.OK)));
+
+        // The header and the payload are written as separate buffers, the payload being passed through as-is.
+        ByteBuf header = encoder.readOutbound();
+        ByteBuf body = encoder.readOutbound();
+        assertSame(payload, body);
+        assertNull(encoder.readOutbound());
+
+        ByteBuf inbound = Unpooled.wrappedBuffer(header, body);
+        decoder.writeInbound(inbound);
+        InternalReply reply = decoder.readInbound();
+        assertEquals(1, reply.id());
+        assertEquals(InternalReply.Status.OK, reply.status());
+        assertArrayEquals(bytes, ByteBufUtil.getBytes(reply.payloadBuffer()));
+        assertArrayEquals(bytes, reply.payload());
+
+        // The decoded payload is a slice of the inbound buffer which is retained until the message is released.
+        assertTrue(reply.release());
+        assertEquals(0, payload.refCnt());
+        encoder.finish();
+        decoder.finish();
+    }
+
+    @Test
+    public void testCompressedPayloads() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        CompressionPolicy compression = new CompressionPolicy(1024, Collections.singletonList(".*-install"));
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessageEncoder(address, 1, compression));
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; builder.length() < MessageCompressor.CHUNK_SIZE * 3; i++) {
+            builder.append("key-").append(i).append("=value-").append(i % 100).append(';');
+        }
+        byte[] compressible = builder.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] incompressible = new byte[4096];
+        new Random(0).nextBytes(incompressible);
+        byte[] small = Arrays.copyOf(compressible, 512);
+
+        // Only requests to matching subjects at or above the threshold are compressed.
+        assertTrue(encodedSize(encoder, decoder, "raft-partition-1-install", compressible) < compressible.length);
+        assertTrue(encodedSize(encoder, decoder, "raft-partition-1-append", compressible) > compressible.length);
+        assertTrue(encodedSize(encoder, decoder, "raft-partition-1-install", small) > small.length);
+
+        // Incompressible payloads are sent as-is.
+        assertTrue(encodedSize(encoder, decoder, "raft-partition-1-install", incompressible) > incompressible.length);
+
+        // Replies are compressed based on size alone.
+        assertTrue(encodedSize(encoder, decoder, new InternalReply(1, 2, compressible, InternalReply.Status.OK)) < compressible.length);
+
+        encoder.finish();
+        decoder.finish();
+    }
+
+    @Test
+    public void testCompressedPayloadWithoutCompressionFeature() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+        ByteBuf buffer = Unpooled.buffer();
+        buffer.writeByte(4).writeBytes(address.address().getAddress()).writeInt(address.port());
+        buffer.writeByte(0);
+        buffer.writeByte(InternalMessage.Type.REPLY.id() | MessageEncoder.TYPE_COMPRESSED);
+        decoder.writeInbound(buffer);
+
+        // The connection is closed if the sender didn't announce compression.
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.isOpen());
+    }
+
+    /**
+     * Encodes and decodes a request, returning the number of bytes written by the encoder.
+     */
+    private static int encodedSize(EmbeddedChannel encoder, EmbeddedChannel decoder, String subject, byte[] payload) {
+        return encodedSize(encoder, decoder, new InternalRequest(1, 1, Address.from("127.0.0.1", 5000), subject, payload));
+    }
+
+    /**
+     * Encodes and decodes a message, returning the number of bytes written by the encoder.
+     */
+    private static int encodedSize(EmbeddedChannel encoder, EmbeddedChannel decoder, InternalMessage message) {
+        byte[] payload = message.payload();
+        assertTrue(encoder.writeOutbound(message));
+        int size = 0;
+        ByteBuf encoded;
+        while ((encoded = encoder.readOutbound()) != null) {
+            size += encoded.readableBytes();
+            decoder.writeInbound(encoded);
+        }
+        InternalMessage decoded = decoder.readInbound();
+        assertEquals(message.type(), decoded.type());
+        assertArrayEquals(payload, decoded.payload());
+        decoded.release();
+        return size;
+    }
 }
@@ -17,7 +17,10 @@ package io.atomix.messaging.impl;
 
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
+import io.atomix.messaging.ChannelSelectionPolicy;
 import io.atomix.messaging.ManagedMessagingService;
+import io.atomix.messaging.MessagingConfig;
+import io.atomix.messaging.PayloadWriter;
 import io.atomix.utils.net.Address;
 import org.junit.After;
 import org.junit.Before;
@@ -29,7 +32,9 @@ import java.net.ConnectException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -143,6 +148,81 @@ public class NettyMessagingServiceTest {
     assertEquals(ep1, sender.get());
   }
 
+  @Test
+  public void testChannelSelectionPolicies() throws Exception {
+    String subject = nextSubject();
+    netty2.registerHandler(subject, (address, payload) -> CompletableFuture.completedFuture(payload));
+
+    for (ChannelSelectionPolicy policy : ChannelSelectionPolicy.values()) {
+      Address address = Address.from(findAvailablePort(5005));
+      ManagedMessagingService netty = (ManagedMessagingService) NettyMessagingService.builder()
+          .withAddress(address)
+          .withConfig(new MessagingConfig()
+              .setClientThreads(1)
+              .setServerThreads(1)
+              .setConnectionsPerPeer(3)
+              .setChannelSelectionPolicy(policy))
+          .build()
+          .start()
+          .join();
+      try {
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+          futures.add(netty.sendAndReceive(ep2, subject, String.valueOf(i).getBytes()));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+          assertTrue(Arrays.equals(String.valueOf(i).getBytes(), futures.get(i).join()));
+        }
+      } finally {
+        netty.stop().join();
+      }
+    }
+  }
+
+  @Test
+  public void testSendAndReceiveWithPayloadWriter() {
+    String subject = nextSubject();
+    byte[] payload = new byte[16 * 1024];
+    for (int i = 0; i < payload.length; i++) {
+      payload[i] = (byte) i;
+    }
+
+    netty2.<byte[]>registerHandler(subject, buffer -> {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return bytes;
+    }, (address, request) -> CompletableFuture.completedFuture(output -> {
+      output.write(request.length >>> 8);
+      output.write(request);
+    }));
+
+    PayloadWriter writer = output -> output.write(payload);
+    byte[] response = netty1.<byte[]>sendAndReceive(ep2, subject, writer, buffer -> {
+      assertEquals(payload.length >>> 8, buffer.get());
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return bytes;
+    }, null, MoreExecutors.directExecutor()).join();
+    assertTrue(Arrays.equals(payload, response));
+
+    // Writer failures fail the send without affecting the connection.
+    CompletableFuture<byte[]> failure = netty1.sendAndReceive(ep2, subject, output -> {
+      throw new IOException();
+    }, buffer -> new byte[0], null, MoreExecutors.directExecutor());
+    try {
+      failure.join();
+      fail();
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof IOException);
+    }
+    assertTrue(Arrays.equals(payload, netty1.<byte[]>sendAndReceive(ep2, subject, writer, buffer -> {
+      buffer.get();
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return bytes;
+    }, null, MoreExecutors.directExecutor()).join()));
+  }
+
   @Test
   public void testSendTimeout() {
     String subject = nextSubject();
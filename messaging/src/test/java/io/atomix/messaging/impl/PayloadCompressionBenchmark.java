@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.messaging.impl;
+
+import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload compression benchmark.
+ * <p>
+ * Measures the CPU cost of compressing map snapshot chunks sent to {@code install} subjects against the number of
+ * bytes written to the wire. The snapshot payload mimics a serialized map: string keys, versions and small values
+ * drawn from a limited set, as is typical of primitive state. The {@code bytesIn} and {@code bytesOut} counters
+ * report the payload bytes encoded and the bytes written by the encoder respectively.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadCompressionBenchmark {
+  private static final int PREAMBLE = 1;
+  private static final String SUBJECT = "raft-partition-1-install";
+
+  @Param({"false", "true"})
+  private boolean compression;
+
+  @Param({"8192", "65536", "1048576"})
+  private int snapshotSize;
+
+  private Address address;
+  private byte[] snapshot;
+  private EmbeddedChannel encoder;
+  private EmbeddedChannel decoder;
+  private long messageId;
+
+  /**
+   * Bytes counters.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Bytes {
+    public long bytesIn;
+    public long bytesOut;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      bytesIn = 0;
+      bytesOut = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    address = Address.from("127.0.0.1", 5000);
+    snapshot = createSnapshot(snapshotSize);
+    CompressionPolicy policy = compression ? new CompressionPolicy(0, Collections.emptyList()) : null;
+    encoder = new EmbeddedChannel(new MessageEncoder(address, PREAMBLE, policy));
+    decoder = new EmbeddedChannel(new MessageDecoder());
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    encoder.finishAndReleaseAll();
+    decoder.finishAndReleaseAll();
+  }
+
+  /**
+   * Creates a serialized map snapshot of the given size.
+   */
+  private static byte[] createSnapshot(int size) {
+    Random random = new Random(0);
+    ByteBuf buffer = Unpooled.buffer(size);
+    for (int i = 0; buffer.writerIndex() < size; i++) {
+      byte[] key = ("key-" + i).getBytes();
+      buffer.writeByte(key.length).writeBytes(key);
+      buffer.writeLong(i);
+      byte[] value = ("{\"status\":\"" + (random.nextBoolean() ? "ACTIVE" : "INACTIVE") + "\",\"owner\":\"node-"
+          + random.nextInt(5) + "\",\"count\":" + random.nextInt(1000) + "}").getBytes();
+      buffer.writeInt(value.length).writeBytes(value);
+    }
+    byte[] bytes = new byte[size];
+    buffer.readBytes(bytes);
+    buffer.release();
+    return bytes;
+  }
+
+  @Benchmark
+  public int encode(Bytes bytes) {
+    encoder.writeOutbound(new InternalRequest(PREAMBLE, ++messageId, address, SUBJECT, snapshot));
+    int size = 0;
+    ByteBuf buffer;
+    while ((buffer = encoder.readOutbound()) != null) {
+      size += buffer.readableBytes();
+      buffer.release();
+    }
+    bytes.bytesIn += snapshot.length;
+    bytes.bytesOut += size;
+    return size;
+  }
+
+  @Benchmark
+  public int encodeDecode(Bytes bytes) {
+    encoder.writeOutbound(new InternalRequest(PREAMBLE, ++messageId, address, SUBJECT, snapshot));
+    int size = 0;
+    ByteBuf buffer;
+    while ((buffer = encoder.readOutbound()) != null) {
+      size += buffer.readableBytes();
+      decoder.writeInbound(buffer);
+    }
+    InternalRequest request = decoder.readInbound();
+    request.release();
+    bytes.bytesIn += snapshot.length;
+    bytes.bytesOut += size;
+    return size;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(PayloadCompressionBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
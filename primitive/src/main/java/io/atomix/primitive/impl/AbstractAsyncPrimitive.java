@@ -26,6 +26,7 @@ import io.atomix.primitive.event.PrimitiveEvent;
 import io.atomix.primitive.operation.OperationId;
 import io.atomix.primitive.operation.PrimitiveOperation;
 import io.atomix.primitive.partition.PartitionId;
+import io.atomix.primitive.partition.Partitioner;
 import io.atomix.primitive.proxy.PartitionProxy;
 import io.atomix.primitive.proxy.PrimitiveProxy;
 import io.atomix.primitive.proxy.Proxy;
@@ -169,6 +170,18 @@ public abstract class AbstractAsyncPrimitive<A extends AsyncPrimitive> implement
     return getProxy().getPartition(key);
   }
 
+  /**
+   * Returns the partition for the given key using the given partitioner.
+   *
+   * @param key         the key for which to return the partition
+   * @param partitioner the partitioner with which to map the key to a partition
+   * @param <K>         the key type
+   * @return the partition proxy for the given key
+   */
+  protected <K> PartitionProxy getPartition(K key, Partitioner<K> partitioner) {
+    return getProxy().getPartition(key, partitioner);
+  }
+
   /**
    * Submits an empty operation to all partitions.
    *
@@ -15,6 +15,8 @@
  */
 package io.atomix.primitive.partition;
 
+import io.atomix.utils.misc.ByteArrayKey;
+
 import java.util.List;
 
 /**
@@ -30,6 +32,11 @@ public interface Partitioner<K> {
    */
   Partitioner<String> MURMUR3 = new Murmur3Partitioner();
 
+  /**
+   * Byte array key partitioner.
+   */
+  Partitioner<ByteArrayKey> BYTE_ARRAY_KEY = new ByteArrayKeyPartitioner();
+
   /**
    * Returns the partition ID to which the specified object maps.
    *
@@ -76,18 +76,18 @@ public class PrimaryElectorService extends AbstractPrimitiveService {
 
   @Override
   public void backup(BackupOutput writer) {
-    writer.writeObject(Sets.newHashSet(listeners.keySet()), SERIALIZER::encode);
-    writer.writeObject(elections, SERIALIZER::encode);
+    writer.writeObject(Sets.newHashSet(listeners.keySet()), SERIALIZER);
+    writer.writeObject(elections, SERIALIZER);
     getLogger().debug("Took state machine snapshot");
   }
 
   @Override
   public void restore(BackupInput reader) {
     listeners = new LinkedHashMap<>();
-    for (Long sessionId : reader.<Set<Long>>readObject(SERIALIZER::decode)) {
+    for (Long sessionId : reader.<Set<Long>>readObject(SERIALIZER)) {
       listeners.put(sessionId, getSessions().getSession(sessionId));
     }
-    elections = reader.readObject(SERIALIZER::decode);
+    elections = reader.readObject(SERIALIZER);
     elections.values().forEach(e -> e.elections = elections);
     getLogger().debug("Reinstated state machine from snapshot");
   }
@@ -16,6 +16,7 @@
 package io.atomix.primitive.proxy;
 
 import io.atomix.primitive.partition.PartitionId;
+import io.atomix.primitive.partition.Partitioner;
 
 import java.util.Collection;
 
@@ -54,4 +55,14 @@ public interface PrimitiveProxy extends Proxy<PrimitiveProxy> {
    */
   PartitionProxy getPartition(String key);
 
+  /**
+   * Returns the partition proxy for the given key using the given partitioner.
+   *
+   * @param key         the key for which to return the partition proxy
+   * @param partitioner the partitioner with which to map the key to a partition
+   * @param <K>         the key type
+   * @return the partition proxy for the given key
+   */
+  <K> PartitionProxy getPartition(K key, Partitioner<K> partitioner);
+
 }
@@ -100,6 +100,11 @@ public class PartitionedPrimitiveProxy implements PrimitiveProxy {
     return getPartition(partitioner.partition(key, partitionIds));
   }
 
+  @Override
+  public <K> PartitionProxy getPartition(K key, Partitioner<K> partitioner) {
+    return getPartition(partitioner.partition(key, partitionIds));
+  }
+
   @Override
   public void addStateChangeListener(Consumer<PartitionProxy.State> listener) {
     stateChangeListeners.add(listener);
@@ -37,7 +37,7 @@ public class DefaultBackupInput implements BackupInput {
 
   @Override
   public <U> U readObject() {
-    return input.readObject(bytes -> bytes != null ? serializer.decode(bytes) : null);
+    return input.readObject(serializer);
   }
 
   @Override
@@ -37,7 +37,7 @@ public class DefaultBackupOutput implements BackupOutput {
 
   @Override
   public <U> BackupOutput writeObject(U object) {
-    output.writeObject(object, o -> o != null ? serializer.encode(o) : null);
+    output.writeObject(object, serializer);
     return this;
   }
 
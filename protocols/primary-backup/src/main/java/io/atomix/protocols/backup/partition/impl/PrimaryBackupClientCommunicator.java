@@ -52,7 +52,7 @@ public class PrimaryBackupClientCommunicator implements PrimaryBackupClientProto
 
   private <T, U> CompletableFuture<U> sendAndReceive(String subject, T request, MemberId memberId) {
     CompletableFuture<U> future = new CompletableFuture<>();
-    clusterCommunicator.<T, U>send(subject, request, serializer::encode, serializer::decode, memberId).whenComplete((result, error) -> {
+    clusterCommunicator.<T, U>send(subject, request, serializer, memberId).whenComplete((result, error) -> {
       if (error == null) {
         future.complete(result);
       } else {
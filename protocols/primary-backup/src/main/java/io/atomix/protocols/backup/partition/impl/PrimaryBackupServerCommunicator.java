@@ -51,7 +51,7 @@ public class PrimaryBackupServerCommunicator implements PrimaryBackupServerProto
   }
 
   private <T, U> CompletableFuture<U> sendAndReceive(String subject, T request, MemberId memberId) {
-    return clusterCommunicator.send(subject, request, serializer::encode, serializer::decode, MemberId.from(memberId.id()));
+    return clusterCommunicator.send(subject, request, serializer, MemberId.from(memberId.id()));
   }
 
   @Override
@@ -66,12 +66,12 @@ public class PrimaryBackupServerCommunicator implements PrimaryBackupServerProto
 
   @Override
   public void event(MemberId memberId, SessionId session, PrimitiveEvent event) {
-    clusterCommunicator.unicast(context.eventSubject(session.id()), event, serializer::encode, memberId);
+    clusterCommunicator.unicast(context.eventSubject(session.id()), event, serializer, memberId);
   }
 
   @Override
   public void registerExecuteHandler(Function<ExecuteRequest, CompletableFuture<ExecuteResponse>> handler) {
-    clusterCommunicator.subscribe(context.executeSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.executeSubject, serializer, handler);
   }
 
   @Override
@@ -81,7 +81,7 @@ public class PrimaryBackupServerCommunicator implements PrimaryBackupServerProto
 
   @Override
   public void registerBackupHandler(Function<BackupRequest, CompletableFuture<BackupResponse>> handler) {
-    clusterCommunicator.subscribe(context.backupSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.backupSubject, serializer, handler);
   }
 
   @Override
@@ -91,7 +91,7 @@ public class PrimaryBackupServerCommunicator implements PrimaryBackupServerProto
 
   @Override
   public void registerRestoreHandler(Function<RestoreRequest, CompletableFuture<RestoreResponse>> handler) {
-    clusterCommunicator.subscribe(context.restoreSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.restoreSubject, serializer, handler);
   }
 
   @Override
@@ -101,7 +101,7 @@ public class PrimaryBackupServerCommunicator implements PrimaryBackupServerProto
 
   @Override
   public void registerCloseHandler(Function<CloseRequest, CompletableFuture<CloseResponse>> handler) {
-    clusterCommunicator.subscribe(context.closeSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.closeSubject, serializer, handler);
   }
 
   @Override
@@ -111,7 +111,7 @@ public class PrimaryBackupServerCommunicator implements PrimaryBackupServerProto
 
   @Override
   public void registerMetadataHandler(Function<MetadataRequest, CompletableFuture<MetadataResponse>> handler) {
-    clusterCommunicator.subscribe(context.metadataSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.metadataSubject, serializer, handler);
   }
 
   @Override
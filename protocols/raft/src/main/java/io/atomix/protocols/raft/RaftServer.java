@@ -27,6 +27,9 @@ import io.atomix.protocols.raft.impl.DefaultRaftServer;
 import io.atomix.protocols.raft.protocol.RaftServerProtocol;
 import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.protocols.raft.storage.log.RaftLog;
+import io.atomix.protocols.raft.utils.CompactionMonitor;
+import io.atomix.protocols.raft.utils.LeaseMonitor;
+import io.atomix.protocols.raft.utils.LoadMonitor;
 import io.atomix.storage.StorageLevel;
 import io.atomix.utils.concurrent.ThreadModel;
 
@@ -288,6 +291,36 @@ public interface RaftServer {
    */
   Role getRole();
 
+  /**
+   * Returns the server's read lease monitor.
+   * <p>
+   * The lease monitor counts {@link ReadConsistency#LINEARIZABLE_LEASE} queries served by this server while it was
+   * the leader, both those served under the leader's read lease and those that fell back to contacting a majority
+   * of the cluster.
+   *
+   * @return The server's read lease monitor.
+   */
+  LeaseMonitor getLeaseMonitor();
+
+  /**
+   * Returns the server's load monitor.
+   * <p>
+   * The load monitor counts the operations applied by the server's state machine within a sliding window.
+   *
+   * @return The server's load monitor.
+   */
+  LoadMonitor getLoadMonitor();
+
+  /**
+   * Returns the server's compaction monitor.
+   * <p>
+   * The compaction monitor records the decisions made when scheduling snapshots and log compaction, along with the
+   * log growth rate, disk consumption rate and state machine idle ratio from which they were made.
+   *
+   * @return The server's compaction monitor.
+   */
+  CompactionMonitor getCompactionMonitor();
+
   /**
    * Returns whether the server is the leader.
    *
@@ -551,8 +584,10 @@ public interface RaftServer {
     private static final Duration DEFAULT_ELECTION_TIMEOUT = Duration.ofMillis(750);
     private static final Duration DEFAULT_HEARTBEAT_INTERVAL = Duration.ofMillis(250);
     private static final Duration DEFAULT_SESSION_TIMEOUT = Duration.ofMillis(5000);
+    private static final Duration DEFAULT_MAX_CLOCK_DRIFT = Duration.ofMillis(100);
     private static final ThreadModel DEFAULT_THREAD_MODEL = ThreadModel.SHARED_THREAD_POOL;
     private static final int DEFAULT_THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_APPLY_THREADS = 1;
 
     protected String name;
     protected MemberId localMemberId;
@@ -562,9 +597,12 @@ public interface RaftServer {
     protected Duration electionTimeout = DEFAULT_ELECTION_TIMEOUT;
     protected Duration heartbeatInterval = DEFAULT_HEARTBEAT_INTERVAL;
     protected Duration sessionTimeout = DEFAULT_SESSION_TIMEOUT;
+    protected Duration maxClockDrift = DEFAULT_MAX_CLOCK_DRIFT;
     protected PrimitiveTypeRegistry primitiveTypes = new PrimitiveTypeRegistry();
     protected ThreadModel threadModel = DEFAULT_THREAD_MODEL;
     protected int threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
+    protected int applyThreads = DEFAULT_APPLY_THREADS;
+    protected boolean learner;
 
     protected Builder(MemberId localMemberId) {
       this.localMemberId = checkNotNull(localMemberId, "localMemberId cannot be null");
@@ -711,6 +749,25 @@ public interface RaftServer {
       return this;
     }
 
+    /**
+     * Sets the maximum clock drift between servers, returning the Raft configuration for method chaining.
+     * <p>
+     * The leader serves {@link ReadConsistency#LINEARIZABLE_LEASE} queries without contacting a majority of the
+     * cluster only for the election timeout less the maximum clock drift after a heartbeat is acknowledged by a
+     * majority of the cluster. Once the lease has expired, queries fall back to {@link ReadConsistency#LINEARIZABLE}.
+     *
+     * @param maxClockDrift The maximum clock drift.
+     * @return The server builder.
+     * @throws IllegalArgumentException If the clock drift is negative
+     * @throws NullPointerException     if {@code maxClockDrift} is null
+     */
+    public Builder withMaxClockDrift(Duration maxClockDrift) {
+      checkNotNull(maxClockDrift, "maxClockDrift cannot be null");
+      checkArgument(!maxClockDrift.isNegative(), "maxClockDrift must not be negative");
+      this.maxClockDrift = maxClockDrift;
+      return this;
+    }
+
     /**
      * Sets the server thread pool size.
      *
@@ -722,5 +779,38 @@ public interface RaftServer {
       this.threadPoolSize = threadPoolSize;
       return this;
     }
+
+    /**
+     * Sets the number of threads on which services are applied.
+     * <p>
+     * By default, all services are applied sequentially on a single state machine thread. When more than one thread
+     * is configured, services are hashed across the given number of threads and commands and queries for independent
+     * services may be applied in parallel. Entries that may affect any service, such as session and configuration
+     * changes, are applied only once all prior entries have been applied by all threads.
+     *
+     * @param applyThreads The number of threads on which services are applied.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    public Builder withApplyThreads(int applyThreads) {
+      checkArgument(applyThreads > 0, "applyThreads must be positive");
+      this.applyThreads = applyThreads;
+      return this;
+    }
+
+    /**
+     * Sets whether the server is a learner.
+     * <p>
+     * A learner is a non-voting member that serves linearizable queries locally while it's in the
+     * {@link Role#PASSIVE passive} role, confirming its read index with the leader rather than forwarding the queries
+     * to the leader. Other passive members forward linearizable queries to the leader.
+     *
+     * @param learner Whether the server is a learner.
+     * @return The server builder.
+     */
+    public Builder withLearner(boolean learner) {
+      this.learner = learner;
+      return this;
+    }
   }
 }
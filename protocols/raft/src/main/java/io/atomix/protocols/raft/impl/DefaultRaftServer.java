@@ -20,6 +20,9 @@ import io.atomix.primitive.service.PrimitiveService;
 import io.atomix.protocols.raft.RaftServer;
 import io.atomix.protocols.raft.cluster.RaftCluster;
 import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.utils.CompactionMonitor;
+import io.atomix.protocols.raft.utils.LeaseMonitor;
+import io.atomix.protocols.raft.utils.LoadMonitor;
 import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.logging.ContextualLoggerFactory;
 import io.atomix.utils.logging.LoggerContext;
@@ -68,6 +71,21 @@ public class DefaultRaftServer implements RaftServer {
     return context.getRole();
   }
 
+  @Override
+  public LeaseMonitor getLeaseMonitor() {
+    return context.getLeaseMonitor();
+  }
+
+  @Override
+  public LoadMonitor getLoadMonitor() {
+    return context.getLoadMonitor();
+  }
+
+  @Override
+  public CompactionMonitor getCompactionMonitor() {
+    return context.getCompactionMonitor();
+  }
+
   @Override
   public void addRoleChangeListener(Consumer<Role> listener) {
     context.addRoleChangeListener(listener);
@@ -238,10 +256,13 @@ public class DefaultRaftServer implements RaftServer {
         storage = RaftStorage.builder().build();
       }
 
-      RaftContext raft = new RaftContext(name, localMemberId, membershipService, protocol, storage, primitiveTypes, threadModel, threadPoolSize);
+      RaftContext raft = new RaftContext(
+          name, localMemberId, membershipService, protocol, storage, primitiveTypes, threadModel, threadPoolSize, applyThreads);
       raft.setElectionTimeout(electionTimeout);
       raft.setHeartbeatInterval(heartbeatInterval);
       raft.setSessionTimeout(sessionTimeout);
+      raft.setMaxClockDrift(maxClockDrift);
+      raft.setLearner(learner);
 
       return new DefaultRaftServer(raft);
     }
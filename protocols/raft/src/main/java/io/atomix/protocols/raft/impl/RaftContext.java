@@ -41,7 +41,10 @@ import io.atomix.protocols.raft.storage.log.RaftLogReader;
 import io.atomix.protocols.raft.storage.log.RaftLogWriter;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotStore;
 import io.atomix.protocols.raft.storage.system.MetaStore;
+import io.atomix.protocols.raft.utils.CompactionMonitor;
+import io.atomix.protocols.raft.utils.LeaseMonitor;
 import io.atomix.protocols.raft.utils.LoadMonitor;
+import io.atomix.protocols.raft.utils.PrioritizedThreadContext;
 import io.atomix.utils.concurrent.SingleThreadContext;
 import io.atomix.utils.concurrent.ThreadContext;
 import io.atomix.utils.concurrent.ThreadContextFactory;
@@ -51,8 +54,12 @@ import io.atomix.utils.logging.LoggerContext;
 import org.slf4j.Logger;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
@@ -79,7 +86,7 @@ public class RaftContext implements AutoCloseable {
   private final Set<Consumer<State>> stateChangeListeners = new CopyOnWriteArraySet<>();
   private final Set<Consumer<RaftMember>> electionListeners = new CopyOnWriteArraySet<>();
   protected final String name;
-  protected final ThreadContext threadContext;
+  protected final PrioritizedThreadContext threadContext;
   protected final PrimitiveTypeRegistry primitiveTypes;
   protected final ClusterMembershipService membershipService;
   protected final RaftClusterContext cluster;
@@ -88,27 +95,34 @@ public class RaftContext implements AutoCloseable {
   protected final RaftServiceRegistry services = new RaftServiceRegistry();
   protected final RaftSessionRegistry sessions = new RaftSessionRegistry();
   private final LoadMonitor loadMonitor;
+  private final LeaseMonitor leaseMonitor = new LeaseMonitor();
+  private final CompactionMonitor compactionMonitor = new CompactionMonitor();
   private volatile State state = State.ACTIVE;
   private final MetaStore meta;
   private final RaftLog raftLog;
   private final RaftLogWriter logWriter;
   private final RaftLogReader logReader;
+  private final RaftLogFlusher logFlusher;
   private final SnapshotStore snapshotStore;
   private final RaftServiceManager stateMachine;
   private final ThreadContextFactory threadContextFactory;
   private final ThreadContext loadContext;
   private final ThreadContext stateContext;
+  private final List<ThreadContext> serviceContexts = new ArrayList<>();
   private final ThreadContext compactionContext;
   protected RaftRole role = new InactiveRole(this);
   private Duration electionTimeout = Duration.ofMillis(500);
   private Duration heartbeatInterval = Duration.ofMillis(150);
   private Duration sessionTimeout = Duration.ofMillis(5000);
+  private Duration maxClockDrift = Duration.ofMillis(100);
+  private boolean learner;
   private volatile MemberId leader;
   private volatile long term;
   private MemberId lastVotedFor;
   private long commitIndex;
   private volatile long firstCommitIndex;
   private volatile long lastApplied;
+  private final TreeMap<Long, CompletableFuture<Long>> appliedFutures = new TreeMap<>();
 
   @SuppressWarnings("unchecked")
   public RaftContext(
@@ -119,7 +133,8 @@ public class RaftContext implements AutoCloseable {
       RaftStorage storage,
       PrimitiveTypeRegistry primitiveTypes,
       ThreadModel threadModel,
-      int threadPoolSize) {
+      int threadPoolSize,
+      int applyThreads) {
     this.name = checkNotNull(name, "name cannot be null");
     this.membershipService = checkNotNull(membershipService, "membershipService cannot be null");
     this.protocol = checkNotNull(protocol, "protocol cannot be null");
@@ -130,9 +145,14 @@ public class RaftContext implements AutoCloseable {
         .build());
 
     String baseThreadName = String.format("raft-server-%s", name);
-    this.threadContext = new SingleThreadContext(namedThreads(baseThreadName, log));
+    this.threadContext = new PrioritizedThreadContext(namedThreads(baseThreadName, log));
     this.loadContext = new SingleThreadContext(namedThreads(baseThreadName + "-load", log));
     this.stateContext = new SingleThreadContext(namedThreads(baseThreadName + "-state", log));
+    if (applyThreads > 1) {
+      for (int i = 0; i < applyThreads; i++) {
+        serviceContexts.add(new SingleThreadContext(namedThreads(baseThreadName + "-state-" + i, log)));
+      }
+    }
     this.compactionContext = new SingleThreadContext(namedThreads(baseThreadName + "-compaction", log));
 
     this.threadContextFactory = threadModel.factory(baseThreadName + "-%d", threadPoolSize, log);
@@ -151,11 +171,17 @@ public class RaftContext implements AutoCloseable {
     this.logWriter = raftLog.writer();
     this.logReader = raftLog.openReader(1, RaftLogReader.Mode.ALL);
 
+    // If entries are to be flushed on commit, flush them asynchronously on a dedicated log thread.
+    ThreadContext logContext = storage.isFlushOnCommit()
+        ? new SingleThreadContext(namedThreads(baseThreadName + "-log", log))
+        : null;
+    this.logFlusher = new RaftLogFlusher(logWriter, threadContext, logContext, log);
+
     // Open the snapshot store.
     this.snapshotStore = storage.openSnapshotStore();
 
     // Create a new internal server state machine.
-    this.stateMachine = new RaftServiceManager(this, stateContext, compactionContext, threadContextFactory);
+    this.stateMachine = new RaftServiceManager(this, stateContext, serviceContexts, compactionContext, threadContextFactory);
 
     this.cluster = new RaftClusterContext(localMemberId, this);
 
@@ -327,6 +353,42 @@ public class RaftContext implements AutoCloseable {
     return heartbeatInterval;
   }
 
+  /**
+   * Returns the maximum clock drift between servers assumed by the leader's read lease.
+   *
+   * @return The maximum clock drift.
+   */
+  public Duration getMaxClockDrift() {
+    return maxClockDrift;
+  }
+
+  /**
+   * Sets the maximum clock drift between servers assumed by the leader's read lease.
+   *
+   * @param maxClockDrift The maximum clock drift.
+   */
+  public void setMaxClockDrift(Duration maxClockDrift) {
+    this.maxClockDrift = checkNotNull(maxClockDrift, "maxClockDrift cannot be null");
+  }
+
+  /**
+   * Returns whether the server is a learner that serves linearizable queries locally while passive.
+   *
+   * @return Whether the server is a learner.
+   */
+  public boolean isLearner() {
+    return learner;
+  }
+
+  /**
+   * Sets whether the server is a learner that serves linearizable queries locally while passive.
+   *
+   * @param learner Whether the server is a learner.
+   */
+  public void setLearner(boolean learner) {
+    this.learner = learner;
+  }
+
   /**
    * Returns the session timeout.
    *
@@ -467,7 +529,9 @@ public class RaftContext implements AutoCloseable {
     long previousCommitIndex = this.commitIndex;
     if (commitIndex > previousCommitIndex) {
       this.commitIndex = commitIndex;
-      logWriter.commit(Math.min(commitIndex, logWriter.getLastIndex()));
+      // Committed entries have already been flushed by a majority of the cluster through the log flusher,
+      // so there's no need to flush them synchronously here.
+      logWriter.commit(Math.min(commitIndex, logWriter.getLastIndex()), false);
       long configurationIndex = cluster.getConfiguration().index();
       if (configurationIndex > previousCommitIndex && configurationIndex <= commitIndex) {
         cluster.commit();
@@ -513,6 +577,11 @@ public class RaftContext implements AutoCloseable {
    */
   public void setLastApplied(long lastApplied) {
     this.lastApplied = Math.max(this.lastApplied, lastApplied);
+    if (!appliedFutures.isEmpty()) {
+      Map<Long, CompletableFuture<Long>> applied = appliedFutures.headMap(this.lastApplied, true);
+      applied.values().forEach(future -> future.complete(this.lastApplied));
+      applied.clear();
+    }
     if (state == State.ACTIVE) {
       threadContext.execute(() -> {
         if (state == State.ACTIVE && this.lastApplied >= firstCommitIndex) {
@@ -523,6 +592,23 @@ public class RaftContext implements AutoCloseable {
     }
   }
 
+  /**
+   * Returns a future to be completed once entries up to the given index have been applied.
+   * <p>
+   * Operations submitted to the state machine once the returned future has been completed are applied after
+   * all entries up to the given index.
+   *
+   * @param index the index to await
+   * @return a future to be completed on the Raft thread with the last applied index
+   */
+  public CompletableFuture<Long> awaitApplied(long index) {
+    checkThread();
+    if (lastApplied >= index) {
+      return CompletableFuture.completedFuture(lastApplied);
+    }
+    return appliedFutures.computeIfAbsent(index, i -> new CompletableFuture<>());
+  }
+
   /**
    * Returns the last applied index.
    *
@@ -541,6 +627,24 @@ public class RaftContext implements AutoCloseable {
     return loadMonitor;
   }
 
+  /**
+   * Returns the leader read lease monitor.
+   *
+   * @return the leader read lease monitor
+   */
+  public LeaseMonitor getLeaseMonitor() {
+    return leaseMonitor;
+  }
+
+  /**
+   * Returns the snapshot and log compaction monitor.
+   *
+   * @return the snapshot and log compaction monitor
+   */
+  public CompactionMonitor getCompactionMonitor() {
+    return compactionMonitor;
+  }
+
   /**
    * Returns the server state machine.
    *
@@ -622,6 +726,15 @@ public class RaftContext implements AutoCloseable {
     return logWriter;
   }
 
+  /**
+   * Returns the server log flusher.
+   *
+   * @return The log flusher.
+   */
+  public RaftLogFlusher getLogFlusher() {
+    return logFlusher;
+  }
+
   /**
    * Returns the server log reader.
    *
@@ -649,39 +762,51 @@ public class RaftContext implements AutoCloseable {
 
   /**
    * Registers server handlers on the configured protocol.
+   * <p>
+   * Client requests are handled with low priority so that a backlog of client requests cannot delay the
+   * heartbeats, elections and replication that keep the cluster stable.
    */
   private void registerHandlers(RaftServerProtocol protocol) {
-    protocol.registerOpenSessionHandler(request -> runOnContext(() -> role.onOpenSession(request)));
-    protocol.registerCloseSessionHandler(request -> runOnContext(() -> role.onCloseSession(request)));
-    protocol.registerKeepAliveHandler(request -> runOnContext(() -> role.onKeepAlive(request)));
-    protocol.registerMetadataHandler(request -> runOnContext(() -> role.onMetadata(request)));
+    protocol.registerOpenSessionHandler(request -> runOnContextWithLowPriority(() -> role.onOpenSession(request)));
+    protocol.registerCloseSessionHandler(request -> runOnContextWithLowPriority(() -> role.onCloseSession(request)));
+    protocol.registerKeepAliveHandler(request -> runOnContextWithLowPriority(() -> role.onKeepAlive(request)));
+    protocol.registerMetadataHandler(request -> runOnContextWithLowPriority(() -> role.onMetadata(request)));
     protocol.registerConfigureHandler(request -> runOnContext(() -> role.onConfigure(request)));
     protocol.registerInstallHandler(request -> runOnContext(() -> role.onInstall(request)));
     protocol.registerJoinHandler(request -> runOnContext(() -> role.onJoin(request)));
     protocol.registerReconfigureHandler(request -> runOnContext(() -> role.onReconfigure(request)));
     protocol.registerLeaveHandler(request -> runOnContext(() -> role.onLeave(request)));
     protocol.registerTransferHandler(request -> runOnContext(() -> role.onTransfer(request)));
+    protocol.registerReadIndexHandler(request -> runOnContext(() -> role.onReadIndex(request)));
     protocol.registerAppendHandler(request -> runOnContext(() -> role.onAppend(request)));
     protocol.registerPollHandler(request -> runOnContext(() -> role.onPoll(request)));
     protocol.registerVoteHandler(request -> runOnContext(() -> role.onVote(request)));
-    protocol.registerCommandHandler(request -> runOnContext(() -> role.onCommand(request)));
-    protocol.registerQueryHandler(request -> runOnContext(() -> role.onQuery(request)));
+    protocol.registerCommandHandler(request -> runOnContextWithLowPriority(() -> role.onCommand(request)));
+    protocol.registerQueryHandler(request -> runOnContextWithLowPriority(() -> role.onQuery(request)));
   }
 
   private <R extends RaftResponse> CompletableFuture<R> runOnContext(Supplier<CompletableFuture<R>> function) {
     CompletableFuture<R> future = new CompletableFuture<>();
-    threadContext.execute(() -> {
-      function.get().whenComplete((response, error) -> {
-        if (error == null) {
-          future.complete(response);
-        } else {
-          future.completeExceptionally(error);
-        }
-      });
-    });
+    threadContext.execute(() -> completeOnContext(function, future));
     return future;
   }
 
+  private <R extends RaftResponse> CompletableFuture<R> runOnContextWithLowPriority(Supplier<CompletableFuture<R>> function) {
+    CompletableFuture<R> future = new CompletableFuture<>();
+    threadContext.executeLowPriority(() -> completeOnContext(function, future));
+    return future;
+  }
+
+  private <R extends RaftResponse> void completeOnContext(Supplier<CompletableFuture<R>> function, CompletableFuture<R> future) {
+    function.get().whenComplete((response, error) -> {
+      if (error == null) {
+        future.complete(response);
+      } else {
+        future.completeExceptionally(error);
+      }
+    });
+  }
+
   /**
    * Unregisters server handlers on the configured protocol.
    */
@@ -696,6 +821,7 @@ public class RaftContext implements AutoCloseable {
     protocol.unregisterReconfigureHandler();
     protocol.unregisterLeaveHandler();
     protocol.unregisterTransferHandler();
+    protocol.unregisterReadIndexHandler();
     protocol.unregisterAppendHandler();
     protocol.unregisterPollHandler();
     protocol.unregisterVoteHandler();
@@ -836,6 +962,9 @@ public class RaftContext implements AutoCloseable {
     // Unregister protocol listeners.
     unregisterHandlers(protocol);
 
+    // Stop flushing the log.
+    logFlusher.close();
+
     // Close the log.
     try {
       raftLog.close();
@@ -859,6 +988,7 @@ public class RaftContext implements AutoCloseable {
     threadContext.close();
     loadContext.close();
     stateContext.close();
+    serviceContexts.forEach(ThreadContext::close);
     compactionContext.close();
     threadContextFactory.close();
   }
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.impl;
+
+import io.atomix.protocols.raft.storage.log.RaftLogWriter;
+import io.atomix.utils.concurrent.ThreadContext;
+import org.slf4j.Logger;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Asynchronous Raft log flusher.
+ * <p>
+ * When enabled, entries appended to the log on the Raft thread are flushed to disk on a dedicated log thread. Flush
+ * requests that arrive while a flush is in progress are coalesced into a single subsequent flush of all entries
+ * appended up to that point, so the Raft thread never blocks on disk and each flush covers as many entries as
+ * possible. The {@link #getDurableIndex() durable index} is only advanced once a flush completes.
+ * <p>
+ * When disabled, entries are considered durable as soon as they're appended to the log.
+ * <p>
+ * Apart from {@link #close()}, all methods must be called on the Raft thread.
+ */
+public class RaftLogFlusher implements AutoCloseable {
+  private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+  private final RaftLogWriter writer;
+  private final ThreadContext raftContext;
+  private final ThreadContext logContext;
+  private final Logger log;
+  private final TreeMap<Long, CompletableFuture<Long>> futures = new TreeMap<>();
+  private long durableIndex;
+  private long generation;
+  private boolean flushing;
+  private volatile boolean open = true;
+
+  public RaftLogFlusher(RaftLogWriter writer, ThreadContext raftContext, ThreadContext logContext, Logger log) {
+    this.writer = writer;
+    this.raftContext = raftContext;
+    this.logContext = logContext;
+    this.log = log;
+    this.durableIndex = writer.getLastIndex();
+  }
+
+  /**
+   * Returns whether asynchronous flushes are enabled.
+   *
+   * @return whether asynchronous flushes are enabled
+   */
+  public boolean isEnabled() {
+    return logContext != null;
+  }
+
+  /**
+   * Returns the highest index known to have been flushed to disk.
+   *
+   * @return the highest index known to have been flushed to disk
+   */
+  public long getDurableIndex() {
+    return isEnabled() ? Math.min(durableIndex, writer.getLastIndex()) : writer.getLastIndex();
+  }
+
+  /**
+   * Flushes entries up to the given index to disk.
+   *
+   * @param index the index up to which to flush entries
+   * @return a future to be completed on the Raft thread with the durable index once the given index is durable
+   */
+  public CompletableFuture<Long> flush(long index) {
+    if (!isEnabled()) {
+      return CompletableFuture.completedFuture(index);
+    }
+
+    raftContext.checkThread();
+    if (index <= durableIndex) {
+      return CompletableFuture.completedFuture(durableIndex);
+    }
+
+    CompletableFuture<Long> future = futures.computeIfAbsent(index, i -> new CompletableFuture<>());
+    if (!flushing) {
+      doFlush();
+    }
+    return future;
+  }
+
+  /**
+   * Resets the durable index after the log has been truncated.
+   * <p>
+   * Entries following the given index may be replaced, so flushes that are in progress when the log is truncated no
+   * longer count towards the durable index.
+   *
+   * @param index the last index remaining in the log
+   */
+  public void reset(long index) {
+    if (!isEnabled()) {
+      return;
+    }
+
+    raftContext.checkThread();
+    generation++;
+    if (index < durableIndex) {
+      durableIndex = index;
+    }
+  }
+
+  /**
+   * Flushes all entries appended to the log on the log thread.
+   */
+  private void doFlush() {
+    long index = writer.getLastIndex();
+    long generation = this.generation;
+    flushing = true;
+    logContext.execute(() -> {
+      try {
+        if (open) {
+          writer.flush();
+        }
+        raftContext.execute(() -> completeFlush(index, generation, null));
+      } catch (Exception e) {
+        raftContext.execute(() -> completeFlush(index, generation, e));
+      }
+    });
+  }
+
+  /**
+   * Completes a flush on the Raft thread.
+   */
+  private void completeFlush(long index, long generation, Throwable error) {
+    flushing = false;
+    if (!open) {
+      return;
+    }
+
+    if (error != null) {
+      log.warn("Failed to flush log up to index {}", index, error);
+      futures.values().forEach(future -> future.completeExceptionally(error));
+      futures.clear();
+      return;
+    }
+
+    if (generation == this.generation && index > durableIndex) {
+      durableIndex = index;
+    }
+
+    Iterator<Map.Entry<Long, CompletableFuture<Long>>> iterator = futures.headMap(durableIndex, true).entrySet().iterator();
+    while (iterator.hasNext()) {
+      iterator.next().getValue().complete(durableIndex);
+      iterator.remove();
+    }
+
+    // If entries were requested to be flushed while the flush was in progress, flush them now.
+    if (!futures.isEmpty()) {
+      doFlush();
+    }
+  }
+
+  /**
+   * Closes the flusher, waiting for a flush that's in progress to complete.
+   * <p>
+   * The log must not be closed until the flusher has been closed, otherwise the log thread may flush segments that
+   * are being closed.
+   */
+  @Override
+  public void close() {
+    open = false;
+    if (logContext != null) {
+      CompletableFuture<Void> drained = new CompletableFuture<>();
+      logContext.execute(() -> drained.complete(null));
+      try {
+        drained.get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException | TimeoutException e) {
+        log.warn("Failed to await the log flusher", e);
+      }
+      logContext.close();
+    }
+  }
+}
@@ -15,8 +15,10 @@
  */
 package io.atomix.protocols.raft.impl;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Longs;
+import com.google.common.util.concurrent.Uninterruptibles;
 import io.atomix.cluster.MemberId;
 import io.atomix.primitive.PrimitiveId;
 import io.atomix.primitive.PrimitiveType;
@@ -41,6 +43,7 @@ import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
 import io.atomix.protocols.raft.storage.snapshot.Snapshot;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotWriter;
+import io.atomix.protocols.raft.utils.CompactionMonitor;
 import io.atomix.storage.StorageLevel;
 import io.atomix.storage.journal.Indexed;
 import io.atomix.utils.concurrent.ComposableFuture;
@@ -55,11 +58,15 @@ import org.slf4j.Logger;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -68,37 +75,68 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * <p>
  * The internal state machine handles application of commands to the user provided {@link PrimitiveService}
  * and keeps track of internal state like sessions and the various indexes relevant to log compaction.
+ * <p>
+ * Entries are applied in log order on the state thread. If service threads are provided, commands and queries are
+ * instead applied on the service thread to which the target service is hashed, allowing independent services to be
+ * applied in parallel. Other entries may affect any service, so the state thread waits for all service threads to
+ * complete previously applied entries before applying them.
  */
 public class RaftServiceManager implements AutoCloseable {
-  private static final Duration SNAPSHOT_INTERVAL = Duration.ofSeconds(10);
   private static final Duration SNAPSHOT_COMPLETION_DELAY = Duration.ofSeconds(10);
   private static final Duration COMPACT_DELAY = Duration.ofSeconds(10);
 
+  private static final Duration APPLY_SLICE = Duration.ofMillis(10);
+
   private static final int SEGMENT_BUFFER_FACTOR = 5;
 
   private final Logger logger;
   private final RaftContext raft;
   private final ThreadContext stateContext;
+  private final List<ThreadContext> serviceContexts;
+  private final boolean[] pendingServiceContexts;
   private final ThreadContext compactionContext;
   private final ThreadContextFactory threadContextFactory;
   private final RaftLog log;
   private final RaftLogReader reader;
   private final Map<Long, CompletableFuture> futures = Maps.newHashMap();
+  private final SnapshotScheduler scheduler;
+  private final AtomicLongArray serviceApplyTimes;
+  private final long[] lastServiceApplyTimes;
   private volatile CompletableFuture<Void> compactFuture;
+  private volatile long applyTime;
+  private long serviceApplyTime;
   private long lastEnqueued;
+  private long lastRead;
+  private boolean applying;
+  private boolean snapshotting;
   private long lastCompacted;
 
   public RaftServiceManager(RaftContext raft, ThreadContext stateContext, ThreadContext compactionContext, ThreadContextFactory threadContextFactory) {
+    this(raft, stateContext, Collections.emptyList(), compactionContext, threadContextFactory);
+  }
+
+  public RaftServiceManager(
+      RaftContext raft,
+      ThreadContext stateContext,
+      List<ThreadContext> serviceContexts,
+      ThreadContext compactionContext,
+      ThreadContextFactory threadContextFactory) {
     this.raft = checkNotNull(raft, "state cannot be null");
     this.log = raft.getLog();
     this.reader = log.openReader(1, RaftLogReader.Mode.COMMITS);
     this.stateContext = stateContext;
+    this.serviceContexts = checkNotNull(serviceContexts, "serviceContexts cannot be null");
+    this.pendingServiceContexts = new boolean[serviceContexts.size()];
+    this.serviceApplyTimes = new AtomicLongArray(serviceContexts.size());
+    this.lastServiceApplyTimes = new long[serviceContexts.size()];
     this.compactionContext = compactionContext;
     this.threadContextFactory = threadContextFactory;
     this.logger = ContextualLoggerFactory.getLogger(getClass(), LoggerContext.builder(RaftServer.class)
         .addValue(raft.getName())
         .build());
     this.lastEnqueued = reader.getFirstIndex() - 1;
+    this.lastRead = lastEnqueued;
+    this.scheduler = new SnapshotScheduler(raft.getCompactionMonitor(), System.currentTimeMillis());
     scheduleSnapshots();
   }
 
@@ -111,21 +149,145 @@ public class RaftServiceManager implements AutoCloseable {
     return stateContext;
   }
 
+  /**
+   * Returns the thread context on which the given service is applied.
+   *
+   * @param service the service for which to return the thread context
+   * @return the service thread context
+   */
+  public ThreadContext executor(RaftServiceContext service) {
+    return serviceContexts.isEmpty() ? stateContext : serviceContexts.get(getServiceContextIndex(service));
+  }
+
+  /**
+   * Returns the index of the service thread context for the given service.
+   */
+  private int getServiceContextIndex(RaftServiceContext service) {
+    return Math.floorMod(Long.hashCode(service.serviceId().id()), serviceContexts.size());
+  }
+
+  /**
+   * Executes a task for the given service on the service's thread.
+   * <p>
+   * If no service threads are configured, the task is executed immediately on the state thread.
+   *
+   * @param service the service for which to execute the task
+   * @param task the task to execute
+   */
+  private void executeService(RaftServiceContext service, Runnable task) {
+    if (serviceContexts.isEmpty()) {
+      task.run();
+    } else {
+      int index = getServiceContextIndex(service);
+      pendingServiceContexts[index] = true;
+      serviceContexts.get(index).execute(() -> {
+        long startTime = System.nanoTime();
+        try {
+          task.run();
+        } finally {
+          serviceApplyTimes.addAndGet(index, System.nanoTime() - startTime);
+        }
+      });
+    }
+  }
+
+  /**
+   * Blocks the state thread until all tasks submitted to service threads have been completed.
+   */
+  private void awaitServices() {
+    int pending = 0;
+    for (boolean pendingServiceContext : pendingServiceContexts) {
+      if (pendingServiceContext) {
+        pending++;
+      }
+    }
+    if (pending == 0) {
+      return;
+    }
+
+    CountDownLatch latch = new CountDownLatch(pending);
+    for (int i = 0; i < pendingServiceContexts.length; i++) {
+      if (pendingServiceContexts[i]) {
+        serviceContexts.get(i).execute(latch::countDown);
+        pendingServiceContexts[i] = false;
+      }
+    }
+    Uninterruptibles.awaitUninterruptibly(latch);
+  }
+
   /**
    * Returns a boolean indicating whether the node is running out of disk space.
    */
   private boolean isRunningOutOfDiskSpace() {
-    // If there's not enough space left to allocate two log segments
-    return raft.getStorage().statistics().getUsableSpace() < raft.getStorage().maxLogSegmentSize() * SEGMENT_BUFFER_FACTOR
-        // Or the used disk percentage has surpassed the free disk buffer percentage
-        || raft.getStorage().statistics().getUsableSpace() / (double) raft.getStorage().statistics().getTotalSpace() < raft.getStorage().freeDiskBuffer();
+    return raft.getStorage().statistics().getUsableSpace() < getReservedDiskSpace();
+  }
+
+  /**
+   * Returns the usable disk space below which the node is considered to be running out of disk space.
+   */
+  private long getReservedDiskSpace() {
+    // Enough space to allocate a few log segments, or the free disk buffer percentage, whichever is greater
+    return Math.max(
+        raft.getStorage().maxLogSegmentSize() * (long) SEGMENT_BUFFER_FACTOR,
+        (long) (raft.getStorage().statistics().getTotalSpace() * raft.getStorage().freeDiskBuffer()));
+  }
+
+  /**
+   * Returns a boolean indicating whether snapshots and compaction must be done regardless of load.
+   */
+  private boolean isCompactionForced() {
+    // If the log is in memory we need to free up memory, and if dynamic compaction is disabled we compact immediately.
+    return raft.getStorage().storageLevel() == StorageLevel.MEMORY || !raft.getStorage().dynamicCompaction();
+  }
+
+  /**
+   * Samples the snapshot scheduler inputs.
+   */
+  private void sampleLoad() {
+    scheduler.sample(
+        System.currentTimeMillis(),
+        raft.getLogWriter().getLastIndex(),
+        raft.getStorage().statistics().getUsableSpace(),
+        sampleApplyTime());
+  }
+
+  /**
+   * Returns the total time the state machine has spent applying entries in nanoseconds.
+   * <p>
+   * When services are applied on service threads, the state thread only dispatches entries to them, and the state
+   * machine is only as idle as its busiest service thread. The time spent by the busiest service thread since the
+   * last sample is added to the time spent on the state thread.
+   */
+  private long sampleApplyTime() {
+    long busiestTime = 0;
+    for (int i = 0; i < lastServiceApplyTimes.length; i++) {
+      long time = serviceApplyTimes.get(i);
+      busiestTime = Math.max(busiestTime, time - lastServiceApplyTimes[i]);
+      lastServiceApplyTimes[i] = time;
+    }
+    serviceApplyTime += busiestTime;
+    return applyTime + serviceApplyTime;
+  }
+
+  /**
+   * Returns the snapshot scheduling decision for the current load.
+   */
+  private SnapshotScheduler.Decision decide() {
+    return scheduler.decide(
+        System.currentTimeMillis(),
+        raft.getStorage().statistics().getUsableSpace(),
+        getReservedDiskSpace(),
+        raft.getLoadMonitor().isUnderHighLoad());
   }
 
   /**
    * Schedules a snapshot iteration.
    */
   private void scheduleSnapshots() {
-    raft.getThreadContext().schedule(SNAPSHOT_INTERVAL, () -> takeSnapshots(true, false));
+    raft.getThreadContext().schedule(scheduler.nextCheck(), () -> {
+      sampleLoad();
+      takeSnapshots(true, false);
+    });
   }
 
   /**
@@ -138,7 +300,7 @@ public class RaftServiceManager implements AutoCloseable {
   }
 
   /**
-   * Takes a snapshot of all services and compacts logs if the server is not under high load or disk needs to be freed.
+   * Takes a snapshot of all services and compacts logs if the snapshot scheduler determines the server can afford to.
    */
   private CompletableFuture<Void> takeSnapshots(boolean rescheduleAfterCompletion, boolean force) {
     // If compaction is already in progress, return the existing future and reschedule if this is a scheduled compaction.
@@ -153,26 +315,29 @@ public class RaftServiceManager implements AutoCloseable {
 
     // Only take snapshots if segments can be removed from the log below the lastApplied index.
     if (raft.getLog().isCompactable(lastApplied) && raft.getLog().getCompactableIndex(lastApplied) > lastCompacted) {
-
-      // Determine whether the node is running out of disk space.
-      boolean runningOutOfDiskSpace = isRunningOutOfDiskSpace();
-
-      // If compaction is not already being forced...
-      if (!force
-          // And the log is not in memory (we need to free up memory if it is)...
-          && raft.getStorage().storageLevel() != StorageLevel.MEMORY
-          // And dynamic compaction is enabled (we need to compact immediately if it's disabled)...
-          && raft.getStorage().dynamicCompaction()
-          // And the node isn't running out of disk space (we need to compact immediately if it is)...
-          && !runningOutOfDiskSpace
-          // And the server is under high load (we can skip compaction at this point)...
-          && raft.getLoadMonitor().isUnderHighLoad()) {
-        // We can skip taking a snapshot for now.
-        logger.debug("Skipping compaction due to high load");
-        if (rescheduleAfterCompletion) {
-          scheduleSnapshots();
+      CompactionMonitor monitor = raft.getCompactionMonitor();
+      if (force || isCompactionForced()) {
+        monitor.recordForcedSnapshot();
+      } else {
+        switch (decide()) {
+          case IDLE:
+            monitor.recordIdleSnapshot();
+            break;
+          case DISK_PRESSURE:
+            monitor.recordDiskPressureSnapshot();
+            break;
+          case DEADLINE:
+            monitor.recordDeadlineSnapshot();
+            break;
+          default:
+            // We can skip taking a snapshot for now.
+            logger.debug("Deferring snapshot due to load");
+            monitor.recordDeferredSnapshot();
+            if (rescheduleAfterCompletion) {
+              scheduleSnapshots();
+            }
+            return CompletableFuture.completedFuture(null);
         }
-        return CompletableFuture.completedFuture(null);
       }
 
       logger.debug("Snapshotting services");
@@ -208,22 +373,94 @@ public class RaftServiceManager implements AutoCloseable {
 
   /**
    * Takes and persists snapshots of provided services.
+   * <p>
+   * Services are snapshotted one per task on the state thread so that queries can be applied in between. The
+   * application of new entries is paused until all services have been snapshotted to keep the snapshot consistent
+   * with the given index.
    *
    * @param index the compaction index
    * @return future to be completed once all snapshots have been completed
    */
   private CompletableFuture<Snapshot> takeSnapshots(long index) {
     ComposableFuture<Snapshot> future = new ComposableFuture<>();
+    long startTime = System.currentTimeMillis();
+    scheduler.snapshotStarted(startTime);
+    snapshotting = true;
     stateContext.execute(() -> {
+      Snapshot snapshot = null;
+      SnapshotWriter writer;
       try {
-        future.complete(snapshot(index));
+        awaitServices();
+        snapshot = raft.getSnapshotStore().newTemporarySnapshot(index, new WallClockTimestamp());
+        writer = snapshot.openWriter();
       } catch (Exception e) {
+        if (snapshot != null) {
+          snapshot.close();
+        }
+        raft.getThreadContext().execute(this::resumeApplies);
         future.completeExceptionally(e);
+        return;
       }
+      snapshotServices(snapshot, writer, Lists.newArrayList(raft.getServices()).iterator(), startTime, future);
     });
     return future;
   }
 
+  /**
+   * Snapshots the next service and schedules the remaining services in a separate task on the state thread.
+   *
+   * @param snapshot  the snapshot being taken
+   * @param writer    the snapshot writer
+   * @param services  the services remaining to be snapshotted
+   * @param startTime the time at which the snapshot was started
+   * @param future    the future to complete once all services have been snapshotted
+   */
+  private void snapshotServices(
+      Snapshot snapshot,
+      SnapshotWriter writer,
+      Iterator<RaftServiceContext> services,
+      long startTime,
+      CompletableFuture<Snapshot> future) {
+    try {
+      if (services.hasNext()) {
+        // Queries applied since the previous step may still be running on service threads.
+        awaitServices();
+        RaftServiceContext service = services.next();
+        writer.buffer().mark();
+        SnapshotWriter serviceWriter = new SnapshotWriter(writer.buffer().writeInt(0).slice(), writer.snapshot());
+        snapshotService(serviceWriter, service);
+        int length = serviceWriter.buffer().position();
+        writer.buffer().reset().writeInt(length).skip(length);
+        stateContext.execute(() -> snapshotServices(snapshot, writer, services, startTime, future));
+      } else {
+        long size = writer.buffer().position();
+        writer.close();
+        long duration = System.currentTimeMillis() - startTime;
+        raft.getThreadContext().execute(() -> {
+          scheduler.snapshotCompleted(duration, size);
+          resumeApplies();
+        });
+        future.complete(snapshot);
+      }
+    } catch (Exception e) {
+      writer.close();
+      snapshot.close();
+      raft.getThreadContext().execute(this::resumeApplies);
+      future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Resumes the application of entries once a snapshot has been taken.
+   */
+  private void resumeApplies() {
+    snapshotting = false;
+    if (!applying && lastRead < lastEnqueued) {
+      applying = true;
+      raft.getThreadContext().execute(this::applyBatch);
+    }
+  }
+
   /**
    * Schedules a completion check for the snapshot at the given index.
    *
@@ -234,12 +471,8 @@ public class RaftServiceManager implements AutoCloseable {
       if (completeSnapshot(snapshot.index())) {
         logger.debug("Completing snapshot {}", snapshot.index());
         snapshot.complete();
-        // If log compaction is being forced, immediately compact the logs.
-        if (!raft.getLoadMonitor().isUnderHighLoad() || isRunningOutOfDiskSpace()) {
-          compactLogs(snapshot.index());
-        } else {
-          scheduleCompaction(snapshot.index());
-        }
+        long deadline = System.currentTimeMillis() + COMPACT_DELAY.toMillis();
+        raft.getThreadContext().execute(() -> compactOrDefer(snapshot.index(), deadline));
       } else {
         scheduleCompletion(snapshot);
       }
@@ -247,15 +480,22 @@ public class RaftServiceManager implements AutoCloseable {
   }
 
   /**
-   * Schedules a log compaction.
+   * Compacts logs up to the given index if the snapshot scheduler determines the server can afford to, otherwise
+   * defers compaction until the next scheduling check.
    *
    * @param lastApplied the last applied index at the start of snapshotting. This represents the highest index before
    *                    which segments can be safely removed from disk
+   * @param deadline    the time after which compaction can no longer be deferred
    */
-  private void scheduleCompaction(long lastApplied) {
-    // Schedule compaction after a randomized delay to discourage snapshots on multiple nodes at the same time.
-    logger.trace("Scheduling compaction in {}", COMPACT_DELAY);
-    stateContext.schedule(COMPACT_DELAY, () -> compactLogs(lastApplied));
+  private void compactOrDefer(long lastApplied, long deadline) {
+    if (isCompactionForced() || System.currentTimeMillis() >= deadline || decide() != SnapshotScheduler.Decision.DEFER) {
+      compactLogs(lastApplied);
+    } else {
+      Duration delay = scheduler.nextCheck();
+      logger.trace("Deferring compaction for {}", delay);
+      raft.getCompactionMonitor().recordDeferredCompaction();
+      raft.getThreadContext().schedule(delay, () -> compactOrDefer(lastApplied, deadline));
+    }
   }
 
   /**
@@ -268,6 +508,7 @@ public class RaftServiceManager implements AutoCloseable {
       logger.debug("Compacting logs up to index {}", compactIndex);
       try {
         raft.getLog().compact(compactIndex);
+        raft.getCompactionMonitor().recordCompaction();
       } catch (Exception e) {
         logger.error("An exception occurred during log compaction: {}", e);
       } finally {
@@ -314,56 +555,77 @@ public class RaftServiceManager implements AutoCloseable {
    * @param index the index up to which to apply entries
    */
   private void enqueueBatch(long index) {
-    while (lastEnqueued < index) {
-      enqueueIndex(++lastEnqueued);
+    if (lastEnqueued < index) {
+      lastEnqueued = index;
+      if (!applying && !snapshotting) {
+        applying = true;
+        raft.getThreadContext().execute(this::applyBatch);
+      }
     }
   }
 
   /**
-   * Enqueues an index to be applied to the state machine.
-   *
-   * @param index the index to be applied to the state machine
-   */
-  private void enqueueIndex(long index) {
-    raft.getThreadContext().execute(() -> applyIndex(index));
-  }
-
-  /**
-   * Applies the next entry in the log up to the given index.
-   *
-   * @param index the index up to which to apply the entry
+   * Applies enqueued entries to the state machine.
+   * <p>
+   * Entries are read from the log for up to {@link #APPLY_SLICE} before being applied to the state machine in a single
+   * task, and the last applied index is updated once per slice. If entries remain to be applied once the slice has
+   * expired, another batch is scheduled to allow other tasks on the Raft thread to run in between. Batches are not
+   * read while a snapshot is being taken.
    */
   @SuppressWarnings("unchecked")
-  private void applyIndex(long index) {
-    // Apply entries prior to this entry.
-    if (reader.hasNext() && reader.getNextIndex() == index) {
-      // Read the entry from the log. If the entry is non-null then apply it, otherwise
-      // simply update the last applied index and return a null result.
-      Indexed<RaftLogEntry> entry = reader.next();
-      try {
-        if (entry.index() != index) {
-          throw new IllegalStateException("inconsistent index applying entry " + index + ": " + entry);
-        }
-        CompletableFuture future = futures.remove(index);
-        apply(entry).whenComplete((r, e) -> {
+  private void applyBatch() {
+    if (snapshotting) {
+      applying = false;
+      return;
+    }
+
+    final long deadline = System.nanoTime() + APPLY_SLICE.toNanos();
+    final List<Indexed<RaftLogEntry>> entries = new ArrayList<>();
+    final List<CompletableFuture> entryFutures = new ArrayList<>();
+    long lastIndex = 0;
+    try {
+      do {
+        final long index = ++lastRead;
+        if (reader.hasNext() && reader.getNextIndex() == index) {
+          // Read the entry from the log. If the entry is non-null then apply it, otherwise
+          // simply update the last applied index and return a null result.
+          Indexed<RaftLogEntry> entry = reader.next();
+          CompletableFuture future = futures.remove(index);
+          if (entry.index() == index) {
+            entries.add(entry);
+            entryFutures.add(future);
+          } else {
+            logger.error("Failed to apply {}: inconsistent index {}", entry, index);
+          }
+          lastIndex = index;
+        } else {
+          CompletableFuture future = futures.remove(index);
           if (future != null) {
-            if (e == null) {
-              future.complete(r);
-            } else {
-              future.completeExceptionally(e);
-            }
+            logger.error("Cannot apply index " + index);
+            future.completeExceptionally(new IndexOutOfBoundsException("Cannot apply index " + index));
           }
+        }
+      } while (lastRead < lastEnqueued && System.nanoTime() < deadline);
+    } catch (Exception e) {
+      logger.error("Failed to read entry {}: {}", lastRead, e);
+    } finally {
+      if (!entries.isEmpty()) {
+        stateContext.execute(() -> {
+          long startTime = System.nanoTime();
+          for (int i = 0; i < entries.size(); i++) {
+            applyEntry(entries.get(i), entryFutures.get(i));
+          }
+          applyTime += System.nanoTime() - startTime;
         });
-      } catch (Exception e) {
-        logger.error("Failed to apply {}: {}", entry, e);
-      } finally {
-        raft.setLastApplied(index);
       }
-    } else {
-      CompletableFuture future = futures.remove(index);
-      if (future != null) {
-        logger.error("Cannot apply index " + index);
-        future.completeExceptionally(new IndexOutOfBoundsException("Cannot apply index " + index));
+      if (lastIndex > 0) {
+        raft.setLastApplied(lastIndex);
+      }
+
+      if (lastRead < lastEnqueued) {
+        raft.getThreadContext().execute(this::applyBatch);
+      } else {
+        applying = false;
       }
     }
   }
@@ -377,70 +639,75 @@ public class RaftServiceManager implements AutoCloseable {
    * @param entry The entry to apply.
    * @return A completable future to be completed with the result.
    */
-  @SuppressWarnings("unchecked")
   public <T> CompletableFuture<T> apply(Indexed<? extends RaftLogEntry> entry) {
     CompletableFuture<T> future = new CompletableFuture<>();
-    stateContext.execute(() -> {
-      logger.trace("Applying {}", entry);
-      try {
-        if (entry.type() == QueryEntry.class) {
-          applyQuery(entry.cast()).whenComplete((r, e) -> {
-            if (e != null) {
-              future.completeExceptionally(e);
-            } else {
-              future.complete((T) r);
-            }
-          });
-        } else {
-          install(entry.index());
-          if (entry.type() == CommandEntry.class) {
-            future.complete((T) applyCommand(entry.cast()));
-          } else if (entry.type() == OpenSessionEntry.class) {
-            future.complete((T) (Long) applyOpenSession(entry.cast()));
-          } else if (entry.type() == KeepAliveEntry.class) {
-            future.complete((T) applyKeepAlive(entry.cast()));
-          } else if (entry.type() == CloseSessionEntry.class) {
-            applyCloseSession(entry.cast());
-            future.complete(null);
-          } else if (entry.type() == MetadataEntry.class) {
-            future.complete((T) applyMetadata(entry.cast()));
-          } else if (entry.type() == InitializeEntry.class) {
-            future.complete((T) applyInitialize(entry.cast()));
-          } else if (entry.type() == ConfigurationEntry.class) {
-            future.complete((T) applyConfiguration(entry.cast()));
-          } else {
-            future.completeExceptionally(new RaftException.ProtocolException("Unknown entry type"));
-          }
-        }
-      } catch (Exception e) {
-        future.completeExceptionally(e);
-      }
-    });
+    stateContext.execute(() -> applyEntry(entry, future));
     return future;
   }
 
   /**
-   * Takes snapshots for the given index.
+   * Applies an entry to the state machine in the state thread.
    *
-   * @param index the index for which to take snapshots
+   * @param entry the entry to apply
+   * @param future the future to complete with the result or {@code null} if the result is not expected
    */
-  private Snapshot snapshot(long index) {
-    Snapshot snapshot = raft.getSnapshotStore().newTemporarySnapshot(index, new WallClockTimestamp());
-    try (SnapshotWriter writer = snapshot.openWriter()) {
-      for (RaftServiceContext service : raft.getServices()) {
-        writer.buffer().mark();
-        SnapshotWriter serviceWriter = new SnapshotWriter(writer.buffer().writeInt(0).slice(), writer.snapshot());
-        snapshotService(serviceWriter, service);
-        int length = serviceWriter.buffer().position();
-        writer.buffer().reset().writeInt(length).skip(length);
+  @SuppressWarnings("unchecked")
+  private void applyEntry(Indexed<? extends RaftLogEntry> entry, CompletableFuture future) {
+    logger.trace("Applying {}", entry);
+    try {
+      if (entry.type() == QueryEntry.class) {
+        applyQuery(entry.cast()).whenComplete((r, e) -> {
+          if (e != null) {
+            completeExceptionally(future, e);
+          } else {
+            complete(future, r);
+          }
+        });
+      } else {
+        install(entry.index());
+        if (entry.type() == CommandEntry.class) {
+          applyCommand(entry.cast(), future);
+          return;
+        }
+
+        // Entries other than commands and queries may affect any service, so wait for service threads to catch up.
+        awaitServices();
+        if (entry.type() == OpenSessionEntry.class) {
+          complete(future, applyOpenSession(entry.cast()));
+        } else if (entry.type() == KeepAliveEntry.class) {
+          complete(future, applyKeepAlive(entry.cast()));
+        } else if (entry.type() == CloseSessionEntry.class) {
+          applyCloseSession(entry.cast());
+          complete(future, null);
+        } else if (entry.type() == MetadataEntry.class) {
+          complete(future, applyMetadata(entry.cast()));
+        } else if (entry.type() == InitializeEntry.class) {
+          complete(future, applyInitialize(entry.cast()));
+        } else if (entry.type() == ConfigurationEntry.class) {
+          complete(future, applyConfiguration(entry.cast()));
+        } else {
+          completeExceptionally(future, new RaftException.ProtocolException("Unknown entry type"));
+        }
       }
     } catch (Exception e) {
-      snapshot.close();
-      throw e;
+      completeExceptionally(future, e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void complete(CompletableFuture future, Object result) {
+    if (future != null) {
+      future.complete(result);
     }
-    return snapshot;
   }
 
+  private static void completeExceptionally(CompletableFuture future, Throwable error) {
+    if (future != null) {
+      future.completeExceptionally(error);
+    }
+  }
+
+
   /**
    * Takes a snapshot of the given service.
    *
@@ -465,6 +732,7 @@ public class RaftServiceManager implements AutoCloseable {
     // If snapshots exist for the prior index, iterate through snapshots and populate services/sessions.
     if (snapshot != null) {
       logger.debug("Installing snapshot {}", snapshot);
+      awaitServices();
       try (SnapshotReader reader = snapshot.openReader()) {
         while (reader.hasRemaining()) {
           int length = reader.readInt();
@@ -718,7 +986,7 @@ public class RaftServiceManager implements AutoCloseable {
    * received in sequential order. The reason for this assumption is because leaders always sequence
    * commands as they're written to the log, so no sequence number will be skipped.
    */
-  private OperationResult applyCommand(Indexed<CommandEntry> entry) {
+  private void applyCommand(Indexed<CommandEntry> entry, CompletableFuture future) {
     // First check to ensure that the session exists.
     RaftSession session = raft.getSessions().getSession(entry.entry().session());
 
@@ -736,15 +1004,22 @@ public class RaftServiceManager implements AutoCloseable {
     raft.getLoadMonitor().recordEvent();
 
     // Execute the command using the state machine associated with the session.
-    return session.getService()
-        .executeCommand(
+    RaftServiceContext service = session.getService();
+    executeService(service, () -> {
+      try {
+        complete(future, service.executeCommand(
             entry.index(),
             entry.entry().sequenceNumber(),
             entry.entry().timestamp(),
             session,
-            entry.entry().operation());
+            entry.entry().operation()));
+      } catch (Exception e) {
+        completeExceptionally(future, e);
+      }
+    });
   }
 
+
   /**
    * Applies a query entry to the state machine.
    * <p>
@@ -774,15 +1049,25 @@ public class RaftServiceManager implements AutoCloseable {
     }
 
     // Execute the query using the state machine associated with the session.
-    return session.getService()
-        .executeQuery(
-            entry.index(),
-            entry.entry().sequenceNumber(),
-            entry.entry().timestamp(),
-            session,
-            entry.entry().operation());
+    RaftServiceContext service = session.getService();
+    CompletableFuture<OperationResult> future = new CompletableFuture<>();
+    executeService(service, () -> service.executeQuery(
+        entry.index(),
+        entry.entry().sequenceNumber(),
+        entry.entry().timestamp(),
+        session,
+        entry.entry().operation())
+        .whenComplete((result, error) -> {
+          if (error == null) {
+            future.complete(result);
+          } else {
+            future.completeExceptionally(error);
+          }
+        }));
+    return future;
   }
 
+
   @Override
   public void close() {
     // Don't close the thread context here since state machines can be reused.
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.impl;
+
+import io.atomix.protocols.raft.utils.CompactionMonitor;
+
+import java.time.Duration;
+
+/**
+ * Load aware snapshot scheduler.
+ * <p>
+ * The scheduler is periodically sampled with the last index in the log, the usable disk space, and the time the
+ * state machine has spent applying entries. From these samples it maintains smoothed estimates of the log growth
+ * rate, the disk consumption rate and the state machine idle ratio, which it uses along with the duration and size
+ * of the last snapshot to decide whether a snapshot should be taken now or deferred:
+ * <ul>
+ *   <li>If the remaining disk headroom would be exhausted before a snapshot could reasonably complete, a snapshot is
+ *   taken immediately regardless of load</li>
+ *   <li>If the state machine is mostly idle and the server is not under high load, a snapshot is taken while it's
+ *   cheap to do so</li>
+ *   <li>If snapshots have been deferred for longer than {@link #MAX_SNAPSHOT_DEFERRAL}, a snapshot is taken so the
+ *   log cannot grow without bound while the server is busy</li>
+ * </ul>
+ * The scheduler is not thread safe and must be used from the Raft thread.
+ */
+class SnapshotScheduler {
+  static final Duration MIN_CHECK_INTERVAL = Duration.ofSeconds(1);
+  static final Duration MAX_CHECK_INTERVAL = Duration.ofSeconds(10);
+  static final Duration MAX_SNAPSHOT_DEFERRAL = Duration.ofMinutes(5);
+  static final Duration MIN_DISK_HORIZON = Duration.ofSeconds(30);
+  static final int SNAPSHOT_COST_FACTOR = 10;
+  static final double IDLE_THRESHOLD = .5;
+  static final double SMOOTHING_FACTOR = .5;
+  static final double MIN_LOG_GROWTH_RATE = 1;
+
+  /**
+   * Snapshot scheduling decision.
+   */
+  enum Decision {
+    /**
+     * Defer the snapshot until the next check.
+     */
+    DEFER,
+
+    /**
+     * Take a snapshot while the state machine is idle.
+     */
+    IDLE,
+
+    /**
+     * Take a snapshot to free disk space.
+     */
+    DISK_PRESSURE,
+
+    /**
+     * Take a snapshot because snapshots have been deferred for too long.
+     */
+    DEADLINE,
+  }
+
+  private final CompactionMonitor monitor;
+  private boolean sampled;
+  private long lastSampleTime;
+  private long lastSampleIndex;
+  private long lastSampleUsableSpace;
+  private long lastSampleApplyTime;
+  private double logGrowthRate;
+  private double diskConsumptionRate;
+  private double applyIdleRatio = 1;
+  private long lastSnapshotTime;
+  private long lastSnapshotDuration;
+  private long lastSnapshotSize;
+
+  SnapshotScheduler(CompactionMonitor monitor, long time) {
+    this.monitor = monitor;
+    this.lastSnapshotTime = time;
+  }
+
+  /**
+   * Samples the scheduler inputs.
+   *
+   * @param time        the current time in milliseconds
+   * @param lastIndex   the last index in the log
+   * @param usableSpace the usable disk space in bytes
+   * @param applyTime   the total time the state machine has spent applying entries in nanoseconds
+   */
+  void sample(long time, long lastIndex, long usableSpace, long applyTime) {
+    if (sampled && time > lastSampleTime) {
+      double elapsed = (time - lastSampleTime) / 1000d;
+      logGrowthRate = smooth(logGrowthRate, Math.max(lastIndex - lastSampleIndex, 0) / elapsed);
+      diskConsumptionRate = smooth(diskConsumptionRate, Math.max(lastSampleUsableSpace - usableSpace, 0) / elapsed);
+      double busyRatio = (applyTime - lastSampleApplyTime) / (elapsed * 1_000_000_000d);
+      applyIdleRatio = smooth(applyIdleRatio, Math.max(1 - busyRatio, 0));
+      monitor.recordRates(logGrowthRate, diskConsumptionRate, applyIdleRatio);
+    }
+    sampled = true;
+    lastSampleTime = time;
+    lastSampleIndex = lastIndex;
+    lastSampleUsableSpace = usableSpace;
+    lastSampleApplyTime = applyTime;
+  }
+
+  private static double smooth(double previous, double sample) {
+    return previous * (1 - SMOOTHING_FACTOR) + sample * SMOOTHING_FACTOR;
+  }
+
+  /**
+   * Decides whether to take a snapshot or compact the log.
+   *
+   * @param time          the current time in milliseconds
+   * @param usableSpace   the usable disk space in bytes
+   * @param reservedSpace the disk space in bytes below which the node is considered to be out of disk space
+   * @param highLoad      whether the server is under high load
+   * @return the scheduling decision
+   */
+  Decision decide(long time, long usableSpace, long reservedSpace, boolean highLoad) {
+    // Writing a snapshot consumes disk space before the log can be compacted, so leave room for the next snapshot.
+    long headroom = usableSpace - reservedSpace - lastSnapshotSize;
+    if (headroom <= 0) {
+      return Decision.DISK_PRESSURE;
+    }
+
+    // If the disk will fill up before a snapshot could comfortably complete, take the snapshot now.
+    if (diskConsumptionRate > 0) {
+      long horizon = Math.max(MIN_DISK_HORIZON.toMillis(), lastSnapshotDuration * SNAPSHOT_COST_FACTOR);
+      if (headroom / diskConsumptionRate * 1000 < horizon) {
+        return Decision.DISK_PRESSURE;
+      }
+    }
+
+    if (!highLoad && applyIdleRatio >= IDLE_THRESHOLD) {
+      return Decision.IDLE;
+    }
+    if (time - lastSnapshotTime >= MAX_SNAPSHOT_DEFERRAL.toMillis()) {
+      return Decision.DEADLINE;
+    }
+    return Decision.DEFER;
+  }
+
+  /**
+   * Returns the delay until the next scheduling check.
+   * <p>
+   * Checks are made frequently while the log is growing by at least {@link #MIN_LOG_GROWTH_RATE} entries per second so
+   * idle periods and disk pressure are detected quickly, and infrequently while the log is quiet.
+   *
+   * @return the delay until the next scheduling check
+   */
+  Duration nextCheck() {
+    return logGrowthRate >= MIN_LOG_GROWTH_RATE ? MIN_CHECK_INTERVAL : MAX_CHECK_INTERVAL;
+  }
+
+  /**
+   * Records the start of a snapshot.
+   *
+   * @param time the time at which the snapshot was started in milliseconds
+   */
+  void snapshotStarted(long time) {
+    lastSnapshotTime = time;
+  }
+
+  /**
+   * Records the completion of a snapshot.
+   *
+   * @param duration the time taken to write the snapshot in milliseconds
+   * @param size     the size of the snapshot in bytes
+   */
+  void snapshotCompleted(long duration, long size) {
+    lastSnapshotDuration = duration;
+    lastSnapshotSize = size;
+    monitor.recordSnapshot(duration, size);
+  }
+}
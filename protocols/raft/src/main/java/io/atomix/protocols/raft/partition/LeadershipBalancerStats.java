@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Statistics for the leadership balancer of a {@link RaftPartitionGroup}.
+ * <p>
+ * Statistics are reported from the perspective of the local member, which only ever requests leadership of
+ * partitions for itself.
+ */
+public final class LeadershipBalancerStats {
+
+  private int localLeaders;
+  private double imbalance;
+  private long transfersRequested;
+  private long transfersCompleted;
+  private long transfersFailed;
+  private long roundsSkipped;
+
+  /**
+   * Returns a {@code LeadershipBalancerStats} builder.
+   *
+   * @return builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private LeadershipBalancerStats() {
+  }
+
+  public static class Builder {
+
+    LeadershipBalancerStats stats = new LeadershipBalancerStats();
+
+    public Builder withLocalLeaders(int value) {
+      stats.localLeaders = value;
+      return this;
+    }
+
+    public Builder withImbalance(double value) {
+      stats.imbalance = value;
+      return this;
+    }
+
+    public Builder withTransfersRequested(long value) {
+      stats.transfersRequested = value;
+      return this;
+    }
+
+    public Builder withTransfersCompleted(long value) {
+      stats.transfersCompleted = value;
+      return this;
+    }
+
+    public Builder withTransfersFailed(long value) {
+      stats.transfersFailed = value;
+      return this;
+    }
+
+    public Builder withRoundsSkipped(long value) {
+      stats.roundsSkipped = value;
+      return this;
+    }
+
+    public LeadershipBalancerStats build() {
+      return stats;
+    }
+  }
+
+  /**
+   * Returns the number of partitions led by the local member in the last balancing round.
+   *
+   * @return the number of partitions led by the local member
+   */
+  public int localLeaders() {
+    return localLeaders;
+  }
+
+  /**
+   * Returns the difference between the most and least loaded members in the last balancing round.
+   * <p>
+   * Each led partition counts as one unit of load, or more when balancing is weighted by partition load.
+   *
+   * @return the difference between the most and least loaded members
+   */
+  public double imbalance() {
+    return imbalance;
+  }
+
+  /**
+   * Returns the total number of leadership transfers requested by the local member.
+   *
+   * @return the total number of leadership transfers requested
+   */
+  public long transfersRequested() {
+    return transfersRequested;
+  }
+
+  /**
+   * Returns the total number of requested leadership transfers that resulted in the local member being elected.
+   *
+   * @return the total number of completed leadership transfers
+   */
+  public long transfersCompleted() {
+    return transfersCompleted;
+  }
+
+  /**
+   * Returns the total number of requested leadership transfers that failed or timed out.
+   *
+   * @return the total number of failed leadership transfers
+   */
+  public long transfersFailed() {
+    return transfersFailed;
+  }
+
+  /**
+   * Returns the total number of balancing rounds skipped because a transfer was still in progress or
+   * some partition had no leader.
+   *
+   * @return the total number of skipped balancing rounds
+   */
+  public long roundsSkipped() {
+    return roundsSkipped;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(getClass())
+        .add("localLeaders", localLeaders)
+        .add("imbalance", imbalance)
+        .add("transfersRequested", transfersRequested)
+        .add("transfersCompleted", transfersCompleted)
+        .add("transfersFailed", transfersFailed)
+        .add("roundsSkipped", roundsSkipped)
+        .toString();
+  }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.primitive.partition.PartitionId;
+import io.atomix.protocols.raft.partition.impl.RaftPartitionServer;
+import io.atomix.utils.concurrent.Scheduled;
+import io.atomix.utils.concurrent.SingleThreadContext;
+import io.atomix.utils.concurrent.ThreadContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Balances partition leadership across the members of a Raft partition group.
+ * <p>
+ * Every member of the group runs a balancer. On each round the balancer computes how many partitions each member
+ * leads as seen by the local servers and, if the local member is sufficiently less loaded than the leader of one of
+ * its partitions, promotes the local server for that partition. Promotion uses the Raft leadership transfer
+ * protocol: the current leader catches the local server up, steps down, and the local server starts an election.
+ * <p>
+ * Balancing is rate limited to avoid churn. A member requests at most one transfer per round, skips rounds while a
+ * transfer is in progress or any partition is leaderless, and will not request the same partition again until
+ * several rounds have passed.
+ */
+final class RaftLeadershipBalancer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RaftLeadershipBalancer.class);
+  private static final int PARTITION_COOLDOWN_ROUNDS = 3;
+  private static final int TRANSFER_TIMEOUT_ROUNDS = 2;
+
+  private final MemberId localMemberId;
+  private final Collection<RaftPartition> partitions;
+  private final Duration interval;
+  private final boolean loadWeighted;
+  private final Map<PartitionId, Long> lastTransfers = new HashMap<>();
+  private ThreadContext threadContext;
+  private Scheduled balanceTimer;
+  private PartitionId transferring;
+  private long transferStartTime;
+  private volatile int localLeaders;
+  private volatile double imbalance;
+  private volatile long transfersRequested;
+  private volatile long transfersCompleted;
+  private volatile long transfersFailed;
+  private volatile long roundsSkipped;
+
+  RaftLeadershipBalancer(MemberId localMemberId, Collection<RaftPartition> partitions, Duration interval, boolean loadWeighted) {
+    this.localMemberId = checkNotNull(localMemberId, "localMemberId cannot be null");
+    this.partitions = checkNotNull(partitions, "partitions cannot be null");
+    this.interval = checkNotNull(interval, "interval cannot be null");
+    this.loadWeighted = loadWeighted;
+  }
+
+  /**
+   * Starts balancing partition leadership.
+   * <p>
+   * The first round is delayed by a random fraction of an interval beyond the first interval to give initial
+   * elections time to settle and to avoid all members balancing at the same time.
+   */
+  void start() {
+    threadContext = new SingleThreadContext("raft-leadership-balancer-%d");
+    Duration initialDelay = interval.plusMillis(ThreadLocalRandom.current().nextLong(interval.toMillis() + 1));
+    balanceTimer = threadContext.schedule(initialDelay, interval, this::balance);
+  }
+
+  /**
+   * Stops balancing partition leadership.
+   */
+  void stop() {
+    if (balanceTimer != null) {
+      balanceTimer.cancel();
+    }
+    if (threadContext != null) {
+      threadContext.close();
+    }
+  }
+
+  /**
+   * Returns the balancer statistics.
+   *
+   * @return the balancer statistics
+   */
+  LeadershipBalancerStats getStats() {
+    return LeadershipBalancerStats.builder()
+        .withLocalLeaders(localLeaders)
+        .withImbalance(imbalance)
+        .withTransfersRequested(transfersRequested)
+        .withTransfersCompleted(transfersCompleted)
+        .withTransfersFailed(transfersFailed)
+        .withRoundsSkipped(roundsSkipped)
+        .build();
+  }
+
+  /**
+   * Runs a single balancing round.
+   */
+  private void balance() {
+    long currentTime = System.currentTimeMillis();
+    if (transferring != null) {
+      if (currentTime - transferStartTime < interval.toMillis() * TRANSFER_TIMEOUT_ROUNDS) {
+        roundsSkipped++;
+        return;
+      }
+      LOGGER.debug("Leadership transfer of {} to {} timed out", transferring, localMemberId);
+      transferring = null;
+      transfersFailed++;
+    }
+
+    List<PartitionLeadership> leadership = new ArrayList<>();
+    Map<PartitionId, RaftPartitionServer> servers = new HashMap<>();
+    for (RaftPartition partition : partitions) {
+      RaftPartitionServer server = partition.server();
+      if (server == null || !server.isRunning() || !partition.members().contains(localMemberId)) {
+        continue;
+      }
+
+      MemberId leader = server.getLeader();
+      if (leader == null) {
+        roundsSkipped++;
+        return;
+      }
+
+      double weight = 1;
+      if (loadWeighted) {
+        weight += server.getRelativeLoad();
+      }
+      leadership.add(new PartitionLeadership(partition.id(), leader, partition.members(), weight));
+      servers.put(partition.id(), server);
+    }
+
+    Map<MemberId, Double> loads = computeLoads(leadership);
+    localLeaders = (int) leadership.stream().filter(p -> p.leader.equals(localMemberId)).count();
+    imbalance = loads.isEmpty() ? 0 : loads.values().stream().mapToDouble(Double::doubleValue).max().getAsDouble()
+        - loads.values().stream().mapToDouble(Double::doubleValue).min().getAsDouble();
+
+    lastTransfers.values().removeIf(time -> currentTime - time >= interval.toMillis() * PARTITION_COOLDOWN_ROUNDS);
+    leadership.removeIf(p -> lastTransfers.containsKey(p.partitionId));
+
+    PartitionLeadership transfer = selectTransfer(localMemberId, leadership, loads);
+    if (transfer == null) {
+      return;
+    }
+
+    LOGGER.info("Requesting leadership of {} from {} to balance partition leaders", transfer.partitionId, transfer.leader);
+    transferring = transfer.partitionId;
+    transferStartTime = currentTime;
+    lastTransfers.put(transfer.partitionId, currentTime);
+    transfersRequested++;
+    servers.get(transfer.partitionId).promote().whenCompleteAsync((result, error) -> {
+      if (!transfer.partitionId.equals(transferring)) {
+        return;
+      }
+      transferring = null;
+      if (error == null) {
+        LOGGER.debug("Completed leadership transfer of {} to {}", transfer.partitionId, localMemberId);
+        transfersCompleted++;
+      } else {
+        LOGGER.debug("Failed leadership transfer of {} to {}", transfer.partitionId, localMemberId, error);
+        transfersFailed++;
+      }
+    }, threadContext);
+  }
+
+  /**
+   * Computes the leadership load of each member of the given partitions.
+   *
+   * @param partitions the partitions for which to compute the leadership load
+   * @return the leadership load of each member
+   */
+  static Map<MemberId, Double> computeLoads(Collection<PartitionLeadership> partitions) {
+    Map<MemberId, Double> loads = new HashMap<>();
+    for (PartitionLeadership partition : partitions) {
+      for (MemberId member : partition.members) {
+        loads.putIfAbsent(member, 0d);
+      }
+      loads.merge(partition.leader, partition.weight, Double::sum);
+    }
+    return loads;
+  }
+
+  /**
+   * Selects the partition of which the local member should request leadership.
+   * <p>
+   * A partition is eligible if the local member is a follower and moving the partition's weight from its leader
+   * to the local member would leave the local member no more loaded than the leader was beforehand minus the
+   * partition's weight, i.e. the transfer strictly reduces the imbalance and cannot be immediately reversed.
+   * Among eligible partitions, the one led by the most loaded leader is selected.
+   *
+   * @param localMemberId the local member identifier
+   * @param partitions    the partitions in which the local member participates
+   * @param loads         the leadership load of each member
+   * @return the partition of which to request leadership or {@code null} if leadership is balanced
+   */
+  static PartitionLeadership selectTransfer(
+      MemberId localMemberId,
+      Collection<PartitionLeadership> partitions,
+      Map<MemberId, Double> loads) {
+    double localLoad = loads.getOrDefault(localMemberId, 0d);
+    PartitionLeadership selected = null;
+    double selectedLoad = 0;
+    for (PartitionLeadership partition : partitions) {
+      if (partition.leader.equals(localMemberId) || !partition.members.contains(localMemberId)) {
+        continue;
+      }
+      double leaderLoad = loads.getOrDefault(partition.leader, 0d);
+      if (leaderLoad - localLoad >= 2 * partition.weight && (selected == null || leaderLoad > selectedLoad)) {
+        selected = partition;
+        selectedLoad = leaderLoad;
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * Leadership of a single partition as seen by the local member.
+   */
+  static final class PartitionLeadership {
+    final PartitionId partitionId;
+    final MemberId leader;
+    final Collection<MemberId> members;
+    final double weight;
+
+    PartitionLeadership(PartitionId partitionId, MemberId leader, Collection<MemberId> members, double weight) {
+      this.partitionId = partitionId;
+      this.leader = leader;
+      this.members = members;
+      this.weight = weight;
+    }
+
+    @Override
+    public String toString() {
+      return toStringHelper(this)
+          .add("partitionId", partitionId)
+          .add("leader", leader)
+          .add("weight", weight)
+          .toString();
+    }
+  }
+}
@@ -22,6 +22,7 @@ import io.atomix.primitive.partition.PartitionManagementService;
 import io.atomix.primitive.partition.PartitionMetadata;
 import io.atomix.protocols.raft.RaftClient;
 import io.atomix.protocols.raft.partition.impl.RaftClientCommunicator;
+import io.atomix.protocols.raft.partition.impl.RaftHeartbeatBatcher;
 import io.atomix.protocols.raft.partition.impl.RaftNamespaces;
 import io.atomix.protocols.raft.partition.impl.RaftPartitionClient;
 import io.atomix.protocols.raft.partition.impl.RaftPartitionServer;
@@ -42,14 +43,21 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 public class RaftPartition implements Partition {
   private final PartitionId partitionId;
   private final StorageLevel storageLevel;
+  private final RaftPartitionGroupConfig config;
   private final File dataDirectory;
   private PartitionMetadata partition;
   private RaftPartitionClient client;
-  private RaftPartitionServer server;
+  private volatile RaftPartitionServer server;
+  private RaftHeartbeatBatcher heartbeatBatcher;
 
   public RaftPartition(PartitionId partitionId, StorageLevel storageLevel, File dataDirectory) {
+    this(partitionId, new RaftPartitionGroupConfig().setStorageLevel(storageLevel.name()), dataDirectory);
+  }
+
+  public RaftPartition(PartitionId partitionId, RaftPartitionGroupConfig config, File dataDirectory) {
     this.partitionId = partitionId;
-    this.storageLevel = storageLevel;
+    this.storageLevel = StorageLevel.valueOf(config.getStorageLevel().toUpperCase());
+    this.config = config;
     this.dataDirectory = dataDirectory;
   }
 
@@ -106,6 +114,15 @@ public class RaftPartition implements Partition {
     return storageLevel;
   }
 
+  /**
+   * Returns the configuration of the group to which the partition belongs.
+   *
+   * @return the partition group configuration
+   */
+  public RaftPartitionGroupConfig config() {
+    return config;
+  }
+
   /**
    * Returns the partition data directory.
    *
@@ -124,9 +141,21 @@ public class RaftPartition implements Partition {
    * Opens the partition.
    */
   CompletableFuture<Partition> open(PartitionMetadata metadata, PartitionManagementService managementService) {
+    return open(metadata, managementService, null);
+  }
+
+  /**
+   * Opens the partition, sharing the given heartbeat batcher with the other partitions in the group.
+   */
+  CompletableFuture<Partition> open(
+      PartitionMetadata metadata,
+      PartitionManagementService managementService,
+      RaftHeartbeatBatcher heartbeatBatcher) {
     this.partition = metadata;
+    this.heartbeatBatcher = heartbeatBatcher;
     this.client = createClient(managementService);
-    if (partition.members().contains(managementService.getMembershipService().getLocalMember().id())) {
+    MemberId localMemberId = managementService.getMembershipService().getLocalMember().id();
+    if (partition.members().contains(localMemberId) || isLearner(localMemberId)) {
       server = createServer(managementService);
       return server.start()
           .thenCompose(v -> client.start())
@@ -136,6 +165,25 @@ public class RaftPartition implements Partition {
         .thenApply(v -> this);
   }
 
+  /**
+   * Returns the local partition server.
+   *
+   * @return the local partition server or {@code null} if the local member does not participate in the partition
+   */
+  RaftPartitionServer server() {
+    return server;
+  }
+
+  /**
+   * Returns whether the given member is a non-voting learner for the partition.
+   *
+   * @param memberId the member to check
+   * @return whether the given member is a learner for the partition
+   */
+  public boolean isLearner(MemberId memberId) {
+    return config.getLearners().contains(memberId.id()) && (partition == null || !partition.members().contains(memberId));
+  }
+
   /**
    * Updates the partition with the given metadata.
    */
@@ -143,7 +191,9 @@ public class RaftPartition implements Partition {
     if (server == null && metadata.members().contains(managementService.getMembershipService().getLocalMember().id())) {
       server = createServer(managementService);
       return server.join(metadata.members());
-    } else if (server != null && !metadata.members().contains(managementService.getMembershipService().getLocalMember().id())) {
+    } else if (server != null
+        && !metadata.members().contains(managementService.getMembershipService().getLocalMember().id())
+        && !isLearner(managementService.getMembershipService().getLocalMember().id())) {
       return server.leave().thenRun(() -> server = null);
     }
     return CompletableFuture.completedFuture(null);
@@ -179,7 +229,8 @@ public class RaftPartition implements Partition {
         managementService.getMembershipService().getLocalMember().id(),
         managementService.getMembershipService(),
         managementService.getMessagingService(),
-        managementService.getPrimitiveTypes());
+        managementService.getPrimitiveTypes(),
+        heartbeatBatcher);
   }
 
   /**
@@ -31,13 +31,17 @@ import io.atomix.primitive.partition.PartitionManagementService;
 import io.atomix.primitive.partition.PartitionMetadata;
 import io.atomix.primitive.protocol.PrimitiveProtocol;
 import io.atomix.protocols.raft.MultiRaftProtocol;
+import io.atomix.protocols.raft.partition.impl.RaftHeartbeatBatcher;
+import io.atomix.protocols.raft.partition.impl.RaftNamespaces;
 import io.atomix.storage.StorageLevel;
 import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.config.ConfigurationException;
+import io.atomix.utils.serializer.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -51,6 +55,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -82,6 +87,7 @@ public class RaftPartitionGroup implements ManagedPartitionGroup<RaftPartition>
   }
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RaftPartitionGroup.class);
+  private static final Duration HEARTBEAT_BATCH_WINDOW = Duration.ofMillis(2);
 
   private static Collection<RaftPartition> buildPartitions(RaftPartitionGroupConfig config) {
     File partitionsDir = new File(config.getDataDirectory(), "partitions");
@@ -89,7 +95,7 @@ public class RaftPartitionGroup implements ManagedPartitionGroup<RaftPartition>
     for (int i = 0; i < config.getPartitions(); i++) {
       partitions.add(new RaftPartition(
           PartitionId.from(config.getName(), i + 1),
-          StorageLevel.valueOf(config.getStorageLevel().toUpperCase()),
+          config,
           new File(partitionsDir, String.valueOf(i + 1))));
     }
     return partitions;
@@ -101,6 +107,8 @@ public class RaftPartitionGroup implements ManagedPartitionGroup<RaftPartition>
   private final Map<PartitionId, RaftPartition> partitions = Maps.newConcurrentMap();
   private final List<PartitionId> sortedPartitionIds = Lists.newCopyOnWriteArrayList();
   private Collection<PartitionMetadata> metadata;
+  private RaftHeartbeatBatcher heartbeatBatcher;
+  private volatile RaftLeadershipBalancer leadershipBalancer;
 
   public RaftPartitionGroup(RaftPartitionGroupConfig config) {
     this.name = config.getName();
@@ -165,13 +173,29 @@ public class RaftPartitionGroup implements ManagedPartitionGroup<RaftPartition>
     }
 
     this.metadata = buildPartitions(managementService.getMembershipService());
-    List<CompletableFuture<Partition>> futures = metadata.stream()
-        .map(metadata -> {
-          RaftPartition partition = partitions.get(metadata.id());
-          return partition.open(metadata, managementService);
-        })
-        .collect(Collectors.toList());
-    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(v -> {
+    this.heartbeatBatcher = new RaftHeartbeatBatcher(
+        name,
+        config.isHeartbeatBatching(),
+        HEARTBEAT_BATCH_WINDOW,
+        Serializer.using(RaftNamespaces.RAFT_PROTOCOL),
+        managementService.getMessagingService());
+    return heartbeatBatcher.start().thenCompose(started -> {
+      List<CompletableFuture<Partition>> futures = metadata.stream()
+          .map(metadata -> {
+            RaftPartition partition = partitions.get(metadata.id());
+            return partition.open(metadata, managementService, heartbeatBatcher);
+          })
+          .collect(Collectors.toList());
+      return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+    }).thenApply(v -> {
+      if (config.isLeadershipBalancing()) {
+        leadershipBalancer = new RaftLeadershipBalancer(
+            managementService.getMembershipService().getLocalMember().id(),
+            partitions.values(),
+            config.getLeadershipBalanceInterval(),
+            config.isLoadWeightedBalancing());
+        leadershipBalancer.start();
+      }
       LOGGER.info("Started");
       return this;
     });
@@ -224,12 +248,30 @@ public class RaftPartitionGroup implements ManagedPartitionGroup<RaftPartition>
     return metadata;
   }
 
+  /**
+   * Returns statistics for the partition group's leadership balancer.
+   * <p>
+   * If leadership balancing is disabled, all statistics are zero.
+   *
+   * @return the leadership balancer statistics
+   */
+  public LeadershipBalancerStats getLeadershipBalancerStats() {
+    RaftLeadershipBalancer leadershipBalancer = this.leadershipBalancer;
+    return leadershipBalancer != null ? leadershipBalancer.getStats() : LeadershipBalancerStats.builder().build();
+  }
+
   @Override
   public CompletableFuture<Void> close() {
+    if (leadershipBalancer != null) {
+      leadershipBalancer.stop();
+    }
     List<CompletableFuture<Void>> futures = partitions.values().stream()
         .map(RaftPartition::close)
         .collect(Collectors.toList());
     return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenRun(() -> {
+      if (heartbeatBatcher != null) {
+        heartbeatBatcher.stop();
+      }
       LOGGER.info("Stopped");
     });
   }
@@ -295,6 +337,31 @@ public class RaftPartitionGroup implements ManagedPartitionGroup<RaftPartition>
       return this;
     }
 
+    /**
+     * Sets the Raft partition group learners.
+     *
+     * @param learners the Raft partition group learners
+     * @return the Raft partition group builder
+     * @throws NullPointerException if the learners are null
+     */
+    public Builder withLearners(String... learners) {
+      return withLearners(Arrays.asList(learners));
+    }
+
+    /**
+     * Sets the Raft partition group learners.
+     * <p>
+     * Learners replicate every partition in the group as non-voting members and serve queries locally.
+     *
+     * @param learners the Raft partition group learners
+     * @return the Raft partition group builder
+     * @throws NullPointerException if the learners are null
+     */
+    public Builder withLearners(Collection<String> learners) {
+      config.setLearners(Sets.newHashSet(checkNotNull(learners, "learners cannot be null")));
+      return this;
+    }
+
     /**
      * Sets the number of partitions.
      *
@@ -330,6 +397,68 @@ public class RaftPartitionGroup implements ManagedPartitionGroup<RaftPartition>
       return this;
     }
 
+    /**
+     * Sets the number of threads on which each partition's services are applied.
+     *
+     * @param applyThreads the number of threads on which each partition's services are applied
+     * @return the Raft partition group builder
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    public Builder withApplyThreads(int applyThreads) {
+      checkArgument(applyThreads > 0, "applyThreads must be positive");
+      config.setApplyThreads(applyThreads);
+      return this;
+    }
+
+    /**
+     * Sets whether to batch heartbeats for all partitions led by the local node into a single message per peer.
+     *
+     * @param heartbeatBatching whether to batch heartbeats
+     * @return the Raft partition group builder
+     */
+    public Builder withHeartbeatBatching(boolean heartbeatBatching) {
+      config.setHeartbeatBatching(heartbeatBatching);
+      return this;
+    }
+
+    /**
+     * Sets whether to balance partition leaders across the members of the group.
+     *
+     * @param leadershipBalancing whether to balance partition leaders
+     * @return the Raft partition group builder
+     */
+    public Builder withLeadershipBalancing(boolean leadershipBalancing) {
+      config.setLeadershipBalancing(leadershipBalancing);
+      return this;
+    }
+
+    /**
+     * Sets the interval at which partition leadership is balanced.
+     *
+     * @param leadershipBalanceInterval the interval at which partition leadership is balanced
+     * @return the Raft partition group builder
+     * @throws NullPointerException if the interval is null
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public Builder withLeadershipBalanceInterval(Duration leadershipBalanceInterval) {
+      checkNotNull(leadershipBalanceInterval, "leadershipBalanceInterval cannot be null");
+      checkArgument(!leadershipBalanceInterval.isNegative() && !leadershipBalanceInterval.isZero(),
+          "leadershipBalanceInterval must be positive");
+      config.setLeadershipBalanceInterval(leadershipBalanceInterval);
+      return this;
+    }
+
+    /**
+     * Sets whether to weight partition leadership by the load on each partition when balancing.
+     *
+     * @param loadWeightedBalancing whether to weight partition leadership by load
+     * @return the Raft partition group builder
+     */
+    public Builder withLoadWeightedBalancing(boolean loadWeightedBalancing) {
+      config.setLoadWeightedBalancing(loadWeightedBalancing);
+      return this;
+    }
+
     /**
      * Sets the path to the data directory.
      *
@@ -20,6 +20,7 @@ import io.atomix.primitive.protocol.PrimitiveProtocol;
 import io.atomix.protocols.raft.MultiRaftProtocol;
 import io.atomix.storage.StorageLevel;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -29,11 +30,19 @@ import java.util.Set;
 public class RaftPartitionGroupConfig extends PartitionGroupConfig<RaftPartitionGroupConfig> {
   private static final int DEFAULT_PARTITIONS = 7;
   private static final String DATA_PREFIX = ".data";
+  private static final int DEFAULT_APPLY_THREADS = 1;
+  private static final Duration DEFAULT_LEADERSHIP_BALANCE_INTERVAL = Duration.ofSeconds(10);
 
   private Set<String> members = new HashSet<>();
+  private Set<String> learners = new HashSet<>();
   private int partitionSize;
   private String storageLevel = StorageLevel.MAPPED.name();
   private String dataDirectory;
+  private int applyThreads = DEFAULT_APPLY_THREADS;
+  private boolean heartbeatBatching;
+  private boolean leadershipBalancing;
+  private Duration leadershipBalanceInterval = DEFAULT_LEADERSHIP_BALANCE_INTERVAL;
+  private boolean loadWeightedBalancing;
 
   @Override
   public PrimitiveProtocol.Type getType() {
@@ -65,6 +74,30 @@ public class RaftPartitionGroupConfig extends PartitionGroupConfig<RaftPartition
     return this;
   }
 
+  /**
+   * Returns the set of learners in the partition group.
+   *
+   * @return the set of learners in the partition group
+   */
+  public Set<String> getLearners() {
+    return learners;
+  }
+
+  /**
+   * Sets the set of learners in the partition group.
+   * <p>
+   * Learners are non-voting replicas of every partition in the group. They receive the log from the partition
+   * leader but never vote in elections or count towards the commit quorum, and they serve queries locally to
+   * scale reads without slowing down writes.
+   *
+   * @param learners the set of learners in the partition group
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setLearners(Set<String> learners) {
+    this.learners = learners;
+    return this;
+  }
+
   /**
    * Returns the partition size.
    *
@@ -125,4 +158,112 @@ public class RaftPartitionGroupConfig extends PartitionGroupConfig<RaftPartition
     this.dataDirectory = dataDirectory;
     return this;
   }
+
+  /**
+   * Returns the number of threads on which each partition's services are applied.
+   *
+   * @return the number of threads on which each partition's services are applied
+   */
+  public int getApplyThreads() {
+    return applyThreads;
+  }
+
+  /**
+   * Sets the number of threads on which each partition's services are applied.
+   * <p>
+   * By default, all services in a partition are applied on a single thread. When more than one thread is configured,
+   * services are hashed across the threads so commands for independent services may be applied in parallel.
+   *
+   * @param applyThreads the number of threads on which each partition's services are applied
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setApplyThreads(int applyThreads) {
+    this.applyThreads = applyThreads;
+    return this;
+  }
+
+  /**
+   * Returns whether heartbeats for all partitions led by a node are batched into a single message per peer.
+   *
+   * @return whether heartbeats are batched
+   */
+  public boolean isHeartbeatBatching() {
+    return heartbeatBatching;
+  }
+
+  /**
+   * Sets whether heartbeats for all partitions led by a node are batched into a single message per peer.
+   *
+   * @param heartbeatBatching whether heartbeats are batched
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setHeartbeatBatching(boolean heartbeatBatching) {
+    this.heartbeatBatching = heartbeatBatching;
+    return this;
+  }
+
+  /**
+   * Returns whether partition leaders are balanced across the members of the partition group.
+   *
+   * @return whether partition leaders are balanced
+   */
+  public boolean isLeadershipBalancing() {
+    return leadershipBalancing;
+  }
+
+  /**
+   * Sets whether partition leaders are balanced across the members of the partition group.
+   * <p>
+   * When enabled, each member periodically compares the number of partitions led by each member and requests
+   * leadership of a partition from the most loaded leader when doing so reduces the imbalance.
+   *
+   * @param leadershipBalancing whether partition leaders are balanced
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setLeadershipBalancing(boolean leadershipBalancing) {
+    this.leadershipBalancing = leadershipBalancing;
+    return this;
+  }
+
+  /**
+   * Returns the interval at which partition leadership is balanced.
+   *
+   * @return the interval at which partition leadership is balanced
+   */
+  public Duration getLeadershipBalanceInterval() {
+    return leadershipBalanceInterval;
+  }
+
+  /**
+   * Sets the interval at which partition leadership is balanced.
+   * <p>
+   * Each member requests at most one leadership transfer per interval.
+   *
+   * @param leadershipBalanceInterval the interval at which partition leadership is balanced
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setLeadershipBalanceInterval(Duration leadershipBalanceInterval) {
+    this.leadershipBalanceInterval = leadershipBalanceInterval;
+    return this;
+  }
+
+  /**
+   * Returns whether partition leadership is weighted by the load on each partition when balancing.
+   *
+   * @return whether partition leadership is weighted by load
+   */
+  public boolean isLoadWeightedBalancing() {
+    return loadWeightedBalancing;
+  }
+
+  /**
+   * Sets whether partition leadership is weighted by the load on each partition when balancing.
+   *
+   * @param loadWeightedBalancing whether partition leadership is weighted by load
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setLoadWeightedBalancing(boolean loadWeightedBalancing) {
+    this.loadWeightedBalancing = loadWeightedBalancing;
+    return this;
+  }
 }
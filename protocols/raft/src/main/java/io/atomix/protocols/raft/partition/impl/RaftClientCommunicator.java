@@ -63,7 +63,7 @@ public class RaftClientCommunicator implements RaftClientProtocol {
   }
 
   private <T, U> CompletableFuture<U> sendAndReceive(String subject, T request, MemberId memberId) {
-    return clusterCommunicator.send(subject, request, serializer::encode, serializer::decode, memberId);
+    return clusterCommunicator.send(subject, request, serializer, memberId);
   }
 
   @Override
@@ -98,7 +98,7 @@ public class RaftClientCommunicator implements RaftClientProtocol {
 
   @Override
   public void registerHeartbeatHandler(Function<HeartbeatRequest, CompletableFuture<HeartbeatResponse>> handler) {
-    clusterCommunicator.subscribe(context.heartbeatSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.heartbeatSubject, serializer, handler);
   }
 
   @Override
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition.impl;
+
+import com.google.common.collect.Maps;
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.ClusterMessagingService;
+import io.atomix.messaging.MessagingException;
+import io.atomix.protocols.raft.protocol.AppendRequest;
+import io.atomix.protocols.raft.protocol.AppendResponse;
+import io.atomix.utils.concurrent.Scheduled;
+import io.atomix.utils.concurrent.SingleThreadContext;
+import io.atomix.utils.concurrent.ThreadContext;
+import io.atomix.utils.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Node-level heartbeat batcher shared by all the Raft partitions in a partition group.
+ * <p>
+ * Leaders send heartbeats to their followers as empty {@link AppendRequest}s. When a node leads many partitions,
+ * heartbeats for every partition are sent to the same small set of peers. The batcher collects empty append
+ * requests destined for the same peer within a short window and sends them as a single message keyed by
+ * partition name. The receiving batcher dispatches each request to the append handler registered for the
+ * partition and returns all the responses in a single reply, which is then demultiplexed to the senders.
+ * <p>
+ * The receiving side is always enabled so that batches can be handled regardless of the local configuration.
+ */
+public class RaftHeartbeatBatcher {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RaftHeartbeatBatcher.class);
+  private static final String SUBJECT_PREFIX = "raft-heartbeat";
+
+  private final String subject;
+  private final boolean enabled;
+  private final Duration window;
+  private final Serializer serializer;
+  private final ClusterMessagingService messagingService;
+  private final Map<String, Function<AppendRequest, CompletableFuture<AppendResponse>>> handlers = Maps.newConcurrentMap();
+  private final Map<MemberId, Batch> batches = new HashMap<>();
+  private ThreadContext threadContext;
+
+  public RaftHeartbeatBatcher(String groupName, boolean enabled, Duration window, Serializer serializer, ClusterMessagingService messagingService) {
+    this.subject = String.format("%s-%s", SUBJECT_PREFIX, groupName);
+    this.enabled = enabled;
+    this.window = checkNotNull(window, "window cannot be null");
+    this.serializer = checkNotNull(serializer, "serializer cannot be null");
+    this.messagingService = checkNotNull(messagingService, "messagingService cannot be null");
+  }
+
+  /**
+   * Returns whether outbound heartbeats are batched.
+   *
+   * @return whether outbound heartbeats are batched
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Starts the batcher.
+   *
+   * @return a future to be completed once the batch handler has been registered
+   */
+  public CompletableFuture<Void> start() {
+    if (enabled) {
+      threadContext = new SingleThreadContext("raft-heartbeat-batcher-%d");
+    }
+    return messagingService.subscribe(subject, serializer, this::handleBatch);
+  }
+
+  /**
+   * Stops the batcher.
+   */
+  public void stop() {
+    messagingService.unsubscribe(subject);
+    if (threadContext != null) {
+      threadContext.close();
+    }
+  }
+
+  /**
+   * Registers the append handler for the given partition.
+   *
+   * @param partition the partition name
+   * @param handler   the append handler
+   */
+  public void register(String partition, Function<AppendRequest, CompletableFuture<AppendResponse>> handler) {
+    handlers.put(partition, handler);
+  }
+
+  /**
+   * Unregisters the append handler for the given partition.
+   *
+   * @param partition the partition name
+   */
+  public void unregister(String partition) {
+    handlers.remove(partition);
+  }
+
+  /**
+   * Queues an empty append request to be sent to the given member in the next batch.
+   *
+   * @param partition the partition name
+   * @param memberId  the member to which to send the request
+   * @param request   the append request
+   * @return a future to be completed with the partition's append response
+   */
+  public CompletableFuture<AppendResponse> append(String partition, MemberId memberId, AppendRequest request) {
+    CompletableFuture<AppendResponse> future = new CompletableFuture<>();
+    Batch fullBatch = null;
+    synchronized (batches) {
+      Batch batch = batches.get(memberId);
+      // A batch can carry only one request per partition, so send the pending batch early on a duplicate.
+      if (batch != null && batch.requests.containsKey(partition)) {
+        batch.timer.cancel();
+        fullBatch = batch;
+        batch = null;
+      }
+      if (batch == null) {
+        Batch newBatch = new Batch(memberId);
+        newBatch.timer = threadContext.schedule(window, () -> flush(newBatch));
+        batches.put(memberId, newBatch);
+        batch = newBatch;
+      }
+      batch.requests.put(partition, request);
+      batch.futures.put(partition, future);
+    }
+    if (fullBatch != null) {
+      flush(fullBatch);
+    }
+    return future;
+  }
+
+  /**
+   * Sends the given batch.
+   */
+  private void flush(Batch batch) {
+    synchronized (batches) {
+      if (batch.flushed) {
+        return;
+      }
+      batch.flushed = true;
+      batches.remove(batch.memberId, batch);
+    }
+
+    messagingService.<HashMap<String, AppendRequest>, HashMap<String, AppendResponse>>send(
+        subject, batch.requests, serializer, batch.memberId)
+        .whenComplete((responses, error) -> {
+          if (error == null) {
+            batch.futures.forEach((partition, future) -> {
+              AppendResponse response = responses.get(partition);
+              if (response != null) {
+                future.complete(response);
+              } else {
+                future.completeExceptionally(new MessagingException.NoRemoteHandler());
+              }
+            });
+          } else {
+            batch.futures.values().forEach(future -> future.completeExceptionally(error));
+          }
+        });
+  }
+
+  /**
+   * Handles a batch of append requests from a remote leader.
+   */
+  private CompletableFuture<HashMap<String, AppendResponse>> handleBatch(HashMap<String, AppendRequest> requests) {
+    HashMap<String, AppendResponse> responses = new HashMap<>(requests.size());
+    CompletableFuture[] futures = new CompletableFuture[requests.size()];
+    int i = 0;
+    for (Map.Entry<String, AppendRequest> entry : requests.entrySet()) {
+      Function<AppendRequest, CompletableFuture<AppendResponse>> handler = handlers.get(entry.getKey());
+      if (handler == null) {
+        LOGGER.debug("No append handler registered for partition {}", entry.getKey());
+        futures[i++] = CompletableFuture.completedFuture(null);
+      } else {
+        futures[i++] = handler.apply(entry.getValue()).thenAccept(response -> {
+          synchronized (responses) {
+            responses.put(entry.getKey(), response);
+          }
+        });
+      }
+    }
+    return CompletableFuture.allOf(futures).handle((v, error) -> responses);
+  }
+
+  /**
+   * Pending heartbeats for a single member.
+   */
+  private static class Batch {
+    private final MemberId memberId;
+    private final HashMap<String, AppendRequest> requests = new HashMap<>();
+    private final Map<String, CompletableFuture<AppendResponse>> futures = new HashMap<>();
+    private Scheduled timer;
+    private boolean flushed;
+
+    Batch(MemberId memberId) {
+      this.memberId = memberId;
+    }
+  }
+}
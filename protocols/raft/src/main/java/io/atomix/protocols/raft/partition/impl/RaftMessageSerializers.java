@@ -0,0 +1,357 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition.impl;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.operation.OperationType;
+import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.primitive.operation.impl.DefaultOperationId;
+import io.atomix.protocols.raft.RaftError;
+import io.atomix.protocols.raft.protocol.AppendRequest;
+import io.atomix.protocols.raft.protocol.AppendResponse;
+import io.atomix.protocols.raft.protocol.CommandRequest;
+import io.atomix.protocols.raft.protocol.CommandResponse;
+import io.atomix.protocols.raft.protocol.QueryRequest;
+import io.atomix.protocols.raft.protocol.QueryResponse;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
+import io.atomix.protocols.raft.storage.log.entry.QueryEntry;
+import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Explicit serializers for the Raft protocol's hot message types.
+ * <p>
+ * These serializers write the fields of each type directly in a fixed order, avoiding the reflective field access,
+ * per-field class resolution and reference tracking of nested values performed by Kryo's default field serializer.
+ * They're registered only in the {@link RaftNamespaces#RAFT_PROTOCOL protocol namespace}; the format of entries
+ * written to the Raft log by the {@link RaftNamespaces#RAFT_STORAGE storage namespace} is unchanged.
+ */
+final class RaftMessageSerializers {
+  private static final RaftResponse.Status[] STATUSES = RaftResponse.Status.values();
+  private static final OperationType[] OPERATION_TYPES = OperationType.values();
+
+  private RaftMessageSerializers() {
+  }
+
+  private static void writeBytes(Output output, byte[] bytes) {
+    if (bytes == null) {
+      output.writeVarInt(0, true);
+    } else {
+      output.writeVarInt(bytes.length + 1, true);
+      output.writeBytes(bytes);
+    }
+  }
+
+  private static byte[] readBytes(Input input) {
+    int length = input.readVarInt(true);
+    return length == 0 ? null : input.readBytes(length - 1);
+  }
+
+  private static void writeOperation(Kryo kryo, Output output, PrimitiveOperation operation) {
+    kryo.writeClassAndObject(output, operation.id());
+    writeBytes(output, operation.value());
+  }
+
+  private static PrimitiveOperation readOperation(Kryo kryo, Input input) {
+    OperationId id = (OperationId) kryo.readClassAndObject(input);
+    return new PrimitiveOperation(id, readBytes(input));
+  }
+
+  private static void writeStatus(Kryo kryo, Output output, RaftResponse response) {
+    output.writeByte(response.status().ordinal());
+    kryo.writeObjectOrNull(output, response.error(), RaftError.class);
+  }
+
+  private static RaftResponse.Status readStatus(Input input) {
+    return STATUSES[input.readByte()];
+  }
+
+  private static RaftError readError(Kryo kryo, Input input) {
+    return kryo.readObjectOrNull(input, RaftError.class);
+  }
+
+  /**
+   * Append request serializer.
+   */
+  static class AppendRequestSerializer extends Serializer<AppendRequest> {
+    AppendRequestSerializer() {
+      super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, AppendRequest request) {
+      output.writeVarLong(request.term(), true);
+      output.writeString(request.leader().id());
+      output.writeVarLong(request.prevLogIndex(), true);
+      output.writeVarLong(request.prevLogTerm(), true);
+      output.writeVarLong(request.commitIndex(), true);
+      List<RaftLogEntry> entries = request.entries();
+      output.writeVarInt(entries.size(), true);
+      for (RaftLogEntry entry : entries) {
+        kryo.writeClassAndObject(output, entry);
+      }
+    }
+
+    @Override
+    public AppendRequest read(Kryo kryo, Input input, Class<AppendRequest> type) {
+      long term = input.readVarLong(true);
+      String leader = input.readString();
+      long prevLogIndex = input.readVarLong(true);
+      long prevLogTerm = input.readVarLong(true);
+      long commitIndex = input.readVarLong(true);
+      int size = input.readVarInt(true);
+      List<RaftLogEntry> entries = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        entries.add((RaftLogEntry) kryo.readClassAndObject(input));
+      }
+      return new AppendRequest(term, leader, prevLogIndex, prevLogTerm, entries, commitIndex);
+    }
+  }
+
+  /**
+   * Append response serializer.
+   */
+  static class AppendResponseSerializer extends Serializer<AppendResponse> {
+    AppendResponseSerializer() {
+      super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, AppendResponse response) {
+      writeStatus(kryo, output, response);
+      output.writeVarLong(response.term(), true);
+      output.writeBoolean(response.succeeded());
+      output.writeVarLong(response.lastLogIndex(), true);
+    }
+
+    @Override
+    public AppendResponse read(Kryo kryo, Input input, Class<AppendResponse> type) {
+      RaftResponse.Status status = readStatus(input);
+      RaftError error = readError(kryo, input);
+      long term = input.readVarLong(true);
+      boolean succeeded = input.readBoolean();
+      long lastLogIndex = input.readVarLong(true);
+      return new AppendResponse(status, error, term, succeeded, lastLogIndex);
+    }
+  }
+
+  /**
+   * Command request serializer.
+   */
+  static class CommandRequestSerializer extends Serializer<CommandRequest> {
+    CommandRequestSerializer() {
+      super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, CommandRequest request) {
+      output.writeVarLong(request.session(), true);
+      output.writeVarLong(request.sequenceNumber(), true);
+      writeOperation(kryo, output, request.operation());
+    }
+
+    @Override
+    public CommandRequest read(Kryo kryo, Input input, Class<CommandRequest> type) {
+      long session = input.readVarLong(true);
+      long sequence = input.readVarLong(true);
+      return new CommandRequest(session, sequence, readOperation(kryo, input));
+    }
+  }
+
+  /**
+   * Query request serializer.
+   */
+  static class QueryRequestSerializer extends Serializer<QueryRequest> {
+    QueryRequestSerializer() {
+      super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, QueryRequest request) {
+      output.writeVarLong(request.session(), true);
+      output.writeVarLong(request.sequenceNumber(), true);
+      output.writeVarLong(request.index(), true);
+      writeOperation(kryo, output, request.operation());
+    }
+
+    @Override
+    public QueryRequest read(Kryo kryo, Input input, Class<QueryRequest> type) {
+      long session = input.readVarLong(true);
+      long sequence = input.readVarLong(true);
+      long index = input.readVarLong(true);
+      return new QueryRequest(session, sequence, readOperation(kryo, input), index);
+    }
+  }
+
+  /**
+   * Command response serializer.
+   */
+  static class CommandResponseSerializer extends Serializer<CommandResponse> {
+    CommandResponseSerializer() {
+      super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, CommandResponse response) {
+      writeStatus(kryo, output, response);
+      output.writeVarLong(response.index(), true);
+      output.writeVarLong(response.eventIndex(), true);
+      output.writeVarLong(response.lastSequenceNumber(), true);
+      writeBytes(output, response.result());
+    }
+
+    @Override
+    public CommandResponse read(Kryo kryo, Input input, Class<CommandResponse> type) {
+      RaftResponse.Status status = readStatus(input);
+      RaftError error = readError(kryo, input);
+      long index = input.readVarLong(true);
+      long eventIndex = input.readVarLong(true);
+      long lastSequence = input.readVarLong(true);
+      return new CommandResponse(status, error, index, eventIndex, readBytes(input), lastSequence);
+    }
+  }
+
+  /**
+   * Query response serializer.
+   */
+  static class QueryResponseSerializer extends Serializer<QueryResponse> {
+    QueryResponseSerializer() {
+      super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, QueryResponse response) {
+      writeStatus(kryo, output, response);
+      output.writeVarLong(response.index(), true);
+      output.writeVarLong(response.eventIndex(), true);
+      output.writeVarLong(response.lastSequenceNumber(), true);
+      writeBytes(output, response.result());
+    }
+
+    @Override
+    public QueryResponse read(Kryo kryo, Input input, Class<QueryResponse> type) {
+      RaftResponse.Status status = readStatus(input);
+      RaftError error = readError(kryo, input);
+      long index = input.readVarLong(true);
+      long eventIndex = input.readVarLong(true);
+      long lastSequence = input.readVarLong(true);
+      return new QueryResponse(status, error, index, eventIndex, readBytes(input), lastSequence);
+    }
+  }
+
+  /**
+   * Command entry serializer.
+   */
+  static class CommandEntrySerializer extends Serializer<CommandEntry> {
+    CommandEntrySerializer() {
+      super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, CommandEntry entry) {
+      output.writeVarLong(entry.term(), true);
+      output.writeLong(entry.timestamp());
+      output.writeVarLong(entry.session(), true);
+      output.writeVarLong(entry.sequenceNumber(), true);
+      writeOperation(kryo, output, entry.operation());
+    }
+
+    @Override
+    public CommandEntry read(Kryo kryo, Input input, Class<CommandEntry> type) {
+      long term = input.readVarLong(true);
+      long timestamp = input.readLong();
+      long session = input.readVarLong(true);
+      long sequence = input.readVarLong(true);
+      return new CommandEntry(term, timestamp, session, sequence, readOperation(kryo, input));
+    }
+  }
+
+  /**
+   * Query entry serializer.
+   */
+  static class QueryEntrySerializer extends Serializer<QueryEntry> {
+    QueryEntrySerializer() {
+      super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, QueryEntry entry) {
+      output.writeVarLong(entry.term(), true);
+      output.writeLong(entry.timestamp());
+      output.writeVarLong(entry.session(), true);
+      output.writeVarLong(entry.sequenceNumber(), true);
+      writeOperation(kryo, output, entry.operation());
+    }
+
+    @Override
+    public QueryEntry read(Kryo kryo, Input input, Class<QueryEntry> type) {
+      long term = input.readVarLong(true);
+      long timestamp = input.readLong();
+      long session = input.readVarLong(true);
+      long sequence = input.readVarLong(true);
+      return new QueryEntry(term, timestamp, session, sequence, readOperation(kryo, input));
+    }
+  }
+
+  /**
+   * Primitive operation serializer.
+   */
+  static class PrimitiveOperationSerializer extends Serializer<PrimitiveOperation> {
+    PrimitiveOperationSerializer() {
+      super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, PrimitiveOperation operation) {
+      writeOperation(kryo, output, operation);
+    }
+
+    @Override
+    public PrimitiveOperation read(Kryo kryo, Input input, Class<PrimitiveOperation> type) {
+      return readOperation(kryo, input);
+    }
+  }
+
+  /**
+   * Operation identifier serializer.
+   */
+  static class DefaultOperationIdSerializer extends Serializer<DefaultOperationId> {
+    DefaultOperationIdSerializer() {
+      super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, DefaultOperationId id) {
+      // Operation names are usually shared constants, so write them as references to avoid repeating
+      // them for every entry in a batch.
+      kryo.writeObject(output, id.id());
+      output.writeByte(id.type().ordinal());
+    }
+
+    @Override
+    public DefaultOperationId read(Kryo kryo, Input input, Class<DefaultOperationId> type) {
+      String id = kryo.readObject(input, String.class);
+      return new DefaultOperationId(id, OPERATION_TYPES[input.readByte()]);
+    }
+  }
+}
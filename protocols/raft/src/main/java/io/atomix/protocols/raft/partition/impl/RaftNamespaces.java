@@ -55,6 +55,8 @@ import io.atomix.protocols.raft.protocol.PublishRequest;
 import io.atomix.protocols.raft.protocol.QueryRequest;
 import io.atomix.protocols.raft.protocol.QueryResponse;
 import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
 import io.atomix.protocols.raft.protocol.ResetRequest;
@@ -85,6 +87,9 @@ public final class RaftNamespaces {
 
   /**
    * Raft protocol namespace.
+   * <p>
+   * The hot request, response and entry types are registered with the explicit serializers in
+   * {@link RaftMessageSerializers} rather than Kryo's default field serializer.
    */
   public static final KryoNamespace RAFT_PROTOCOL = KryoNamespace.builder()
       .register(KryoNamespaces.BASIC)
@@ -97,10 +102,10 @@ public final class RaftNamespaces {
       .register(KeepAliveResponse.class)
       .register(HeartbeatRequest.class)
       .register(HeartbeatResponse.class)
-      .register(QueryRequest.class)
-      .register(QueryResponse.class)
-      .register(CommandRequest.class)
-      .register(CommandResponse.class)
+      .register(new RaftMessageSerializers.QueryRequestSerializer(), QueryRequest.class)
+      .register(new RaftMessageSerializers.QueryResponseSerializer(), QueryResponse.class)
+      .register(new RaftMessageSerializers.CommandRequestSerializer(), CommandRequest.class)
+      .register(new RaftMessageSerializers.CommandResponseSerializer(), CommandResponse.class)
       .register(MetadataRequest.class)
       .register(MetadataResponse.class)
       .register(JoinRequest.class)
@@ -117,8 +122,8 @@ public final class RaftNamespaces {
       .register(PollResponse.class)
       .register(VoteRequest.class)
       .register(VoteResponse.class)
-      .register(AppendRequest.class)
-      .register(AppendResponse.class)
+      .register(new RaftMessageSerializers.AppendRequestSerializer(), AppendRequest.class)
+      .register(new RaftMessageSerializers.AppendResponseSerializer(), AppendResponse.class)
       .register(PublishRequest.class)
       .register(ResetRequest.class)
       .register(RaftResponse.Status.class)
@@ -127,17 +132,17 @@ public final class RaftNamespaces {
       .register(ReadConsistency.class)
       .register(SessionMetadata.class)
       .register(CloseSessionEntry.class)
-      .register(CommandEntry.class)
+      .register(new RaftMessageSerializers.CommandEntrySerializer(), CommandEntry.class)
       .register(ConfigurationEntry.class)
       .register(InitializeEntry.class)
       .register(KeepAliveEntry.class)
       .register(MetadataEntry.class)
       .register(OpenSessionEntry.class)
-      .register(QueryEntry.class)
-      .register(PrimitiveOperation.class)
+      .register(new RaftMessageSerializers.QueryEntrySerializer(), QueryEntry.class)
+      .register(new RaftMessageSerializers.PrimitiveOperationSerializer(), PrimitiveOperation.class)
       .register(PrimitiveEvent.class)
       .register(DefaultEventType.class)
-      .register(DefaultOperationId.class)
+      .register(new RaftMessageSerializers.DefaultOperationIdSerializer(), DefaultOperationId.class)
       .register(OperationType.class)
       .register(ReadConsistency.class)
       .register(ArrayList.class)
@@ -150,6 +155,8 @@ public final class RaftNamespaces {
       .register(RaftMember.Type.class)
       .register(Instant.class)
       .register(Configuration.class)
+      .register(ReadIndexRequest.class)
+      .register(ReadIndexResponse.class)
       .build("RaftProtocol");
 
   /**
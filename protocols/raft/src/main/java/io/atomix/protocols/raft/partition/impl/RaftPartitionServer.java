@@ -21,8 +21,10 @@ import io.atomix.cluster.messaging.ClusterMessagingService;
 import io.atomix.primitive.PrimitiveTypeRegistry;
 import io.atomix.primitive.partition.Partition;
 import io.atomix.protocols.raft.RaftServer;
+import io.atomix.protocols.raft.cluster.RaftMember;
 import io.atomix.protocols.raft.partition.RaftPartition;
 import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.utils.LoadMonitor;
 import io.atomix.utils.Managed;
 import io.atomix.utils.serializer.Serializer;
 import org.slf4j.Logger;
@@ -55,7 +57,8 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
   private final ClusterMembershipService membershipService;
   private final ClusterMessagingService clusterCommunicator;
   private final PrimitiveTypeRegistry primitiveTypes;
-  private RaftServer server;
+  private final RaftHeartbeatBatcher heartbeatBatcher;
+  private volatile RaftServer server;
 
   public RaftPartitionServer(
       RaftPartition partition,
@@ -63,11 +66,22 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
       ClusterMembershipService membershipService,
       ClusterMessagingService clusterCommunicator,
       PrimitiveTypeRegistry primitiveTypes) {
+    this(partition, localMemberId, membershipService, clusterCommunicator, primitiveTypes, null);
+  }
+
+  public RaftPartitionServer(
+      RaftPartition partition,
+      MemberId localMemberId,
+      ClusterMembershipService membershipService,
+      ClusterMessagingService clusterCommunicator,
+      PrimitiveTypeRegistry primitiveTypes,
+      RaftHeartbeatBatcher heartbeatBatcher) {
     this.partition = partition;
     this.localMemberId = localMemberId;
     this.membershipService = membershipService;
     this.clusterCommunicator = clusterCommunicator;
     this.primitiveTypes = primitiveTypes;
+    this.heartbeatBatcher = heartbeatBatcher;
   }
 
   @Override
@@ -82,6 +96,14 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
         server = buildServer();
       }
       serverOpenFuture = server.bootstrap(partition.members());
+    } else if (partition.isLearner(localMemberId)) {
+      if (server != null && server.isRunning()) {
+        return CompletableFuture.completedFuture(null);
+      }
+      synchronized (this) {
+        server = buildServer();
+      }
+      serverOpenFuture = server.listen(partition.members());
     } else {
       serverOpenFuture = CompletableFuture.completedFuture(null);
     }
@@ -138,10 +160,13 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
         .withProtocol(new RaftServerCommunicator(
             partition.name(),
             Serializer.using(RaftNamespaces.RAFT_PROTOCOL),
-            clusterCommunicator))
+            clusterCommunicator,
+            heartbeatBatcher))
         .withPrimitiveTypes(primitiveTypes)
         .withElectionTimeout(Duration.ofMillis(ELECTION_TIMEOUT_MILLIS))
         .withHeartbeatInterval(Duration.ofMillis(HEARTBEAT_INTERVAL_MILLIS))
+        .withApplyThreads(partition.config().getApplyThreads())
+        .withLearner(partition.isLearner(localMemberId))
         .withStorage(RaftStorage.builder()
             .withPrefix(partition.name())
             .withStorageLevel(partition.storageLevel())
@@ -164,6 +189,43 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
     }).thenApply(v -> null);
   }
 
+  /**
+   * Returns the partition leader as seen by the local server.
+   *
+   * @return the partition leader or {@code null} if the leader is unknown
+   */
+  public MemberId getLeader() {
+    RaftServer server = this.server;
+    if (server == null || !server.isRunning()) {
+      return null;
+    }
+    RaftMember leader = server.cluster().getLeader();
+    return leader != null ? leader.memberId() : null;
+  }
+
+  /**
+   * Returns the number of operations recently applied by the local server relative to its high load threshold.
+   *
+   * @return the relative load on the local server
+   */
+  public double getRelativeLoad() {
+    RaftServer server = this.server;
+    if (server == null) {
+      return 0;
+    }
+    LoadMonitor loadMonitor = server.getLoadMonitor();
+    return (double) loadMonitor.getLoad() / Math.max(loadMonitor.getHighLoadThreshold(), 1);
+  }
+
+  /**
+   * Requests leadership of the partition for the local server.
+   *
+   * @return future to be completed once the local server has been elected leader
+   */
+  public CompletableFuture<Void> promote() {
+    return server.promote().thenApply(v -> null);
+  }
+
   @Override
   public boolean isRunning() {
     return server.isRunning();
@@ -47,6 +47,8 @@ import io.atomix.protocols.raft.protocol.PublishRequest;
 import io.atomix.protocols.raft.protocol.QueryRequest;
 import io.atomix.protocols.raft.protocol.QueryResponse;
 import io.atomix.protocols.raft.protocol.RaftServerProtocol;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
 import io.atomix.protocols.raft.protocol.ResetRequest;
@@ -65,22 +67,34 @@ import java.util.function.Function;
  * Raft server protocol that uses a {@link ClusterMessagingService}.
  */
 public class RaftServerCommunicator implements RaftServerProtocol {
+  private final String prefix;
   private final RaftMessageContext context;
   private final Serializer serializer;
   private final ClusterMessagingService clusterCommunicator;
+  private final RaftHeartbeatBatcher heartbeatBatcher;
 
   public RaftServerCommunicator(Serializer serializer, ClusterMessagingService clusterCommunicator) {
     this(null, serializer, clusterCommunicator);
   }
 
   public RaftServerCommunicator(String prefix, Serializer serializer, ClusterMessagingService clusterCommunicator) {
+    this(prefix, serializer, clusterCommunicator, null);
+  }
+
+  public RaftServerCommunicator(
+      String prefix,
+      Serializer serializer,
+      ClusterMessagingService clusterCommunicator,
+      RaftHeartbeatBatcher heartbeatBatcher) {
+    this.prefix = prefix;
     this.context = new RaftMessageContext(prefix);
     this.serializer = Preconditions.checkNotNull(serializer, "serializer cannot be null");
     this.clusterCommunicator = Preconditions.checkNotNull(clusterCommunicator, "clusterCommunicator cannot be null");
+    this.heartbeatBatcher = prefix != null ? heartbeatBatcher : null;
   }
 
   private <T, U> CompletableFuture<U> sendAndReceive(String subject, T request, MemberId memberId) {
-    return clusterCommunicator.send(subject, request, serializer::encode, serializer::decode, MemberId.from(memberId.id()));
+    return clusterCommunicator.send(subject, request, serializer, MemberId.from(memberId.id()));
   }
 
   @Override
@@ -143,6 +157,11 @@ public class RaftServerCommunicator implements RaftServerProtocol {
     return sendAndReceive(context.transferSubject, request, memberId);
   }
 
+  @Override
+  public CompletableFuture<ReadIndexResponse> readIndex(MemberId memberId, ReadIndexRequest request) {
+    return sendAndReceive(context.readIndexSubject, request, memberId);
+  }
+
   @Override
   public CompletableFuture<PollResponse> poll(MemberId memberId, PollRequest request) {
     return sendAndReceive(context.pollSubject, request, memberId);
@@ -155,12 +174,15 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public CompletableFuture<AppendResponse> append(MemberId memberId, AppendRequest request) {
+    if (heartbeatBatcher != null && heartbeatBatcher.isEnabled() && request.entries().isEmpty()) {
+      return heartbeatBatcher.append(prefix, memberId, request);
+    }
     return sendAndReceive(context.appendSubject, request, memberId);
   }
 
   @Override
   public void publish(MemberId memberId, PublishRequest request) {
-    clusterCommunicator.unicast(context.publishSubject(request.session()), request, serializer::encode, MemberId.from(memberId.id()));
+    clusterCommunicator.unicast(context.publishSubject(request.session()), request, serializer, MemberId.from(memberId.id()));
   }
 
   @Override
@@ -170,7 +192,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerOpenSessionHandler(Function<OpenSessionRequest, CompletableFuture<OpenSessionResponse>> handler) {
-    clusterCommunicator.subscribe(context.openSessionSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.openSessionSubject, serializer, handler);
   }
 
   @Override
@@ -180,7 +202,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerCloseSessionHandler(Function<CloseSessionRequest, CompletableFuture<CloseSessionResponse>> handler) {
-    clusterCommunicator.subscribe(context.closeSessionSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.closeSessionSubject, serializer, handler);
   }
 
   @Override
@@ -190,7 +212,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerKeepAliveHandler(Function<KeepAliveRequest, CompletableFuture<KeepAliveResponse>> handler) {
-    clusterCommunicator.subscribe(context.keepAliveSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.keepAliveSubject, serializer, handler);
   }
 
   @Override
@@ -200,7 +222,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerQueryHandler(Function<QueryRequest, CompletableFuture<QueryResponse>> handler) {
-    clusterCommunicator.subscribe(context.querySubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.querySubject, serializer, handler);
   }
 
   @Override
@@ -210,7 +232,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerCommandHandler(Function<CommandRequest, CompletableFuture<CommandResponse>> handler) {
-    clusterCommunicator.subscribe(context.commandSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.commandSubject, serializer, handler);
   }
 
   @Override
@@ -220,7 +242,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerMetadataHandler(Function<MetadataRequest, CompletableFuture<MetadataResponse>> handler) {
-    clusterCommunicator.subscribe(context.metadataSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.metadataSubject, serializer, handler);
   }
 
   @Override
@@ -230,7 +252,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerJoinHandler(Function<JoinRequest, CompletableFuture<JoinResponse>> handler) {
-    clusterCommunicator.subscribe(context.joinSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.joinSubject, serializer, handler);
   }
 
   @Override
@@ -240,7 +262,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerLeaveHandler(Function<LeaveRequest, CompletableFuture<LeaveResponse>> handler) {
-    clusterCommunicator.subscribe(context.leaveSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.leaveSubject, serializer, handler);
   }
 
   @Override
@@ -250,7 +272,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerConfigureHandler(Function<ConfigureRequest, CompletableFuture<ConfigureResponse>> handler) {
-    clusterCommunicator.subscribe(context.configureSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.configureSubject, serializer, handler);
   }
 
   @Override
@@ -260,7 +282,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerReconfigureHandler(Function<ReconfigureRequest, CompletableFuture<ReconfigureResponse>> handler) {
-    clusterCommunicator.subscribe(context.reconfigureSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.reconfigureSubject, serializer, handler);
   }
 
   @Override
@@ -270,7 +292,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerInstallHandler(Function<InstallRequest, CompletableFuture<InstallResponse>> handler) {
-    clusterCommunicator.subscribe(context.installSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.installSubject, serializer, handler);
   }
 
   @Override
@@ -280,7 +302,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerTransferHandler(Function<TransferRequest, CompletableFuture<TransferResponse>> handler) {
-    clusterCommunicator.subscribe(context.transferSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.transferSubject, serializer, handler);
   }
 
   @Override
@@ -288,9 +310,19 @@ public class RaftServerCommunicator implements RaftServerProtocol {
     clusterCommunicator.unsubscribe(context.transferSubject);
   }
 
+  @Override
+  public void registerReadIndexHandler(Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> handler) {
+    clusterCommunicator.subscribe(context.readIndexSubject, serializer, handler);
+  }
+
+  @Override
+  public void unregisterReadIndexHandler() {
+    clusterCommunicator.unsubscribe(context.readIndexSubject);
+  }
+
   @Override
   public void registerPollHandler(Function<PollRequest, CompletableFuture<PollResponse>> handler) {
-    clusterCommunicator.subscribe(context.pollSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.pollSubject, serializer, handler);
   }
 
   @Override
@@ -300,7 +332,7 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerVoteHandler(Function<VoteRequest, CompletableFuture<VoteResponse>> handler) {
-    clusterCommunicator.subscribe(context.voteSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.voteSubject, serializer, handler);
   }
 
   @Override
@@ -310,12 +342,18 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public void registerAppendHandler(Function<AppendRequest, CompletableFuture<AppendResponse>> handler) {
-    clusterCommunicator.subscribe(context.appendSubject, serializer::decode, handler, serializer::encode);
+    clusterCommunicator.subscribe(context.appendSubject, serializer, handler);
+    if (heartbeatBatcher != null) {
+      heartbeatBatcher.register(prefix, handler);
+    }
   }
 
   @Override
   public void unregisterAppendHandler() {
     clusterCommunicator.unsubscribe(context.appendSubject);
+    if (heartbeatBatcher != null) {
+      heartbeatBatcher.unregister(prefix);
+    }
   }
 
   @Override
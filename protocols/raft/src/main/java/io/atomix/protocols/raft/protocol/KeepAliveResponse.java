@@ -20,6 +20,7 @@ import io.atomix.protocols.raft.RaftError;
 import io.atomix.utils.misc.ArraySizeHashPrinter;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Objects;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -46,12 +47,24 @@ public class KeepAliveResponse extends AbstractRaftResponse {
 
   private final MemberId leader;
   private final Collection<MemberId> members;
+  private final Collection<MemberId> learners;
   private final long[] sessionIds;
 
   public KeepAliveResponse(Status status, RaftError error, MemberId leader, Collection<MemberId> members, long[] sessionIds) {
+    this(status, error, leader, members, Collections.emptyList(), sessionIds);
+  }
+
+  public KeepAliveResponse(
+      Status status,
+      RaftError error,
+      MemberId leader,
+      Collection<MemberId> members,
+      Collection<MemberId> learners,
+      long[] sessionIds) {
     super(status, error);
     this.leader = leader;
     this.members = members;
+    this.learners = learners;
     this.sessionIds = sessionIds;
   }
 
@@ -73,6 +86,17 @@ public class KeepAliveResponse extends AbstractRaftResponse {
     return members;
   }
 
+  /**
+   * Returns the learner members.
+   * <p>
+   * Learners are non-voting members that can serve queries on behalf of the cluster.
+   *
+   * @return The learner members.
+   */
+  public Collection<MemberId> learners() {
+    return learners != null ? learners : Collections.emptyList();
+  }
+
   /**
    * Returns the sessions that were successfully kept alive.
    *
@@ -107,6 +131,7 @@ public class KeepAliveResponse extends AbstractRaftResponse {
           .add("status", status)
           .add("leader", leader)
           .add("members", members)
+          .add("learners", learners)
           .add("sessionIds", ArraySizeHashPrinter.of(sessionIds))
           .toString();
     } else {
@@ -123,6 +148,7 @@ public class KeepAliveResponse extends AbstractRaftResponse {
   public static class Builder extends AbstractRaftResponse.Builder<Builder, KeepAliveResponse> {
     private MemberId leader;
     private Collection<MemberId> members;
+    private Collection<MemberId> learners = Collections.emptyList();
     private long[] sessionIds;
 
     /**
@@ -148,6 +174,18 @@ public class KeepAliveResponse extends AbstractRaftResponse {
       return this;
     }
 
+    /**
+     * Sets the response learners.
+     *
+     * @param learners The response learners.
+     * @return The response builder.
+     * @throws NullPointerException if {@code learners} is null
+     */
+    public Builder withLearners(Collection<MemberId> learners) {
+      this.learners = checkNotNull(learners, "learners cannot be null");
+      return this;
+    }
+
     /**
      * Sets the response sessions.
      *
@@ -174,7 +212,7 @@ public class KeepAliveResponse extends AbstractRaftResponse {
     @Override
     public KeepAliveResponse build() {
       validate();
-      return new KeepAliveResponse(status, error, leader, members, sessionIds);
+      return new KeepAliveResponse(status, error, leader, members, learners, sessionIds);
     }
   }
 }
@@ -136,6 +136,15 @@ public interface RaftServerProtocol {
    */
   CompletableFuture<TransferResponse> transfer(MemberId memberId, TransferRequest request);
 
+  /**
+   * Sends a read index request to the given node.
+   *
+   * @param memberId  the node to which to send the request
+   * @param request the request to send
+   * @return a future to be completed with the response
+   */
+  CompletableFuture<ReadIndexResponse> readIndex(MemberId memberId, ReadIndexRequest request);
+
   /**
    * Sends a poll request to the given node.
    *
@@ -288,6 +297,18 @@ public interface RaftServerProtocol {
    */
   void unregisterTransferHandler();
 
+  /**
+   * Registers a read index request callback.
+   *
+   * @param handler the read index request handler to register
+   */
+  void registerReadIndexHandler(Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> handler);
+
+  /**
+   * Unregisters the read index request handler.
+   */
+  void unregisterReadIndexHandler();
+
   /**
    * Registers a configure request callback.
    *
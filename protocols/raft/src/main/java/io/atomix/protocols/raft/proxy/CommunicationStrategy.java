@@ -86,6 +86,38 @@ public enum  CommunicationStrategy {
       }
       return members;
     }
+  },
+
+  /**
+   * The {@code LEARNERS} selection strategy prefers connecting to non-voting learner members. Learners serve
+   * sequential queries locally and linearizable queries after confirming a read index with the leader, so
+   * read-heavy clients can be spread across learners without adding load to voting members. If no learners
+   * are available, the client falls back to the {@link #FOLLOWERS} strategy.
+   */
+  LEARNERS {
+    @Override
+    public List<MemberId> selectConnections(MemberId leader, List<MemberId> members) {
+      return FOLLOWERS.selectConnections(leader, members);
+    }
+
+    @Override
+    public List<MemberId> selectConnections(MemberId leader, List<MemberId> members, List<MemberId> learners) {
+      List<MemberId> results = new ArrayList<>(members.size());
+      List<MemberId> shuffledLearners = new ArrayList<>(learners);
+      Collections.shuffle(shuffledLearners);
+      for (MemberId learner : shuffledLearners) {
+        if (members.contains(learner)) {
+          results.add(learner);
+        }
+      }
+      List<MemberId> voters = new ArrayList<>(members);
+      voters.removeAll(results);
+      results.addAll(FOLLOWERS.selectConnections(leader, voters));
+      if (leader != null && members.contains(leader) && !results.contains(leader)) {
+        results.add(leader);
+      }
+      return results;
+    }
   };
 
   /**
@@ -106,4 +138,21 @@ public enum  CommunicationStrategy {
    */
   public abstract List<MemberId> selectConnections(MemberId leader, List<MemberId> members);
 
+  /**
+   * Returns a prioritized list of servers to which the client can connect and submit operations.
+   * <p>
+   * By default, learners are ignored and the connections are selected by
+   * {@link #selectConnections(MemberId, List)}.
+   *
+   * @param leader   The current cluster leader. The {@code leader} may be {@code null} if no current
+   *                 leader exists.
+   * @param members  The full list of available servers.
+   * @param learners The list of non-voting servers that can serve queries. Learners are also
+   *                 included in {@code members}.
+   * @return A collection of servers to which the client can connect.
+   */
+  public List<MemberId> selectConnections(MemberId leader, List<MemberId> members, List<MemberId> learners) {
+    return selectConnections(leader, members);
+  }
+
 }
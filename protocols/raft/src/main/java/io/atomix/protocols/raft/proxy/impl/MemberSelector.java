@@ -21,6 +21,7 @@ import io.atomix.cluster.MemberId;
 import io.atomix.protocols.raft.proxy.CommunicationStrategy;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -62,17 +63,28 @@ public final class MemberSelector implements Iterator<MemberId>, AutoCloseable {
   private final MemberSelectorManager selectors;
   private MemberId leader;
   private Set<MemberId> members;
+  private Set<MemberId> learners;
   private volatile MemberId selection;
   private final CommunicationStrategy strategy;
   private Collection<MemberId> selections = new LinkedList<>();
   private Iterator<MemberId> selectionsIterator;
 
   public MemberSelector(MemberId leader, Collection<MemberId> members, CommunicationStrategy strategy, MemberSelectorManager selectors) {
+    this(leader, members, Collections.emptyList(), strategy, selectors);
+  }
+
+  public MemberSelector(
+      MemberId leader,
+      Collection<MemberId> members,
+      Collection<MemberId> learners,
+      CommunicationStrategy strategy,
+      MemberSelectorManager selectors) {
     this.leader = leader;
     this.members = new LinkedHashSet<>(members);
+    this.learners = new LinkedHashSet<>(learners);
     this.strategy = checkNotNull(strategy, "strategy cannot be null");
     this.selectors = checkNotNull(selectors, "selectors cannot be null");
-    this.selections = strategy.selectConnections(leader, Lists.newLinkedList(members));
+    this.selections = strategy.selectConnections(leader, Lists.newLinkedList(members), Lists.newLinkedList(learners));
   }
 
   /**
@@ -117,6 +129,15 @@ public final class MemberSelector implements Iterator<MemberId>, AutoCloseable {
     return members;
   }
 
+  /**
+   * Returns the current set of learners.
+   *
+   * @return The current set of learners.
+   */
+  public Set<MemberId> learners() {
+    return learners;
+  }
+
   /**
    * Resets the member iterator.
    *
@@ -124,7 +145,7 @@ public final class MemberSelector implements Iterator<MemberId>, AutoCloseable {
    */
   public MemberSelector reset() {
     if (selectionsIterator != null) {
-      this.selections = strategy.selectConnections(leader, Lists.newLinkedList(members));
+      this.selections = strategy.selectConnections(leader, Lists.newLinkedList(members), Lists.newLinkedList(learners));
       this.selectionsIterator = null;
     }
     return this;
@@ -137,10 +158,23 @@ public final class MemberSelector implements Iterator<MemberId>, AutoCloseable {
    * @return The member selector.
    */
   public MemberSelector reset(MemberId leader, Collection<MemberId> members) {
-    if (changed(leader, members)) {
+    return reset(leader, members, learners);
+  }
+
+  /**
+   * Resets the connection leader, members and learners.
+   *
+   * @param members  The collection of members.
+   * @param learners The collection of learners.
+   * @return The member selector.
+   */
+  public MemberSelector reset(MemberId leader, Collection<MemberId> members, Collection<MemberId> learners) {
+    checkNotNull(learners, "learners");
+    if (changed(leader, members) || !matches(this.learners, learners)) {
       this.leader = leader != null && members.contains(leader) ? leader : null;
       this.members = Sets.newLinkedHashSet(members);
-      this.selections = strategy.selectConnections(leader, Lists.newLinkedList(members));
+      this.learners = Sets.newLinkedHashSet(learners);
+      this.selections = strategy.selectConnections(leader, Lists.newLinkedList(members), Lists.newLinkedList(learners));
       this.selectionsIterator = null;
     }
     return this;
@@ -34,6 +34,7 @@ public final class MemberSelectorManager {
   private final Set<Consumer<MemberId>> leaderChangeListeners = new CopyOnWriteArraySet<>();
   private volatile MemberId leader;
   private volatile Collection<MemberId> members = Collections.emptyList();
+  private volatile Collection<MemberId> learners = Collections.emptyList();
 
   /**
    * Adds a leader change listener.
@@ -71,6 +72,15 @@ public final class MemberSelectorManager {
     return members;
   }
 
+  /**
+   * Returns the set of learners in the cluster.
+   *
+   * @return The set of learners in the cluster.
+   */
+  public Collection<MemberId> learners() {
+    return learners;
+  }
+
   /**
    * Creates a new address selector.
    *
@@ -78,7 +88,7 @@ public final class MemberSelectorManager {
    * @return A new address selector.
    */
   public MemberSelector createSelector(CommunicationStrategy selectionStrategy) {
-    MemberSelector selector = new MemberSelector(leader, members, selectionStrategy, this);
+    MemberSelector selector = new MemberSelector(leader, members, learners, selectionStrategy, this);
     selectors.add(selector);
     return selector;
   }
@@ -97,10 +107,22 @@ public final class MemberSelectorManager {
    * @param members The collection of all active members.
    */
   public void resetAll(MemberId leader, Collection<MemberId> members) {
+    resetAll(leader, members, learners);
+  }
+
+  /**
+   * Resets all child selectors.
+   *
+   * @param leader   The current cluster leader.
+   * @param members  The collection of all active members.
+   * @param learners The collection of non-voting members that can serve queries.
+   */
+  public void resetAll(MemberId leader, Collection<MemberId> members, Collection<MemberId> learners) {
     MemberId oldLeader = this.leader;
     this.leader = leader;
     this.members = Lists.newLinkedList(members);
-    selectors.forEach(s -> s.reset(leader, this.members));
+    this.learners = Lists.newLinkedList(learners);
+    selectors.forEach(s -> s.reset(leader, this.members, this.learners));
     if (!Objects.equals(oldLeader, leader)) {
       leaderChangeListeners.forEach(l -> l.accept(leader));
     }
@@ -50,7 +50,6 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -71,7 +70,8 @@ public class RaftProxyManager {
   private final ThreadContext threadContext;
   private final MemberSelectorManager selectorManager;
   private final Map<Long, RaftProxyState> sessions = new ConcurrentHashMap<>();
-  private final Map<Long, Scheduled> keepAliveTimers = new ConcurrentHashMap<>();
+  private Scheduled keepAliveTimer;
+  private long keepAliveTimeout;
   private final AtomicBoolean open = new AtomicBoolean();
 
   public RaftProxyManager(String clientId, MemberId memberId, RaftClientProtocol protocol, MemberSelectorManager selectorManager, ThreadContextFactory threadContextFactory) {
@@ -192,8 +192,13 @@ public class RaftProxyManager {
             }
           });
 
-          // Ensure the proxy session info is reset and the session is kept alive.
-          keepAliveSessions(System.currentTimeMillis(), state.getSessionTimeout());
+          // Sessions are kept alive by a single client-level keep-alive. If the session's timeout is shorter than
+          // the timeout for which keep-alives are currently scheduled, send a keep-alive now to reschedule them.
+          synchronized (this) {
+            if (keepAliveTimer == null || state.getSessionTimeout() < keepAliveTimeout) {
+              keepAliveSessions(System.currentTimeMillis());
+            }
+          }
 
           future.complete(state);
         } else {
@@ -304,20 +309,25 @@ public class RaftProxyManager {
   }
 
   /**
-   * Sends a keep-alive request to the cluster.
+   * Sends a keep-alive request for all open sessions to the cluster.
+   * <p>
+   * All the client's sessions are kept alive by a single request at the interval required by the session with the
+   * shortest timeout, so a client with many sessions appends a single keep-alive entry to the log per interval.
    */
-  private synchronized void keepAliveSessions(long lastKeepAliveTime, long sessionTimeout) {
-    // Filter the list of sessions by timeout.
-    List<RaftProxyState> needKeepAlive = sessions.values()
-        .stream()
-        .filter(session -> session.getSessionTimeout() == sessionTimeout)
-        .collect(Collectors.toList());
-
-    // If no sessions need keep-alives to be sent, skip and reschedule the keep-alive.
+  private synchronized void keepAliveSessions(long lastKeepAliveTime) {
+    List<RaftProxyState> needKeepAlive = Lists.newArrayList(sessions.values());
+
+    // If no sessions need keep-alives to be sent, skip the keep-alive until a new session is opened.
     if (needKeepAlive.isEmpty()) {
+      cancelKeepAlive();
       return;
     }
 
+    long sessionTimeout = needKeepAlive.stream()
+        .mapToLong(RaftProxyState::getSessionTimeout)
+        .min()
+        .getAsLong();
+
     // Allocate session IDs, command response sequence numbers, and event index arrays.
     long[] sessionIds = new long[needKeepAlive.size()];
     long[] commandResponses = new long[needKeepAlive.size()];
@@ -347,7 +357,7 @@ public class RaftProxyManager {
         if (error == null) {
           // If the request was successful, update the address selector and schedule the next keep-alive.
           if (response.status() == RaftResponse.Status.OK) {
-            selectorManager.resetAll(response.leader(), response.members());
+            selectorManager.resetAll(response.leader(), response.members(), response.learners());
 
             // Iterate through sessions and close sessions that weren't kept alive by the request (have already been closed).
             Set<Long> keptAliveSessions = Sets.newHashSet(Longs.asList(response.sessionIds()));
@@ -364,7 +374,7 @@ public class RaftProxyManager {
           // We will continue to retry until the session expiration has passed.
           else if (System.currentTimeMillis() - lastKeepAliveTime < sessionTimeout) {
             selectorManager.resetAll(null, connection.members());
-            keepAliveSessions(lastKeepAliveTime, sessionTimeout);
+            keepAliveSessions(lastKeepAliveTime);
           }
           // If no leader was set, set the session state to unstable and schedule another keep-alive.
           else {
@@ -377,7 +387,7 @@ public class RaftProxyManager {
         // again with no delay.
         else if (System.currentTimeMillis() - lastKeepAliveTime < sessionTimeout && connection.leader() != null) {
           selectorManager.resetAll(null, connection.members());
-          keepAliveSessions(lastKeepAliveTime, sessionTimeout);
+          keepAliveSessions(lastKeepAliveTime);
         }
         // If no leader was set, set the session state to unstable and schedule another keep-alive.
         else {
@@ -393,17 +403,25 @@ public class RaftProxyManager {
    * Schedules a keep-alive request.
    */
   private synchronized void scheduleKeepAlive(long lastKeepAliveTime, long timeout, long delta) {
-    Scheduled keepAliveFuture = keepAliveTimers.remove(timeout);
-    if (keepAliveFuture != null) {
-      keepAliveFuture.cancel();
-    }
+    cancelKeepAlive();
 
     // Schedule the keep alive for 3/4 the timeout minus the delta from the last keep-alive request.
-    keepAliveTimers.put(timeout, threadContext.schedule(Duration.ofMillis(Math.max(Math.max((long)(timeout * TIMEOUT_FACTOR) - delta, timeout - MIN_TIMEOUT_DELTA - delta), 0)), () -> {
+    keepAliveTimeout = timeout;
+    keepAliveTimer = threadContext.schedule(Duration.ofMillis(Math.max(Math.max((long)(timeout * TIMEOUT_FACTOR) - delta, timeout - MIN_TIMEOUT_DELTA - delta), 0)), () -> {
       if (open.get()) {
-        keepAliveSessions(lastKeepAliveTime, timeout);
+        keepAliveSessions(lastKeepAliveTime);
       }
-    }));
+    });
+  }
+
+  /**
+   * Cancels the scheduled keep-alive request.
+   */
+  private synchronized void cancelKeepAlive() {
+    if (keepAliveTimer != null) {
+      keepAliveTimer.cancel();
+      keepAliveTimer = null;
+    }
   }
 
   /**
@@ -433,9 +451,7 @@ public class RaftProxyManager {
       CompletableFuture<Void> future = new CompletableFuture<>();
       threadContext.execute(() -> {
         synchronized (this) {
-          for (Scheduled keepAliveFuture : keepAliveTimers.values()) {
-            keepAliveFuture.cancel();
-          }
+          cancelKeepAlive();
           protocol.unregisterHeartbeatHandler();
         }
         future.complete(null);
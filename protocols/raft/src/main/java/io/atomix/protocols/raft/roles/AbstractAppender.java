@@ -39,6 +39,7 @@ import org.slf4j.Logger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -47,6 +48,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 abstract class AbstractAppender implements AutoCloseable {
   private static final int MAX_BATCH_SIZE = 1024 * 32;
+  private static final long CLOCK_ORIGIN = System.nanoTime();
   protected final Logger log;
   protected final RaftContext raft;
   protected boolean open = true;
@@ -58,6 +60,18 @@ abstract class AbstractAppender implements AutoCloseable {
         .build());
   }
 
+  /**
+   * Returns the current time in milliseconds on a monotonic clock.
+   * <p>
+   * Requests are timestamped on this clock rather than the wall clock so that a wall clock step can't make the
+   * leader's heartbeats and read lease appear more recent than they are.
+   *
+   * @return the number of milliseconds since the clock's arbitrary origin
+   */
+  protected static long monotonicTime() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - CLOCK_ORIGIN);
+  }
+
   /**
    * Sends an AppendRequest to the given member.
    *
@@ -166,13 +180,13 @@ abstract class AbstractAppender implements AutoCloseable {
     // Start the append to the member.
     member.startAppend();
 
-    long timestamp = System.currentTimeMillis();
+    long timestamp = monotonicTime();
 
     log.trace("Sending {} to {}", request, member.getMember().memberId());
     raft.getProtocol().append(member.getMember().memberId(), request).whenCompleteAsync((response, error) -> {
       // Complete the append to the member.
       if (!request.entries().isEmpty()) {
-        member.completeAppend(System.currentTimeMillis() - timestamp);
+        member.completeAppend(monotonicTime() - timestamp);
       } else {
         member.completeAppend();
       }
@@ -337,7 +351,7 @@ abstract class AbstractAppender implements AutoCloseable {
     // Start the configure to the member.
     member.startConfigure();
 
-    long timestamp = System.currentTimeMillis();
+    long timestamp = monotonicTime();
 
     log.trace("Sending {} to {}", request, member.getMember().memberId());
     raft.getProtocol().configure(member.getMember().memberId(), request).whenCompleteAsync((response, error) -> {
@@ -446,7 +460,7 @@ abstract class AbstractAppender implements AutoCloseable {
     // Start the install to the member.
     member.startInstall();
 
-    long timestamp = System.currentTimeMillis();
+    long timestamp = monotonicTime();
 
     log.trace("Sending {} to {}", request, member.getMember().memberId());
     raft.getProtocol().install(member.getMember().memberId(), request).whenCompleteAsync((response, error) -> {
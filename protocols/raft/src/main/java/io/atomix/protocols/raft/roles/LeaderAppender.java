@@ -29,6 +29,7 @@ import io.atomix.protocols.raft.protocol.RaftRequest;
 import io.atomix.protocols.raft.storage.snapshot.Snapshot;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -47,6 +48,7 @@ final class LeaderAppender extends AbstractAppender {
   private final long leaderTime;
   private final long leaderIndex;
   private final long electionTimeout;
+  private final long leaseTimeout;
   private final long heartbeatInterval;
   private long heartbeatTime;
   private final Map<Long, CompletableFuture<Long>> appendFutures = new HashMap<>();
@@ -54,10 +56,11 @@ final class LeaderAppender extends AbstractAppender {
 
   LeaderAppender(LeaderRole leader) {
     super(leader.raft);
-    this.leaderTime = System.currentTimeMillis();
+    this.leaderTime = monotonicTime();
     this.leaderIndex = raft.getLogWriter().getNextIndex();
-    this.heartbeatTime = leaderTime;
+    this.heartbeatTime = System.currentTimeMillis();
     this.electionTimeout = raft.getElectionTimeout().toMillis();
+    this.leaseTimeout = electionTimeout - raft.getMaxClockDrift().toMillis();
     this.heartbeatInterval = raft.getHeartbeatInterval().toMillis();
   }
 
@@ -70,6 +73,25 @@ final class LeaderAppender extends AbstractAppender {
     return heartbeatTime;
   }
 
+  /**
+   * Returns whether the leader holds a read lease.
+   * <p>
+   * Followers do not start a new election until an election timeout after the last heartbeat they received, so no
+   * other leader can be elected within an election timeout of the time at which the last heartbeat acknowledged by
+   * a majority of the cluster was sent. The lease is shortened by the maximum clock drift between servers, and only
+   * starts once an entry from the leader's term has been committed. Heartbeat times are measured on a monotonic
+   * clock, so a step in the wall clock can't extend the lease.
+   *
+   * @return whether the leader holds a read lease
+   */
+  public boolean hasLease() {
+    if (raft.getCommitIndex() < leaderIndex) {
+      return false;
+    }
+    long heartbeatTime = computeHeartbeatTime();
+    return heartbeatTime >= leaderTime && monotonicTime() - heartbeatTime < leaseTimeout;
+  }
+
   /**
    * Returns the leader index.
    *
@@ -135,31 +157,44 @@ final class LeaderAppender extends AbstractAppender {
       return CompletableFuture.completedFuture(index);
     }
 
-    // If there are no other stateful servers in the cluster, immediately commit the index.
-    if (raft.getCluster().getActiveMemberStates().isEmpty() && raft.getCluster().getPassiveMemberStates().isEmpty()) {
-      long previousCommitIndex = raft.getCommitIndex();
-      raft.setCommitIndex(index);
-      completeCommits(previousCommitIndex, index);
-      return CompletableFuture.completedFuture(index);
-    }
-    // If there are no other active members in the cluster, update the commit index and complete the commit.
+    // If there are no other active members in the cluster, commit the index once it has been flushed to disk.
     // The updated commit index will be sent to passive/reserve members on heartbeats.
-    else if (raft.getCluster().getActiveMemberStates().isEmpty()) {
-      long previousCommitIndex = raft.getCommitIndex();
-      raft.setCommitIndex(index);
-      completeCommits(previousCommitIndex, index);
-      return CompletableFuture.completedFuture(index);
+    if (raft.getCluster().getActiveMemberStates().isEmpty()) {
+      return raft.getLogFlusher().flush(index).thenApply(durableIndex -> {
+        long previousCommitIndex = raft.getCommitIndex();
+        if (index > previousCommitIndex) {
+          raft.setCommitIndex(index);
+          completeCommits(previousCommitIndex, index);
+        }
+        return index;
+      });
     }
 
-    // Only send entry-specific AppendRequests to active members of the cluster.
+    // Only send entry-specific AppendRequests to active members of the cluster. The entries are flushed to the
+    // local disk in parallel with replication, and the leader's durable index counts towards the commit quorum.
     return appendFutures.computeIfAbsent(index, i -> {
       for (RaftMemberContext member : raft.getCluster().getActiveMemberStates()) {
         appendEntries(member);
       }
+      flushEntries(index);
       return new CompletableFuture<>();
     });
   }
 
+  /**
+   * Flushes entries up to the given index to the local disk, checking for newly committed entries once flushed.
+   */
+  private void flushEntries(long index) {
+    CompletableFuture<Long> future = raft.getLogFlusher().flush(index);
+    if (!future.isDone()) {
+      future.whenComplete((durableIndex, error) -> {
+        if (error == null && open) {
+          commitEntries();
+        }
+      });
+    }
+  }
+
   @Override
   protected void appendEntries(RaftMemberContext member) {
     // Prevent recursive, asynchronous appends from being executed if the appender has been closed.
@@ -229,7 +264,7 @@ final class LeaderAppender extends AbstractAppender {
     if (quorumIndex >= 0) {
       return raft.getCluster().getActiveMemberStates((m1, m2) -> Long.compare(m2.getHeartbeatTime(), m1.getHeartbeatTime())).get(quorumIndex).getHeartbeatTime();
     }
-    return System.currentTimeMillis();
+    return monotonicTime();
   }
 
   /**
@@ -243,7 +278,7 @@ final class LeaderAppender extends AbstractAppender {
 
     // Compute the quorum heartbeat time.
     long heartbeatTime = computeHeartbeatTime();
-    long currentTimestamp = System.currentTimeMillis();
+    long currentTimestamp = monotonicTime();
 
     // Iterate through pending timestamped heartbeat futures and complete all futures where the timestamp
     // is greater than the last timestamp a quorum of the cluster was contacted.
@@ -281,7 +316,7 @@ final class LeaderAppender extends AbstractAppender {
 
     // Iterate through pending timestamped heartbeat futures and fail futures that have been pending longer
     // than an election timeout.
-    long currentTimestamp = System.currentTimeMillis();
+    long currentTimestamp = monotonicTime();
     Iterator<TimestampedFuture<Long>> iterator = heartbeatFutures.iterator();
     while (iterator.hasNext()) {
       TimestampedFuture<Long> future = iterator.next();
@@ -307,16 +342,14 @@ final class LeaderAppender extends AbstractAppender {
   private void commitEntries() {
     raft.checkThread();
 
-    // Sort the list of replicas, order by the last index that was replicated
-    // to the replica. This will allow us to determine the median index
-    // for all known replicated entries across all cluster members.
-    List<RaftMemberContext> members = raft.getCluster().getActiveMemberStates((m1, m2) ->
-        Long.compare(m2.getMatchIndex() != 0 ? m2.getMatchIndex() : 0L, m1.getMatchIndex() != 0 ? m1.getMatchIndex() : 0L));
+    // The leader only counts entries that have been flushed to its own disk.
+    long durableIndex = raft.getLogFlusher().getDurableIndex();
+    List<RaftMemberContext> members = raft.getCluster().getActiveMemberStates();
 
     // If the active members list is empty (a configuration change occurred between an append request/response)
     // ensure all commit futures are completed and cleared.
     if (members.isEmpty()) {
-      long commitIndex = raft.getLogWriter().getLastIndex();
+      long commitIndex = durableIndex;
       long previousCommitIndex = raft.setCommitIndex(commitIndex);
       if (commitIndex > previousCommitIndex) {
         log.trace("Committed entries up to {}", commitIndex);
@@ -325,8 +358,18 @@ final class LeaderAppender extends AbstractAppender {
       return;
     }
 
-    // Calculate the current commit index as the median matchIndex.
-    long commitIndex = members.get(getQuorumIndex()).getMatchIndex();
+    // Sort the last index that was replicated to each replica along with the leader's durable index.
+    // This will allow us to determine the median index for all known replicated entries across all
+    // cluster members.
+    long[] matchIndexes = new long[members.size() + 1];
+    for (int i = 0; i < members.size(); i++) {
+      matchIndexes[i] = members.get(i).getMatchIndex();
+    }
+    matchIndexes[members.size()] = durableIndex;
+    Arrays.sort(matchIndexes);
+
+    // Calculate the current commit index as the highest index stored by a quorum of the cluster.
+    long commitIndex = matchIndexes[matchIndexes.length - raft.getCluster().getQuorum()];
 
     // If the commit index has increased then update the commit index. Note that in order to ensure
     // the leader completeness property holds, we verify that the commit index is greater than or equal to
@@ -428,7 +471,7 @@ final class LeaderAppender extends AbstractAppender {
     // Verify that the leader has contacted a majority of the cluster within the last two election timeouts.
     // If the leader is not able to contact a majority of the cluster within two election timeouts, assume
     // that a partition occurred and transition back to the FOLLOWER state.
-    if (member.getFailureCount() >= MIN_STEP_DOWN_FAILURE_COUNT && System.currentTimeMillis() - Math.max(computeHeartbeatTime(), leaderTime) > electionTimeout * 2) {
+    if (member.getFailureCount() >= MIN_STEP_DOWN_FAILURE_COUNT && monotonicTime() - Math.max(computeHeartbeatTime(), leaderTime) > electionTimeout * 2) {
       log.warn("Suspected network partition. Stepping down");
       raft.setLeader(null);
       raft.transition(RaftServer.Role.FOLLOWER);
@@ -463,7 +506,7 @@ final class LeaderAppender extends AbstractAppender {
     private final long timestamp;
 
     public TimestampedFuture() {
-      this(System.currentTimeMillis());
+      this(monotonicTime());
     }
 
     public TimestampedFuture(long timestamp) {
@@ -50,6 +50,8 @@ import io.atomix.protocols.raft.protocol.PollResponse;
 import io.atomix.protocols.raft.protocol.QueryRequest;
 import io.atomix.protocols.raft.protocol.QueryResponse;
 import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
 import io.atomix.protocols.raft.protocol.TransferRequest;
@@ -171,8 +173,13 @@ public final class LeaderRole extends ActiveRole {
     // Set a timer that will be used to periodically synchronize with other nodes
     // in the cluster. This timer acts as a heartbeat to ensure this node remains
     // the leader.
+    // The first heartbeat is sent immediately, and later heartbeats are aligned to the wall clock so heartbeats
+    // from all the partitions led by this node are sent together and can be batched by the protocol.
     log.trace("Starting append timer");
-    appendTimer = raft.getThreadContext().schedule(Duration.ZERO, raft.getHeartbeatInterval(), this::appendMembers);
+    raft.getThreadContext().execute(this::appendMembers);
+    long interval = raft.getHeartbeatInterval().toMillis();
+    Duration delay = Duration.ofMillis(interval - System.currentTimeMillis() % interval);
+    appendTimer = raft.getThreadContext().schedule(delay, raft.getHeartbeatInterval(), this::appendMembers);
   }
 
   /**
@@ -443,6 +450,41 @@ public final class LeaderRole extends ActiveRole {
     return future;
   }
 
+  @Override
+  public CompletableFuture<ReadIndexResponse> onReadIndex(final ReadIndexRequest request) {
+    raft.checkThread();
+    logRequest(request);
+
+    // The read index must include all entries committed in prior terms, so wait for the leader's initial entry
+    // to be committed before recording the commit index. Then confirm that this server is still the leader by
+    // heartbeating a majority of the cluster before returning the recorded index.
+    CompletableFuture<ReadIndexResponse> future = new CompletableFuture<>();
+    appender.appendEntries(appender.getIndex())
+        .thenCompose(index -> {
+          long readIndex = raft.getCommitIndex();
+          return appender.appendEntries().thenApply(v -> readIndex);
+        })
+        .whenComplete((readIndex, error) -> {
+          if (isRunning() && error == null) {
+            future.complete(logResponse(ReadIndexResponse.builder()
+                .withStatus(RaftResponse.Status.OK)
+                .withIndex(readIndex)
+                .build()));
+          } else if (isRunning()) {
+            future.complete(logResponse(ReadIndexResponse.builder()
+                .withStatus(RaftResponse.Status.ERROR)
+                .withError(RaftError.Type.QUERY_FAILURE, error.getMessage())
+                .build()));
+          } else {
+            future.complete(logResponse(ReadIndexResponse.builder()
+                .withStatus(RaftResponse.Status.ERROR)
+                .withError(RaftError.Type.ILLEGAL_MEMBER_STATE)
+                .build()));
+          }
+        });
+    return future;
+  }
+
   @Override
   public CompletableFuture<TransferResponse> onTransfer(final TransferRequest request) {
     logRequest(request);
@@ -778,11 +820,17 @@ public final class LeaderRole extends ActiveRole {
   /**
    * Executes a bounded linearizable query.
    * <p>
-   * Bounded linearizable queries succeed as long as this server remains the leader. This is possible
-   * since the leader will step down in the event it fails to contact a majority of the cluster.
+   * Bounded linearizable queries are applied immediately as long as the leader holds a read lease, i.e. a majority
+   * of the cluster acknowledged a heartbeat within the last election timeout less the maximum clock drift. Otherwise,
+   * the query falls back to a linearizable query which confirms leadership with a majority of the cluster.
    */
   private CompletableFuture<QueryResponse> queryBoundedLinearizable(Indexed<QueryEntry> entry) {
-    return applyQuery(entry);
+    if (appender.hasLease()) {
+      raft.getLeaseMonitor().recordHit();
+      return applyQuery(entry);
+    }
+    raft.getLeaseMonitor().recordFallback();
+    return queryLinearizable(entry);
   }
 
   /**
@@ -909,6 +957,10 @@ public final class LeaderRole extends ActiveRole {
                             .map(RaftMember::memberId)
                             .filter(m -> m != null)
                             .collect(Collectors.toList()))
+                        .withLearners(raft.getCluster().getMembers().stream()
+                            .filter(m -> m.getType() == RaftMember.Type.PASSIVE)
+                            .map(RaftMember::memberId)
+                            .collect(Collectors.toList()))
                         .withSessionIds(sessionResult)
                         .build()));
                   } else if (sessionError instanceof CompletionException && sessionError.getCause() instanceof RaftException) {
@@ -67,6 +67,7 @@ public class PassiveRole extends InactiveRole {
     if (role() == RaftServer.Role.PASSIVE) {
       final RaftLogWriter writer = raft.getLogWriter();
       writer.truncate(raft.getCommitIndex());
+      raft.getLogFlusher().reset(raft.getCommitIndex());
     }
   }
 
@@ -194,6 +195,7 @@ public class PassiveRole extends InactiveRole {
       if (request.prevLogTerm() == 0) {
         log.debug("Reset first index to {}", request.prevLogIndex() + 1);
         writer.reset(request.prevLogIndex() + 1);
+        raft.getLogFlusher().reset(request.prevLogIndex());
       }
 
       // Iterate through entries and append them.
@@ -224,6 +226,7 @@ public class PassiveRole extends InactiveRole {
             // the log and append the leader's entry.
             if (existingEntry.entry().term() != entry.term()) {
               writer.truncate(index - 1);
+              raft.getLogFlusher().reset(index - 1);
               if (!appendEntry(index, entry, writer, future)) {
                 return;
               }
@@ -236,6 +239,7 @@ public class PassiveRole extends InactiveRole {
             // the log and append the leader's entry.
             if (lastEntry.entry().term() != entry.term()) {
               writer.truncate(index - 1);
+              raft.getLogFlusher().reset(index - 1);
               if (!appendEntry(index, entry, writer, future)) {
                 return;
               }
@@ -278,8 +282,17 @@ public class PassiveRole extends InactiveRole {
       raft.getServiceManager().applyAll(commitIndex);
     }
 
-    // Return a successful append response.
-    succeedAppend(lastLogIndex, future);
+    // Return a successful append response once entries up to the last log index have been flushed to disk.
+    // Responding only with durable indexes ensures the leader never counts entries that could be lost towards
+    // the commit index.
+    long appendedIndex = lastLogIndex;
+    raft.getLogFlusher().flush(appendedIndex).whenComplete((durableIndex, error) -> {
+      if (error == null) {
+        succeedAppend(appendedIndex, future);
+      } else {
+        failAppend(raft.getLogFlusher().getDurableIndex(), future);
+      }
+    });
   }
 
   /**
@@ -378,11 +391,70 @@ public class PassiveRole extends InactiveRole {
               request.operation()), 0);
 
       return applyQuery(entry).thenApply(this::logResponse);
+    }
+    // If this server is a learner, serve stronger reads locally once the leader has confirmed the read index.
+    else if (role() == RaftServer.Role.PASSIVE && raft.isLearner()) {
+      return queryReadIndex(request);
     } else {
       return queryForward(request);
     }
   }
 
+  /**
+   * Performs a query locally once entries up to the leader's read index have been applied.
+   * <p>
+   * The leader's commit index at the time it confirmed its leadership covers every write that completed before the
+   * query was received, so applying the query once that index has been applied locally is linearizable. If the read
+   * index cannot be obtained, the query is forwarded to the leader.
+   */
+  private CompletableFuture<QueryResponse> queryReadIndex(QueryRequest request) {
+    if (raft.getLeader() == null) {
+      return queryForward(request);
+    }
+
+    ReadIndexRequest readIndexRequest = ReadIndexRequest.builder()
+        .withMember(raft.getCluster().getMember().memberId())
+        .build();
+
+    CompletableFuture<QueryResponse> future = new CompletableFuture<>();
+    log.trace("Sending {} to {}", readIndexRequest, raft.getLeader().memberId());
+    raft.getProtocol().readIndex(raft.getLeader().memberId(), readIndexRequest).whenCompleteAsync((response, error) -> {
+      if (error == null && response.status() == RaftResponse.Status.OK) {
+        raft.awaitApplied(response.index()).whenComplete((lastApplied, appliedError) -> {
+          if (appliedError != null) {
+            future.completeExceptionally(appliedError);
+            return;
+          }
+          final Indexed<QueryEntry> entry = new Indexed<>(
+              request.index(),
+              new QueryEntry(
+                  raft.getTerm(),
+                  System.currentTimeMillis(),
+                  request.session(),
+                  request.sequenceNumber(),
+                  request.operation()), 0);
+          applyQuery(entry).thenApply(this::logResponse).whenComplete((queryResponse, queryError) -> {
+            if (queryError == null) {
+              future.complete(queryResponse);
+            } else {
+              future.completeExceptionally(queryError);
+            }
+          });
+        });
+      } else {
+        log.trace("Failed to obtain read index, forwarding query to leader");
+        queryForward(request).whenComplete((queryResponse, queryError) -> {
+          if (queryError == null) {
+            future.complete(queryResponse);
+          } else {
+            future.completeExceptionally(queryError);
+          }
+        });
+      }
+    }, raft.getThreadContext());
+    return future;
+  }
+
   /**
    * Forwards the query to the leader.
    */
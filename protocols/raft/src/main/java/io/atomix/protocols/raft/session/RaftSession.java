@@ -606,7 +606,7 @@ public class RaftSession implements PrimitiveSession {
    */
   public void open() {
     setState(State.OPEN);
-    protocol.registerResetListener(sessionId, request -> resendEvents(request.index()), server.getServiceManager().executor());
+    protocol.registerResetListener(sessionId, request -> resendEvents(request.index()), server.getServiceManager().executor(context));
   }
 
   /**
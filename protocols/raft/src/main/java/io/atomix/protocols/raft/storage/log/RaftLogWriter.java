@@ -47,9 +47,19 @@ public class RaftLogWriter extends DelegatingJournalWriter<RaftLogEntry> {
    * @param index The index up to which to commit entries.
    */
   public void commit(long index) {
+    commit(index, log.isFlushOnCommit());
+  }
+
+  /**
+   * Commits entries up to the given index.
+   *
+   * @param index The index up to which to commit entries.
+   * @param flush Whether to flush the log to disk if the commit index is advanced.
+   */
+  public void commit(long index, boolean flush) {
     if (index > log.getCommitIndex()) {
       log.setCommitIndex(index);
-      if (log.isFlushOnCommit()) {
+      if (flush) {
         flush();
       }
     }
@@ -33,7 +33,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * or disk based on the configured {@link StorageLevel}.
  * <p>
  * In addition to standard {@link BufferInput} methods, snapshot readers support reading serializable objects
- * from the snapshot via the {@link #readObject(java.util.function.Function)} method. Serializable types must be registered on the
+ * from the snapshot via the {@link #readObject(io.atomix.utils.serializer.Serializer)} method. Serializable types must be registered on the
  * {@link RaftServer} serializer to be supported in snapshots.
  */
 public class SnapshotReader implements BufferInput<SnapshotReader> {
@@ -34,7 +34,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * or disk based on the configured {@link StorageLevel}.
  * <p>
  * In addition to standard {@link BufferOutput} methods, snapshot readers support writing serializable objects
- * to the snapshot via the {@link #writeObject(Object, java.util.function.Function)} method. Serializable types must be registered on the
+ * to the snapshot via the {@link #writeObject(Object, io.atomix.utils.serializer.Serializer)} method. Serializable types must be registered on the
  * {@link RaftServer} serializer to be supported in snapshots.
  */
 public class SnapshotWriter implements BufferOutput<SnapshotWriter> {
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Snapshot and log compaction monitor.
+ * <p>
+ * Records the decisions made by the server's snapshot scheduler along with the inputs from which they were made: the
+ * rate at which the log is growing, the rate at which disk space is being consumed, the fraction of time the state
+ * machine spent idle, and the duration and size of the most recent snapshot.
+ */
+public class CompactionMonitor {
+  private final AtomicLong idleSnapshots = new AtomicLong();
+  private final AtomicLong diskPressureSnapshots = new AtomicLong();
+  private final AtomicLong deadlineSnapshots = new AtomicLong();
+  private final AtomicLong forcedSnapshots = new AtomicLong();
+  private final AtomicLong deferredSnapshots = new AtomicLong();
+  private final AtomicLong compactions = new AtomicLong();
+  private final AtomicLong deferredCompactions = new AtomicLong();
+  private volatile double logGrowthRate;
+  private volatile double diskConsumptionRate;
+  private volatile double applyIdleRatio = 1;
+  private volatile long lastSnapshotDuration;
+  private volatile long lastSnapshotSize;
+
+  /**
+   * Records a snapshot taken while the state machine was idle.
+   */
+  public void recordIdleSnapshot() {
+    idleSnapshots.incrementAndGet();
+  }
+
+  /**
+   * Records a snapshot taken because the node was running out of disk space.
+   */
+  public void recordDiskPressureSnapshot() {
+    diskPressureSnapshots.incrementAndGet();
+  }
+
+  /**
+   * Records a snapshot taken because snapshots had been deferred for too long.
+   */
+  public void recordDeadlineSnapshot() {
+    deadlineSnapshots.incrementAndGet();
+  }
+
+  /**
+   * Records a snapshot taken regardless of load, either on request or because the storage configuration requires it.
+   */
+  public void recordForcedSnapshot() {
+    forcedSnapshots.incrementAndGet();
+  }
+
+  /**
+   * Records a snapshot that was deferred because the state machine was busy.
+   */
+  public void recordDeferredSnapshot() {
+    deferredSnapshots.incrementAndGet();
+  }
+
+  /**
+   * Records a log compaction.
+   */
+  public void recordCompaction() {
+    compactions.incrementAndGet();
+  }
+
+  /**
+   * Records a log compaction that was deferred because the state machine was busy.
+   */
+  public void recordDeferredCompaction() {
+    deferredCompactions.incrementAndGet();
+  }
+
+  /**
+   * Records the most recently sampled growth rates and idle ratio.
+   *
+   * @param logGrowthRate       the rate at which entries are appended to the log in entries per second
+   * @param diskConsumptionRate the rate at which usable disk space is shrinking in bytes per second
+   * @param applyIdleRatio      the fraction of time the state machine spent idle
+   */
+  public void recordRates(double logGrowthRate, double diskConsumptionRate, double applyIdleRatio) {
+    this.logGrowthRate = logGrowthRate;
+    this.diskConsumptionRate = diskConsumptionRate;
+    this.applyIdleRatio = applyIdleRatio;
+  }
+
+  /**
+   * Records a completed snapshot.
+   *
+   * @param duration the time taken to write the snapshot in milliseconds
+   * @param size     the size of the snapshot in bytes
+   */
+  public void recordSnapshot(long duration, long size) {
+    this.lastSnapshotDuration = duration;
+    this.lastSnapshotSize = size;
+  }
+
+  /**
+   * Returns the number of snapshots taken while the state machine was idle.
+   *
+   * @return the number of snapshots taken while the state machine was idle
+   */
+  public long getIdleSnapshots() {
+    return idleSnapshots.get();
+  }
+
+  /**
+   * Returns the number of snapshots taken because the node was running out of disk space.
+   *
+   * @return the number of snapshots taken because the node was running out of disk space
+   */
+  public long getDiskPressureSnapshots() {
+    return diskPressureSnapshots.get();
+  }
+
+  /**
+   * Returns the number of snapshots taken because snapshots had been deferred for too long.
+   *
+   * @return the number of snapshots taken once the maximum deferral was reached
+   */
+  public long getDeadlineSnapshots() {
+    return deadlineSnapshots.get();
+  }
+
+  /**
+   * Returns the number of snapshots taken regardless of load.
+   *
+   * @return the number of forced snapshots
+   */
+  public long getForcedSnapshots() {
+    return forcedSnapshots.get();
+  }
+
+  /**
+   * Returns the number of times a snapshot was deferred because the state machine was busy.
+   *
+   * @return the number of deferred snapshots
+   */
+  public long getDeferredSnapshots() {
+    return deferredSnapshots.get();
+  }
+
+  /**
+   * Returns the number of log compactions.
+   *
+   * @return the number of log compactions
+   */
+  public long getCompactions() {
+    return compactions.get();
+  }
+
+  /**
+   * Returns the number of times a log compaction was deferred because the state machine was busy.
+   *
+   * @return the number of deferred log compactions
+   */
+  public long getDeferredCompactions() {
+    return deferredCompactions.get();
+  }
+
+  /**
+   * Returns the most recently sampled log growth rate.
+   *
+   * @return the rate at which entries are appended to the log in entries per second
+   */
+  public double getLogGrowthRate() {
+    return logGrowthRate;
+  }
+
+  /**
+   * Returns the most recently sampled disk consumption rate.
+   *
+   * @return the rate at which usable disk space is shrinking in bytes per second
+   */
+  public double getDiskConsumptionRate() {
+    return diskConsumptionRate;
+  }
+
+  /**
+   * Returns the most recently sampled state machine idle ratio.
+   *
+   * @return the fraction of time the state machine spent idle, between {@code 0} and {@code 1}
+   */
+  public double getApplyIdleRatio() {
+    return applyIdleRatio;
+  }
+
+  /**
+   * Returns the time taken to write the most recent snapshot.
+   *
+   * @return the time taken to write the most recent snapshot in milliseconds
+   */
+  public long getLastSnapshotDuration() {
+    return lastSnapshotDuration;
+  }
+
+  /**
+   * Returns the size of the most recent snapshot.
+   *
+   * @return the size of the most recent snapshot in bytes
+   */
+  public long getLastSnapshotSize() {
+    return lastSnapshotSize;
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("idleSnapshots", getIdleSnapshots())
+        .add("diskPressureSnapshots", getDiskPressureSnapshots())
+        .add("deadlineSnapshots", getDeadlineSnapshots())
+        .add("forcedSnapshots", getForcedSnapshots())
+        .add("deferredSnapshots", getDeferredSnapshots())
+        .add("compactions", getCompactions())
+        .add("deferredCompactions", getDeferredCompactions())
+        .add("logGrowthRate", getLogGrowthRate())
+        .add("diskConsumptionRate", getDiskConsumptionRate())
+        .add("applyIdleRatio", getApplyIdleRatio())
+        .add("lastSnapshotDuration", getLastSnapshotDuration())
+        .add("lastSnapshotSize", getLastSnapshotSize())
+        .toString();
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Leader read lease monitor.
+ * <p>
+ * Counts {@link io.atomix.protocols.raft.ReadConsistency#LINEARIZABLE_LEASE} queries that were served under the
+ * leader's lease and queries that fell back to confirming leadership with a majority of the cluster.
+ */
+public class LeaseMonitor {
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong fallbacks = new AtomicLong();
+
+  /**
+   * Records a query served under the leader's lease.
+   */
+  public void recordHit() {
+    hits.incrementAndGet();
+  }
+
+  /**
+   * Records a query for which leadership had to be confirmed with a majority of the cluster.
+   */
+  public void recordFallback() {
+    fallbacks.incrementAndGet();
+  }
+
+  /**
+   * Returns the number of queries served under the leader's lease.
+   *
+   * @return the number of queries served under the leader's lease
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of queries for which leadership had to be confirmed with a majority of the cluster.
+   *
+   * @return the number of queries that fell back to a quorum round
+   */
+  public long getFallbacks() {
+    return fallbacks.get();
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("hits", getHits())
+        .add("fallbacks", getFallbacks())
+        .toString();
+  }
+}
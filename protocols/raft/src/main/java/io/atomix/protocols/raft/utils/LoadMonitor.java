@@ -41,6 +41,24 @@ public class LoadMonitor {
     loadCounter.incrementCount();
   }
 
+  /**
+   * Returns the number of load events recorded within the monitor's window.
+   *
+   * @return the number of load events recorded within the monitor's window
+   */
+  public long getLoad() {
+    return loadCounter.get(windowSize);
+  }
+
+  /**
+   * Returns the threshold above which the server is considered to be under high load.
+   *
+   * @return the high load threshold
+   */
+  public int getHighLoadThreshold() {
+    return highLoadThreshold;
+  }
+
   /**
    * Returns a boolean indicating whether the server is under high load.
    *
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.utils;
+
+import io.atomix.utils.concurrent.SingleThreadContext;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+
+/**
+ * Single threaded context that runs low priority tasks behind normal tasks.
+ * <p>
+ * Tasks submitted via {@link #execute(Runnable)} and scheduled tasks run in the order in which they're submitted,
+ * as with {@link SingleThreadContext}. Tasks submitted via {@link #executeLowPriority(Runnable)} are held in a
+ * separate queue that is drained in small batches, with each batch queued behind the tasks already pending on the
+ * context. This bounds the time a normal task waits behind a backlog of low priority tasks to a single batch,
+ * while all tasks still run on the same thread.
+ */
+public class PrioritizedThreadContext extends SingleThreadContext {
+  private static final int DEFAULT_BATCH_SIZE = 16;
+
+  private final Queue<Runnable> lowPriorityTasks = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private final Runnable drainTask = this::drain;
+  private final int batchSize;
+
+  public PrioritizedThreadContext(String nameFormat) {
+    this(namedThreads(nameFormat, LOGGER));
+  }
+
+  public PrioritizedThreadContext(ThreadFactory factory) {
+    this(factory, DEFAULT_BATCH_SIZE);
+  }
+
+  public PrioritizedThreadContext(ThreadFactory factory, int batchSize) {
+    super(factory);
+    checkArgument(batchSize > 0, "batchSize must be positive");
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Executes a low priority task on the context.
+   * <p>
+   * Low priority tasks run in the order in which they're submitted relative to one another, but may run after
+   * normal tasks that were submitted later.
+   *
+   * @param command the task to execute
+   */
+  public void executeLowPriority(Runnable command) {
+    lowPriorityTasks.add(command);
+    if (draining.compareAndSet(false, true)) {
+      execute(drainTask);
+    }
+  }
+
+  /**
+   * Runs a batch of low priority tasks and requeues the drain task if more tasks are pending.
+   */
+  private void drain() {
+    for (int i = 0; i < batchSize; i++) {
+      Runnable task = lowPriorityTasks.poll();
+      if (task == null) {
+        break;
+      }
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        LOGGER.error("An uncaught exception occurred", e);
+      }
+    }
+
+    if (!lowPriorityTasks.isEmpty()) {
+      execute(drainTask);
+    } else {
+      draining.set(false);
+      if (!lowPriorityTasks.isEmpty() && draining.compareAndSet(false, true)) {
+        execute(drainTask);
+      }
+    }
+  }
+}
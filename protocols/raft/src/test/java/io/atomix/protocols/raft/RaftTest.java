@@ -15,6 +15,7 @@
  */
 package io.atomix.protocols.raft;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import io.atomix.cluster.ClusterMembershipService;
 import io.atomix.cluster.MemberId;
 import io.atomix.primitive.DistributedPrimitiveBuilder;
@@ -40,6 +41,7 @@ import io.atomix.protocols.raft.cluster.RaftClusterEvent;
 import io.atomix.protocols.raft.cluster.RaftMember;
 import io.atomix.protocols.raft.cluster.impl.DefaultRaftMember;
 import io.atomix.protocols.raft.protocol.TestRaftProtocolFactory;
+import io.atomix.protocols.raft.proxy.CommunicationStrategy;
 import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.protocols.raft.storage.log.entry.CloseSessionEntry;
 import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
@@ -127,6 +129,7 @@ public class RaftTest extends ConcurrentTestCase {
   protected volatile List<RaftServer> servers = new ArrayList<>();
   protected volatile TestRaftProtocolFactory protocolFactory;
   protected volatile ThreadContext context;
+  protected volatile int applyThreads = 1;
 
   /**
    * Tests getting session metadata.
@@ -206,6 +209,37 @@ public class RaftTest extends ConcurrentTestCase {
     Thread.sleep(5000);
   }
 
+  /**
+   * Tests serving linearizable queries from a learner.
+   */
+  @Test
+  public void testLearnerLinearizableQuery() throws Throwable {
+    createServers(3);
+    RaftServer learner = createServer(nextNodeId(), true);
+    learner.addRoleChangeListener(s -> {
+      if (s == RaftServer.Role.PASSIVE)
+        resume();
+    });
+    learner.listen(members.stream().map(RaftMember::memberId).collect(Collectors.toList())).thenRun(this::resume);
+    await(10000, 2);
+
+    RaftClient client = createClient();
+    PartitionProxy session = client.proxyBuilder("test", TestPrimitiveType.INSTANCE)
+        .withCommunicationStrategy(CommunicationStrategy.LEARNERS)
+        .withReadConsistency(ReadConsistency.LINEARIZABLE)
+        .withMinTimeout(Duration.ofMillis(250))
+        .withMaxTimeout(Duration.ofSeconds(5))
+        .build()
+        .connect()
+        .get(5, TimeUnit.SECONDS);
+
+    for (int i = 0; i < 10; i++) {
+      long writeIndex = clientSerializer.decode(session.execute(operation(WRITE)).get(10, TimeUnit.SECONDS));
+      long readIndex = clientSerializer.decode(session.execute(operation(READ)).get(10, TimeUnit.SECONDS));
+      assertTrue(readIndex >= writeIndex);
+    }
+  }
+
   /**
    * Submits a bunch of commands recursively.
    */
@@ -292,6 +326,28 @@ public class RaftTest extends ConcurrentTestCase {
     threadAssertTrue(session.getState() == PartitionProxy.State.CONNECTED);
   }
 
+  /**
+   * Tests keeping client sessions with different timeouts alive.
+   */
+  @Test
+  public void testClientKeepAliveMixedTimeouts() throws Throwable {
+    createServers(3);
+    RaftClient client = createClient();
+    PartitionProxy session1 = createSession(client);
+    PartitionProxy session2 = client.proxyBuilder("test-2", TestPrimitiveType.INSTANCE)
+        .withMinTimeout(Duration.ofSeconds(2))
+        .withMaxTimeout(Duration.ofSeconds(5))
+        .build()
+        .connect()
+        .get(5, TimeUnit.SECONDS);
+    Thread.sleep(Duration.ofSeconds(10).toMillis());
+    threadAssertTrue(session1.getState() == PartitionProxy.State.CONNECTED);
+    threadAssertTrue(session2.getState() == PartitionProxy.State.CONNECTED);
+    session2.close().get(5, TimeUnit.SECONDS);
+    Thread.sleep(Duration.ofSeconds(5).toMillis());
+    threadAssertTrue(session1.getState() == PartitionProxy.State.CONNECTED);
+  }
+
   /**
    * Tests an active member joining the cluster.
    */
@@ -492,6 +548,82 @@ public class RaftTest extends ConcurrentTestCase {
     await(30000);
   }
 
+  /**
+   * Tests serving lease-based linearizable queries from the leader.
+   */
+  @Test
+  public void testLeaseQueries() throws Throwable {
+    List<RaftServer> servers = createServers(3);
+
+    RaftClient client = createClient();
+    PartitionProxy session = createSession(client, ReadConsistency.LINEARIZABLE_LEASE);
+    session.execute(operation(WRITE)).get(10, TimeUnit.SECONDS);
+
+    // The client resubmits in-flight operations when it learns of a new leader, so wait for the leader to be known
+    // to ensure each query reaches the leader and is counted exactly once.
+    long deadline = System.currentTimeMillis() + 10000;
+    while (client.leader() == null && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    threadAssertNotNull(client.leader());
+
+    for (int i = 0; i < 10; i++) {
+      session.execute(operation(READ)).thenRun(this::resume);
+    }
+    await(30000, 10);
+
+    long hits = servers.stream().mapToLong(server -> server.getLeaseMonitor().getHits()).sum();
+    long fallbacks = servers.stream().mapToLong(server -> server.getLeaseMonitor().getFallbacks()).sum();
+    threadAssertTrue(hits > 0);
+    threadAssertEquals(10L, hits + fallbacks);
+  }
+
+  /**
+   * Tests applying commands and queries to independent services on multiple threads.
+   */
+  @Test
+  public void testParallelApply() throws Throwable {
+    applyThreads = 4;
+    createServers(3);
+
+    RaftClient client = createClient();
+    List<PartitionProxy> sessions = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      sessions.add(createSession(client, "test-" + i, ReadConsistency.LINEARIZABLE));
+    }
+
+    for (PartitionProxy session : sessions) {
+      for (int i = 0; i < 10; i++) {
+        session.execute(operation(WRITE)).thenRun(this::resume);
+        session.execute(operation(READ)).thenRun(this::resume);
+      }
+    }
+    await(30000, sessions.size() * 20);
+
+    for (PartitionProxy session : sessions) {
+      session.close().thenRun(this::resume);
+    }
+    await(30000, sessions.size());
+  }
+
+  /**
+   * Tests that time spent applying commands on service threads counts towards the load of the state machine.
+   */
+  @Test
+  public void testParallelApplyLoad() throws Throwable {
+    applyThreads = 2;
+    RaftServer server = createServers(1).get(0);
+    RaftClient client = createClient();
+    PartitionProxy session = createSession(client);
+
+    // Keep a service thread busy until the snapshot scheduler has sampled the load.
+    long deadline = System.currentTimeMillis() + 60000;
+    while (server.getCompactionMonitor().getApplyIdleRatio() > .9 && System.currentTimeMillis() < deadline) {
+      session.execute(operation(SLOW)).join();
+    }
+    assertTrue(server.getCompactionMonitor().getApplyIdleRatio() <= .9);
+  }
+
   /**
    * Tests submitting a query.
    */
@@ -1223,6 +1355,13 @@ public class RaftTest extends ConcurrentTestCase {
    * Creates a Raft server.
    */
   private RaftServer createServer(MemberId memberId) {
+    return createServer(memberId, false);
+  }
+
+  /**
+   * Creates a Raft server that is optionally a learner.
+   */
+  private RaftServer createServer(MemberId memberId, boolean learner) {
     RaftServer.Builder builder = RaftServer.builder(memberId)
         .withMembershipService(mock(ClusterMembershipService.class))
         .withProtocol(protocolFactory.newServerProtocol(memberId))
@@ -1233,6 +1372,8 @@ public class RaftTest extends ConcurrentTestCase {
             .withMaxSegmentSize(1024 * 10)
             .withMaxEntriesPerSegment(10)
             .build())
+        .withApplyThreads(applyThreads)
+        .withLearner(learner)
         .addPrimitiveType(TestPrimitiveType.INSTANCE);
 
     RaftServer server = builder.build();
@@ -1267,7 +1408,14 @@ public class RaftTest extends ConcurrentTestCase {
    * Creates a test session.
    */
   private PartitionProxy createSession(RaftClient client, ReadConsistency consistency) throws Exception {
-    return client.proxyBuilder("test", TestPrimitiveType.INSTANCE)
+    return createSession(client, "test", consistency);
+  }
+
+  /**
+   * Creates a test session.
+   */
+  private PartitionProxy createSession(RaftClient client, String name, ReadConsistency consistency) throws Exception {
+    return client.proxyBuilder(name, TestPrimitiveType.INSTANCE)
         .withReadConsistency(consistency)
         .withMinTimeout(Duration.ofMillis(250))
         .withMaxTimeout(Duration.ofSeconds(5))
@@ -1328,6 +1476,7 @@ public class RaftTest extends ConcurrentTestCase {
   private static final OperationId EVENT = OperationId.command("event");
   private static final OperationId EXPIRE = OperationId.command("expire");
   private static final OperationId CLOSE = OperationId.command("close");
+  private static final OperationId SLOW = OperationId.command("slow");
 
   private static final OperationId READ = OperationId.query("read");
 
@@ -1381,6 +1530,7 @@ public class RaftTest extends ConcurrentTestCase {
       executor.register(EVENT, this::event);
       executor.<Void>register(CLOSE, c -> close(c));
       executor.register(EXPIRE, this::expire);
+      executor.register(SLOW, this::slow);
     }
 
     @Override
@@ -1433,6 +1583,11 @@ public class RaftTest extends ConcurrentTestCase {
     public void expire(Commit<Void> commit) {
       this.expire = commit;
     }
+
+    protected long slow(Commit<Void> commit) {
+      Uninterruptibles.sleepUninterruptibly(20, TimeUnit.MILLISECONDS);
+      return commit.index();
+    }
   }
 
   /**
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.impl;
+
+import io.atomix.protocols.raft.storage.log.RaftLog;
+import io.atomix.protocols.raft.storage.log.RaftLogWriter;
+import io.atomix.protocols.raft.storage.log.entry.InitializeEntry;
+import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.SingleThreadContext;
+import io.atomix.utils.concurrent.ThreadContext;
+import io.atomix.utils.serializer.KryoNamespace;
+import io.atomix.utils.serializer.Serializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Raft log flusher test.
+ */
+public class RaftLogFlusherTest {
+  private static final Path PATH = Paths.get("target/test-logs/flusher");
+
+  private RaftLog log;
+  private RaftLogWriter writer;
+  private ThreadContext raftContext;
+  private ThreadContext logContext;
+
+  @Before
+  public void setup() {
+    log = RaftLog.builder()
+        .withName("test")
+        .withSerializer(Serializer.using(KryoNamespace.builder()
+            .register(InitializeEntry.class)
+            .build()))
+        .withStorageLevel(StorageLevel.MEMORY)
+        .build();
+    writer = log.writer();
+    raftContext = new SingleThreadContext("raft-test-%d");
+    logContext = new SingleThreadContext("raft-test-log-%d");
+  }
+
+  @After
+  public void teardown() throws IOException {
+    raftContext.close();
+    logContext.close();
+    log.close();
+    cleanupStorage();
+  }
+
+  @Test
+  public void testCoalesceFlushes() throws Exception {
+    RaftLogFlusher flusher = new RaftLogFlusher(writer, raftContext, logContext, LoggerFactory.getLogger(getClass()));
+    CountDownLatch latch = blockLogContext();
+
+    CompletableFuture<Long> first = onRaft(() -> {
+      append(3);
+      return flusher.flush(1);
+    });
+    CompletableFuture<Long> second = onRaft(() -> {
+      append(1);
+      return flusher.flush(4);
+    });
+    assertFalse(first.isDone());
+    assertFalse(second.isDone());
+    assertEquals(0, (long) onRaft(flusher::getDurableIndex));
+
+    latch.countDown();
+    assertEquals(3, (long) first.get(10, TimeUnit.SECONDS));
+    assertEquals(4, (long) second.get(10, TimeUnit.SECONDS));
+    assertEquals(4, (long) onRaft(flusher::getDurableIndex));
+
+    // Indexes that are already durable complete immediately.
+    assertTrue(onRaft(() -> flusher.flush(2)).isDone());
+  }
+
+  @Test
+  public void testResetDuringFlush() throws Exception {
+    RaftLogFlusher flusher = new RaftLogFlusher(writer, raftContext, logContext, LoggerFactory.getLogger(getClass()));
+    CountDownLatch latch = blockLogContext();
+
+    CompletableFuture<Long> future = onRaft(() -> {
+      append(2);
+      CompletableFuture<Long> result = flusher.flush(2);
+      writer.truncate(1);
+      flusher.reset(1);
+      append(1);
+      return result;
+    });
+
+    latch.countDown();
+    assertEquals(2, (long) future.get(10, TimeUnit.SECONDS));
+    assertEquals(2, (long) onRaft(flusher::getDurableIndex));
+  }
+
+  @Test
+  public void testTruncateDuringFlush() throws Exception {
+    RaftLog mappedLog = RaftLog.builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(Serializer.using(KryoNamespace.builder()
+            .register(InitializeEntry.class)
+            .build()))
+        .withStorageLevel(StorageLevel.MAPPED)
+        .withMaxEntriesPerSegment(10)
+        .build();
+    RaftLogWriter mappedWriter = mappedLog.writer();
+    RaftLogFlusher flusher = new RaftLogFlusher(mappedWriter, raftContext, logContext, LoggerFactory.getLogger(getClass()));
+    try {
+      // Truncate away the segments being flushed on the log thread while the flushes are in progress.
+      List<CompletableFuture<Long>> futures = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        futures.add(onRaft(() -> {
+          append(mappedWriter, 25);
+          CompletableFuture<Long> future = flusher.flush(mappedWriter.getLastIndex());
+          long index = mappedWriter.getLastIndex() - 20;
+          mappedWriter.truncate(index);
+          flusher.reset(index);
+          return future;
+        }));
+      }
+      long lastIndex = onRaft(() -> {
+        append(mappedWriter, 25);
+        return mappedWriter.getLastIndex();
+      });
+      futures.add(onRaft(() -> flusher.flush(lastIndex)));
+
+      for (CompletableFuture<Long> future : futures) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+      assertEquals(lastIndex, (long) onRaft(flusher::getDurableIndex));
+    } finally {
+      flusher.close();
+      mappedLog.close();
+    }
+  }
+
+  @Test
+  public void testCloseAwaitsFlush() throws Exception {
+    RaftLogFlusher flusher = new RaftLogFlusher(writer, raftContext, logContext, LoggerFactory.getLogger(getClass()));
+    CountDownLatch latch = blockLogContext();
+
+    CompletableFuture<Void> closed = CompletableFuture.runAsync(flusher::close);
+    Thread.sleep(100);
+    assertFalse(closed.isDone());
+
+    latch.countDown();
+    closed.get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    RaftLogFlusher flusher = new RaftLogFlusher(writer, raftContext, null, LoggerFactory.getLogger(getClass()));
+    assertFalse(flusher.isEnabled());
+    CompletableFuture<Long> future = onRaft(() -> {
+      append(2);
+      return flusher.flush(2);
+    });
+    assertTrue(future.isDone());
+    assertEquals(2, (long) onRaft(flusher::getDurableIndex));
+  }
+
+  /**
+   * Appends the given number of entries to the log.
+   */
+  private void append(int entries) {
+    append(writer, entries);
+  }
+
+  /**
+   * Appends the given number of entries to the given writer.
+   */
+  private void append(RaftLogWriter writer, int entries) {
+    for (int i = 0; i < entries; i++) {
+      writer.append(new InitializeEntry(1, System.currentTimeMillis()));
+    }
+  }
+
+  /**
+   * Blocks the log context until the returned latch is released.
+   */
+  private CountDownLatch blockLogContext() {
+    CountDownLatch latch = new CountDownLatch(1);
+    logContext.execute(() -> {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    return latch;
+  }
+
+  /**
+   * Runs the given supplier on the Raft context.
+   */
+  private <T> T onRaft(Supplier<T> supplier) throws Exception {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    raftContext.execute(() -> future.complete(supplier.get()));
+    return future.get(10, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Deletes the log directory.
+   */
+  private void cleanupStorage() throws IOException {
+    if (Files.exists(PATH)) {
+      Files.walkFileTree(PATH, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+          Files.delete(file);
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+          Files.delete(dir);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    }
+  }
+}
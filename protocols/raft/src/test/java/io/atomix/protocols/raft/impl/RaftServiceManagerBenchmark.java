@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.impl;
+
+import io.atomix.cluster.ClusterMembershipService;
+import io.atomix.cluster.MemberId;
+import io.atomix.primitive.PrimitiveTypeRegistry;
+import io.atomix.protocols.raft.partition.impl.RaftNamespaces;
+import io.atomix.protocols.raft.protocol.RaftServerProtocol;
+import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.storage.log.RaftLogWriter;
+import io.atomix.protocols.raft.storage.log.entry.KeepAliveEntry;
+import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.ThreadModel;
+import io.atomix.utils.serializer.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Raft service manager benchmark.
+ * <p>
+ * Measures the time taken to replay a committed log through a new {@link RaftServiceManager}, as when a follower
+ * catches up with the leader or a server restarts. The log consists of empty keep-alive entries so the benchmark
+ * is dominated by reading entries and scheduling their application rather than by the state machine itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Droot.logging.level=INFO"})
+public class RaftServiceManagerBenchmark {
+  private static final long[] EMPTY = new long[0];
+
+  @Param({"10000000"})
+  private int entries;
+
+  private RaftStorage storage;
+  private RaftContext raft;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    storage = RaftStorage.builder()
+        .withStorageLevel(StorageLevel.MEMORY)
+        .withDirectory(new File("target/benchmark-logs"))
+        .withSerializer(Serializer.using(RaftNamespaces.RAFT_STORAGE))
+        .withMaxSegmentSize(1024 * 1024 * 64)
+        .withMaxEntriesPerSegment(1024 * 1024)
+        .build();
+    raft = new RaftContext(
+        "test",
+        MemberId.from("1"),
+        mock(ClusterMembershipService.class),
+        mock(RaftServerProtocol.class),
+        storage,
+        mock(PrimitiveTypeRegistry.class),
+        ThreadModel.SHARED_THREAD_POOL,
+        1,
+        1);
+
+    RaftLogWriter writer = raft.getLogWriter();
+    for (int i = 0; i < entries; i++) {
+      writer.append(new KeepAliveEntry(1, System.currentTimeMillis(), EMPTY, EMPTY, EMPTY));
+    }
+    writer.commit(entries);
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    raft.close();
+  }
+
+  @Benchmark
+  public Object replay() throws Exception {
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    raft.getThreadContext().execute(() -> {
+      RaftServiceManager manager = new RaftServiceManager(
+          raft, raft.getServiceManager().executor(), raft.getServiceManager().executor(), null);
+      manager.apply(entries).whenComplete((result, error) -> future.complete(result));
+    });
+    return future.get();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RaftServiceManagerBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
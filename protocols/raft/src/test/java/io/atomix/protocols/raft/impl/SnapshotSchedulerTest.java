@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.impl;
+
+import io.atomix.protocols.raft.utils.CompactionMonitor;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Snapshot scheduler test.
+ */
+public class SnapshotSchedulerTest {
+  private static final long GB = 1024L * 1024 * 1024;
+  private static final long MB = 1024L * 1024;
+
+  @Test
+  public void testSnapshotWhenIdle() throws Exception {
+    CompactionMonitor monitor = new CompactionMonitor();
+    SnapshotScheduler scheduler = new SnapshotScheduler(monitor, 0);
+    scheduler.sample(0, 0, 10 * GB, 0);
+    scheduler.sample(1000, 100, 10 * GB, 10_000_000);
+    assertEquals(SnapshotScheduler.Decision.IDLE, scheduler.decide(1000, 10 * GB, GB, false));
+    assertTrue(monitor.getApplyIdleRatio() > .9);
+    assertEquals(100, monitor.getLogGrowthRate(), 50);
+  }
+
+  @Test
+  public void testDeferWhenBusy() throws Exception {
+    SnapshotScheduler scheduler = new SnapshotScheduler(new CompactionMonitor(), 0);
+    scheduler.sample(0, 0, 10 * GB, 0);
+    scheduler.sample(1000, 100, 10 * GB, 1_000_000_000);
+    scheduler.sample(2000, 200, 10 * GB, 2_000_000_000);
+    assertEquals(SnapshotScheduler.Decision.DEFER, scheduler.decide(2000, 10 * GB, GB, false));
+
+    // An idle state machine is not snapshotted while the server is under high load.
+    SnapshotScheduler idleScheduler = new SnapshotScheduler(new CompactionMonitor(), 0);
+    assertEquals(SnapshotScheduler.Decision.DEFER, idleScheduler.decide(1000, 10 * GB, GB, true));
+  }
+
+  @Test
+  public void testSnapshotAfterMaxDeferral() throws Exception {
+    SnapshotScheduler scheduler = new SnapshotScheduler(new CompactionMonitor(), 0);
+    long deadline = SnapshotScheduler.MAX_SNAPSHOT_DEFERRAL.toMillis();
+    assertEquals(SnapshotScheduler.Decision.DEFER, scheduler.decide(deadline - 1, 10 * GB, GB, true));
+    assertEquals(SnapshotScheduler.Decision.DEADLINE, scheduler.decide(deadline, 10 * GB, GB, true));
+    scheduler.snapshotStarted(deadline);
+    assertEquals(SnapshotScheduler.Decision.DEFER, scheduler.decide(deadline + 1, 10 * GB, GB, true));
+  }
+
+  @Test
+  public void testSnapshotUnderDiskPressure() throws Exception {
+    SnapshotScheduler scheduler = new SnapshotScheduler(new CompactionMonitor(), 0);
+    assertEquals(SnapshotScheduler.Decision.DISK_PRESSURE, scheduler.decide(0, GB - 1, GB, true));
+
+    // Disk is consumed at ~10MB/s with 100MB of headroom, which will be exhausted within the disk horizon.
+    scheduler.sample(0, 0, GB + 120 * MB, 0);
+    scheduler.sample(1000, 1000, GB + 100 * MB, 1_000_000_000);
+    assertEquals(SnapshotScheduler.Decision.DISK_PRESSURE, scheduler.decide(1000, GB + 100 * MB, GB, true));
+    assertEquals(SnapshotScheduler.Decision.DEFER, scheduler.decide(1000, 10 * GB, GB, true));
+  }
+
+  @Test
+  public void testSnapshotSizeReservesHeadroom() throws Exception {
+    SnapshotScheduler scheduler = new SnapshotScheduler(new CompactionMonitor(), 0);
+    assertEquals(SnapshotScheduler.Decision.DEFER, scheduler.decide(0, GB + 100 * MB, GB, true));
+    scheduler.snapshotCompleted(1000, 200 * MB);
+    assertEquals(SnapshotScheduler.Decision.DISK_PRESSURE, scheduler.decide(0, GB + 100 * MB, GB, true));
+  }
+
+  @Test
+  public void testCheckIntervalFollowsLogGrowth() throws Exception {
+    SnapshotScheduler scheduler = new SnapshotScheduler(new CompactionMonitor(), 0);
+    assertEquals(SnapshotScheduler.MAX_CHECK_INTERVAL, scheduler.nextCheck());
+    scheduler.sample(0, 0, 10 * GB, 0);
+    scheduler.sample(1000, 100, 10 * GB, 0);
+    assertEquals(SnapshotScheduler.MIN_CHECK_INTERVAL, scheduler.nextCheck());
+    for (int i = 2; i < 20; i++) {
+      scheduler.sample(i * 1000, 100, 10 * GB, 0);
+    }
+    assertEquals(SnapshotScheduler.MAX_CHECK_INTERVAL, scheduler.nextCheck());
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.primitive.partition.PartitionId;
+import io.atomix.protocols.raft.partition.RaftLeadershipBalancer.PartitionLeadership;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Raft leadership balancer test.
+ */
+public class RaftLeadershipBalancerTest {
+  private static final MemberId A = MemberId.from("a");
+  private static final MemberId B = MemberId.from("b");
+  private static final MemberId C = MemberId.from("c");
+  private static final Collection<MemberId> MEMBERS = Arrays.asList(A, B, C);
+
+  @Test
+  public void testComputeLoads() throws Exception {
+    List<PartitionLeadership> partitions = partitions(A, A, B);
+    Map<MemberId, Double> loads = RaftLeadershipBalancer.computeLoads(partitions);
+    assertEquals(2, loads.get(A), 0);
+    assertEquals(1, loads.get(B), 0);
+    assertEquals(0, loads.get(C), 0);
+  }
+
+  @Test
+  public void testTransferFromMostLoadedLeader() throws Exception {
+    List<PartitionLeadership> partitions = partitions(A, A, A, B, B);
+    Map<MemberId, Double> loads = RaftLeadershipBalancer.computeLoads(partitions);
+    PartitionLeadership transfer = RaftLeadershipBalancer.selectTransfer(C, partitions, loads);
+    assertEquals(A, transfer.leader);
+  }
+
+  @Test
+  public void testNoTransferWhenBalanced() throws Exception {
+    List<PartitionLeadership> partitions = partitions(A, A, B, B, C);
+    Map<MemberId, Double> loads = RaftLeadershipBalancer.computeLoads(partitions);
+    assertNull(RaftLeadershipBalancer.selectTransfer(A, partitions, loads));
+    assertNull(RaftLeadershipBalancer.selectTransfer(B, partitions, loads));
+    assertNull(RaftLeadershipBalancer.selectTransfer(C, partitions, loads));
+  }
+
+  @Test
+  public void testNoTransferToLocalLeader() throws Exception {
+    List<PartitionLeadership> partitions = partitions(A, A, A);
+    Map<MemberId, Double> loads = RaftLeadershipBalancer.computeLoads(partitions);
+    assertNull(RaftLeadershipBalancer.selectTransfer(A, partitions, loads));
+  }
+
+  @Test
+  public void testWeightedTransfer() throws Exception {
+    List<PartitionLeadership> partitions = new ArrayList<>();
+    partitions.add(new PartitionLeadership(PartitionId.from("test", 1), A, MEMBERS, 3));
+    partitions.add(new PartitionLeadership(PartitionId.from("test", 2), B, MEMBERS, 1));
+    partitions.add(new PartitionLeadership(PartitionId.from("test", 3), B, MEMBERS, 1));
+    Map<MemberId, Double> loads = RaftLeadershipBalancer.computeLoads(partitions);
+
+    // Moving the heavy partition from A to C would only move the imbalance, but B's partitions can be spread.
+    assertNull(RaftLeadershipBalancer.selectTransfer(C, partitions.subList(0, 1), loads));
+    PartitionLeadership transfer = RaftLeadershipBalancer.selectTransfer(C, partitions.subList(1, 3), loads);
+    assertEquals(B, transfer.leader);
+  }
+
+  private static List<PartitionLeadership> partitions(MemberId... leaders) {
+    List<PartitionLeadership> partitions = new ArrayList<>();
+    for (int i = 0; i < leaders.length; i++) {
+      partitions.add(new PartitionLeadership(PartitionId.from("test", i + 1), leaders[i], MEMBERS, 1));
+    }
+    return partitions;
+  }
+}
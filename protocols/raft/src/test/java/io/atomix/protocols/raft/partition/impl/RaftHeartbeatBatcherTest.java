@@ -0,0 +1,210 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition.impl;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.ClusterMessagingService;
+import io.atomix.messaging.MessagingException;
+import io.atomix.protocols.raft.protocol.AppendRequest;
+import io.atomix.protocols.raft.protocol.AppendResponse;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Serializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Raft heartbeat batcher test.
+ */
+public class RaftHeartbeatBatcherTest {
+  private static final Serializer SERIALIZER = Serializer.using(RaftNamespaces.RAFT_PROTOCOL);
+  private static final MemberId LEADER = MemberId.from("leader");
+  private static final MemberId FOLLOWER = MemberId.from("follower");
+
+  private final Map<MemberId, TestMessagingService> network = new ConcurrentHashMap<>();
+  private TestMessagingService leaderMessaging;
+  private RaftHeartbeatBatcher leader;
+  private RaftHeartbeatBatcher follower;
+
+  @Before
+  public void setupBatchers() throws Exception {
+    leaderMessaging = new TestMessagingService(LEADER);
+    leader = new RaftHeartbeatBatcher("test", true, Duration.ofMillis(100), SERIALIZER, leaderMessaging);
+    follower = new RaftHeartbeatBatcher("test", false, Duration.ofMillis(100), SERIALIZER, new TestMessagingService(FOLLOWER));
+    leader.start().get(5, TimeUnit.SECONDS);
+    follower.start().get(5, TimeUnit.SECONDS);
+    follower.register("partition-1", this::handleAppend);
+    follower.register("partition-2", this::handleAppend);
+  }
+
+  @After
+  public void teardownBatchers() {
+    leader.stop();
+    follower.stop();
+  }
+
+  private CompletableFuture<AppendResponse> handleAppend(AppendRequest request) {
+    return CompletableFuture.completedFuture(AppendResponse.builder()
+        .withStatus(RaftResponse.Status.OK)
+        .withTerm(request.term())
+        .withSucceeded(true)
+        .withLastLogIndex(request.commitIndex())
+        .build());
+  }
+
+  private AppendRequest createRequest(long term, long commitIndex) {
+    return AppendRequest.builder()
+        .withTerm(term)
+        .withLeader(LEADER)
+        .withPrevLogIndex(commitIndex)
+        .withPrevLogTerm(term)
+        .withEntries(Collections.emptyList())
+        .withCommitIndex(commitIndex)
+        .build();
+  }
+
+  @Test
+  public void testBatchHeartbeats() throws Exception {
+    CompletableFuture<AppendResponse> future1 = leader.append("partition-1", FOLLOWER, createRequest(1, 10));
+    CompletableFuture<AppendResponse> future2 = leader.append("partition-2", FOLLOWER, createRequest(2, 20));
+
+    AppendResponse response1 = future1.get(5, TimeUnit.SECONDS);
+    assertEquals(1, response1.term());
+    assertEquals(10, response1.lastLogIndex());
+    AppendResponse response2 = future2.get(5, TimeUnit.SECONDS);
+    assertEquals(2, response2.term());
+    assertEquals(20, response2.lastLogIndex());
+    assertEquals(1, leaderMessaging.sent.get());
+  }
+
+  @Test
+  public void testDuplicatePartitionHeartbeats() throws Exception {
+    CompletableFuture<AppendResponse> future1 = leader.append("partition-1", FOLLOWER, createRequest(1, 10));
+    CompletableFuture<AppendResponse> future2 = leader.append("partition-1", FOLLOWER, createRequest(1, 11));
+
+    assertEquals(10, future1.get(5, TimeUnit.SECONDS).lastLogIndex());
+    assertEquals(11, future2.get(5, TimeUnit.SECONDS).lastLogIndex());
+    assertEquals(2, leaderMessaging.sent.get());
+  }
+
+  @Test
+  public void testUnknownPartitionHeartbeat() throws Exception {
+    CompletableFuture<AppendResponse> future1 = leader.append("partition-1", FOLLOWER, createRequest(1, 10));
+    CompletableFuture<AppendResponse> future2 = leader.append("partition-3", FOLLOWER, createRequest(3, 30));
+
+    assertEquals(10, future1.get(5, TimeUnit.SECONDS).lastLogIndex());
+    try {
+      future2.get(5, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof MessagingException.NoRemoteHandler);
+    }
+  }
+
+  /**
+   * In-memory messaging service which routes messages between the services in the test network.
+   */
+  private class TestMessagingService implements ClusterMessagingService {
+    private final Map<String, Function<byte[], CompletableFuture<byte[]>>> handlers = new ConcurrentHashMap<>();
+    private final AtomicInteger sent = new AtomicInteger();
+
+    TestMessagingService(MemberId memberId) {
+      network.put(memberId, this);
+    }
+
+    @Override
+    public <M, R> CompletableFuture<R> send(
+        String subject, M message, Function<M, byte[]> encoder, Function<byte[], R> decoder, MemberId toMemberId, Duration timeout) {
+      sent.incrementAndGet();
+      TestMessagingService service = network.get(toMemberId);
+      Function<byte[], CompletableFuture<byte[]>> handler = service != null ? service.handlers.get(subject) : null;
+      if (handler == null) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(new MessagingException.NoRemoteHandler());
+        return future;
+      }
+      return handler.apply(encoder.apply(message)).thenApply(decoder);
+    }
+
+    @Override
+    public <M, R> CompletableFuture<Void> subscribe(
+        String subject, Function<byte[], M> decoder, Function<M, CompletableFuture<R>> handler, Function<R, byte[]> encoder) {
+      handlers.put(subject, bytes -> handler.apply(decoder.apply(bytes)).thenApply(encoder));
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void unsubscribe(String subject) {
+      handlers.remove(subject);
+    }
+
+    @Override
+    public <M> void broadcast(String subject, M message, Function<M, byte[]> encoder) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> void broadcastIncludeSelf(String subject, M message, Function<M, byte[]> encoder) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> CompletableFuture<Void> unicast(String subject, M message, Function<M, byte[]> encoder, MemberId toMemberId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> void multicast(String subject, M message, Function<M, byte[]> encoder, Set<MemberId> memberIds) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M, R> CompletableFuture<Void> subscribe(
+        String subject, Function<byte[], M> decoder, Function<M, R> handler, Function<R, byte[]> encoder, Executor executor) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> CompletableFuture<Void> subscribe(String subject, Function<byte[], M> decoder, Consumer<M> handler, Executor executor) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> CompletableFuture<Void> subscribe(
+        String subject, Function<byte[], M> decoder, BiConsumer<Address, M> handler, Executor executor) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition.impl;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.primitive.operation.OperationType;
+import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.primitive.operation.impl.DefaultOperationId;
+import io.atomix.protocols.raft.RaftError;
+import io.atomix.protocols.raft.protocol.AppendRequest;
+import io.atomix.protocols.raft.protocol.AppendResponse;
+import io.atomix.protocols.raft.protocol.CommandRequest;
+import io.atomix.protocols.raft.protocol.CommandResponse;
+import io.atomix.protocols.raft.protocol.QueryRequest;
+import io.atomix.protocols.raft.protocol.QueryResponse;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
+import io.atomix.protocols.raft.storage.log.entry.InitializeEntry;
+import io.atomix.protocols.raft.storage.log.entry.QueryEntry;
+import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
+import io.atomix.utils.serializer.Serializer;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Raft message serializers test.
+ */
+public class RaftMessageSerializersTest {
+  private static final Serializer SERIALIZER = Serializer.using(RaftNamespaces.RAFT_PROTOCOL);
+  private static final PrimitiveOperation OPERATION = new PrimitiveOperation(
+      new DefaultOperationId("put", OperationType.COMMAND), new byte[]{1, 2, 3});
+
+  private static <T> T copy(T object) {
+    return SERIALIZER.decode(SERIALIZER.encode(object));
+  }
+
+  @Test
+  public void testAppendRequest() {
+    AppendRequest request = AppendRequest.builder()
+        .withTerm(2)
+        .withLeader(MemberId.from("leader"))
+        .withPrevLogIndex(10)
+        .withPrevLogTerm(1)
+        .withEntries(Arrays.<RaftLogEntry>asList(
+            new InitializeEntry(2, 1000),
+            new CommandEntry(2, 1001, 3, 4, OPERATION),
+            new QueryEntry(2, 1002, 3, 5, new PrimitiveOperation(
+                new DefaultOperationId("get", OperationType.QUERY), null))))
+        .withCommitIndex(9)
+        .build();
+    AppendRequest result = copy(request);
+    assertEquals(2, result.term());
+    assertEquals("leader", result.leader().id());
+    assertEquals(10, result.prevLogIndex());
+    assertEquals(1, result.prevLogTerm());
+    assertEquals(9, result.commitIndex());
+    assertEquals(3, result.entries().size());
+    assertTrue(result.entries().get(0) instanceof InitializeEntry);
+    assertEquals(1000, ((InitializeEntry) result.entries().get(0)).timestamp());
+
+    CommandEntry command = (CommandEntry) result.entries().get(1);
+    assertEquals(2, command.term());
+    assertEquals(1001, command.timestamp());
+    assertEquals(3, command.session());
+    assertEquals(4, command.sequenceNumber());
+    assertEquals(OPERATION, command.operation());
+
+    QueryEntry query = (QueryEntry) result.entries().get(2);
+    assertEquals(1002, query.timestamp());
+    assertEquals(5, query.sequenceNumber());
+    assertEquals("get", query.operation().id().id());
+    assertEquals(OperationType.QUERY, query.operation().id().type());
+    assertNull(query.operation().value());
+  }
+
+  @Test
+  public void testAppendResponse() {
+    AppendResponse response = copy(AppendResponse.builder()
+        .withStatus(RaftResponse.Status.OK)
+        .withTerm(3)
+        .withSucceeded(true)
+        .withLastLogIndex(100)
+        .build());
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertNull(response.error());
+    assertEquals(3, response.term());
+    assertTrue(response.succeeded());
+    assertEquals(100, response.lastLogIndex());
+
+    response = copy(AppendResponse.builder()
+        .withStatus(RaftResponse.Status.ERROR)
+        .withError(new RaftError(RaftError.Type.NO_LEADER, null))
+        .withTerm(3)
+        .withSucceeded(false)
+        .build());
+    assertEquals(RaftResponse.Status.ERROR, response.status());
+    assertEquals(RaftError.Type.NO_LEADER, response.error().type());
+    assertFalse(response.succeeded());
+  }
+
+  @Test
+  public void testOperationRequests() {
+    CommandRequest command = new CommandRequest(1, 2, OPERATION);
+    assertEquals(command, copy(command));
+
+    QueryRequest query = copy(new QueryRequest(1, 2, OPERATION, 3));
+    assertEquals(1, query.session());
+    assertEquals(2, query.sequenceNumber());
+    assertEquals(3, query.index());
+    assertEquals(OPERATION, query.operation());
+  }
+
+  @Test
+  public void testOperationResponses() {
+    CommandResponse command = new CommandResponse(RaftResponse.Status.OK, null, 1, 2, new byte[]{4}, 3);
+    assertEquals(command, copy(command));
+
+    QueryResponse query = copy(new QueryResponse(
+        RaftResponse.Status.ERROR, new RaftError(RaftError.Type.QUERY_FAILURE, "failed"), 0, 0, null, 0));
+    assertEquals(RaftResponse.Status.ERROR, query.status());
+    assertEquals(RaftError.Type.QUERY_FAILURE, query.error().type());
+    assertEquals("failed", query.error().message());
+    assertNull(query.result());
+
+    query = copy(new QueryResponse(RaftResponse.Status.OK, null, 1, 2, new byte[0], 3));
+    assertArrayEquals(new byte[0], query.result());
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition.impl;
+
+import io.atomix.primitive.operation.OperationType;
+import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.primitive.operation.impl.DefaultOperationId;
+import io.atomix.protocols.raft.RaftError;
+import io.atomix.protocols.raft.protocol.AppendRequest;
+import io.atomix.protocols.raft.protocol.CommandRequest;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
+import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
+import io.atomix.utils.serializer.KryoNamespace;
+import io.atomix.utils.serializer.KryoNamespaces;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raft protocol serialization benchmark.
+ * <p>
+ * Compares the explicit serializers registered in {@link RaftNamespaces#RAFT_PROTOCOL} with Kryo's default field
+ * serializer for the same types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Droot.logging.level=INFO"})
+public class RaftNamespacesBenchmark {
+  private static final KryoNamespace FIELD_NAMESPACE = KryoNamespace.builder()
+      .register(KryoNamespaces.BASIC)
+      .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID)
+      .register(AppendRequest.class)
+      .register(CommandRequest.class)
+      .register(CommandEntry.class)
+      .register(PrimitiveOperation.class)
+      .register(DefaultOperationId.class)
+      .register(OperationType.class)
+      .register(RaftResponse.Status.class)
+      .register(RaftError.class)
+      .register(RaftError.Type.class)
+      .register(ArrayList.class)
+      .build();
+
+  @Param({"field", "explicit"})
+  private String serializer;
+
+  @Param({"1", "64"})
+  private int entries;
+
+  private KryoNamespace namespace;
+  private AppendRequest appendRequest;
+  private byte[] appendBytes;
+  private CommandRequest commandRequest;
+  private byte[] commandBytes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    namespace = serializer.equals("explicit") ? RaftNamespaces.RAFT_PROTOCOL : FIELD_NAMESPACE;
+    List<RaftLogEntry> entries = new ArrayList<>();
+    for (int i = 0; i < this.entries; i++) {
+      entries.add(new CommandEntry(1, System.currentTimeMillis(), 1, i, operation()));
+    }
+    appendRequest = new AppendRequest(1, "leader", 1000, 1, entries, 1000);
+    appendBytes = namespace.serialize(appendRequest);
+    commandRequest = new CommandRequest(1, 1, operation());
+    commandBytes = namespace.serialize(commandRequest);
+  }
+
+  private static PrimitiveOperation operation() {
+    return new PrimitiveOperation(new DefaultOperationId("put", OperationType.COMMAND), new byte[64]);
+  }
+
+  @Benchmark
+  public byte[] encodeAppend() {
+    return namespace.serialize(appendRequest);
+  }
+
+  @Benchmark
+  public Object decodeAppend() {
+    return namespace.deserialize(appendBytes);
+  }
+
+  @Benchmark
+  public byte[] encodeCommand() {
+    return namespace.serialize(commandRequest);
+  }
+
+  @Benchmark
+  public Object decodeCommand() {
+    return namespace.deserialize(commandBytes);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(RaftNamespacesBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+  }
+}
@@ -23,6 +23,7 @@ import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -147,4 +148,32 @@ public class MemberSelectorTest {
     assertTrue(selector.hasNext());
   }
 
+  /**
+   * Tests selecting members using the LEARNERS selector.
+   */
+  @Test
+  public void testSelectLearners() throws Exception {
+    MemberSelectorManager selectorManager = new MemberSelectorManager();
+    MemberSelector selector = selectorManager.createSelector(CommunicationStrategy.LEARNERS);
+
+    selectorManager.resetAll(
+        MemberId.from("a"),
+        Arrays.asList(MemberId.from("a"), MemberId.from("b"), MemberId.from("c"), MemberId.from("d")),
+        Arrays.asList(MemberId.from("d")));
+    assertEquals(MemberId.from("a"), selector.leader());
+    assertEquals(1, selector.learners().size());
+    assertEquals(MemberId.from("d"), selector.next());
+    assertNotEquals(MemberId.from("a"), selector.next());
+    assertNotEquals(MemberId.from("a"), selector.next());
+    assertEquals(MemberId.from("a"), selector.next());
+    assertFalse(selector.hasNext());
+
+    selectorManager.resetAll(MemberId.from("a"), Arrays.asList(MemberId.from("a"), MemberId.from("b"), MemberId.from("c")));
+    assertEquals(1, selector.learners().size());
+    assertNotEquals(MemberId.from("a"), selector.next());
+    assertNotEquals(MemberId.from("a"), selector.next());
+    assertEquals(MemberId.from("a"), selector.next());
+    assertFalse(selector.hasNext());
+  }
+
 }
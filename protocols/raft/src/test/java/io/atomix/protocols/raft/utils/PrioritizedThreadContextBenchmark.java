@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.utils;
+
+import io.atomix.utils.concurrent.SingleThreadContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prioritized thread context benchmark.
+ * <p>
+ * Measures how long a heartbeat waits to be handled on the Raft server thread when the thread is saturated by a
+ * backlog of client requests. Without prioritization the heartbeat waits behind the entire backlog, which can exceed
+ * the election timeout and cause followers to start elections under load. With prioritization it waits for at
+ * most one batch of client requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Droot.logging.level=INFO"})
+public class PrioritizedThreadContextBenchmark {
+
+  @Param({"false", "true"})
+  private boolean prioritized;
+
+  @Param({"10000"})
+  private int backlog;
+
+  @Param({"10000"})
+  private int requestTokens;
+
+  private PrioritizedThreadContext context;
+  private CountDownLatch drained;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context = new PrioritizedThreadContext("raft-benchmark-%d");
+  }
+
+  @Setup(Level.Invocation)
+  public void fillBacklog() {
+    drained = new CountDownLatch(backlog);
+    Runnable request = () -> {
+      Blackhole.consumeCPU(requestTokens);
+      drained.countDown();
+    };
+    for (int i = 0; i < backlog; i++) {
+      if (prioritized) {
+        context.executeLowPriority(request);
+      } else {
+        context.execute(request);
+      }
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void drainBacklog() throws InterruptedException {
+    drained.await();
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Object heartbeat() throws Exception {
+    CompletableFuture<Long> future = new CompletableFuture<>();
+    context.execute(() -> future.complete(System.nanoTime()));
+    return future.get();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(PrioritizedThreadContextBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
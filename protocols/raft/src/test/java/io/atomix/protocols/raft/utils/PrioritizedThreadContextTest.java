@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.utils;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Prioritized thread context test.
+ */
+public class PrioritizedThreadContextTest {
+  private static final Logger LOGGER = LoggerFactory.getLogger(PrioritizedThreadContextTest.class);
+
+  @Test
+  public void testNormalTasksRunAheadOfLowPriorityBacklog() throws Exception {
+    PrioritizedThreadContext context = new PrioritizedThreadContext(namedThreads("test-%d", LOGGER), 4);
+    try {
+      CountDownLatch blocked = new CountDownLatch(1);
+      context.execute(() -> {
+        try {
+          blocked.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+
+      List<Integer> order = new CopyOnWriteArrayList<>();
+      CountDownLatch done = new CountDownLatch(101);
+      for (int i = 0; i < 100; i++) {
+        int value = i;
+        context.executeLowPriority(() -> {
+          order.add(value);
+          done.countDown();
+        });
+      }
+      context.execute(() -> {
+        order.add(-1);
+        done.countDown();
+      });
+      blocked.countDown();
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+
+      // The normal task must run after at most one batch of low priority tasks.
+      assertTrue(order.indexOf(-1) <= 4);
+
+      // Low priority tasks must run in the order in which they were submitted.
+      order.remove(Integer.valueOf(-1));
+      for (int i = 0; i < 100; i++) {
+        assertEquals(i, order.get(i).intValue());
+      }
+    } finally {
+      context.close();
+    }
+  }
+
+  @Test
+  public void testLowPriorityTaskFailure() throws Exception {
+    PrioritizedThreadContext context = new PrioritizedThreadContext(namedThreads("test-%d", LOGGER), 4);
+    try {
+      CountDownLatch done = new CountDownLatch(1);
+      context.executeLowPriority(() -> {
+        throw new IllegalStateException();
+      });
+      context.executeLowPriority(done::countDown);
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+    } finally {
+      context.close();
+    }
+  }
+}
@@ -15,6 +15,8 @@
  */
 package io.atomix.storage.buffer;
 
+import io.atomix.utils.serializer.Serializer;
+
 import java.nio.charset.Charset;
 import java.util.function.Function;
 
@@ -114,6 +116,19 @@ public interface BufferInput<T extends BufferInput<?>> extends AutoCloseable {
     return decoder.apply(bytes);
   }
 
+  /**
+   * Reads an object from the buffer.
+   * <p>
+   * The object is read into a reusable {@link SerializationBuffer} rather than a new byte array and decoded from there.
+   *
+   * @param serializer the object serializer
+   * @param <U> the type of the object to read
+   * @return the read object.
+   */
+  default <U> U readObject(Serializer serializer) {
+    return SerializationBuffer.decode(this, readInt(), serializer);
+  }
+
   /**
    * Reads a byte array.
    *
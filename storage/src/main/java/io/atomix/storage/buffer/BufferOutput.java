@@ -15,6 +15,9 @@
  */
 package io.atomix.storage.buffer;
 
+import io.atomix.utils.serializer.Serializer;
+
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.function.Function;
 
@@ -86,6 +89,23 @@ public interface BufferOutput<T extends BufferOutput<?>> extends AutoCloseable {
     return (T) this;
   }
 
+  /**
+   * Writes an object to the buffer.
+   * <p>
+   * The object is encoded into a reusable {@link SerializationBuffer} rather than a new byte array, and is written in
+   * the same length prefixed format as {@link #writeObject(Object, Function)}.
+   *
+   * @param object the object to write
+   * @param serializer the object serializer
+   * @return The written buffer.
+   */
+  @SuppressWarnings("unchecked")
+  default <U> T writeObject(U object, Serializer serializer) {
+    ByteBuffer buffer = SerializationBuffer.encode(object, serializer);
+    writeInt(buffer.limit()).write(buffer.array(), 0, buffer.limit());
+    return (T) this;
+  }
+
   /**
    * Writes a byte array.
    *
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.buffer;
+
+import io.atomix.utils.serializer.SerializationOverflowException;
+import io.atomix.utils.serializer.Serializer;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Thread-local scratch buffer for serializing objects to and from {@link BufferOutput}s and {@link BufferInput}s.
+ * <p>
+ * Objects are encoded with {@link Serializer#encode(Object, ByteBuffer)} directly into a reusable heap buffer rather
+ * than into a newly materialized byte array, and decoded from the same buffer with
+ * {@link Serializer#decode(ByteBuffer)}. If an object doesn't fit, the buffer is replaced by one of the size the
+ * object requires and the object is encoded again. Buffers larger than {@link #MAX_RETAINED_SIZE} are replaced
+ * before the next use so large objects are not retained by the thread.
+ * <p>
+ * A buffer returned by this class is only valid until the next call on the same thread.
+ */
+public final class SerializationBuffer {
+  private static final int INITIAL_SIZE = 4096;
+  static final int MAX_RETAINED_SIZE = 1024 * 1024;
+  private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_SIZE));
+
+  private SerializationBuffer() {
+  }
+
+  /**
+   * Returns the current thread's scratch buffer, cleared and with at least the given capacity.
+   */
+  private static ByteBuffer buffer(int capacity) {
+    ByteBuffer buffer = BUFFER.get();
+    if (buffer.capacity() < capacity || buffer.capacity() > Math.max(capacity, MAX_RETAINED_SIZE)) {
+      buffer = ByteBuffer.allocate(Math.max(capacity, INITIAL_SIZE));
+      BUFFER.set(buffer);
+    }
+    buffer.clear();
+    return buffer;
+  }
+
+  /**
+   * Encodes the given object into the current thread's scratch buffer.
+   *
+   * @param object     the object to encode
+   * @param serializer the serializer with which to encode the object
+   * @return a heap buffer containing the encoded object between position {@code 0} and its limit
+   */
+  public static ByteBuffer encode(Object object, Serializer serializer) {
+    ByteBuffer buffer = buffer(0);
+    for (;;) {
+      try {
+        serializer.encode(object, buffer);
+        buffer.flip();
+        return buffer;
+      } catch (SerializationOverflowException e) {
+        buffer = buffer(e.size());
+      } catch (BufferOverflowException e) {
+        buffer = buffer(buffer.capacity() * 2);
+      }
+    }
+  }
+
+  /**
+   * Reads an object of the given length from the input and decodes it.
+   *
+   * @param input      the input from which to read the object
+   * @param length     the encoded length of the object
+   * @param serializer the serializer with which to decode the object
+   * @param <T>        the object type
+   * @return the decoded object
+   */
+  public static <T> T decode(BufferInput<?> input, int length, Serializer serializer) {
+    ByteBuffer buffer = buffer(length);
+    input.read(buffer.array(), 0, length);
+    buffer.limit(length);
+    return serializer.decode(buffer);
+  }
+}
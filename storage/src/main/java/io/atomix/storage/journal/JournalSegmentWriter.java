@@ -20,9 +20,11 @@ import io.atomix.storage.buffer.Buffer;
 import io.atomix.storage.buffer.FileBuffer;
 import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.storage.buffer.MappedBuffer;
+import io.atomix.storage.buffer.SerializationBuffer;
 import io.atomix.storage.buffer.SlicedBuffer;
 import io.atomix.storage.journal.index.JournalIndex;
 
+import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
 
@@ -187,13 +189,13 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
     // Store the entry index.
     final long index = getNextIndex();
 
-    // Serialize the entry.
-    final byte[] bytes = serializer.encode(entry);
-    final int length = bytes.length;
+    // Serialize the entry into the thread's reusable serialization buffer.
+    final ByteBuffer bytes = SerializationBuffer.encode(entry, serializer);
+    final int length = bytes.limit();
 
     // Compute the checksum for the entry.
     final Checksum crc32 = new CRC32();
-    crc32.update(bytes, 0, length);
+    crc32.update(bytes.array(), 0, length);
     final long checksum = crc32.getValue();
 
     // Record the current buffer position;
@@ -202,7 +204,7 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
     // Write the entry length and entry to the segment.
     buffer.writeInt(length)
         .writeUnsignedInt(checksum)
-        .write(bytes);
+        .write(bytes.array(), 0, length);
 
     // Update the last entry with the correct index/term/length.
     Indexed<E> indexedEntry = new Indexed<>(index, entry, length);
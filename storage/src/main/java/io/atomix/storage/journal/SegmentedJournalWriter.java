@@ -19,13 +19,19 @@ import java.nio.BufferOverflowException;
 
 /**
  * Log writer.
+ * <p>
+ * The writer may be {@link #flush() flushed} from a thread other than the one appending to it. Flushes are mutually
+ * exclusive with {@link #reset(long) resets}, {@link #truncate(long) truncations}, rolling over to a new segment and
+ * {@link #close() closing} the writer, so a segment is never flushed while it's being closed or deleted.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
 public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   private final SegmentedJournal<E> journal;
   private JournalSegment<E> currentSegment;
-  private JournalSegmentWriter<E> currentWriter;
+  // Volatile so the writer may be flushed from a thread other than the one appending to it.
+  private volatile JournalSegmentWriter<E> currentWriter;
+  private boolean open = true;
 
   public SegmentedJournalWriter(SegmentedJournal<E> journal) {
     this.journal = journal;
@@ -53,7 +59,7 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
    *
    * @param index the index to which to reset the head of the journal
    */
-  public void reset(long index) {
+  public synchronized void reset(long index) {
     currentWriter.close();
     currentSegment = journal.resetSegments(index);
     currentWriter = currentSegment.writer();
@@ -64,18 +70,14 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   public <T extends E> Indexed<T> append(T entry) {
     try {
       if (currentWriter.isFull()) {
-        currentWriter.flush();
-        currentSegment = journal.getNextSegment();
-        currentWriter = currentSegment.writer();
+        nextSegment();
       }
       return currentWriter.append(entry);
     } catch (BufferOverflowException e) {
       if (currentWriter.firstIndex() == currentWriter.getNextIndex()) {
         throw e;
       }
-      currentWriter.flush();
-      currentSegment = journal.getNextSegment();
-      currentWriter = currentSegment.writer();
+      nextSegment();
       return currentWriter.append(entry);
     }
   }
@@ -84,24 +86,29 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   public void append(Indexed<E> entry) {
     try {
       if (currentWriter.isFull()) {
-        currentWriter.flush();
-        currentSegment = journal.getNextSegment();
-        currentWriter = currentSegment.writer();
+        nextSegment();
       }
       currentWriter.append(entry);
     } catch (BufferOverflowException e) {
       if (currentWriter.firstIndex() == currentWriter.getNextIndex()) {
         throw e;
       }
-      currentWriter.flush();
-      currentSegment = journal.getNextSegment();
-      currentWriter = currentSegment.writer();
+      nextSegment();
       currentWriter.append(entry);
     }
   }
 
+  /**
+   * Flushes the current segment and rolls over to the next segment.
+   */
+  private synchronized void nextSegment() {
+    currentWriter.flush();
+    currentSegment = journal.getNextSegment();
+    currentWriter = currentSegment.writer();
+  }
+
   @Override
-  public void truncate(long index) {
+  public synchronized void truncate(long index) {
     // Delete all segments with first indexes greater than the given index.
     while (index < currentWriter.firstIndex() - 1) {
       currentWriter.close();
@@ -118,12 +125,15 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   }
 
   @Override
-  public void flush() {
-    currentWriter.flush();
+  public synchronized void flush() {
+    if (open) {
+      currentWriter.flush();
+    }
   }
 
   @Override
-  public void close() {
+  public synchronized void close() {
+    open = false;
     currentWriter.close();
   }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.buffer;
+
+import io.atomix.utils.serializer.KryoNamespaces;
+import io.atomix.utils.serializer.Serializer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Serialization buffer test.
+ */
+public class SerializationBufferTest {
+  private static final Serializer SERIALIZER = Serializer.using(KryoNamespaces.BASIC);
+
+  @Test
+  public void testWriteReadObject() {
+    Buffer buffer = HeapBuffer.allocate();
+    buffer.writeObject("foo", SERIALIZER)
+        .writeObject(null, SERIALIZER)
+        .writeObject(1L, SERIALIZER);
+    buffer.flip();
+    assertEquals("foo", buffer.readObject(SERIALIZER));
+    assertNull(buffer.readObject(SERIALIZER));
+    assertEquals(Long.valueOf(1), buffer.readObject(SERIALIZER));
+  }
+
+  @Test
+  public void testCompatibleWithByteArrayEncoding() {
+    Buffer buffer = HeapBuffer.allocate();
+    buffer.writeObject("foo", SERIALIZER::encode);
+    buffer.writeObject("bar", SERIALIZER);
+    buffer.flip();
+    assertEquals("foo", buffer.readObject(SERIALIZER));
+    assertEquals("bar", buffer.<String>readObject(SERIALIZER::decode));
+  }
+
+  @Test
+  public void testEncodeLargeObject() {
+    byte[] bytes = new byte[SerializationBuffer.MAX_RETAINED_SIZE * 2];
+    Arrays.fill(bytes, (byte) 1);
+    ByteBuffer encoded = SerializationBuffer.encode(bytes, SERIALIZER);
+    assertEquals(0, encoded.position());
+    assertTrue(encoded.limit() > bytes.length);
+    assertArrayEquals(SERIALIZER.encode(bytes), Arrays.copyOf(encoded.array(), encoded.limit()));
+
+    // The retry buffer is sized from the length of the encoded object.
+    assertEquals(encoded.limit(), encoded.capacity());
+
+    // Large buffers are replaced rather than retained for subsequent objects.
+    ByteBuffer small = SerializationBuffer.encode("foo", SERIALIZER);
+    assertTrue(small.capacity() <= SerializationBuffer.MAX_RETAINED_SIZE);
+    assertEquals("foo", SERIALIZER.decode(small));
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.misc;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable byte array key.
+ * <p>
+ * Byte array keys wrap the serialized form of a key so it can be stored in hash based collections and sent over the
+ * wire without further encoding. The murmur3 hash of the bytes is computed once on construction and cached, so it can
+ * be used both as the key's {@link #hashCode()} and to partition keys without rehashing them.
+ */
+public final class ByteArrayKey implements Comparable<ByteArrayKey> {
+
+  /**
+   * Returns a key wrapping a copy of the given bytes.
+   *
+   * @param bytes the key bytes
+   * @return the byte array key
+   */
+  public static ByteArrayKey copyOf(byte[] bytes) {
+    return new ByteArrayKey(Arrays.copyOf(bytes, bytes.length));
+  }
+
+  /**
+   * Returns a key wrapping the given bytes without copying them.
+   * <p>
+   * The caller must not modify the bytes once they've been wrapped.
+   *
+   * @param bytes the key bytes
+   * @return the byte array key
+   */
+  public static ByteArrayKey wrap(byte[] bytes) {
+    return new ByteArrayKey(bytes);
+  }
+
+  private final byte[] bytes;
+  private final int hash;
+
+  private ByteArrayKey(byte[] bytes) {
+    this.bytes = checkNotNull(bytes, "bytes cannot be null");
+    this.hash = Hashing.murmur3_32().hashBytes(bytes).asInt();
+  }
+
+  /**
+   * Returns the key bytes.
+   * <p>
+   * The returned array is not copied and must not be modified.
+   *
+   * @return the key bytes
+   */
+  public byte[] bytes() {
+    return bytes;
+  }
+
+  /**
+   * Returns the number of bytes in the key.
+   *
+   * @return the number of bytes in the key
+   */
+  public int length() {
+    return bytes.length;
+  }
+
+  @Override
+  public int compareTo(ByteArrayKey other) {
+    int length = Math.min(bytes.length, other.bytes.length);
+    for (int i = 0; i < length; i++) {
+      int compare = Byte.toUnsignedInt(bytes[i]) - Byte.toUnsignedInt(other.bytes[i]);
+      if (compare != 0) {
+        return compare;
+      }
+    }
+    return bytes.length - other.bytes.length;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof ByteArrayKey) {
+      ByteArrayKey that = (ByteArrayKey) object;
+      return hash == that.hash && Arrays.equals(bytes, that.bytes);
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return BaseEncoding.base16().encode(bytes);
+  }
+}
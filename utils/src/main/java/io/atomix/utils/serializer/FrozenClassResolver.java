@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Registration;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.util.DefaultClassResolver;
+
+import java.util.Arrays;
+
+/**
+ * Class resolver that dispatches registered class IDs through an array rather than a hash map.
+ * <p>
+ * Registrations are mirrored into an array indexed by registration ID, so reading a class from the wire is a single
+ * array load. Once {@link #freeze() frozen}, the registration table can no longer be modified, which allows the table
+ * of a namespace that requires registration to be fixed when the Kryo instance is created.
+ */
+final class FrozenClassResolver extends DefaultClassResolver {
+  private Registration[] registrations;
+  private boolean frozen;
+
+  FrozenClassResolver(int expectedSize) {
+    this.registrations = new Registration[Math.max(expectedSize, 16)];
+  }
+
+  /**
+   * Freezes the registration table.
+   */
+  void freeze() {
+    frozen = true;
+  }
+
+  @Override
+  public Registration register(Registration registration) {
+    if (frozen) {
+      throw new IllegalStateException("Cannot register " + registration.getType() + ": registrations are frozen");
+    }
+    Registration result = super.register(registration);
+    int id = registration.getId();
+    if (id >= 0) {
+      if (id >= registrations.length) {
+        registrations = Arrays.copyOf(registrations, Math.max(id + 1, registrations.length * 2));
+      }
+      registrations[id] = registration;
+    }
+    return result;
+  }
+
+  @Override
+  public Registration getRegistration(int classId) {
+    return classId >= 0 && classId < registrations.length ? registrations[classId] : null;
+  }
+
+  @Override
+  public Registration readClass(Input input) {
+    int classId = input.readVarInt(true);
+    switch (classId) {
+      case Kryo.NULL:
+        return null;
+      case NAME + 2: // Offset for NAME and NULL.
+        return readName(input);
+      default:
+        break;
+    }
+    int id = classId - 2;
+    Registration registration = id < registrations.length ? registrations[id] : null;
+    if (registration == null) {
+      throw new KryoException("Encountered unregistered class ID: " + id);
+    }
+    return registration;
+  }
+}
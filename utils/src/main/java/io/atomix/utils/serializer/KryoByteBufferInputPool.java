@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import com.esotericsoftware.kryo.io.ByteBufferInput;
+
+import java.nio.ByteBuffer;
+
+class KryoByteBufferInputPool extends KryoIOPool<ByteBufferInput> {
+
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+
+    @Override
+    protected ByteBufferInput create(int bufferSize) {
+        return new ByteBufferInput();
+    }
+
+    @Override
+    protected boolean recycle(ByteBufferInput input) {
+        // Release the caller's buffer so that it is not retained by the thread.
+        input.setBuffer(EMPTY_BUFFER);
+        return true;
+    }
+}
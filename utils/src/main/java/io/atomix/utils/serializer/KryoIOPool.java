@@ -16,37 +16,82 @@
 package io.atomix.utils.serializer;
 
 import java.lang.ref.SoftReference;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
 
+/**
+ * Thread-confined pool of serialization resources.
+ * <p>
+ * Each thread caches a single idle element, so borrowing and recycling an element on the same thread neither
+ * allocates nor touches shared state. Elements are created on demand when the thread's element is already in use,
+ * e.g. when serialization is reentered from within a serializer, and the most recently recycled element is retained.
+ * The idle element is only softly reachable, so the garbage collector can reclaim it under memory pressure or once
+ * the pool itself is no longer reachable.
+ *
+ * @param <T> pooled element type
+ */
 abstract class KryoIOPool<T> {
 
-    private final Queue<SoftReference<T>> queue = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Slot<T>> slots = ThreadLocal.withInitial(Slot::new);
+
+    /**
+     * Borrows an element from the current thread's slot, creating a new element if the slot is empty.
+     *
+     * @param bufferSize the buffer size with which to create a new element
+     * @return the borrowed element
+     */
+    T borrow(final int bufferSize) {
+        return borrow(slots.get(), bufferSize);
+    }
 
-    private T borrow(final int bufferSize) {
-        T element;
-        SoftReference<T> reference;
-        while ((reference = queue.poll()) != null) {
-            if ((element = reference.get()) != null) {
+    private T borrow(final Slot<T> slot, final int bufferSize) {
+        if (slot.idle) {
+            slot.idle = false;
+            final T element = slot.element.get();
+            if (element != null) {
                 return element;
             }
         }
         return create(bufferSize);
     }
 
+    /**
+     * Releases the given element to the current thread's slot if it can be recycled.
+     *
+     * @param element the element to release
+     */
+    void release(final T element) {
+        release(slots.get(), element);
+    }
+
+    private void release(final Slot<T> slot, final T element) {
+        if (recycle(element)) {
+            // Reuse the reference when the same element is recycled again to avoid allocating in the steady state.
+            if (slot.element == null || slot.element.get() != element) {
+                slot.element = new SoftReference<>(element);
+            }
+            slot.idle = true;
+        }
+    }
+
     protected abstract T create(final int bufferSize);
 
     protected abstract boolean recycle(final T element);
 
     <R> R run(final Function<T, R> function, final int bufferSize) {
-        final T element = borrow(bufferSize);
+        final Slot<T> slot = slots.get();
+        final T element = borrow(slot, bufferSize);
         try {
             return function.apply(element);
         } finally {
-            if (recycle(element)) {
-                queue.offer(new SoftReference<>(element));
-            }
+            release(slot, element);
         }
     }
+
+    /**
+     * Per-thread element holder.
+     */
+    private static final class Slot<T> {
+        private SoftReference<T> element;
+        private boolean idle;
+    }
 }
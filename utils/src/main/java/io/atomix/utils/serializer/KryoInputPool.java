@@ -20,6 +20,7 @@ import com.esotericsoftware.kryo.io.Input;
 class KryoInputPool extends KryoIOPool<Input> {
 
     static final int MAX_POOLED_BUFFER_SIZE = 512 * 1024;
+    private static final byte[] EMPTY_BUFFER = new byte[0];
 
     @Override
     protected Input create(int bufferSize) {
@@ -30,6 +31,8 @@ class KryoInputPool extends KryoIOPool<Input> {
     protected boolean recycle(Input input) {
         if (input.getBuffer().length < MAX_POOLED_BUFFER_SIZE) {
             input.setInputStream(null);
+            // Release the buffer, which may be a caller's byte array, so that it is not retained by the thread.
+            input.setBuffer(EMPTY_BUFFER);
             return true;
         }
         return false; // discard
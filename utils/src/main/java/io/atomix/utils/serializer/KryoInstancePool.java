@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.pool.KryoFactory;
+
+/**
+ * Thread-confined pool of {@link Kryo} instances.
+ */
+class KryoInstancePool extends KryoIOPool<Kryo> {
+
+    private final KryoFactory factory;
+
+    KryoInstancePool(KryoFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    protected Kryo create(int bufferSize) {
+        return factory.create();
+    }
+
+    @Override
+    protected boolean recycle(Kryo kryo) {
+        return true;
+    }
+}
@@ -19,19 +19,19 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.ByteBufferInput;
-import com.esotericsoftware.kryo.io.ByteBufferOutput;
 import com.esotericsoftware.kryo.pool.KryoCallback;
 import com.esotericsoftware.kryo.pool.KryoFactory;
 import com.esotericsoftware.kryo.pool.KryoPool;
 import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
+import com.esotericsoftware.kryo.util.MapReferenceResolver;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.atomix.utils.config.ConfigurationException;
 import org.apache.commons.lang3.tuple.Pair;
 import org.objenesis.strategy.StdInstantiatorStrategy;
 import org.slf4j.Logger;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -46,6 +46,12 @@ import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Pool of Kryo instances, with classes pre-registered.
+ * <p>
+ * Kryo instances and the buffers used to serialize and deserialize byte arrays are confined to the threads that use
+ * them, so steady state serialization on a thread does not contend with other threads or allocate pooling state.
+ * Buffers are shared by all namespaces, so each thread retains at most one small output buffer regardless of how
+ * many namespaces it uses, and idle Kryo instances are only softly reachable so they can be reclaimed under memory
+ * pressure or once their namespace is discarded.
  */
 //@ThreadSafe
 public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
@@ -71,20 +77,22 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
 
   private static final Logger log = getLogger(KryoNamespace.class);
 
+  private static final KryoOutputPool OUTPUT_POOL = new KryoOutputPool();
+  private static final KryoInputPool INPUT_POOL = new KryoInputPool();
+  private static final KryoByteBufferOutputPool BYTE_BUFFER_OUTPUT_POOL = new KryoByteBufferOutputPool();
+  private static final KryoByteBufferInputPool BYTE_BUFFER_INPUT_POOL = new KryoByteBufferInputPool();
+
   /**
    * Default Kryo namespace.
    */
   public static Namespace DEFAULT = builder().build();
 
-  private final KryoPool kryoPool = new KryoPool.Builder(this)
-      .softReferences()
-      .build();
-
-  private final KryoOutputPool kryoOutputPool = new KryoOutputPool();
-  private final KryoInputPool kryoInputPool = new KryoInputPool();
+  private final KryoInstancePool kryoPool = new KryoInstancePool(this);
 
   private final ImmutableList<RegistrationBlock> registeredBlocks;
 
+  private final int registrationTableSize;
+  private final ImmutableSet<Class<?>> untrackedTypes;
   private final boolean compatible;
   private final boolean registrationRequired;
   private final String friendlyName;
@@ -99,6 +107,7 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
     private List<RegistrationBlock> blocks = new ArrayList<>();
     private boolean registrationRequired = true;
     private boolean compatible = false;
+    private boolean references = true;
 
     /**
      * Builds a {@link KryoNamespace} instance.
@@ -117,7 +126,7 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
      */
     public KryoNamespace build(String friendlyName) {
       if (!types.isEmpty()) {
-        blocks.add(new RegistrationBlock(this.blockHeadId, types));
+        blocks.add(new RegistrationBlock(this.blockHeadId, types, references));
       }
       return new KryoNamespace(blocks, registrationRequired, compatible, friendlyName).populate(1);
     }
@@ -139,7 +148,7 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
                 id, blockHeadId, types.size(), new RuntimeException());
           }
         }
-        blocks.add(new RegistrationBlock(this.blockHeadId, types));
+        blocks.add(new RegistrationBlock(this.blockHeadId, types, references));
         types = new ArrayList<>();
       }
       this.blockHeadId = id;
@@ -184,7 +193,7 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
         // flush pending types
         final int addedBlockBegin = blockHeadId + types.size();
         nextId(addedBlockBegin);
-        blocks.add(new RegistrationBlock(addedBlockBegin, block.types()));
+        blocks.add(new RegistrationBlock(addedBlockBegin, block.types(), block.references()));
         nextId(addedBlockBegin + block.types().size());
       }
       return this;
@@ -225,6 +234,9 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
 
     /**
      * Sets the registrationRequired flag.
+     * <p>
+     * When registration is required, the registration table of each Kryo instance is frozen once the namespace's types
+     * have been registered, and class IDs are resolved through an array indexed by registration ID.
      *
      * @param registrationRequired Kryo's registrationRequired flag
      * @return this
@@ -234,6 +246,22 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
       this.registrationRequired = registrationRequired;
       return this;
     }
+
+    /**
+     * Sets whether Kryo tracks references to instances of the types registered directly with this builder.
+     * <p>
+     * References should only be disabled for immutable value types, which are then written in full each time they
+     * occur in an object graph as Kryo does for strings. The setting is retained when the namespace is registered
+     * with another namespace, and doesn't apply to the types of namespaces registered with this builder.
+     *
+     * @param references whether references to the registered types are tracked
+     * @return this
+     * @see com.esotericsoftware.kryo.ReferenceResolver#useReferences(Class)
+     */
+    public Builder setReferences(boolean references) {
+      this.references = references;
+      return this;
+    }
   }
 
   /**
@@ -255,13 +283,13 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
         if (type.getId() == null) {
           types.add(Pair.of(new Class[]{type.getType()}, type.getSerializer().newInstance()));
         } else {
-          blocks.add(new RegistrationBlock(type.getId(), Collections.singletonList(Pair.of(new Class[]{type.getType()}, type.getSerializer().newInstance()))));
+          blocks.add(new RegistrationBlock(type.getId(), Collections.singletonList(Pair.of(new Class[]{type.getType()}, type.getSerializer().newInstance())), true));
         }
       } catch (InstantiationException | IllegalAccessException e) {
         throw new ConfigurationException("Failed to instantiate serializer from configuration", e);
       }
     }
-    blocks.add(new RegistrationBlock(KryoNamespaces.BEGIN_USER_CUSTOM_ID, types));
+    blocks.add(new RegistrationBlock(KryoNamespaces.BEGIN_USER_CUSTOM_ID, types, true));
     return blocks;
   }
 
@@ -282,11 +310,50 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
                         boolean compatible,
                         String friendlyName) {
     this.registeredBlocks = ImmutableList.copyOf(registeredTypes);
+    this.registrationTableSize = registrationTableSize(registeredBlocks);
+    this.untrackedTypes = untrackedTypes(registeredBlocks);
     this.registrationRequired = registrationRequired;
     this.compatible = compatible;
     this.friendlyName = checkNotNull(friendlyName);
   }
 
+  /**
+   * Computes the size of the registration table required to index the given blocks by registration ID.
+   *
+   * @param blocks the registration blocks
+   * @return the registration table size
+   */
+  private static int registrationTableSize(List<RegistrationBlock> blocks) {
+    int size = INITIAL_ID;
+    int floating = 0;
+    for (RegistrationBlock block : blocks) {
+      if (block.begin() == FLOATING_ID) {
+        floating += block.types().size();
+      } else {
+        size = Math.max(size, block.begin() + block.types().size());
+      }
+    }
+    return size + floating;
+  }
+
+  /**
+   * Returns the types registered in blocks for which references are not tracked.
+   *
+   * @param blocks the registration blocks
+   * @return the types for which references are not tracked
+   */
+  private static ImmutableSet<Class<?>> untrackedTypes(List<RegistrationBlock> blocks) {
+    ImmutableSet.Builder<Class<?>> types = ImmutableSet.builder();
+    for (RegistrationBlock block : blocks) {
+      if (!block.references()) {
+        for (Pair<Class<?>[], Serializer<?>> entry : block.types()) {
+          types.add(entry.getLeft());
+        }
+      }
+    }
+    return types.build();
+  }
+
   /**
    * Populates the Kryo pool.
    *
@@ -321,12 +388,17 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
    * @return serialized bytes
    */
   public byte[] serialize(final Object obj, final int bufferSize) {
-    return kryoOutputPool.run(output -> {
+    return OUTPUT_POOL.run(output -> {
       return kryoPool.run(kryo -> {
         kryo.writeClassAndObject(output, obj);
+        // If the object fit in the output buffer, nothing was flushed to the stream and the buffer can be copied
+        // directly rather than being copied through the stream.
+        if (output.getByteArrayOutputStream().size() == 0) {
+          return output.toBytes();
+        }
         output.flush();
         return output.getByteArrayOutputStream().toByteArray();
-      });
+      }, bufferSize);
     }, bufferSize);
   }
 
@@ -335,16 +407,23 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
    *
    * @param obj    Object to serialize
    * @param buffer to write to
+   * @throws SerializationOverflowException if the object does not fit in the buffer's remaining capacity
    */
   public void serialize(final Object obj, final ByteBuffer buffer) {
-    ByteBufferOutput out = new ByteBufferOutput(buffer);
-    Kryo kryo = borrow();
-    try {
-      kryo.writeClassAndObject(out, obj);
-      out.flush();
-    } finally {
-      release(kryo);
-    }
+    // Borrow a pooled output and point it at the caller's buffer rather than allocating a new output for each object.
+    BYTE_BUFFER_OUTPUT_POOL.run(output -> {
+      int position = buffer.position();
+      output.setBuffer(buffer);
+      kryoPool.run(kryo -> {
+        kryo.writeClassAndObject(output, obj);
+        return null;
+      }, DEFAULT_BUFFER_SIZE);
+      if (output.overflowed()) {
+        buffer.position(position);
+        throw new SerializationOverflowException(output.size());
+      }
+      return null;
+    }, DEFAULT_BUFFER_SIZE);
   }
 
   /**
@@ -365,14 +444,19 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
    * @param bufferSize size of the buffer in front of the stream
    */
   public void serialize(final Object obj, final OutputStream stream, final int bufferSize) {
-    ByteBufferOutput out = new ByteBufferOutput(stream, bufferSize);
-    Kryo kryo = borrow();
-    try {
-      kryo.writeClassAndObject(out, obj);
-      out.flush();
-    } finally {
-      release(kryo);
-    }
+    // Borrow a pooled output and point it at the stream rather than allocating a new buffer for each object.
+    OUTPUT_POOL.run(output -> {
+      output.setOutputStream(stream);
+      try {
+        return kryoPool.run(kryo -> {
+          kryo.writeClassAndObject(output, obj);
+          output.flush();
+          return null;
+        }, bufferSize);
+      } finally {
+        output.setOutputStream(output.getByteArrayOutputStream());
+      }
+    }, bufferSize);
   }
 
   /**
@@ -383,13 +467,13 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
    * @return deserialized Object
    */
   public <T> T deserialize(final byte[] bytes) {
-    return kryoInputPool.run(input -> {
-      input.setInputStream(new ByteArrayInputStream(bytes));
+    return INPUT_POOL.run(input -> {
+      input.setBuffer(bytes);
       return kryoPool.run(kryo -> {
         @SuppressWarnings("unchecked")
         T obj = (T) kryo.readClassAndObject(input);
         return obj;
-      });
+      }, DEFAULT_BUFFER_SIZE);
     }, DEFAULT_BUFFER_SIZE);
   }
 
@@ -401,15 +485,14 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
    * @return deserialized Object
    */
   public <T> T deserialize(final ByteBuffer buffer) {
-    ByteBufferInput in = new ByteBufferInput(buffer);
-    Kryo kryo = borrow();
-    try {
-      @SuppressWarnings("unchecked")
-      T obj = (T) kryo.readClassAndObject(in);
-      return obj;
-    } finally {
-      release(kryo);
-    }
+    return BYTE_BUFFER_INPUT_POOL.run(input -> {
+      input.setBuffer(buffer);
+      return kryoPool.run(kryo -> {
+        @SuppressWarnings("unchecked")
+        T obj = (T) kryo.readClassAndObject(input);
+        return obj;
+      }, DEFAULT_BUFFER_SIZE);
+    }, DEFAULT_BUFFER_SIZE);
   }
 
   /**
@@ -466,7 +549,14 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
   @Override
   public Kryo create() {
     log.trace("Creating Kryo instance for {}", this);
-    Kryo kryo = new Kryo();
+    FrozenClassResolver classResolver = new FrozenClassResolver(registrationTableSize);
+
+    Kryo kryo = new Kryo(classResolver, untrackedTypes.isEmpty() ? new MapReferenceResolver() : new MapReferenceResolver() {
+      @Override
+      public boolean useReferences(Class type) {
+        return super.useReferences(type) && !untrackedTypes.contains(type);
+      }
+    });
     kryo.setRegistrationRequired(registrationRequired);
 
     // If compatible serialization is enabled, override the default serializer.
@@ -487,6 +577,11 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
         register(kryo, entry.getLeft(), entry.getRight(), id++);
       }
     }
+
+    // If registration is required, no types can be registered after this point, so freeze the registration table.
+    if (registrationRequired) {
+      classResolver.freeze();
+    }
     return kryo;
   }
 
@@ -539,7 +634,7 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
 
   @Override
   public Kryo borrow() {
-    return kryoPool.borrow();
+    return kryoPool.borrow(DEFAULT_BUFFER_SIZE);
   }
 
   @Override
@@ -549,7 +644,7 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
 
   @Override
   public <T> T run(KryoCallback<T> callback) {
-    return kryoPool.run(callback);
+    return kryoPool.run(callback::execute, DEFAULT_BUFFER_SIZE);
   }
 
   @Override
@@ -569,10 +664,12 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
   static final class RegistrationBlock {
     private final int begin;
     private final ImmutableList<Pair<Class<?>[], Serializer<?>>> types;
+    private final boolean references;
 
-    public RegistrationBlock(int begin, List<Pair<Class<?>[], Serializer<?>>> types) {
+    public RegistrationBlock(int begin, List<Pair<Class<?>[], Serializer<?>>> types, boolean references) {
       this.begin = begin;
       this.types = ImmutableList.copyOf(types);
+      this.references = references;
     }
 
     public int begin() {
@@ -583,11 +680,16 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
       return types;
     }
 
+    public boolean references() {
+      return references;
+    }
+
     @Override
     public String toString() {
       return MoreObjects.toStringHelper(getClass())
           .add("begin", begin)
           .add("types", types)
+          .add("references", references)
           .toString();
     }
 
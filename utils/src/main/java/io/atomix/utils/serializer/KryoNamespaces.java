@@ -21,7 +21,9 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import io.atomix.utils.misc.ByteArrayKey;
 import io.atomix.utils.serializer.serializers.ArraysAsListSerializer;
+import io.atomix.utils.serializer.serializers.ByteArrayKeySerializer;
 import io.atomix.utils.serializer.serializers.ImmutableListSerializer;
 import io.atomix.utils.serializer.serializers.ImmutableMapSerializer;
 import io.atomix.utils.serializer.serializers.ImmutableSetSerializer;
@@ -99,6 +101,21 @@ public final class KryoNamespaces {
      */
     public static final int BEGIN_USER_CUSTOM_ID = 500;
 
+    /**
+     * Kryo registration Id for {@link ByteArrayKey}.
+     */
+    public static final int BYTE_ARRAY_KEY_ID = BEGIN_USER_CUSTOM_ID - 1;
+
+    /**
+     * Namespace for {@link ByteArrayKey}, registered with a fixed ID so that registering it doesn't change the IDs of
+     * types registered after it. References to byte array keys are not tracked.
+     */
+    public static final KryoNamespace BYTE_ARRAY_KEY = KryoNamespace.builder()
+            .nextId(BYTE_ARRAY_KEY_ID)
+            .setReferences(false)
+            .register(new ByteArrayKeySerializer(), ByteArrayKey.class)
+            .build("BYTE_ARRAY_KEY");
+
     // not to be instantiated
     private KryoNamespaces() {
     }
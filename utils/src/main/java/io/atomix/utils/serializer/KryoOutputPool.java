@@ -15,10 +15,16 @@
  */
 package io.atomix.utils.serializer;
 
+/**
+ * Pool of byte array outputs.
+ * <p>
+ * Outputs whose buffers grew to {@link #MAX_POOLED_BUFFER_SIZE} are discarded rather than retained by the thread,
+ * so serializing a large object allocates a buffer for that call only.
+ */
 class KryoOutputPool extends KryoIOPool<ByteArrayOutput> {
 
     private static final int MAX_BUFFER_SIZE = 768 * 1024;
-    static final int MAX_POOLED_BUFFER_SIZE = 512 * 1024;
+    static final int MAX_POOLED_BUFFER_SIZE = 16 * 1024;
 
     @Override
     protected ByteArrayOutput create(int bufferSize) {
@@ -27,7 +33,8 @@ class KryoOutputPool extends KryoIOPool<ByteArrayOutput> {
 
     @Override
     protected boolean recycle(ByteArrayOutput output) {
-        if (output.getByteArrayOutputStream().getBufferSize() < MAX_POOLED_BUFFER_SIZE) {
+        if (output.getBuffer().length < MAX_POOLED_BUFFER_SIZE
+            && output.getByteArrayOutputStream().getBufferSize() < MAX_POOLED_BUFFER_SIZE) {
             output.getByteArrayOutputStream().reset();
             output.clear();
             return true;
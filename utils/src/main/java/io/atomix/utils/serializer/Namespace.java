@@ -85,9 +85,12 @@ public interface Namespace {
 
   /**
    * Serializes given object to byte buffer using Kryo instance in pool.
+   * <p>
+   * The object is written at the buffer's current position, and the position is advanced past the written bytes.
    *
    * @param obj    Object to serialize
    * @param buffer to write to
+   * @throws SerializationOverflowException if the object does not fit in the buffer's remaining capacity
    */
   void serialize(final Object obj, final ByteBuffer buffer);
 
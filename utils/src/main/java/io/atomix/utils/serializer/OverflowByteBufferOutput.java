@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import com.esotericsoftware.kryo.io.ByteBufferOutput;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte buffer output that measures objects which overflow its buffer.
+ * <p>
+ * Once a write requires more than the buffer's remaining space, the output stops writing to the buffer and directs
+ * the remaining writes to a scratch buffer whose contents are discarded. Serialization then completes without Kryo
+ * failing on the full buffer, and {@link #size()} reports the number of bytes the object requires.
+ */
+class OverflowByteBufferOutput extends ByteBufferOutput {
+  private static final int SCRATCH_SIZE = 1024;
+
+  private ByteBuffer buffer;
+  private ByteBuffer scratch;
+  private int start;
+  private int discarded;
+  private boolean overflowed;
+
+  @Override
+  public void setBuffer(ByteBuffer buffer, int maxBufferSize) {
+    super.setBuffer(buffer, maxBufferSize);
+    this.buffer = buffer;
+    this.capacity = buffer.limit();
+    this.start = buffer.position();
+    this.discarded = 0;
+    this.overflowed = false;
+
+    // Don't retain scratch buffers grown by large writes.
+    if (scratch != null && scratch.capacity() > SCRATCH_SIZE) {
+      scratch = null;
+    }
+  }
+
+  /**
+   * Returns whether the object written to the output overflowed the buffer.
+   *
+   * @return whether the output overflowed
+   */
+  boolean overflowed() {
+    return overflowed;
+  }
+
+  /**
+   * Returns the number of bytes written to the output since the buffer was set, including discarded bytes.
+   *
+   * @return the number of bytes written
+   */
+  int size() {
+    return discarded + position - start;
+  }
+
+  @Override
+  protected boolean require(int required) {
+    if (capacity - position >= required) {
+      return false;
+    }
+
+    discarded += position - start;
+    if (scratch == null || scratch.capacity() < required) {
+      scratch = ByteBuffer.allocate(Math.max(required, SCRATCH_SIZE));
+    }
+    scratch.clear();
+    scratch.order(buffer.order());
+    niobuffer = scratch;
+    capacity = scratch.capacity();
+    position = 0;
+    start = 0;
+    overflowed = true;
+    return true;
+  }
+}
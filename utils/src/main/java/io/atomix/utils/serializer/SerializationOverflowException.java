@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import java.nio.BufferOverflowException;
+
+/**
+ * Exception thrown when a serialized object does not fit in the remaining capacity of the buffer it's written to.
+ * <p>
+ * The exception reports the number of bytes required to serialize the object, so the caller can retry with a buffer
+ * of sufficient size.
+ */
+public class SerializationOverflowException extends BufferOverflowException {
+  private final int size;
+
+  public SerializationOverflowException(int size) {
+    this.size = size;
+  }
+
+  /**
+   * Returns the number of bytes required to serialize the object.
+   *
+   * @return the serialized size of the object
+   */
+  public int size() {
+    return size;
+  }
+}
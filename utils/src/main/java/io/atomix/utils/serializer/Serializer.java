@@ -16,6 +16,11 @@
 
 package io.atomix.utils.serializer;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
 /**
  * Interface for serialization of store artifacts.
  */
@@ -39,6 +44,60 @@ public interface Serializer {
    */
   <T> T decode(byte[] bytes);
 
+  /**
+   * Serialize the specified object to the given output stream.
+   * <p>
+   * Implementations that support streaming should override this method to write directly to the stream rather than
+   * materializing an intermediate byte array.
+   *
+   * @param object object to serialize.
+   * @param output the output stream to which to write the object.
+   * @param <T>    encoded type
+   */
+  default <T> void encode(T object, OutputStream output) {
+    try {
+      output.write(encode(object));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Serialize the specified object to the given buffer.
+   * <p>
+   * The object is written at the buffer's current position, and the position is advanced past the written bytes.
+   * Implementations that support streaming should override this method to write directly to the buffer rather than
+   * materializing an intermediate byte array.
+   *
+   * @param object object to serialize.
+   * @param buffer the buffer to which to write the object.
+   * @param <T>    encoded type
+   * @throws SerializationOverflowException if the object does not fit in the buffer's remaining capacity
+   */
+  default <T> void encode(T object, ByteBuffer buffer) {
+    byte[] bytes = encode(object);
+    if (bytes.length > buffer.remaining()) {
+      throw new SerializationOverflowException(bytes.length);
+    }
+    buffer.put(bytes);
+  }
+
+  /**
+   * Deserialize the specified buffer.
+   * <p>
+   * The object is read from the buffer's current position. Implementations that support streaming should override
+   * this method to read directly from the buffer rather than copying it to an intermediate byte array.
+   *
+   * @param buffer buffer to deserialize.
+   * @param <T>    decoded type
+   * @return deserialized object.
+   */
+  default <T> T decode(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return decode(bytes);
+  }
+
   /**
    * Creates a new Serializer instance from a Namespace.
    *
@@ -56,6 +115,21 @@ public interface Serializer {
       public <T> T decode(byte[] bytes) {
         return namespace.deserialize(bytes);
       }
+
+      @Override
+      public <T> void encode(T object, OutputStream output) {
+        namespace.serialize(object, output);
+      }
+
+      @Override
+      public <T> void encode(T object, ByteBuffer buffer) {
+        namespace.serialize(object, buffer);
+      }
+
+      @Override
+      public <T> T decode(ByteBuffer buffer) {
+        return namespace.deserialize(buffer);
+      }
     };
   }
 
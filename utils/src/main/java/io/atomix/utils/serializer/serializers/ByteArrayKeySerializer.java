@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer.serializers;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import io.atomix.utils.misc.ByteArrayKey;
+
+/**
+ * Creates {@link ByteArrayKey} serializer instance.
+ */
+public class ByteArrayKeySerializer extends Serializer<ByteArrayKey> {
+
+    /**
+     * Creates {@link ByteArrayKey} serializer instance.
+     */
+    public ByteArrayKeySerializer() {
+        // non-null, immutable
+        super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, ByteArrayKey object) {
+        output.writeVarInt(object.length(), true);
+        output.writeBytes(object.bytes());
+    }
+
+    @Override
+    public ByteArrayKey read(Kryo kryo, Input input, Class<ByteArrayKey> type) {
+        return ByteArrayKey.wrap(input.readBytes(input.readVarInt(true)));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FrozenClassResolverTest {
+
+    private static final KryoNamespace NAMESPACE = KryoNamespace.builder()
+        .register(KryoNamespaces.BASIC)
+        .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID + 1000)
+        .register(TestObject.class)
+        .build();
+
+    @Test
+    public void testRoundTrip() {
+        List<Object> list = Lists.newArrayList("foo", 1L, new TestObject("bar"), null);
+        List<Object> result = NAMESPACE.deserialize(NAMESPACE.serialize(list));
+        assertEquals(list, result);
+    }
+
+    @Test
+    public void testArrayDispatch() {
+        Kryo kryo = NAMESPACE.borrow();
+        try {
+            assertTrue(kryo.getClassResolver() instanceof FrozenClassResolver);
+            int id = KryoNamespaces.BEGIN_USER_CUSTOM_ID + 1000;
+            assertEquals(TestObject.class, kryo.getRegistration(id).getType());
+            assertEquals(id, kryo.getRegistration(TestObject.class).getId());
+        } finally {
+            NAMESPACE.release(kryo);
+        }
+    }
+
+    @Test
+    public void testFrozenRegistrations() {
+        Kryo kryo = NAMESPACE.borrow();
+        try {
+            kryo.register(UnregisteredObject.class);
+            fail();
+        } catch (IllegalStateException e) {
+        } finally {
+            NAMESPACE.release(kryo);
+        }
+
+        try {
+            NAMESPACE.serialize(new UnregisteredObject());
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testRegistrationNotRequired() {
+        KryoNamespace namespace = KryoNamespace.builder()
+            .register(KryoNamespaces.BASIC)
+            .setRegistrationRequired(false)
+            .build();
+        UnregisteredObject object = namespace.deserialize(namespace.serialize(new UnregisteredObject()));
+        assertEquals(UnregisteredObject.class, object.getClass());
+        ArrayList<String> list = namespace.deserialize(namespace.serialize(Lists.newArrayList("foo")));
+        assertEquals("foo", list.get(0));
+    }
+
+    private static class TestObject {
+        private final String value;
+
+        TestObject(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof TestObject && ((TestObject) object).value.equals(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+
+    private static class UnregisteredObject {
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kryo namespace benchmark.
+ * <p>
+ * Measures encode and decode throughput of a namespace shared by all benchmark threads, both to and from byte arrays
+ * and to and from caller-provided buffers. Run with the GC profiler (as {@link #main(String[])} does) to report
+ * allocation per operation for each thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KryoNamespaceBenchmark {
+  private static final KryoNamespace NAMESPACE = KryoNamespace.builder()
+      .register(KryoNamespaces.BASIC)
+      .build();
+
+  @Param({"16", "1024", "65536"})
+  private int payloadSize;
+
+  private List<Object> object;
+  private byte[] bytes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    object = new ArrayList<>();
+    object.add("raft-partition-1");
+    object.add(1234L);
+    object.add(new byte[payloadSize]);
+    bytes = NAMESPACE.serialize(object);
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return NAMESPACE.serialize(object);
+  }
+
+  @Benchmark
+  public Object decode() {
+    return NAMESPACE.deserialize(bytes);
+  }
+
+  @Benchmark
+  public ByteBuffer encodeToBuffer(ThreadBuffer buffer) {
+    buffer.buffer.clear();
+    NAMESPACE.serialize(object, buffer.buffer);
+    return buffer.buffer;
+  }
+
+  @Benchmark
+  public Object decodeFromBuffer(ThreadBuffer buffer) {
+    buffer.buffer.clear();
+    buffer.buffer.put(bytes).flip();
+    return NAMESPACE.deserialize(buffer.buffer);
+  }
+
+  /**
+   * Caller-provided buffer into which each benchmark thread encodes objects.
+   */
+  @State(Scope.Thread)
+  public static class ThreadBuffer {
+    private final ByteBuffer buffer = ByteBuffer.allocate(128 * 1024);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    for (int threads : new int[]{1, 4, 16}) {
+      new Runner(new OptionsBuilder()
+          .include(KryoNamespaceBenchmark.class.getSimpleName())
+          .threads(threads)
+          .addProfiler(GCProfiler.class)
+          .build())
+          .run();
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import io.atomix.utils.misc.ByteArrayKey;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Kryo namespace test.
+ */
+public class KryoNamespaceTest {
+
+    @Test
+    public void testFixedIdNamespaceRegistration() {
+        KryoNamespace namespace = KryoNamespace.builder()
+            .register(KryoNamespaces.BASIC)
+            .register(TestObject.class)
+            .build();
+        KryoNamespace byteArrayKeyNamespace = KryoNamespace.builder()
+            .register(KryoNamespaces.BASIC)
+            .register(KryoNamespaces.BYTE_ARRAY_KEY)
+            .register(TestObject.class)
+            .build();
+
+        int id = getId(namespace, TestObject.class);
+        assertEquals(KryoNamespace.INITIAL_ID + KryoNamespaces.BASIC.size(), id);
+        assertEquals(KryoNamespaces.BYTE_ARRAY_KEY_ID + 1, getId(byteArrayKeyNamespace, TestObject.class));
+        assertEquals(KryoNamespaces.BYTE_ARRAY_KEY_ID, getId(byteArrayKeyNamespace, ByteArrayKey.class));
+
+        KryoNamespace nested = KryoNamespace.builder()
+            .register(byteArrayKeyNamespace)
+            .register(UntrackedObject.class)
+            .build();
+        assertEquals(KryoNamespaces.BYTE_ARRAY_KEY_ID, getId(nested, ByteArrayKey.class));
+        assertEquals(KryoNamespaces.BYTE_ARRAY_KEY_ID + 2, getId(nested, UntrackedObject.class));
+    }
+
+    @Test
+    public void testUntrackedReferences() {
+        KryoNamespace namespace = KryoNamespace.builder()
+            .register(KryoNamespaces.BASIC)
+            .register(KryoNamespaces.BYTE_ARRAY_KEY)
+            .build();
+        Kryo kryo = namespace.borrow();
+        try {
+            assertFalse(kryo.getReferenceResolver().useReferences(ByteArrayKey.class));
+            assertTrue(kryo.getReferenceResolver().useReferences(ArrayList.class));
+        } finally {
+            namespace.release(kryo);
+        }
+
+        ByteArrayKey key = ByteArrayKey.wrap("foo".getBytes());
+        List<ByteArrayKey> keys = Lists.newArrayList(key, key);
+        List<ByteArrayKey> result = namespace.deserialize(namespace.serialize(keys));
+        assertEquals(keys, result);
+
+        KryoNamespace tracked = KryoNamespace.builder()
+            .register(KryoNamespaces.BASIC)
+            .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID)
+            .register(UntrackedObject.class)
+            .build();
+        kryo = tracked.borrow();
+        try {
+            assertTrue(kryo.getReferenceResolver().useReferences(UntrackedObject.class));
+        } finally {
+            tracked.release(kryo);
+        }
+
+        KryoNamespace untracked = KryoNamespace.builder()
+            .register(KryoNamespaces.BASIC)
+            .register(KryoNamespace.builder()
+                .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID)
+                .setReferences(false)
+                .register(UntrackedObject.class)
+                .build())
+            .build();
+        kryo = untracked.borrow();
+        try {
+            assertFalse(kryo.getReferenceResolver().useReferences(UntrackedObject.class));
+            assertTrue(kryo.getReferenceResolver().useReferences(ArrayList.class));
+        } finally {
+            untracked.release(kryo);
+        }
+    }
+
+    @Test
+    public void testSerializeOverflow() {
+        KryoNamespace namespace = KryoNamespace.builder()
+            .register(KryoNamespaces.BASIC)
+            .build();
+        List<Object> list = Lists.newArrayList(Strings.repeat("foo", 1000), new byte[5000], 1L, "bar");
+        byte[] bytes = namespace.serialize(list);
+
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length * 2);
+        buffer.position(bytes.length + 1);
+        try {
+            namespace.serialize(list, buffer);
+            fail();
+        } catch (SerializationOverflowException e) {
+            assertEquals(bytes.length, e.size());
+            assertEquals(bytes.length + 1, buffer.position());
+        }
+
+        buffer.position(bytes.length);
+        namespace.serialize(list, buffer);
+        assertEquals(bytes.length * 2, buffer.position());
+        buffer.position(bytes.length);
+        List<Object> result = namespace.deserialize(buffer);
+        assertEquals(list.get(0), result.get(0));
+        assertEquals(5000, ((byte[]) result.get(1)).length);
+        assertEquals(list.subList(2, 4), result.subList(2, 4));
+    }
+
+    private static int getId(KryoNamespace namespace, Class<?> type) {
+        Kryo kryo = namespace.borrow();
+        try {
+            return kryo.getRegistration(type).getId();
+        } finally {
+            namespace.release(kryo);
+        }
+    }
+
+    private static class TestObject {
+    }
+
+    private static class UntrackedObject {
+    }
+}
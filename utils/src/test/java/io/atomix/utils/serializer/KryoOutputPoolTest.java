@@ -45,6 +45,21 @@ public class KryoOutputPoolTest {
         assertTrue(result[0] != result[1]);
     }
 
+    @Test
+    public void discardGrownOutput() {
+        final Output[] result = new Output[2];
+        kryoOutputPool.run(output -> {
+            output.writeBytes(new byte[KryoOutputPool.MAX_POOLED_BUFFER_SIZE * 2]);
+            result[0] = output;
+            return null;
+        }, KryoNamespace.DEFAULT_BUFFER_SIZE);
+        kryoOutputPool.run(output -> {
+            result[1] = output;
+            return null;
+        }, 0);
+        assertTrue(result[0] != result[1]);
+    }
+
     @Test
     public void recycleOutput() {
         final ByteArrayOutput[] result = new ByteArrayOutput[2];